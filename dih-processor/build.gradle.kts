@@ -0,0 +1,23 @@
+plugins {
+    `java-library`
+}
+
+repositories {
+    mavenCentral()
+}
+
+dependencies {
+    // The processor only refers to the library by name, the tests compile interactions against it
+    testImplementation(project(":lib"))
+    testImplementation("org.junit.jupiter:junit-jupiter:5.9.3")
+}
+
+tasks.named<Test>("test") {
+    // Use JUnit Platform for unit tests.
+    useJUnitPlatform()
+}
+
+java {
+    sourceCompatibility = JavaVersion.VERSION_17
+    targetCompatibility = JavaVersion.VERSION_17
+}
@@ -0,0 +1,234 @@
+package net.fellbaum.dih.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Filer;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.ProcessingEnvironment;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Generates an {@code InteractionRegistry} of all classes annotated with {@code @RegisterInteraction}, so a bot can
+ * register its commands and components without scanning the classpath or using reflection.
+ * <p>
+ * The generated class is {@value #DEFAULT_REGISTRY_NAME} unless another name is given with the processor option
+ * {@value #REGISTRY_OPTION}, for example {@code -Adih.registry=com.example.BotInteractions}. Annotated classes which
+ * cannot be created with a public constructor without parameters fail the compilation.
+ */
+public final class InteractionRegistryProcessor extends AbstractProcessor {
+
+    /**
+     * The processor option with the fully qualified name of the generated registry.
+     */
+    public static final String REGISTRY_OPTION = "dih.registry";
+
+    /**
+     * The fully qualified name of the generated registry if no other name is given.
+     */
+    public static final String DEFAULT_REGISTRY_NAME = "net.fellbaum.dih.generated.GeneratedInteractionRegistry";
+
+    private static final String REGISTER_INTERACTION = "net.fellbaum.dih.interaction.RegisterInteraction";
+    private static final String INTERACTION = "net.fellbaum.dih.interaction.Interaction";
+    private static final String INTERACTION_REGISTRY = "net.fellbaum.dih.interaction.InteractionRegistry";
+
+    /**
+     * The annotated classes by their canonical name, sorted so the generated registry does not depend on the order
+     * the compiler passes them in.
+     */
+    private final Map<String, TypeElement> interactions = new TreeMap<>();
+
+    private Messager messager;
+    private Filer filer;
+    private boolean failed;
+    private boolean written;
+
+    @Override
+    public synchronized void init(final ProcessingEnvironment processingEnv) {
+        super.init(processingEnv);
+        this.messager = processingEnv.getMessager();
+        this.filer = processingEnv.getFiler();
+    }
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Set.of(REGISTER_INTERACTION);
+    }
+
+    @Override
+    public Set<String> getSupportedOptions() {
+        return Set.of(REGISTRY_OPTION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+        final TypeElement annotation = processingEnv.getElementUtils().getTypeElement(REGISTER_INTERACTION);
+        final TypeElement interactionType = processingEnv.getElementUtils().getTypeElement(INTERACTION);
+        if (annotation == null || interactionType == null) {
+            return true;
+        }
+        final List<TypeElement> found = new ArrayList<>();
+        for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+            if (isValid(element, interactionType.asType())) {
+                found.add((TypeElement) element);
+            }
+        }
+        if (found.isEmpty()) {
+            return true;
+        }
+
+        // Write the registry in the round which found the interactions, sources created in the last round are not
+        // processed any more and make the compiler warn
+        if (written) {
+            // The filer cannot create the registry twice, so interactions generated by another processor after it was
+            // written cannot be added to it
+            for (final TypeElement type : found) {
+                error(type, "Registered interactions have to exist before the interaction registry was generated, "
+                        + "the registry was already written in an earlier round");
+            }
+            return true;
+        }
+        for (final TypeElement type : found) {
+            interactions.put(type.getQualifiedName().toString(), type);
+        }
+        if (!failed) {
+            writeRegistry();
+            written = true;
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether an annotated element can be created by the registry and reports an error otherwise.
+     *
+     * @param element         The annotated element.
+     * @param interactionType The interaction interface.
+     * @return Whether the element is valid.
+     */
+    private boolean isValid(final Element element, final TypeMirror interactionType) {
+        if (element.getKind() != ElementKind.CLASS) {
+            return error(element, "Only classes can be annotated with @RegisterInteraction");
+        }
+        final TypeElement type = (TypeElement) element;
+        final Set<Modifier> modifiers = type.getModifiers();
+        if (!modifiers.contains(Modifier.PUBLIC) || modifiers.contains(Modifier.ABSTRACT)) {
+            return error(element, "Registered interactions have to be public and not abstract");
+        }
+        if (type.getNestingKind() == NestingKind.MEMBER && !modifiers.contains(Modifier.STATIC)) {
+            return error(element, "Registered interactions nested in another class have to be static");
+        }
+        if (type.getNestingKind() != NestingKind.TOP_LEVEL && type.getNestingKind() != NestingKind.MEMBER) {
+            return error(element, "Registered interactions cannot be local or anonymous classes");
+        }
+        for (Element enclosing = type.getEnclosingElement(); enclosing instanceof TypeElement enclosingType; enclosing = enclosingType.getEnclosingElement()) {
+            if (!enclosingType.getModifiers().contains(Modifier.PUBLIC)) {
+                return error(element, "Registered interactions cannot be nested in a class which is not public");
+            }
+        }
+        if (!processingEnv.getTypeUtils().isAssignable(type.asType(), interactionType)) {
+            return error(element, "Registered interactions have to implement " + INTERACTION);
+        }
+        for (final ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+            if (constructor.getParameters().isEmpty() && constructor.getModifiers().contains(Modifier.PUBLIC)) {
+                return true;
+            }
+        }
+        return error(element, "Registered interactions need a public constructor without parameters");
+    }
+
+    private boolean error(final Element element, final String message) {
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+        failed = true;
+        return false;
+    }
+
+    private void writeRegistry() {
+        final String registryName = processingEnv.getOptions().getOrDefault(REGISTRY_OPTION, DEFAULT_REGISTRY_NAME);
+        final int lastDot = registryName.lastIndexOf('.');
+        final String packageName = lastDot < 0 ? "" : registryName.substring(0, lastDot);
+        final String simpleName = registryName.substring(lastDot + 1);
+
+        final List<String> classNames = new ArrayList<>(interactions.size());
+        for (final TypeElement type : interactions.values()) {
+            classNames.add(type.getQualifiedName().toString());
+        }
+
+        try {
+            final JavaFileObject file = filer.createSourceFile(registryName, interactions.values().toArray(new Element[0]));
+            try (Writer writer = file.openWriter()) {
+                writer.write(generateSource(packageName, simpleName, classNames));
+            }
+        } catch (IOException e) {
+            messager.printMessage(Diagnostic.Kind.ERROR, "Could not write the interaction registry " + registryName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Generates the source of the registry.
+     *
+     * @param packageName The package of the registry, empty for the unnamed package.
+     * @param simpleName  The simple name of the registry.
+     * @param classNames  The canonical names of the interactions.
+     * @return The source.
+     */
+    static String generateSource(final String packageName, final String simpleName, final List<String> classNames) {
+        final StringBuilder source = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("/**\n")
+                .append(" * The interactions annotated with {@link net.fellbaum.dih.interaction.RegisterInteraction}.\n")
+                .append(" */\n")
+                .append("@javax.annotation.processing.Generated(\"").append(InteractionRegistryProcessor.class.getName()).append("\")\n")
+                .append("public final class ").append(simpleName).append(" implements ").append(INTERACTION_REGISTRY).append(" {\n\n")
+                .append("    private static final java.util.List<java.lang.Class<? extends ").append(INTERACTION).append(">> INTERACTION_CLASSES = java.util.List.of(");
+        appendList(source, classNames, ".class");
+        source.append(");\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<java.lang.Class<? extends ").append(INTERACTION).append(">> getInteractionClasses() {\n")
+                .append("        return INTERACTION_CLASSES;\n")
+                .append("    }\n\n")
+                .append("    @Override\n")
+                .append("    public java.util.List<").append(INTERACTION).append("> createInteractions() {\n")
+                .append("        return java.util.List.of(");
+        final List<String> constructorCalls = new ArrayList<>(classNames.size());
+        for (final String className : classNames) {
+            constructorCalls.add("new " + className + "()");
+        }
+        appendList(source, constructorCalls, "");
+        source.append(");\n")
+                .append("    }\n")
+                .append("}\n");
+        return source.toString();
+    }
+
+    private static void appendList(final StringBuilder source, final List<String> elements, final String suffix) {
+        for (int i = 0; i < elements.size(); i++) {
+            source.append("\n            ").append(elements.get(i)).append(suffix);
+            if (i != elements.size() - 1) {
+                source.append(',');
+            }
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package net.fellbaum.dih.processor;
+
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.InteractionRegistry;
+import org.junit.jupiter.api.Test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Processor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.TypeElement;
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionRegistryProcessorTest {
+
+    private static final String PING_COMMAND = """
+            package com.example.commands;
+
+            import net.fellbaum.dih.interaction.RegisterInteraction;
+            import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+
+            @RegisterInteraction
+            public class PingCommand extends GlobalSlashCommand {
+                public PingCommand() {
+                    super("ping", "Pong");
+                }
+            }
+            """;
+
+    private static final String BUTTONS = """
+            package com.example.buttons;
+
+            import net.fellbaum.dih.interaction.RegisterInteraction;
+            import net.fellbaum.dih.interaction.component.ButtonComponent;
+            import org.javacord.api.interaction.ButtonInteraction;
+
+            public class Buttons {
+
+                @RegisterInteraction
+                public static class ConfirmButton extends ButtonComponent {
+                    public ConfirmButton() {
+                        super("confirm");
+                    }
+
+                    @Override
+                    public void runButtonComponent(ButtonInteraction interaction) {
+                    }
+                }
+
+                public static class NotRegisteredButton extends ButtonComponent {
+                    public NotRegisteredButton() {
+                        super("not_registered");
+                    }
+
+                    @Override
+                    public void runButtonComponent(ButtonInteraction interaction) {
+                    }
+                }
+            }
+            """;
+
+    @Test
+    void generatesTheRegistryOfAnnotatedInteractions() throws Exception {
+        final Compilation compilation = compile(List.of(), Map.of(
+                "com/example/commands/PingCommand.java", PING_COMMAND,
+                "com/example/buttons/Buttons.java", BUTTONS));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+
+        final InteractionRegistry registry = compilation.newRegistry(InteractionRegistryProcessor.DEFAULT_REGISTRY_NAME);
+        final List<String> classNames = new ArrayList<>();
+        for (final Class<? extends Interaction> interactionClass : registry.getInteractionClasses()) {
+            classNames.add(interactionClass.getName());
+        }
+        assertEquals(List.of("com.example.buttons.Buttons$ConfirmButton", "com.example.commands.PingCommand"), classNames);
+
+        final List<Interaction> interactions = registry.createInteractions();
+        assertEquals(2, interactions.size());
+        assertEquals(registry.getInteractionClasses().get(1), interactions.get(1).getClass());
+        new SimpleInteractionHandler().registerInteractions(registry);
+    }
+
+    @Test
+    void usesTheConfiguredRegistryName() throws Exception {
+        final Compilation compilation = compile(List.of("-Adih.registry=com.example.BotInteractions"),
+                Map.of("com/example/commands/PingCommand.java", PING_COMMAND));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertEquals(1, compilation.newRegistry("com.example.BotInteractions").createInteractions().size());
+    }
+
+    @Test
+    void rejectsInteractionsWhichCannotBeCreated() throws Exception {
+        final Compilation compilation = compile(List.of(), Map.of("com/example/commands/PingCommand.java",
+                PING_COMMAND.replace("public PingCommand()", "public PingCommand(String name)").replace("\"ping\"", "name")));
+        assertFalse(compilation.success());
+        assertTrue(compilation.diagnostics().toString().contains("public constructor without parameters"),
+                compilation.diagnostics().toString());
+    }
+
+    @Test
+    void writesTheRegistryBeforeTheLastRound() throws Exception {
+        final Compilation compilation = compile(List.of(), Map.of("com/example/commands/PingCommand.java", PING_COMMAND));
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : compilation.diagnostics()) {
+            assertNotEquals(Diagnostic.Kind.WARNING, diagnostic.getKind(), diagnostic.toString());
+        }
+    }
+
+    @Test
+    void registersInteractionsGeneratedByOtherProcessors() throws Exception {
+        final Compilation compilation = compile(List.of(), Map.of("com/example/commands/PingCommand.java",
+                PING_COMMAND.replace("@RegisterInteraction", "")), new PingCommandGenerator());
+        assertTrue(compilation.success(), compilation.diagnostics().toString());
+        assertEquals(List.of(PingCommandGenerator.GENERATED_NAME), compilation.newRegistry(InteractionRegistryProcessor.DEFAULT_REGISTRY_NAME)
+                .getInteractionClasses().stream().map(Class::getName).toList());
+    }
+
+    private static Compilation compile(final List<String> options, final Map<String, String> sources,
+                                       final Processor... otherProcessors) throws IOException {
+        final Path sourceDirectory = Files.createTempDirectory("dih-processor-sources");
+        final Path outputDirectory = Files.createTempDirectory("dih-processor-classes");
+        final List<Path> sourceFiles = new ArrayList<>();
+        for (final Map.Entry<String, String> source : sources.entrySet()) {
+            final Path file = sourceDirectory.resolve(source.getKey());
+            Files.createDirectories(file.getParent());
+            Files.writeString(file, source.getValue());
+            sourceFiles.add(file);
+        }
+
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(diagnostics, null, null)) {
+            final List<String> arguments = new ArrayList<>(options);
+            arguments.addAll(List.of("-classpath", System.getProperty("java.class.path"), "-d", outputDirectory.toString()));
+            final JavaCompiler.CompilationTask task = compiler.getTask(null, fileManager, diagnostics, arguments, null,
+                    fileManager.getJavaFileObjectsFromPaths(sourceFiles));
+            final List<Processor> processors = new ArrayList<>(List.of(otherProcessors));
+            processors.add(new InteractionRegistryProcessor());
+            task.setProcessors(processors);
+            return new Compilation(task.call(), diagnostics.getDiagnostics(), outputDirectory);
+        }
+    }
+
+    /**
+     * Generates an annotated command in the first round, like a processor creating commands from a configuration file.
+     */
+    @SupportedAnnotationTypes("*")
+    private static final class PingCommandGenerator extends AbstractProcessor {
+
+        private static final String GENERATED_NAME = "com.example.generated.GeneratedPingCommand";
+
+        private boolean generated;
+
+        @Override
+        public SourceVersion getSupportedSourceVersion() {
+            return SourceVersion.latestSupported();
+        }
+
+        @Override
+        public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment roundEnv) {
+            if (generated) {
+                return false;
+            }
+            generated = true;
+            try (Writer writer = processingEnv.getFiler().createSourceFile(GENERATED_NAME).openWriter()) {
+                writer.write(PING_COMMAND.replace("package com.example.commands;", "package com.example.generated;")
+                        .replace("PingCommand", "GeneratedPingCommand"));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return false;
+        }
+    }
+
+    private record Compilation(boolean success, List<Diagnostic<? extends JavaFileObject>> diagnostics, Path outputDirectory) {
+
+        private InteractionRegistry newRegistry(final String className) throws ReflectiveOperationException, IOException {
+            final URLClassLoader classLoader = new URLClassLoader(new URL[]{outputDirectory.toUri().toURL()},
+                    InteractionRegistryProcessorTest.class.getClassLoader());
+            return (InteractionRegistry) classLoader.loadClass(className).getDeclaredConstructor().newInstance();
+        }
+    }
+}
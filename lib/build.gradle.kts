@@ -3,6 +3,7 @@ plugins {
     `maven-publish`
     signing
     id("com.github.ben-manes.versions") version "0.46.0"
+    id("me.champeau.jmh") version "0.7.1"
 }
 
 repositories {
@@ -13,6 +14,9 @@ dependencies {
     api("org.javacord:javacord-api:3.8.0")
     implementation("org.apache.logging.log4j:log4j-api:2.20.0")
 
+    // The Javacord implementation creates the command builders used by the tests
+    testRuntimeOnly("org.javacord:javacord-core:3.8.0")
+
     // Use JUnit Jupiter for testing.
     testImplementation("org.junit.jupiter:junit-jupiter:5.9.3")
 }
@@ -22,6 +26,16 @@ tasks.named<Test>("test") {
     useJUnitPlatform()
 }
 
+// Benchmarks in src/jmh/java, run them with ./gradlew :lib:jmh
+jmh {
+    jmhVersion.set("1.36")
+    resultFormat.set("JSON")
+    // Run only matching benchmarks with -PjmhIncludes=ComponentResolution
+    findProperty("jmhIncludes")?.let { includes.set(listOf(it as String)) }
+    // Measure allocation with -PjmhProfilers=gc
+    findProperty("jmhProfilers")?.let { profilers.set(listOf(it as String)) }
+}
+
 
 java {
     withJavadocJar()
@@ -0,0 +1,94 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import net.fellbaum.dih.interaction.applicationcommand.AutocompleteChoiceIndex;
+import org.javacord.api.event.interaction.AutocompleteCreateEvent;
+import org.javacord.api.listener.interaction.AutocompleteCreateListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures answering autocomplete interactions from an {@link AutocompleteChoiceIndex} over 40,000 names,
+ * simulating users typing the names character by character.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class AutocompleteDispatchBenchmark {
+
+    private static final int NAME_COUNT = 40_000;
+    private static final int EVENT_COUNT = 4096;
+
+    @Param({"false", "true"})
+    boolean matchSubstrings;
+
+    @Param({"false", "true"})
+    boolean autocompleteCache;
+
+    private AutocompleteCreateListener listener;
+    private AutocompleteCreateEvent[] events;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final SplittableRandom random = new SplittableRandom(42);
+        final List<String> names = new ArrayList<>(NAME_COUNT);
+        for (int i = 0; i < NAME_COUNT; i++) {
+            names.add(randomName(random));
+        }
+
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        handler.registerInteraction(new BenchmarkInteractions.AutocompleteCommand("item", "name",
+                AutocompleteChoiceIndex.ofNames(names, matchSubstrings)));
+        if (autocompleteCache) {
+            handler.enableAutocompleteCache(10_000, Duration.ofMinutes(5), false);
+        }
+        final Map<Class<?>, Object> listeners = new HashMap<>();
+        handler.attachListeners(JavacordStubs.api(listeners));
+        listener = JavacordStubs.autocompleteListener(listeners);
+
+        events = new AutocompleteCreateEvent[EVENT_COUNT];
+        int i = 0;
+        while (i < EVENT_COUNT) {
+            final String name = names.get(random.nextInt(NAME_COUNT));
+            final long userId = random.nextInt(100);
+            for (int length = 1; length <= name.length() && i < EVENT_COUNT; length++, i++) {
+                events[i] = JavacordStubs.autocompleteEvent(i, userId, "item", "name", name.substring(0, length));
+            }
+        }
+    }
+
+    @Benchmark
+    public long dispatchAutocomplete() {
+        listener.onAutocompleteCreate(events[next++ & (EVENT_COUNT - 1)]);
+        return BenchmarkInteractions.invocations;
+    }
+
+    private static String randomName(final SplittableRandom random) {
+        final char[] name = new char[4 + random.nextInt(12)];
+        for (int i = 0; i < name.length; i++) {
+            name[i] = (char) ((i == 0 ? 'A' : 'a') + random.nextInt(26));
+        }
+        return new String(name);
+    }
+}
@@ -0,0 +1,72 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.interaction.applicationcommand.AutocompleteChoiceProvider;
+import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+
+/**
+ * Commands and components whose handlers only count their invocations.
+ */
+final class BenchmarkInteractions {
+
+    /**
+     * The amount of handler invocations, read by the benchmarks so the dispatching cannot be eliminated.
+     */
+    static long invocations;
+
+    private BenchmarkInteractions() {
+        throw new UnsupportedOperationException("This class is not meant to be instantiated.");
+    }
+
+    static final class CountingGlobalCommand extends GlobalSlashCommand {
+
+        CountingGlobalCommand(final String name) {
+            super(name, "Benchmark command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    static final class CountingServerCommand extends ServerSlashCommand {
+
+        CountingServerCommand(final String name) {
+            super(name, "Benchmark command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    static final class CountingButton extends ButtonComponent {
+
+        CountingButton(final String customIdRegex) {
+            super(customIdRegex);
+        }
+
+        @Override
+        public void runButtonComponent(final ButtonInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    static final class AutocompleteCommand extends GlobalSlashCommand {
+
+        AutocompleteCommand(final String name, final String optionName, final AutocompleteChoiceProvider provider) {
+            super(name, "Benchmark command");
+            bindAutocomplete(optionName, provider);
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations++;
+        }
+    }
+}
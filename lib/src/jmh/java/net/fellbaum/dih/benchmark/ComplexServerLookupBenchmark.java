@@ -0,0 +1,77 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.ComplexInteractionHandler;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.listener.interaction.SlashCommandCreateListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dispatching server slash commands of the {@link ComplexInteractionHandler} with many servers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComplexServerLookupBenchmark {
+
+    private static final int EVENT_COUNT = 1024;
+    private static final long FIRST_SERVER_ID = 1_000_000_000_000_000L;
+
+    @Param({"100000"})
+    int serverCount;
+
+    private SlashCommandCreateListener listener;
+    private SlashCommandCreateEvent[] events;
+    private SlashCommandCreateEvent unknownServerEvent;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler();
+        final BenchmarkInteractions.CountingServerCommand tag = new BenchmarkInteractions.CountingServerCommand("tag");
+        final BenchmarkInteractions.CountingServerCommand settings = new BenchmarkInteractions.CountingServerCommand("settings");
+        for (int i = 0; i < serverCount; i++) {
+            handler.registerServerInteraction(FIRST_SERVER_ID + i, tag);
+            handler.registerServerInteraction(FIRST_SERVER_ID + i, settings);
+        }
+        final Map<Class<?>, Object> listeners = new HashMap<>();
+        handler.attachListeners(JavacordStubs.api(listeners));
+        listener = JavacordStubs.slashCommandListener(listeners);
+
+        final SplittableRandom random = new SplittableRandom(42);
+        events = new SlashCommandCreateEvent[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events[i] = JavacordStubs.slashCommandEvent(i, random.nextBoolean() ? "tag" : "settings", FIRST_SERVER_ID + random.nextInt(serverCount));
+        }
+        unknownServerEvent = JavacordStubs.slashCommandEvent(0, "tag", 1L);
+    }
+
+    @Benchmark
+    public long dispatchServerCommand() {
+        listener.onSlashCommandCreate(events[next++ & (EVENT_COUNT - 1)]);
+        return BenchmarkInteractions.invocations;
+    }
+
+    @Benchmark
+    public long dispatchCommandOfUnknownServer() {
+        listener.onSlashCommandCreate(unknownServerEvent);
+        return BenchmarkInteractions.invocations;
+    }
+}
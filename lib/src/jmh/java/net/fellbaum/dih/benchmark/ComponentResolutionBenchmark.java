@@ -0,0 +1,79 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import org.javacord.api.event.interaction.ButtonClickEvent;
+import org.javacord.api.listener.interaction.ButtonClickListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures resolving the custom id of a button interaction to one of many registered buttons.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class ComponentResolutionBenchmark {
+
+    private static final int EVENT_COUNT = 1024;
+
+    @Param({"10", "1000", "10000"})
+    int componentCount;
+
+    @Param({"false", "true"})
+    boolean resolutionCache;
+
+    private ButtonClickListener listener;
+    private ButtonClickEvent[] events;
+    private ButtonClickEvent unmatchedEvent;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        for (int i = 0; i < componentCount; i++) {
+            handler.registerInteraction(new BenchmarkInteractions.CountingButton("button_" + i + "_\\d+"));
+        }
+        if (resolutionCache) {
+            handler.enableComponentResolutionCache(EVENT_COUNT * 2);
+        }
+        final Map<Class<?>, Object> listeners = new HashMap<>();
+        handler.attachListeners(JavacordStubs.api(listeners));
+        listener = JavacordStubs.buttonClickListener(listeners);
+
+        final SplittableRandom random = new SplittableRandom(42);
+        events = new ButtonClickEvent[EVENT_COUNT];
+        for (int i = 0; i < EVENT_COUNT; i++) {
+            events[i] = JavacordStubs.buttonClickEvent(i, "button_" + random.nextInt(componentCount) + "_" + random.nextInt(100));
+        }
+        unmatchedEvent = JavacordStubs.buttonClickEvent(0, "unknown_button");
+    }
+
+    @Benchmark
+    public long resolveRegisteredButton() {
+        listener.onButtonClick(events[next++ & (EVENT_COUNT - 1)]);
+        return BenchmarkInteractions.invocations;
+    }
+
+    @Benchmark
+    public long resolveUnmatchedButton() {
+        listener.onButtonClick(unmatchedEvent);
+        return BenchmarkInteractions.invocations;
+    }
+}
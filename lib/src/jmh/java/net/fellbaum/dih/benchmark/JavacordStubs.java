@@ -0,0 +1,111 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.StubInteractions;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.event.interaction.AutocompleteCreateEvent;
+import org.javacord.api.event.interaction.ButtonClickEvent;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.listener.interaction.AutocompleteCreateListener;
+import org.javacord.api.listener.interaction.ButtonClickListener;
+import org.javacord.api.listener.interaction.SlashCommandCreateListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Creates Javacord objects backed by fixed values, so the interaction handler can be benchmarked without a connection.
+ */
+final class JavacordStubs {
+
+    private JavacordStubs() {
+        throw new UnsupportedOperationException("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Creates a stub of an interface with {@link StubInteractions#stub(Class, StubInteractions.Answer)}, whose methods
+     * return the value stored under their name.
+     *
+     * @param type   The interface.
+     * @param values The return values by method name.
+     * @param <T>    The type of the interface.
+     * @return The stub.
+     */
+    static <T> T stub(final Class<T> type, final Map<String, Object> values) {
+        return StubInteractions.stub(type, (method, args) -> values.get(method.getName()));
+    }
+
+    /**
+     * Creates a {@link DiscordApi} which stores the listeners added to it.
+     *
+     * @param listeners Receives the listeners by their interface.
+     * @return The api.
+     */
+    static DiscordApi api(final Map<Class<?>, Object> listeners) {
+        return StubInteractions.stub(DiscordApi.class, (method, args) -> {
+            if (method.getName().startsWith("add") && args != null && args.length == 1) {
+                listeners.put(method.getParameterTypes()[0], args[0]);
+            }
+            return null;
+        });
+    }
+
+    static User user(final long id) {
+        return stub(User.class, Map.of("getId", id));
+    }
+
+    static SlashCommandCreateEvent slashCommandEvent(final long id, final String commandName, final Long serverId) {
+        final Map<String, Object> values = new HashMap<>();
+        values.put("getId", id);
+        values.put("getCommandName", commandName);
+        values.put("getFullCommandName", commandName);
+        values.put("getUser", user(id));
+        if (serverId != null) {
+            values.put("getRegisteredCommandServerId", Optional.of(serverId));
+        }
+        final SlashCommandInteraction interaction = stub(SlashCommandInteraction.class, values);
+        return stub(SlashCommandCreateEvent.class, Map.of("getSlashCommandInteraction", interaction, "getInteraction", interaction));
+    }
+
+    static AutocompleteCreateEvent autocompleteEvent(final long id, final long userId, final String commandName,
+                                                     final String optionName, final String value) {
+        final SlashCommandInteractionOption focusedOption = stub(SlashCommandInteractionOption.class, Map.of(
+                "getName", optionName,
+                "getStringValue", Optional.of(value),
+                "getStringRepresentationValue", Optional.of(value)));
+        final AutocompleteInteraction interaction = stub(AutocompleteInteraction.class, Map.of(
+                "getId", id,
+                "getCommandId", 1L,
+                "getCommandName", commandName,
+                "getFullCommandName", commandName,
+                "getUser", user(userId),
+                "getFocusedOption", focusedOption));
+        return stub(AutocompleteCreateEvent.class, Map.of("getAutocompleteInteraction", interaction, "getInteraction", interaction));
+    }
+
+    static ButtonClickEvent buttonClickEvent(final long id, final String customId) {
+        final ButtonInteraction interaction = stub(ButtonInteraction.class, Map.of(
+                "getId", id,
+                "getCustomId", customId,
+                "getUser", user(id)));
+        return stub(ButtonClickEvent.class, Map.of("getButtonInteraction", interaction, "getInteraction", interaction));
+    }
+
+    static SlashCommandCreateListener slashCommandListener(final Map<Class<?>, Object> listeners) {
+        return (SlashCommandCreateListener) listeners.get(SlashCommandCreateListener.class);
+    }
+
+    static AutocompleteCreateListener autocompleteListener(final Map<Class<?>, Object> listeners) {
+        return (AutocompleteCreateListener) listeners.get(AutocompleteCreateListener.class);
+    }
+
+    static ButtonClickListener buttonClickListener(final Map<Class<?>, Object> listeners) {
+        return (ButtonClickListener) listeners.get(ButtonClickListener.class);
+    }
+}
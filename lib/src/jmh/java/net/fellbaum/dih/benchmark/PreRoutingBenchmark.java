@@ -0,0 +1,89 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.InteractionPreRouter;
+import net.fellbaum.dih.handler.PreRoutedInteraction;
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import net.fellbaum.dih.http.RawInteraction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares resolving the command of a raw interaction payload with the pre-router against parsing the whole payload.
+ * Run with {@code -PjmhProfilers=gc} to compare the allocation per payload.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class PreRoutingBenchmark {
+
+    private static final int COMMAND_COUNT = 100;
+
+    private InteractionPreRouter preRouter;
+    private byte[] registeredPayload;
+    private byte[] unknownPayload;
+
+    @Setup
+    public void setUp() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            handler.registerInteraction(new BenchmarkInteractions.CountingGlobalCommand("command" + i));
+        }
+        preRouter = new InteractionPreRouter(handler);
+        registeredPayload = payload("command42");
+        unknownPayload = payload("unknown");
+    }
+
+    @Benchmark
+    public PreRoutedInteraction preRouteRegisteredCommand() {
+        return preRouter.route(registeredPayload);
+    }
+
+    @Benchmark
+    public PreRoutedInteraction preRouteUnknownCommand() {
+        return preRouter.route(unknownPayload);
+    }
+
+    @Benchmark
+    public RawInteraction parseRegisteredCommand() {
+        return RawInteraction.parse(new String(registeredPayload, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * A slash command interaction as sent by Discord, including the member and resolved data.
+     */
+    private static byte[] payload(final String commandName) {
+        final String user = "{\"id\":\"80351110224678912\",\"username\":\"Nelly\",\"global_name\":\"Nelly\","
+                + "\"discriminator\":\"0\",\"avatar\":\"8342729096ea3675442027381ff50dfe\",\"public_flags\":64}";
+        return ("{\"app_permissions\":\"442368\",\"application_id\":\"775799577604522054\","
+                + "\"channel\":{\"flags\":0,\"guild_id\":\"772904309264089089\",\"id\":\"772908445358620702\","
+                + "\"last_message_id\":\"1082049931474464858\",\"name\":\"general\",\"nsfw\":false,\"parent_id\":null,"
+                + "\"permissions\":\"1099511627775\",\"position\":0,\"rate_limit_per_user\":0,\"topic\":null,\"type\":0},"
+                + "\"channel_id\":\"772908445358620702\","
+                + "\"data\":{\"guild_id\":null,\"id\":\"866818195033292850\",\"name\":\"" + commandName + "\","
+                + "\"options\":[{\"name\":\"user\",\"type\":6,\"value\":\"80351110224678912\"},"
+                + "{\"name\":\"reason\",\"type\":3,\"value\":\"Testing the \\\"pre-router\\\" \\u2713\"}],"
+                + "\"resolved\":{\"users\":{\"80351110224678912\":" + user + "}},\"type\":1},"
+                + "\"entitlements\":[],\"guild_id\":\"772904309264089089\",\"guild_locale\":\"en-US\","
+                + "\"id\":\"1082049952345817168\",\"locale\":\"en-US\","
+                + "\"member\":{\"avatar\":null,\"communication_disabled_until\":null,\"deaf\":false,\"flags\":0,"
+                + "\"joined_at\":\"2020-11-02T19:25:47.248000+00:00\",\"nick\":null,\"pending\":false,"
+                + "\"permissions\":\"1099511627775\",\"premium_since\":null,\"roles\":[\"772904309264089090\"],"
+                + "\"user\":" + user + "},"
+                + "\"token\":\"aW50ZXJhY3Rpb246MTA4MjA0OTk1MjM0NTgxNzE2ODpzd1pSbVlMZkNiUE1uMk1HZkV1c0l5\","
+                + "\"type\":2,\"version\":1}").getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,62 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.ComplexInteractionHandler;
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures registering many components and server commands on a new interaction handler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RegistrationBenchmark {
+
+    @Param({"1000"})
+    int count;
+
+    private BenchmarkInteractions.CountingButton[] buttons;
+    private BenchmarkInteractions.CountingServerCommand command;
+
+    @Setup
+    public void setUp() {
+        buttons = new BenchmarkInteractions.CountingButton[count];
+        for (int i = 0; i < count; i++) {
+            buttons[i] = new BenchmarkInteractions.CountingButton("button_" + i + "_\\d+");
+        }
+        command = new BenchmarkInteractions.CountingServerCommand("tag");
+    }
+
+    @Benchmark
+    public SimpleInteractionHandler registerButtons() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        for (final BenchmarkInteractions.CountingButton button : buttons) {
+            handler.registerInteraction(button);
+        }
+        return handler;
+    }
+
+    @Benchmark
+    public ComplexInteractionHandler registerServerCommands() {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler();
+        for (int i = 0; i < count; i++) {
+            handler.registerServerInteraction(i + 1, command);
+        }
+        return handler;
+    }
+}
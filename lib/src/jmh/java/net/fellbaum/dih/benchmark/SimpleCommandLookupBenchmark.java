@@ -0,0 +1,72 @@
+package net.fellbaum.dih.benchmark;
+
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import org.javacord.api.event.interaction.SlashCommandCreateEvent;
+import org.javacord.api.listener.interaction.SlashCommandCreateListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures dispatching global and server slash commands of the {@link SimpleInteractionHandler}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class SimpleCommandLookupBenchmark {
+
+    private static final int COMMAND_COUNT = 50;
+
+    private SlashCommandCreateListener listener;
+    private SlashCommandCreateEvent globalEvent;
+    private SlashCommandCreateEvent serverEvent;
+    private SlashCommandCreateEvent unknownEvent;
+
+    @Setup
+    public void setUp() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        for (int i = 0; i < COMMAND_COUNT; i++) {
+            handler.registerInteraction(new BenchmarkInteractions.CountingGlobalCommand("global" + i));
+            handler.registerInteraction(new BenchmarkInteractions.CountingServerCommand("server" + i));
+        }
+        final Map<Class<?>, Object> listeners = new HashMap<>();
+        handler.attachListeners(JavacordStubs.api(listeners));
+        listener = JavacordStubs.slashCommandListener(listeners);
+
+        globalEvent = JavacordStubs.slashCommandEvent(1, "global7", null);
+        serverEvent = JavacordStubs.slashCommandEvent(2, "server7", 42L);
+        unknownEvent = JavacordStubs.slashCommandEvent(3, "unknown", 42L);
+    }
+
+    @Benchmark
+    public long dispatchGlobalCommand() {
+        listener.onSlashCommandCreate(globalEvent);
+        return BenchmarkInteractions.invocations;
+    }
+
+    @Benchmark
+    public long dispatchServerCommand() {
+        listener.onSlashCommandCreate(serverEvent);
+        return BenchmarkInteractions.invocations;
+    }
+
+    @Benchmark
+    public long dispatchUnknownCommand() {
+        listener.onSlashCommandCreate(unknownEvent);
+        return BenchmarkInteractions.invocations;
+    }
+}
@@ -0,0 +1,87 @@
+package net.fellbaum.dih.handler;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounds the amount of interactions in flight for every {@link DispatchType}.
+ */
+final class AdmissionControl {
+
+    private final Limiter[] limiters;
+
+    AdmissionControl() {
+        final DispatchType[] types = DispatchType.values();
+        this.limiters = new Limiter[types.length];
+        for (final DispatchType type : types) {
+            limiters[type.ordinal()] = new Limiter();
+        }
+    }
+
+    /**
+     * Sets the maximum amount of interactions in flight.
+     *
+     * @param type  The type of the interactions.
+     * @param limit The limit, {@link Integer#MAX_VALUE} to disable it.
+     */
+    void setLimit(final DispatchType type, final int limit) {
+        if (limit <= 0) {
+            throw new IllegalArgumentException("The limit must be positive");
+        }
+        limiters[type.ordinal()].limit = limit;
+    }
+
+    /**
+     * Admits an interaction if the limit of its type has not been reached.
+     * Every admitted interaction has to be released with {@link #release(DispatchType)}.
+     *
+     * @param type The type of the interaction.
+     * @return Whether the interaction was admitted.
+     */
+    boolean tryAcquire(final DispatchType type) {
+        return limiters[type.ordinal()].tryAcquire();
+    }
+
+    /**
+     * Releases an admitted interaction whose handler has finished.
+     *
+     * @param type The type of the interaction.
+     */
+    void release(final DispatchType type) {
+        limiters[type.ordinal()].inFlight.decrementAndGet();
+    }
+
+    /**
+     * Gets the statistics of a type.
+     *
+     * @param type The type of the interactions.
+     * @return The statistics.
+     */
+    AdmissionStats getStats(final DispatchType type) {
+        final Limiter limiter = limiters[type.ordinal()];
+        return new AdmissionStats(limiter.inFlight.get(), limiter.limit, limiter.admitted.sum(), limiter.rejected.sum());
+    }
+
+    private static final class Limiter {
+
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final LongAdder admitted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private volatile int limit = Integer.MAX_VALUE;
+
+        private boolean tryAcquire() {
+            final int currentLimit = limit;
+            while (true) {
+                final int current = inFlight.get();
+                if (current >= currentLimit) {
+                    rejected.increment();
+                    return false;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    admitted.increment();
+                    return true;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * The admission statistics of one {@link DispatchType}.
+ *
+ * @param inFlight      The amount of admitted interactions whose handler has not finished yet,
+ *                      including the ones waiting for their executor.
+ * @param limit         The maximum amount of interactions in flight, {@link Integer#MAX_VALUE} if unlimited.
+ * @param admittedCount The amount of admitted interactions.
+ * @param rejectedCount The amount of interactions which were rejected because the limit was reached.
+ */
+public record AdmissionStats(int inFlight, int limit, long admittedCount, long rejectedCount) {
+}
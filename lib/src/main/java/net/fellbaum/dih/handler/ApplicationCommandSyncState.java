@@ -0,0 +1,262 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.interaction.ApplicationCommand;
+import org.javacord.api.interaction.ApplicationCommandBuilder;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.Writer;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Remembers the fingerprint of the application commands last overwritten for every scope, which is either the global
+ * commands or the commands of one server, so overwriting an unchanged scope can be skipped.
+ * <p>
+ * A fingerprint is the SHA-256 hash of the JSON Javacord would send for every command builder, sorted so the order of
+ * the builders does not matter. Javacord has no public API for this JSON, so it is read from the Javacord implementation
+ * of the builder. If that fails, for example because a newer Javacord version changed its internals, a warning is
+ * logged once, no fingerprint is calculated and the scope is always overwritten.
+ * <p>
+ * The fingerprint of an overwritten scope is appended to a properties file, where it supersedes the previous one of the
+ * scope. The file is only rewritten once superseded fingerprints make up the majority of it.
+ * <p>
+ * A scope whose fingerprint matches was overwritten with the same commands by an earlier run. Changing or deleting
+ * commands through other means than the interaction handler is not detected, use {@link #clear()} in that case.
+ */
+public final class ApplicationCommandSyncState {
+
+    private static final Logger LOGGER = LogManager.getLogger(ApplicationCommandSyncState.class);
+
+    static final String GLOBAL_SCOPE = "global";
+
+    private final Path file;
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of fingerprints in the file, including superseded ones, guarded by this.
+     */
+    private int storedFingerprints;
+
+    /**
+     * Whether a warning was logged because the JSON of a builder could not be read.
+     */
+    private static final AtomicBoolean JSON_UNAVAILABLE_LOGGED = new AtomicBoolean();
+
+    /**
+     * The commands returned by Discord for every scope overwritten or fetched during this run.
+     */
+    private final Map<String, Set<ApplicationCommand>> commands = new ConcurrentHashMap<>();
+
+    /**
+     * Loads the fingerprints from a file, which is created when the first scope is overwritten.
+     *
+     * @param file The file.
+     * @throws IOException If the file exists but could not be read.
+     */
+    public ApplicationCommandSyncState(final Path file) throws IOException {
+        this.file = file;
+        if (Files.exists(file)) {
+            final List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            final Properties properties = new Properties();
+            properties.load(new StringReader(String.join("\n", lines)));
+            properties.forEach((scope, fingerprint) -> fingerprints.put((String) scope, (String) fingerprint));
+            storedFingerprints = (int) lines.stream().filter(line -> !line.isBlank() && !line.startsWith("#")).count();
+        }
+    }
+
+    /**
+     * Forgets all fingerprints, so every scope is overwritten the next time.
+     *
+     * @throws IOException If the file could not be written.
+     */
+    public void clear() throws IOException {
+        fingerprints.clear();
+        commands.clear();
+        store();
+    }
+
+    /**
+     * Gets the amount of scopes with a fingerprint.
+     *
+     * @return The amount of scopes.
+     */
+    public int size() {
+        return fingerprints.size();
+    }
+
+    static String serverScope(final long serverId) {
+        return "server." + serverId;
+    }
+
+    boolean isUnchanged(final String scope, final String fingerprint) {
+        return fingerprint != null && fingerprint.equals(fingerprints.get(scope));
+    }
+
+    /**
+     * Gets the commands returned for a scope during this run.
+     *
+     * @param scope The scope.
+     * @return The commands or {@code null} if the scope was not overwritten or fetched yet.
+     */
+    Set<ApplicationCommand> getCommands(final String scope) {
+        return commands.get(scope);
+    }
+
+    void putCommands(final String scope, final Set<ApplicationCommand> applicationCommands) {
+        commands.put(scope, applicationCommands);
+    }
+
+    /**
+     * Remembers that a scope was overwritten.
+     *
+     * @param scope               The scope.
+     * @param fingerprint         The fingerprint of the builders or {@code null} if there is none.
+     * @param applicationCommands The commands returned by Discord.
+     */
+    void overwritten(final String scope, final String fingerprint, final Set<ApplicationCommand> applicationCommands) {
+        commands.put(scope, applicationCommands);
+        if (fingerprint == null) {
+            return;
+        }
+        fingerprints.put(scope, fingerprint);
+        try {
+            append(scope, fingerprint);
+        } catch (IOException e) {
+            // The scope is only overwritten again on the next run
+            LOGGER.warn("Could not store the application command fingerprints in {}", file, e);
+        }
+    }
+
+    /**
+     * Appends the fingerprint of a scope to the file, or rewrites the file if most of its fingerprints are superseded.
+     * A fingerprint torn by a crash does not match on the next run, which only overwrites its scope again.
+     *
+     * @param scope       The scope.
+     * @param fingerprint The fingerprint.
+     * @throws IOException If the file could not be written.
+     */
+    private synchronized void append(final String scope, final String fingerprint) throws IOException {
+        if (storedFingerprints >= 2 * fingerprints.size()) {
+            store();
+            return;
+        }
+        // Neither the scopes nor the hexadecimal fingerprints contain characters which have to be escaped
+        Files.writeString(file, scope + '=' + fingerprint + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        storedFingerprints++;
+    }
+
+    private synchronized void store() throws IOException {
+        final Properties properties = new Properties();
+        properties.putAll(fingerprints);
+        final Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+            properties.store(writer, "Fingerprints of the overwritten application commands");
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        storedFingerprints = properties.size();
+    }
+
+    /**
+     * Calculates the fingerprint of a set of command builders.
+     *
+     * @param builders The builders.
+     * @return The fingerprint or {@code null} if the JSON of a builder could not be read.
+     */
+    static String fingerprint(final Collection<? extends ApplicationCommandBuilder<?, ?, ?>> builders) {
+        final List<String> bodies = new ArrayList<>(builders.size());
+        for (final ApplicationCommandBuilder<?, ?, ?> builder : builders) {
+            final String body = getJsonBody(builder);
+            if (body == null) {
+                return null;
+            }
+            bodies.add(body);
+        }
+        bodies.sort(null);
+
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (final String body : bodies) {
+                digest.update(body.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) '\n');
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Reads the JSON body of a builder from the Javacord implementation of its delegate, logging a warning the first
+     * time it cannot be read.
+     *
+     * @param builder The builder.
+     * @return The JSON or {@code null} if it could not be read.
+     */
+    private static String getJsonBody(final ApplicationCommandBuilder<?, ?, ?> builder) {
+        try {
+            Class<?> type = builder.getClass();
+            Field delegateField = null;
+            while (delegateField == null && type != null) {
+                try {
+                    delegateField = type.getDeclaredField("delegate");
+                } catch (NoSuchFieldException e) {
+                    type = type.getSuperclass();
+                }
+            }
+            if (delegateField == null) {
+                return jsonUnavailable(builder, null);
+            }
+            delegateField.setAccessible(true);
+            final Object delegate = delegateField.get(builder);
+            final Method jsonBody = findMethod(delegate.getClass(), "getJsonBodyForApplicationCommand");
+            if (jsonBody == null) {
+                return jsonUnavailable(builder, null);
+            }
+            jsonBody.setAccessible(true);
+            return String.valueOf(jsonBody.invoke(delegate));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return jsonUnavailable(builder, e);
+        }
+    }
+
+    private static String jsonUnavailable(final ApplicationCommandBuilder<?, ?, ?> builder, final Exception cause) {
+        if (JSON_UNAVAILABLE_LOGGED.compareAndSet(false, true)) {
+            LOGGER.warn("Could not read the JSON of the application command builder {}, application commands are "
+                    + "overwritten even if they did not change", builder, cause);
+        } else {
+            LOGGER.debug("Could not read the JSON of the application command builder {}", builder, cause);
+        }
+        return null;
+    }
+
+    private static Method findMethod(final Class<?> type, final String name) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            for (final Method method : current.getDeclaredMethods()) {
+                if (method.getName().equals(name) && method.getParameterCount() == 0) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+}
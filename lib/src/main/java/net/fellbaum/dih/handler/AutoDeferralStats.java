@@ -0,0 +1,22 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * The statistics of the automatic deferral of slow interactions.
+ *
+ * @param deferredCount      The amount of interactions which were deferred automatically.
+ * @param failedCount        The amount of automatic deferrals which Discord did not accept.
+ * @param totalLatencyNanos  The summed up time from receiving the deferred interactions until Discord accepted their deferral.
+ * @param maxLatencyNanos    The longest time from receiving a deferred interaction until Discord accepted its deferral.
+ */
+public record AutoDeferralStats(long deferredCount, long failedCount, long totalLatencyNanos, long maxLatencyNanos) {
+
+    /**
+     * Gets the average time from receiving a deferred interaction until Discord accepted its deferral.
+     *
+     * @return The average latency in nanoseconds.
+     */
+    public long averageLatencyNanos() {
+        final long acceptedCount = deferredCount - failedCount;
+        return acceptedCount <= 0 ? 0 : totalLatencyNanos / acceptedCount;
+    }
+}
@@ -0,0 +1,189 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.interaction.InteractionBase;
+import org.javacord.api.interaction.MessageComponentInteractionBase;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Defers interactions whose handler has not responded before a threshold, so they are not invalidated by Discord
+ * after 3 seconds.
+ */
+final class AutoDeferrals {
+
+    private static final Logger LOGGER = LogManager.getLogger(AutoDeferrals.class);
+
+    /**
+     * How long deferred interactions are remembered after their handler finished, which is the lifetime of an
+     * interaction token.
+     */
+    private static final long DEFERRED_RETENTION_NANOS = TimeUnit.MINUTES.toNanos(15);
+
+    private final TimerWheel timerWheel = new TimerWheel("dih-auto-deferral", 10, TimeUnit.MILLISECONDS, 512);
+    private final long thresholdNanos;
+    private final boolean ephemeral;
+
+    /**
+     * The interactions whose handler might still respond, by their id.
+     */
+    private final Map<Long, AutoDeferral> deferrals = new ConcurrentHashMap<>();
+
+    private final LongAdder deferredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Creates new automatic deferrals.
+     *
+     * @param thresholdNanos The time after receiving an interaction when it is deferred.
+     * @param ephemeral      Whether the deferred command responses are ephemeral.
+     */
+    AutoDeferrals(final long thresholdNanos, final boolean ephemeral) {
+        this.thresholdNanos = thresholdNanos;
+        this.ephemeral = ephemeral;
+    }
+
+    /**
+     * Starts watching an interaction whose handler is about to be dispatched.
+     *
+     * @param type          The type of the interaction.
+     * @param interaction   The interaction.
+     * @param receivedNanos The {@link System#nanoTime()} when the interaction was received.
+     * @return The deferral or {@code null} if interactions of the type cannot be deferred.
+     */
+    AutoDeferral start(final DispatchType type, final InteractionBase interaction, final long receivedNanos) {
+        if (type == DispatchType.AUTOCOMPLETE) {
+            return null;
+        }
+        final AutoDeferral deferral = new AutoDeferral(interaction, receivedNanos);
+        deferrals.put(interaction.getId(), deferral);
+        deferral.timeout = timerWheel.schedule(deferral, receivedNanos + thresholdNanos - System.nanoTime());
+        return deferral;
+    }
+
+    /**
+     * Stops watching an interaction whose handler has finished.
+     *
+     * @param deferral The deferral or {@code null}.
+     */
+    void finish(final AutoDeferral deferral) {
+        if (deferral == null) {
+            return;
+        }
+        if (deferral.claim()) {
+            deferrals.remove(deferral.interaction.getId(), deferral);
+        } else {
+            // The handler might still send follow-up messages, so the deferral has to stay visible for a while
+            timerWheel.schedule(() -> deferrals.remove(deferral.interaction.getId(), deferral), DEFERRED_RETENTION_NANOS);
+        }
+    }
+
+    /**
+     * Claims the initial response of the interaction for its handler, which prevents deferring it automatically.
+     *
+     * @param interactionId The id of the interaction.
+     * @return Whether the handler may respond immediately, false if the interaction has already been deferred.
+     */
+    boolean claimImmediateResponse(final long interactionId) {
+        final AutoDeferral deferral = deferrals.get(interactionId);
+        return deferral == null || deferral.claim();
+    }
+
+    /**
+     * Gets the automatic deferral of an interaction.
+     *
+     * @param interactionId The id of the interaction.
+     * @return The future of the deferral or {@code null} if the interaction has not been deferred.
+     */
+    CompletableFuture<Void> getDeferral(final long interactionId) {
+        final AutoDeferral deferral = deferrals.get(interactionId);
+        return deferral == null || deferral.state.get() != AutoDeferral.DEFERRED ? null : deferral.deferred;
+    }
+
+    /**
+     * Gets the statistics.
+     *
+     * @return The statistics.
+     */
+    AutoDeferralStats getStats() {
+        return new AutoDeferralStats(deferredCount.sum(), failedCount.sum(), totalLatencyNanos.sum(), maxLatencyNanos.get());
+    }
+
+    /**
+     * Stops deferring interactions.
+     */
+    void shutdown() {
+        timerWheel.stop();
+    }
+
+    /**
+     * The automatic deferral of one interaction.
+     */
+    final class AutoDeferral implements Runnable {
+
+        private static final int PENDING = 0;
+        private static final int CLAIMED = 1;
+        private static final int DEFERRED = 2;
+
+        private final InteractionBase interaction;
+        private final long receivedNanos;
+        private final AtomicInteger state = new AtomicInteger(PENDING);
+        private volatile TimerWheel.Timeout timeout;
+        private final CompletableFuture<Void> deferred = new CompletableFuture<>();
+
+        private AutoDeferral(final InteractionBase interaction, final long receivedNanos) {
+            this.interaction = interaction;
+            this.receivedNanos = receivedNanos;
+        }
+
+        /**
+         * Claims the initial response for the handler.
+         *
+         * @return Whether the handler may respond immediately.
+         */
+        private boolean claim() {
+            if (state.compareAndSet(PENDING, CLAIMED)) {
+                final TimerWheel.Timeout currentTimeout = timeout;
+                if (currentTimeout != null) {
+                    currentTimeout.cancel();
+                }
+                return true;
+            }
+            return state.get() == CLAIMED;
+        }
+
+        @Override
+        public void run() {
+            if (!state.compareAndSet(PENDING, DEFERRED)) {
+                return;
+            }
+            deferredCount.increment();
+            final CompletableFuture<?> response = interaction instanceof MessageComponentInteractionBase componentInteraction
+                    ? componentInteraction.acknowledge()
+                    : interaction.respondLater(ephemeral);
+            response.whenComplete((result, throwable) -> {
+                if (throwable != null) {
+                    failedCount.increment();
+                    LOGGER.warn("Could not defer the slow interaction {}", interaction.getId(), throwable);
+                    deferred.completeExceptionally(throwable);
+                } else {
+                    final long latencyNanos = System.nanoTime() - receivedNanos;
+                    totalLatencyNanos.add(latencyNanos);
+                    maxLatencyNanos.accumulate(latencyNanos);
+                    LOGGER.debug("Deferred the slow interaction {} after {} ms", interaction.getId(),
+                            TimeUnit.NANOSECONDS.toMillis(latencyNanos));
+                    deferred.complete(null);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AutocompleteChoiceProvider;
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiPredicate;
+
+/**
+ * Caches the choices of autocomplete providers by command, focused option, typed value and optionally server.
+ * Commands are identified by their id and full name, so subcommands and server commands with the same name never share
+ * their choices.
+ * <p>
+ * If a provider can be refined and its choices for a shorter start of the typed value were complete, meaning fewer
+ * than {@value AutocompleteChoiceProvider#MAX_CHOICES}, the choices for the typed value are filtered from them
+ * without calling the provider.
+ */
+final class AutocompleteCache {
+
+    private final LruCache<Key, Entry> entries;
+    private final long timeToLiveNanos;
+    private final boolean perServer;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new autocomplete cache.
+     *
+     * @param maximumSize     The maximum amount of cached values.
+     * @param timeToLiveNanos How long cached choices are used.
+     * @param perServer       Whether the choices are cached separately for every server.
+     */
+    AutocompleteCache(final int maximumSize, final long timeToLiveNanos, final boolean perServer) {
+        this.entries = new LruCache<>(maximumSize);
+        this.timeToLiveNanos = timeToLiveNanos;
+        this.perServer = perServer;
+    }
+
+    /**
+     * Gets the choices for the focused option of the interaction.
+     *
+     * @param interaction The autocomplete interaction.
+     * @param serverId    The id of the server the command is registered on or used in, 0 if there is none.
+     * @param optionName  The name of the focused option.
+     * @param value       The typed value of the focused option.
+     * @param provider    The provider of the choices.
+     * @return The choices.
+     */
+    List<SlashCommandOptionChoice> getChoices(final AutocompleteInteraction interaction, final long serverId, final String optionName,
+                                              final String value, final AutocompleteChoiceProvider provider) {
+        final long now = System.nanoTime();
+        final long commandId = interaction.getCommandId();
+        final String commandName = interaction.getFullCommandName();
+        final long keyServerId = perServer ? serverId : 0;
+        final Key key = new Key(commandId, commandName, optionName, keyServerId, value);
+
+        final Entry cached = getValid(key, now);
+        if (cached != null) {
+            hitCount.increment();
+            return cached.choices();
+        }
+
+        final BiPredicate<SlashCommandOptionChoice, String> refinementFilter = provider.getRefinementFilter();
+        if (refinementFilter != null) {
+            for (int length = value.length() - 1; length >= 0; length--) {
+                final Entry shorter = getValid(new Key(commandId, commandName, optionName, keyServerId, value.substring(0, length)), now);
+                if (shorter != null && shorter.complete()) {
+                    hitCount.increment();
+                    final List<SlashCommandOptionChoice> refined = new ArrayList<>();
+                    for (final SlashCommandOptionChoice choice : shorter.choices()) {
+                        if (refinementFilter.test(choice, value)) {
+                            refined.add(choice);
+                        }
+                    }
+                    final List<SlashCommandOptionChoice> choices = List.copyOf(refined);
+                    entries.put(key, new Entry(choices, true, shorter.expiresAtNanos()));
+                    return choices;
+                }
+            }
+        }
+
+        missCount.increment();
+        final List<SlashCommandOptionChoice> choices = List.copyOf(provider.getChoices(interaction));
+        entries.put(key, new Entry(choices, choices.size() < AutocompleteChoiceProvider.MAX_CHOICES, now + timeToLiveNanos));
+        return choices;
+    }
+
+    private Entry getValid(final Key key, final long now) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtNanos() - now < 0) {
+            entries.remove(key);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Gets the statistics of this cache.
+     *
+     * @return The statistics.
+     */
+    CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), entries.size());
+    }
+
+    /**
+     * The key of cached choices.
+     *
+     * @param commandId   The id of the command, which differs for every server a server command is registered on.
+     * @param commandName The full name of the command including its subcommand group and subcommand.
+     * @param optionName  The name of the focused option.
+     * @param serverId    The id of the server if the choices are cached per server, otherwise 0.
+     * @param value       The typed value.
+     */
+    private record Key(long commandId, String commandName, String optionName, long serverId, String value) {
+    }
+
+    /**
+     * Cached choices.
+     *
+     * @param choices        The choices.
+     * @param complete       Whether the choices contain every choice for the value.
+     * @param expiresAtNanos The {@link System#nanoTime()} after which the choices are not used anymore.
+     */
+    private record Entry(List<SlashCommandOptionChoice> choices, boolean complete, long expiresAtNanos) {
+    }
+}
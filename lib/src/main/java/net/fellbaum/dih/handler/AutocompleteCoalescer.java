@@ -0,0 +1,99 @@
+package net.fellbaum.dih.handler;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Tracks the latest autocomplete interaction of every user for a focused option, so older interactions which have
+ * not started yet can be skipped. While typing, Discord sends an autocomplete interaction for every keystroke, but
+ * only shows the choices of the latest one.
+ */
+final class AutocompleteCoalescer {
+
+    /**
+     * The sequence of the latest received interaction by its key. Keys are removed once their latest interaction has finished.
+     */
+    private final Map<Key, Long> latest = new ConcurrentHashMap<>();
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final LongAdder skippedCount = new LongAdder();
+
+    /**
+     * Registers a received autocomplete interaction, superseding all previously registered ones with the same key.
+     * Every ticket has to be finished with {@link #finish(Ticket)}.
+     *
+     * @param userId     The id of the user typing.
+     * @param commandId  The id of the command.
+     * @param optionName The name of the focused option.
+     * @return The ticket of the interaction.
+     */
+    Ticket register(final long userId, final long commandId, final String optionName) {
+        final Ticket ticket = new Ticket(new Key(userId, commandId, optionName), sequence.incrementAndGet());
+        // A racing registration of an older ticket must not replace the sequence of a newer one
+        latest.merge(ticket.key, ticket.sequence, Math::max);
+        return ticket;
+    }
+
+    /**
+     * Checks whether the interaction should still be handled when its handler is about to start.
+     *
+     * @param ticket The ticket of the interaction.
+     * @return Whether no newer interaction with the same key has been registered.
+     */
+    boolean begin(final Ticket ticket) {
+        final Long latestSequence = latest.get(ticket.key);
+        if (latestSequence != null && latestSequence > ticket.sequence) {
+            skippedCount.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Finishes an interaction whose handler has completed, was skipped or was never scheduled.
+     *
+     * @param ticket The ticket of the interaction.
+     */
+    void finish(final Ticket ticket) {
+        latest.remove(ticket.key, ticket.sequence);
+    }
+
+    /**
+     * Gets the amount of interactions which were skipped because a newer one had been received.
+     *
+     * @return The amount of skipped interactions.
+     */
+    long getSkippedCount() {
+        return skippedCount.sum();
+    }
+
+    /**
+     * Gets the amount of keys with interactions in flight.
+     *
+     * @return The amount of keys.
+     */
+    int size() {
+        return latest.size();
+    }
+
+    private record Key(long userId, long commandId, String optionName) {
+    }
+
+    /**
+     * A registered autocomplete interaction.
+     */
+    static final class Ticket {
+
+        private final Key key;
+
+        private final long sequence;
+
+        private Ticket(final Key key, final long sequence) {
+            this.key = key;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * Statistics of a cache used by the interaction handler.
+ *
+ * @param hitCount  The amount of lookups which were answered from the cache.
+ * @param missCount The amount of lookups which had to be computed.
+ * @param size      The amount of currently cached entries.
+ */
+public record CacheStats(long hitCount, long missCount, long size) {
+
+    /**
+     * Gets the total amount of lookups.
+     *
+     * @return The amount of lookups.
+     */
+    public long requestCount() {
+        return hitCount + missCount;
+    }
+
+    /**
+     * Gets the ratio of lookups which were answered from the cache.
+     *
+     * @return The hit rate between 0 and 1.
+     */
+    public double hitRate() {
+        final long requestCount = requestCount();
+        return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+    }
+
+    /**
+     * Adds the statistics of another cache to these statistics.
+     *
+     * @param other The other statistics.
+     * @return The combined statistics.
+     */
+    public CacheStats plus(final CacheStats other) {
+        return new CacheStats(hitCount + other.hitCount, missCount + other.missCount, size + other.size);
+    }
+}
@@ -1,22 +1,29 @@
 package net.fellbaum.dih.handler;
 
 import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.InteractionRegistry;
 import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
-import net.fellbaum.dih.interaction.applicationcommand.MessageContextMenuCommand;
-import net.fellbaum.dih.interaction.applicationcommand.SlashCommand;
-import net.fellbaum.dih.interaction.applicationcommand.UserContextMenuCommand;
 import net.fellbaum.dih.interaction.component.AbstractComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.interaction.ApplicationCommand;
+import org.javacord.api.interaction.ApplicationCommandInteraction;
+import org.javacord.api.interaction.InteractionBase;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
 import java.util.Collection;
-import java.util.Collections;
-import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.stream.Collectors;
 
 /**
@@ -25,87 +32,452 @@ import java.util.stream.Collectors;
 @SuppressWarnings({"UnusedReturnValue", "unused"})
 public non-sealed class ComplexInteractionHandler extends InteractionHandler<ComplexInteractionHandler> {
 
+    private static final Logger LOGGER = LogManager.getLogger(ComplexInteractionHandler.class);
+
+    /**
+     * The slash, user context menu and message context menu commands of every server in memory.
+     */
+    private final ServerCommandTable serverCommands = new ServerCommandTable();
+
+    /**
+     * Stores the commands of all servers, or {@code null} if they are only kept in memory.
+     */
+    private volatile ServerCommandRepository repository;
+
+    /**
+     * Runs the loads of server commands from the repository.
+     */
+    private volatile Executor loadExecutor = InteractionExecutors.inline();
+
+    /**
+     * The loads of server commands in progress by server id.
+     */
+    private final Map<Long, CompletableFuture<ServerCommands>> loads = new ConcurrentHashMap<>();
+
     /**
-     * The complex server slash commands.
+     * The operations in progress by server id. An operation serializes the loads, changes and removals of the
+     * commands of one server, including their repository accesses, without blocking the lookups of the table or the
+     * operations of any other server.
      */
-    protected final Map<Long, Map<String, SlashCommand>> complexServerSlashCommands = new ConcurrentHashMap<>();
+    private final Map<Long, ServerOperation> serverOperations = new ConcurrentHashMap<>();
+
     /**
-     * The complex server message context menu commands.
+     * The partitioning of the servers between the nodes of the bot, or {@code null} if this node handles all servers.
      */
-    protected final Map<Long, Map<String, MessageContextMenuCommand>> complexServerMessageContextMenuCommands = new ConcurrentHashMap<>();
+    private volatile Partitioning partitioning;
 
     /**
-     * The complex server user context menu commands.
+     * Whether the interaction dispatched by the current thread was forwarded by another node.
      */
-    protected final Map<Long, Map<String, UserContextMenuCommand>> complexServerUserContextMenuCommands = new ConcurrentHashMap<>();
+    private static final ThreadLocal<Boolean> FORWARDED = ThreadLocal.withInitial(() -> false);
 
     /**
      * Creates an instance of this class.
      */
     public ComplexInteractionHandler() {
         super(ComplexityMode.COMPLEX);
+    }
 
-        slashCommandFunction = (data) -> {
-            final long serverId = data.serverId();
-            final String commandName = data.commandName();
-            if (complexServerSlashCommands.containsKey(data.serverId()) && complexServerSlashCommands.get(serverId).containsKey(commandName)) {
-                final Map<String, SlashCommand> slashCommands = complexServerSlashCommands.get(serverId);
-                if (slashCommands.containsKey(commandName)) {
-                    handleCommand(data.slashCommandInteraction(), slashCommands.get(commandName));
-                    return true;
-                }
+    /**
+     * Stores the commands of all servers in a repository and only keeps the commands of recently active servers in
+     * memory. The commands of a server are loaded from the repository when it is not in memory and an interaction of
+     * it is received, and saved whenever commands are registered or unregistered for it.
+     * This has to be set before registering any server command.
+     *
+     * @param repository             The repository.
+     * @param maximumResidentServers The maximum amount of servers whose commands are kept in memory.
+     * @param loadExecutor           Runs the loads from the repository, for example
+     *                               {@link InteractionExecutors#threadPerInteraction()} if loading blocks.
+     * @return The current instance to chain methods.
+     */
+    public ComplexInteractionHandler setServerCommandRepository(final ServerCommandRepository repository,
+                                                                final int maximumResidentServers,
+                                                                final Executor loadExecutor) {
+        serverCommands.setMaximumSize(maximumResidentServers);
+        this.loadExecutor = loadExecutor;
+        this.repository = repository;
+        return this;
+    }
+
+    /**
+     * Partitions the servers between the nodes of a bot, so every node only keeps the commands of the servers it owns
+     * in memory. Interactions of servers owned by another node are forwarded to it with the transport, commands
+     * registered for them are only saved to the repository and the owner is told to reload them.
+     * <p>
+     * The servers are assigned to the nodes with the ring, which has to contain the same nodes on every node. When a
+     * node is added to or removed from the ring, every node removes the servers it no longer owns from memory and
+     * loads the servers it gained from the repository on their next interaction. Partitioning therefore requires a
+     * {@link ServerCommandRepository} shared by all nodes, for example a database, set with
+     * {@link #setServerCommandRepository(ServerCommandRepository, int, Executor)} before. Global commands and
+     * components are not partitioned and have to be registered on every node.
+     *
+     * @param localNodeId The id of this node on the ring.
+     * @param ring        The ring assigning the servers to the nodes.
+     * @param transport   Forwards interactions and changes to other nodes.
+     * @return The current instance to chain methods.
+     * @throws IllegalStateException If no server command repository is set.
+     */
+    public ComplexInteractionHandler setPartitioning(final String localNodeId, final ConsistentHashRing ring, final PartitionTransport transport) {
+        if (repository == null) {
+            throw new IllegalStateException("Partitioning requires a server command repository shared by all nodes");
+        }
+        final Partitioning previous = partitioning;
+        if (previous != null) {
+            previous.ring().removeListener(previous.listener());
+        }
+        final Partitioning updated = new Partitioning(localNodeId, ring, transport, this::rebalance);
+        partitioning = updated;
+        ring.addListener(updated.listener());
+        rebalance();
+        return this;
+    }
+
+    /**
+     * Checks whether this node owns a server, which is always the case if the servers are not partitioned.
+     *
+     * @param serverId The id of the server.
+     * @return Whether this node owns the server.
+     */
+    public boolean ownsServer(final long serverId) {
+        final Partitioning current = partitioning;
+        if (current == null) {
+            return true;
+        }
+        final String owner = current.ring().getOwner(serverId);
+        return owner == null || owner.equals(current.localNodeId());
+    }
+
+    /**
+     * Dispatches an interaction forwarded by another node with a {@link PartitionTransport}. Unlike
+     * {@link #handleInteraction(InteractionBase)}, the interaction is never forwarded again, even if the ring of this
+     * node assigns its server to another node while nodes are added or removed.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleForwardedInteraction(final InteractionBase interaction) {
+        FORWARDED.set(true);
+        try {
+            handleInteraction(interaction);
+        } finally {
+            FORWARDED.set(false);
+        }
+    }
+
+    /**
+     * Removes the commands of a server from memory, so they are loaded from the repository on the next interaction of
+     * the server. Called by a {@link PartitionTransport} when another node changed the commands of a server this node
+     * owns.
+     *
+     * @param serverId The id of the server.
+     */
+    public void invalidateServerCommands(final long serverId) {
+        evictServerCommands(serverId);
+    }
+
+    /**
+     * Removes the commands of a server from memory, so loads in progress do not install them again.
+     *
+     * @param serverId The id of the server.
+     */
+    private void evictServerCommands(final long serverId) {
+        final ServerOperation operation = serverOperations.get(serverId);
+        if (operation == null) {
+            // A load starting now reads the repository after the change this eviction is for
+            serverCommands.remove(serverId);
+            return;
+        }
+        synchronized (operation) {
+            operation.invalidated = true;
+            serverCommands.remove(serverId);
+        }
+    }
+
+    /**
+     * Starts an operation on the commands of a server, waiting for the operation in progress on the server to end.
+     *
+     * @param serverId The id of the server.
+     * @return The operation, which has to be ended with {@link #endServerOperation(long, ServerOperation)}.
+     */
+    private ServerOperation beginServerOperation(final long serverId) {
+        final ServerOperation operation = new ServerOperation();
+        boolean interrupted = false;
+        while (true) {
+            final ServerOperation current = serverOperations.putIfAbsent(serverId, operation);
+            if (current == null) {
+                break;
             }
-            return false;
-        };
-
-        autocompleteCommandFunction = (data) -> {
-            final long serverId = data.serverId();
-            final String commandName = data.commandName();
-            if (complexServerSlashCommands.containsKey(data.serverId()) && complexServerSlashCommands.get(serverId).containsKey(commandName)) {
-                final Map<String, SlashCommand> slashCommands = complexServerSlashCommands.get(serverId);
-                if (slashCommands.containsKey(commandName)) {
-                    slashCommands.get(commandName).autocompletionHandler(data.autocompleteInteraction());
-                    return true;
+            synchronized (current) {
+                while (serverOperations.get(serverId) == current) {
+                    try {
+                        current.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
                 }
             }
-            return false;
-        };
-
-        userContextMenuFunction = (data) -> {
-            final long serverId = data.serverId();
-            final String commandName = data.commandName();
-            if (complexServerUserContextMenuCommands.containsKey(serverId) && complexServerUserContextMenuCommands.get(serverId).containsKey(commandName)) {
-                final Map<String, UserContextMenuCommand> userContextMenuCommandMap = complexServerUserContextMenuCommands.get(serverId);
-                if (userContextMenuCommandMap.containsKey(commandName)) {
-                    userContextMenuCommandMap.get(commandName).runCommand(data.userContextMenuInteraction());
-                    return true;
-                }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return operation;
+    }
+
+    private void endServerOperation(final long serverId, final ServerOperation operation) {
+        serverOperations.remove(serverId, operation);
+        synchronized (operation) {
+            operation.notifyAll();
+        }
+    }
+
+    /**
+     * Removes the servers this node no longer owns from memory, their commands are in the repository.
+     */
+    private void rebalance() {
+        final int before = serverCommands.size();
+        serverCommands.forEachServerId(serverId -> {
+            if (!ownsServer(serverId)) {
+                evictServerCommands(serverId);
+            }
+        });
+        LOGGER.debug("Removed {} servers owned by other nodes from memory", before - serverCommands.size());
+    }
+
+    /**
+     * Tells the owner of a server owned by another node that its commands changed.
+     *
+     * @param serverId The id of the server.
+     */
+    private void invalidateOwner(final long serverId) {
+        final Partitioning current = partitioning;
+        final String owner = current == null ? null : current.ring().getOwner(serverId);
+        if (owner == null || owner.equals(current.localNodeId())) {
+            return;
+        }
+        CompletableFuture<Void> invalidation;
+        try {
+            invalidation = current.transport().invalidate(owner, serverId);
+        } catch (RuntimeException e) {
+            invalidation = CompletableFuture.failedFuture(e);
+        }
+        invalidation.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Could not tell the node {} that the commands of the server {} changed", owner, serverId, throwable);
             }
+        });
+    }
+
+    /**
+     * Gets the amount of servers whose commands are in memory, including servers known to have no commands.
+     *
+     * @return The amount of servers.
+     */
+    public int getResidentServerCount() {
+        return serverCommands.size();
+    }
+
+    /**
+     * Gets the amount of servers whose commands were removed from memory to stay below the maximum amount of
+     * resident servers.
+     *
+     * @return The amount of evicted servers.
+     */
+    public long getEvictedServerCount() {
+        return serverCommands.getEvictionCount();
+    }
+
+    /**
+     * Dispatches an interaction to the commands of a server, loading them from the repository if necessary.
+     *
+     * Interactions of servers owned by another node are forwarded to it instead.
+     */
+    @Override
+    boolean dispatchServerCommandLater(final DispatchType type, final long serverId, final String commandName,
+                                       final ApplicationCommandInteraction interaction) {
+        final Partitioning current = partitioning;
+        if (current != null && !FORWARDED.get() && !ownsServer(serverId)) {
+            forward(current, serverId, type, interaction);
+            return true;
+        }
+        final ServerCommands resident = serverCommands.get(serverId);
+        if (resident != null) {
+            return dispatchApplicationCommand(type, resident, commandName, interaction);
+        }
+        if (repository == null) {
             return false;
-        };
-
-        messageContextMenuFunction = (data) -> {
-            final long serverId = data.serverId();
-            final String commandName = data.commandName();
-            if (complexServerMessageContextMenuCommands.containsKey(serverId) && complexServerMessageContextMenuCommands.get(serverId).containsKey(commandName)) {
-                final Map<String, MessageContextMenuCommand> messageContextMenuCommandMap = complexServerMessageContextMenuCommands.get(serverId);
-                if (messageContextMenuCommandMap.containsKey(commandName)) {
-                    messageContextMenuCommandMap.get(commandName).runCommand(data.messageContextMenuInteraction());
-                    return true;
+        }
+        loadServerCommands(serverId).whenComplete((commands, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Could not load the commands of the server {}", serverId, throwable);
+                recordUnmatched(type);
+            } else if (!dispatchApplicationCommand(type, commands, commandName, interaction)) {
+                LOGGER.info("Received a {} interaction for a not registered command of the server {}", type, serverId);
+                recordUnmatched(type);
+            }
+        });
+        return true;
+    }
+
+    private void forward(final Partitioning current, final long serverId, final DispatchType type, final InteractionBase interaction) {
+        final String owner = current.ring().getOwner(serverId);
+        CompletableFuture<Void> forwarded;
+        try {
+            forwarded = current.transport().forward(owner, interaction);
+        } catch (RuntimeException e) {
+            forwarded = CompletableFuture.failedFuture(e);
+        }
+        forwarded.whenComplete((ignored, throwable) -> {
+            if (throwable != null) {
+                LOGGER.warn("Could not forward a {} interaction of the server {} to the node {}", type, serverId, owner, throwable);
+            }
+        });
+    }
+
+    /**
+     * Loads the commands of a server from the repository into memory. Concurrent calls for the same server share
+     * one load, which waits for changes and removals of the server in progress. If the commands of the server are
+     * invalidated while they are read, the read commands might be stale and are read again.
+     *
+     * @param serverId The id of the server.
+     * @return A future completing with the commands once they are in memory.
+     */
+    private CompletableFuture<ServerCommands> loadServerCommands(final long serverId) {
+        final CompletableFuture<ServerCommands> running = loads.get(serverId);
+        if (running != null) {
+            return running;
+        }
+        final CompletableFuture<ServerCommands> load = new CompletableFuture<>();
+        final CompletableFuture<ServerCommands> concurrent = loads.putIfAbsent(serverId, load);
+        if (concurrent != null) {
+            return concurrent;
+        }
+
+        final ServerCommandRepository currentRepository = repository;
+        try {
+            loadExecutor.execute(() -> {
+                try {
+                    load.complete(readAndInstallServerCommands(currentRepository, serverId));
+                } catch (Throwable t) {
+                    load.completeExceptionally(t);
+                } finally {
+                    loads.remove(serverId, load);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            loads.remove(serverId, load);
+            load.completeExceptionally(e);
+        }
+        return load;
+    }
+
+    private ServerCommands readAndInstallServerCommands(final ServerCommandRepository repository, final long serverId) {
+        final ServerOperation operation = beginServerOperation(serverId);
+        try {
+            while (true) {
+                // Commands registered while this load waited have already been merged with the saved ones
+                final ServerCommands resident = serverCommands.get(serverId);
+                if (resident != null) {
+                    return resident;
+                }
+                final ServerCommands loaded = readServerCommands(repository, serverId);
+                synchronized (operation) {
+                    if (!operation.invalidated) {
+                        return serverCommands.compute(serverId, ignored -> loaded);
+                    }
+                    operation.invalidated = false;
+                }
+                if (!ownsServer(serverId)) {
+                    return loaded;
                 }
+                // Another node changed the commands of the server while they were read, read them again
             }
-            return false;
-        };
+        } finally {
+            endServerOperation(serverId, operation);
+        }
+    }
+
+    /**
+     * Gets the commands of a server from memory or the repository.
+     *
+     * @param serverId The id of the server.
+     * @return The commands.
+     */
+    private ServerCommands getServerCommands(final long serverId) {
+        if (!ownsServer(serverId)) {
+            return readServerCommands(repository, serverId);
+        }
+        final ServerCommands resident = serverCommands.get(serverId);
+        if (resident != null || repository == null) {
+            return resident == null ? ServerCommands.EMPTY : resident;
+        }
+        return loadServerCommands(serverId).join();
+    }
+
+    private static ServerCommands readServerCommands(final ServerCommandRepository repository, final long serverId) {
+        try {
+            ServerCommands commands = ServerCommands.EMPTY;
+            for (final AbstractApplicationCommand command : repository.load(serverId)) {
+                commands = commands.with(command);
+            }
+            return commands;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not load the commands of the server " + serverId, e);
+        }
+    }
+
+    /**
+     * Removes the commands of a server from memory and the repository.
+     *
+     * @param serverId The id of the server.
+     */
+    private void removeServerCommands(final long serverId) {
+        final ServerCommandRepository currentRepository = repository;
+        final ServerOperation operation = beginServerOperation(serverId);
+        try {
+            serverCommands.remove(serverId);
+            if (currentRepository != null) {
+                currentRepository.delete(serverId);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete the commands of the server " + serverId, e);
+        } finally {
+            endServerOperation(serverId, operation);
+        }
+        if (currentRepository != null) {
+            invalidateOwner(serverId);
+        }
+    }
+
+    /**
+     * Register all interactions of a registry to the handler, for example the one generated by the
+     * {@code dih-processor} annotation processor. The registry must only contain global commands and components,
+     * server commands have to be registered per server.
+     * All interactions are registered at once, so received interactions see either none or all of them.
+     *
+     * @param registry The registry.
+     * @return The current instance to chain methods.
+     * @throws IllegalArgumentException If the registry contains a server command, nothing is registered then.
+     */
+    public ComplexInteractionHandler registerGlobalInteractions(final InteractionRegistry registry) {
+        final List<Interaction> interactions = registry.createInteractions();
+        for (final Interaction interaction : interactions) {
+            if (interaction instanceof AbstractApplicationCommand command && !command.isGlobal()) {
+                throw new IllegalArgumentException("The registry contains the server command " + interaction.getClass().getName()
+                        + ", register it per server instead");
+            }
+        }
+        registerAll(interactions);
+        return this;
     }
 
     /**
      * Register global interactions to the handler.
+     * All interactions are registered at once, so received interactions see either none or all of them.
      *
      * @param interactions The interactions to register.
      * @return The current instance to chain methods.
      */
     public ComplexInteractionHandler registerGlobalInteractions(final Collection<Interaction> interactions) {
-        interactions.forEach(this::registerGlobalInteraction);
+        registerAll(interactions);
         return this;
     }
 
@@ -116,37 +488,45 @@ public non-sealed class ComplexInteractionHandler extends InteractionHandler<Com
      * @return The current instance to chain methods.
      */
     public ComplexInteractionHandler registerGlobalInteraction(final Interaction interaction) {
+        updateSnapshot(current -> withInteraction(current, interaction));
+        return this;
+    }
+
+    @Override
+    ServerCommands findServerCommands(final long serverId) {
+        if (!ownsServer(serverId)) {
+            return null;
+        }
+        final ServerCommands resident = serverCommands.get(serverId);
+        if (resident != null) {
+            return resident;
+        }
+        return repository == null ? ServerCommands.EMPTY : null;
+    }
+
+    @Override
+    DispatchSnapshot withInteraction(final DispatchSnapshot current, final Interaction interaction) {
         if (interaction instanceof AbstractApplicationCommand abstractApplicationCommand) {
-            if (abstractApplicationCommand.isGlobal()) {
-                if (abstractApplicationCommand instanceof SlashCommand s) {
-                    globalSlashCommands.put(abstractApplicationCommand.getName(), s);
-                } else if (abstractApplicationCommand instanceof MessageContextMenuCommand m) {
-                    globalMessageContextMenuCommands.put(abstractApplicationCommand.getName(), m);
-                } else if (abstractApplicationCommand instanceof UserContextMenuCommand u) {
-                    globalUserContextMenuCommands.put(abstractApplicationCommand.getName(), u);
-                } else {
-                    throw new IllegalArgumentException("Argument is a not supported Interaction");
-                }
-            } else {
+            if (!abstractApplicationCommand.isGlobal()) {
                 throw new IllegalArgumentException("Argument is a not a global application command");
             }
+            return current.withGlobalCommand(abstractApplicationCommand);
         } else if (interaction instanceof AbstractComponent abstractComponent) {
-            registerComponent(abstractComponent);
-        } else {
-            throw new IllegalArgumentException("Argument is a not supported Interaction");
+            return current.withComponent(abstractComponent);
         }
-        return this;
+        throw new IllegalArgumentException("Argument is a not supported Interaction");
     }
 
     /**
      * Register complex server interactions to the handler.
+     * All interactions are registered at once, so received interactions see either none or all of them.
      *
      * @param server       The server.
      * @param interactions The interactions to register.
      * @return The current instance to chain methods.
      */
     public ComplexInteractionHandler registerServerInteraction(final Server server, final Collection<Interaction> interactions) {
-        interactions.forEach(interaction -> registerServerInteraction(server.getId(), interaction));
+        updateServerCommands(server.getId(), interactions, false);
         return this;
     }
 
@@ -158,42 +538,86 @@ public non-sealed class ComplexInteractionHandler extends InteractionHandler<Com
      * @return The current instance to chain methods.
      */
     public ComplexInteractionHandler registerServerInteraction(final long serverId, final Interaction interaction) {
-        if (interaction instanceof AbstractApplicationCommand abstractApplicationCommand) {
-            if (!abstractApplicationCommand.isGlobal()) {
-                if (abstractApplicationCommand instanceof SlashCommand s) {
-                    complexServerSlashCommands.compute(serverId, (k, v) -> addToMap(k, v, s));
-                } else if (abstractApplicationCommand instanceof MessageContextMenuCommand m) {
-                    complexServerMessageContextMenuCommands.compute(serverId, (k, v) -> addToMap(k, v, m));
-                } else if (abstractApplicationCommand instanceof UserContextMenuCommand u) {
-                    complexServerUserContextMenuCommands.compute(serverId, (k, v) -> addToMap(k, v, u));
-                } else {
-                    throw new IllegalArgumentException("Argument is a not supported Interaction");
-                }
-            } else {
+        updateServerCommands(serverId, List.of(interaction), false);
+        return this;
+    }
+
+    /**
+     * Atomically replaces all registered interactions of a server by the given ones, for example to reload the
+     * commands of the server. Interactions received during the replacement are dispatched either to the previous or
+     * to the new interactions, never to a mix of both.
+     *
+     * @param serverId     The id of the server.
+     * @param interactions The new interactions.
+     * @return The current instance to chain methods.
+     */
+    public ComplexInteractionHandler replaceServerInteractions(final long serverId, final Collection<Interaction> interactions) {
+        updateServerCommands(serverId, interactions, true);
+        return this;
+    }
+
+    /**
+     * Atomically adds commands to a server or replaces its commands.
+     *
+     * @param serverId     The id of the server.
+     * @param interactions The server commands.
+     * @param replace      Whether to replace the registered commands of the server.
+     */
+    private void updateServerCommands(final long serverId, final Collection<? extends Interaction> interactions, final boolean replace) {
+        final List<AbstractApplicationCommand> commands = new ArrayList<>(interactions.size());
+        for (final Interaction interaction : interactions) {
+            if (!(interaction instanceof AbstractApplicationCommand abstractApplicationCommand)) {
+                throw new IllegalArgumentException("Argument is a not supported Interaction");
+            }
+            if (abstractApplicationCommand.isGlobal()) {
                 throw new IllegalArgumentException("Argument is a not a global application command");
             }
-        } else {
-            throw new IllegalArgumentException("Argument is a not supported Interaction");
-            //registerInteraction(interaction);
+            commands.add(abstractApplicationCommand);
         }
-        return this;
-    }
 
-    private <T extends AbstractApplicationCommand> Map<String, T> addToMap(final Long serverId, Map<String, T> stringMap, final T abstractApplicationCommand) {
-        if (stringMap == null) {
-            stringMap = new ConcurrentHashMap<>();
+        // The repository is only accessed under the operation of this server, the lookups and the other servers
+        // are not blocked by it
+        final ServerCommandRepository currentRepository = repository;
+        final boolean owned = ownsServer(serverId);
+        final ServerOperation operation = beginServerOperation(serverId);
+        try {
+            final ServerCommands resident = owned ? serverCommands.get(serverId) : null;
+            ServerCommands updated;
+            if (replace) {
+                updated = ServerCommands.EMPTY;
+            } else if (resident != null) {
+                updated = resident;
+            } else if (currentRepository != null) {
+                // The server might not be in memory, registering must not drop its saved commands
+                updated = readServerCommands(currentRepository, serverId);
+            } else {
+                updated = ServerCommands.EMPTY;
+            }
+            for (final AbstractApplicationCommand command : commands) {
+                updated = updated.with(command);
+            }
+            if (currentRepository != null) {
+                currentRepository.save(serverId, updated.getAll());
+            }
+            if (owned) {
+                final ServerCommands installed = updated;
+                serverCommands.compute(serverId, ignored -> installed);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save the commands of the server " + serverId, e);
+        } finally {
+            endServerOperation(serverId, operation);
+        }
+        if (!owned) {
+            // The server is only saved, its owner loads it from the shared repository
+            invalidateOwner(serverId);
         }
-        stringMap.put(abstractApplicationCommand.getName(), abstractApplicationCommand);
-        return stringMap;
     }
 
     @Override
     public ComplexInteractionHandler attachListeners(DiscordApi api) {
         api.addServerLeaveListener(event -> {
-            final long serverId = event.getServer().getId();
-            complexServerSlashCommands.remove(serverId);
-            complexServerMessageContextMenuCommands.remove(serverId);
-            complexServerUserContextMenuCommands.remove(serverId);
+            removeServerCommands(event.getServer().getId());
         });
         return super.attachListeners(api);
     }
@@ -205,29 +629,64 @@ public non-sealed class ComplexInteractionHandler extends InteractionHandler<Com
      * @return A future to check if the operation was successful and the registered application commands.
      */
     public CompletableFuture<Set<ApplicationCommand>> bulkOverwriteServerApplicationCommands(final Server server) {
-        Set<AbstractApplicationCommand> abstractApplicationCommands = new HashSet<>();
-        abstractApplicationCommands.addAll(complexServerSlashCommands.getOrDefault(server.getId(), Collections.emptyMap()).values());
-        abstractApplicationCommands.addAll(complexServerMessageContextMenuCommands.getOrDefault(server.getId(), Collections.emptyMap()).values());
-        abstractApplicationCommands.addAll(complexServerUserContextMenuCommands.getOrDefault(server.getId(), Collections.emptyMap()).values());
+        final List<AbstractApplicationCommand> abstractApplicationCommands = getServerCommands(server.getId()).getAll();
 
-        return server.getApi().bulkOverwriteServerApplicationCommands(server, abstractApplicationCommands
+        return overwriteIfChanged(ApplicationCommandSyncState.serverScope(server.getId()),
+                abstractApplicationCommands
                         .stream()
                         .map(AbstractApplicationCommand::getApplicationCommandBuilder)
-                        .collect(Collectors.toSet()))
-                .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Server"));
+                        .collect(Collectors.toSet()),
+                builders -> server.getApi().bulkOverwriteServerApplicationCommands(server, builders)
+                        .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Server")),
+                () -> server.getApi().getServerApplicationCommands(server));
 
     }
 
+    /**
+     * Creates a deployment overwriting the registered application commands of many servers, adapting the amount of
+     * concurrent overwrites to the rate limits of Discord. Configure it and call {@link ServerCommandDeployment#start()}.
+     * A checkpoint of the deployment only skips servers whose registered commands did not change since.
+     *
+     * @param servers The servers.
+     * @return The deployment.
+     */
+    public ServerCommandDeployment deployServerCommands(final Collection<Server> servers) {
+        final Map<Long, Server> serversById = new LinkedHashMap<>();
+        for (final Server server : servers) {
+            serversById.put(server.getId(), server);
+        }
+        return new ServerCommandDeployment(serversById.keySet(),
+                serverId -> ApplicationCommandSyncState.fingerprint(getServerCommands(serverId).getAll()
+                        .stream()
+                        .map(AbstractApplicationCommand::getApplicationCommandBuilder)
+                        .collect(Collectors.toSet())),
+                serverId -> bulkOverwriteServerApplicationCommands(serversById.get(serverId)));
+    }
+
     /**
      * Unregisters all interactions from the handler.
      * Note: This will not delete the interactions from the server.
      * For that you still have to use {@link #bulkOverwriteServerApplicationCommands(Server)}.
+     * If a {@link ServerCommandRepository} is set, the commands are deleted from it as well.
      *
      * @param server The server.
      */
     public void unregisterAllServerInteractions(final Server server) {
-        complexServerSlashCommands.remove(server.getId());
-        complexServerMessageContextMenuCommands.remove(server.getId());
-        complexServerUserContextMenuCommands.remove(server.getId());
+        removeServerCommands(server.getId());
+    }
+
+    /**
+     * An operation in progress on the commands of a server, its monitor guards {@link #invalidated} and is notified
+     * when the operation ends.
+     */
+    private static final class ServerOperation {
+
+        /**
+         * Whether another node changed the commands of the server during the operation.
+         */
+        private boolean invalidated;
+    }
+
+    private record Partitioning(String localNodeId, ConsistentHashRing ring, PartitionTransport transport, Runnable listener) {
     }
 }
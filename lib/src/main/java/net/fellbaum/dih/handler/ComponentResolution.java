@@ -0,0 +1,57 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * The result of resolving a custom id, holding every route whose regex matched it.
+ *
+ * @param routes The matched routes.
+ * @param <C>    The type of the component.
+ */
+record ComponentResolution<C extends AbstractComponent>(List<ComponentRoute<C>> routes) {
+
+    private static final ComponentResolution<?> UNMATCHED = new ComponentResolution<>(List.of());
+
+    /**
+     * Gets the resolution without any matched route.
+     *
+     * @param <C> The type of the component.
+     * @return The unmatched resolution.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends AbstractComponent> ComponentResolution<C> unmatched() {
+        return (ComponentResolution<C>) UNMATCHED;
+    }
+
+    /**
+     * Gets the amount of matched routes.
+     *
+     * @return The amount of matched routes.
+     */
+    int size() {
+        return routes.size();
+    }
+
+    /**
+     * Gets the component of the first matched route.
+     *
+     * @return The component.
+     */
+    C component() {
+        return routes.get(0).getComponent();
+    }
+
+    /**
+     * Describes all matched routes for logging.
+     *
+     * @return The description.
+     */
+    String describe() {
+        return routes.stream()
+                .map(route -> route.getPattern().pattern() + " -> " + route.getComponent().getClass().getSimpleName())
+                .collect(Collectors.joining(",", "Found multiple pattern patching the received component interaction: {", "}"));
+    }
+}
@@ -0,0 +1,67 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded cache from exact custom ids to their resolution, including unmatched and ambiguous results.
+ * <p>
+ * Every entry remembers the router it has been resolved with, so entries resolved before a component has been
+ * registered are never returned for a newer router.
+ *
+ * @param <C> The type of the component.
+ */
+final class ComponentResolutionCache<C extends AbstractComponent> {
+
+    private final LruCache<String, CachedResolution<C>> resolutions;
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize The maximum amount of cached custom ids.
+     */
+    ComponentResolutionCache(final int maximumSize) {
+        this.resolutions = new LruCache<>(maximumSize);
+    }
+
+    /**
+     * Resolves the custom id, using the cached resolution if it was resolved with the same router.
+     *
+     * @param router   The current router.
+     * @param customId The received custom id.
+     * @return The resolution.
+     */
+    ComponentResolution<C> resolve(final ComponentRouter<C> router, final String customId) {
+        final CachedResolution<C> cached = resolutions.get(customId);
+        if (cached != null && cached.router() == router) {
+            hitCount.increment();
+            return cached.resolution();
+        }
+        missCount.increment();
+        final ComponentResolution<C> resolution = router.resolve(customId);
+        resolutions.put(customId, new CachedResolution<>(router, resolution));
+        return resolution;
+    }
+
+    /**
+     * Removes all cached resolutions.
+     */
+    void invalidate() {
+        resolutions.clear();
+    }
+
+    /**
+     * Gets the statistics of this cache.
+     *
+     * @return The statistics.
+     */
+    CacheStats getStats() {
+        return new CacheStats(hitCount.sum(), missCount.sum(), resolutions.size());
+    }
+
+    private record CachedResolution<C extends AbstractComponent>(ComponentRouter<C> router, ComponentResolution<C> resolution) {
+    }
+}
@@ -0,0 +1,67 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+
+/**
+ * Resolves received custom ids to the registered components of one component type.
+ *
+ * @param <C> The type of the component.
+ */
+final class ComponentResolver<C extends AbstractComponent> {
+
+    /**
+     * The optional cache of resolved custom ids.
+     */
+    private volatile ComponentResolutionCache<C> cache;
+
+    /**
+     * Resolves the components matching the custom id.
+     *
+     * @param router   The router of the current {@link DispatchSnapshot}.
+     * @param customId The received custom id.
+     * @return The resolution.
+     */
+    ComponentResolution<C> resolve(final ComponentRouter<C> router, final String customId) {
+        final ComponentResolutionCache<C> currentCache = cache;
+        return currentCache == null
+                ? router.resolve(customId)
+                : currentCache.resolve(router, customId);
+    }
+
+    /**
+     * Removes the cached resolutions after the registered components changed. Cached resolutions are never returned
+     * for another router, this only frees them early.
+     */
+    void invalidate() {
+        final ComponentResolutionCache<C> currentCache = cache;
+        if (currentCache != null) {
+            currentCache.invalidate();
+        }
+    }
+
+    /**
+     * Enables caching the resolution of received custom ids, replacing any previous cache.
+     *
+     * @param maximumSize The maximum amount of cached custom ids.
+     */
+    void enableCache(final int maximumSize) {
+        cache = new ComponentResolutionCache<>(maximumSize);
+    }
+
+    /**
+     * Disables caching the resolution of received custom ids.
+     */
+    void disableCache() {
+        cache = null;
+    }
+
+    /**
+     * Gets the statistics of the cache.
+     *
+     * @return The statistics, empty if caching is disabled.
+     */
+    CacheStats getCacheStats() {
+        final ComponentResolutionCache<C> currentCache = cache;
+        return currentCache == null ? new CacheStats(0, 0, 0) : currentCache.getStats();
+    }
+}
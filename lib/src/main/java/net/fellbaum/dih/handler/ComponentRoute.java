@@ -0,0 +1,89 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * A registered component together with its compiled custom id regex.
+ *
+ * @param <C> The type of the component.
+ */
+final class ComponentRoute<C extends AbstractComponent> {
+
+    /**
+     * The compiled custom id regex of the component.
+     */
+    private final Pattern pattern;
+
+    /**
+     * The custom id if the regex only matches it, or {@code null}.
+     */
+    private final String literal;
+
+    /**
+     * The component.
+     */
+    private final C component;
+
+    /**
+     * The resolution returned when this route is the only match, created once to keep lookups cheap.
+     */
+    private final ComponentResolution<C> resolution;
+
+    /**
+     * Creates a new component route.
+     *
+     * @param component The component.
+     */
+    ComponentRoute(final C component) {
+        this.pattern = Pattern.compile(component.getCustomIdPrefix());
+        // Most custom ids have no regex syntax at all and are compared without a matcher
+        this.literal = ComponentRouter.literalPrefix(component.getCustomIdPrefix()).equals(component.getCustomIdPrefix())
+                ? component.getCustomIdPrefix()
+                : null;
+        this.component = component;
+        this.resolution = new ComponentResolution<>(List.of(this));
+    }
+
+    /**
+     * Checks whether the custom id regex matches the whole given custom id.
+     *
+     * @param customId The custom id.
+     * @return Whether the custom id is matched.
+     */
+    boolean matches(final String customId) {
+        if (literal != null) {
+            return literal.equals(customId);
+        }
+        return pattern.matcher(customId).matches();
+    }
+
+    /**
+     * Gets the compiled custom id regex.
+     *
+     * @return The compiled custom id regex.
+     */
+    Pattern getPattern() {
+        return pattern;
+    }
+
+    /**
+     * Gets the component.
+     *
+     * @return The component.
+     */
+    C getComponent() {
+        return component;
+    }
+
+    /**
+     * Gets the resolution containing only this route.
+     *
+     * @return The resolution.
+     */
+    ComponentResolution<C> getResolution() {
+        return resolution;
+    }
+}
@@ -0,0 +1,281 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * An immutable router which resolves received custom ids to the registered components.
+ * <p>
+ * The fixed leading part of every custom id regex is indexed in a trie. Resolving a custom id walks the trie along
+ * its characters and only evaluates the regexes of the components found on that path, so the amount of regex
+ * evaluations depends on how many components share a prefix with the custom id instead of the amount of registered
+ * components. Adding a component creates a new router which shares all untouched nodes with the previous one.
+ *
+ * @param <C> The type of the component.
+ */
+final class ComponentRouter<C extends AbstractComponent> {
+
+    private static final ComponentRouter<?> EMPTY = new ComponentRouter<>(Node.EMPTY, 0);
+
+    /**
+     * Characters which end the literal prefix of a regex.
+     */
+    private static final String META_CHARACTERS = "[](){}.*+?^$|";
+
+    /**
+     * Characters which make the preceding character of a regex optional or repeatable.
+     */
+    private static final String QUANTIFIERS = "?*+{";
+
+    /**
+     * The root node of the trie.
+     */
+    private final Node root;
+
+    /**
+     * The amount of routes in this router.
+     */
+    private final int size;
+
+    private ComponentRouter(final Node root, final int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets a router without any routes.
+     *
+     * @param <C> The type of the component.
+     * @return The empty router.
+     */
+    @SuppressWarnings("unchecked")
+    static <C extends AbstractComponent> ComponentRouter<C> empty() {
+        return (ComponentRouter<C>) EMPTY;
+    }
+
+    /**
+     * Creates a new router containing all routes of this router and the given component.
+     *
+     * @param component The component to add.
+     * @return The new router.
+     */
+    ComponentRouter<C> with(final C component) {
+        final ComponentRoute<C> route = new ComponentRoute<>(component);
+        return new ComponentRouter<>(root.with(literalPrefix(component.getCustomIdPrefix()), 0, route), size + 1);
+    }
+
+    /**
+     * Resolves all components whose custom id regex matches the given custom id.
+     *
+     * @param customId The received custom id.
+     * @return The resolution.
+     */
+    @SuppressWarnings("unchecked")
+    ComponentResolution<C> resolve(final String customId) {
+        ComponentRoute<C> firstMatch = null;
+        List<ComponentRoute<C>> matches = null;
+
+        Node node = root;
+        int depth = 0;
+        while (node != null) {
+            for (final ComponentRoute<?> candidate : node.routes) {
+                final ComponentRoute<C> route = (ComponentRoute<C>) candidate;
+                if (!route.matches(customId)) {
+                    continue;
+                }
+                if (firstMatch == null) {
+                    firstMatch = route;
+                } else {
+                    if (matches == null) {
+                        matches = new ArrayList<>();
+                        matches.add(firstMatch);
+                    }
+                    matches.add(route);
+                }
+            }
+            if (depth == customId.length()) {
+                break;
+            }
+            node = node.child(customId.charAt(depth++));
+        }
+
+        if (firstMatch == null) {
+            return ComponentResolution.unmatched();
+        }
+        return matches == null ? firstMatch.getResolution() : new ComponentResolution<>(List.copyOf(matches));
+    }
+
+    /**
+     * Gets the amount of routes in this router.
+     *
+     * @return The amount of routes.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Extracts the literal text every custom id matching the whole regex has to start with.
+     *
+     * @param regex The custom id regex.
+     * @return The literal prefix, which might be empty.
+     */
+    static String literalPrefix(final String regex) {
+        if (hasTopLevelAlternation(regex)) {
+            return "";
+        }
+
+        final StringBuilder prefix = new StringBuilder();
+        int i = regex.startsWith("^") ? 1 : 0;
+        while (i < regex.length()) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 >= regex.length()) {
+                    break;
+                }
+                final int escaped = regex.codePointAt(i + 1);
+                if (escaped == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    prefix.append(regex, i + 2, end < 0 ? regex.length() : end);
+                    i = end < 0 ? regex.length() : end + 2;
+                } else if (Character.isLetterOrDigit(escaped)) {
+                    // Character classes, boundaries, back references and control characters
+                    break;
+                } else {
+                    prefix.appendCodePoint(escaped);
+                    i += 1 + Character.charCount(escaped);
+                }
+            } else if (META_CHARACTERS.indexOf(c) >= 0) {
+                break;
+            } else {
+                final int codePoint = regex.codePointAt(i);
+                prefix.appendCodePoint(codePoint);
+                i += Character.charCount(codePoint);
+            }
+
+            if (i < regex.length() && QUANTIFIERS.indexOf(regex.charAt(i)) >= 0) {
+                if (prefix.length() > 0) {
+                    prefix.setLength(prefix.offsetByCodePoints(prefix.length(), -1));
+                }
+                break;
+            }
+        }
+        return prefix.toString();
+    }
+
+    /**
+     * Checks whether the regex contains an alternation which is not enclosed by a group.
+     *
+     * @param regex The regex.
+     * @return Whether the regex has an alternation on the top level.
+     */
+    private static boolean hasTopLevelAlternation(final String regex) {
+        int groupDepth = 0;
+        int classDepth = 0;
+        for (int i = 0; i < regex.length(); i++) {
+            final char c = regex.charAt(i);
+            if (c == '\\') {
+                if (i + 1 < regex.length() && regex.charAt(i + 1) == 'Q') {
+                    final int end = regex.indexOf("\\E", i + 2);
+                    if (end < 0) {
+                        return false;
+                    }
+                    i = end + 1;
+                } else {
+                    i++;
+                }
+            } else if (c == '[') {
+                classDepth++;
+            } else if (c == ']' && classDepth > 0) {
+                classDepth--;
+            } else if (classDepth == 0) {
+                if (c == '(') {
+                    groupDepth++;
+                } else if (c == ')' && groupDepth > 0) {
+                    groupDepth--;
+                } else if (c == '|' && groupDepth == 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * A node of the prefix trie. Nodes are never modified after they have been created.
+     */
+    private static final class Node {
+
+        private static final Node EMPTY = new Node(new char[0], new Node[0], new ComponentRoute<?>[0]);
+
+        /**
+         * The sorted characters leading to the child nodes.
+         */
+        private final char[] keys;
+
+        /**
+         * The child nodes in the same order as their keys.
+         */
+        private final Node[] children;
+
+        /**
+         * The routes whose literal prefix ends at this node.
+         */
+        private final ComponentRoute<?>[] routes;
+
+        private Node(final char[] keys, final Node[] children, final ComponentRoute<?>[] routes) {
+            this.keys = keys;
+            this.children = children;
+            this.routes = routes;
+        }
+
+        /**
+         * Gets the child node for the given character.
+         *
+         * @param key The character.
+         * @return The child node or {@code null} if there is none.
+         */
+        private Node child(final char key) {
+            final int index = Arrays.binarySearch(keys, key);
+            return index < 0 ? null : children[index];
+        }
+
+        /**
+         * Creates a copy of this node with the route added below the remaining part of the prefix.
+         *
+         * @param prefix The literal prefix of the route.
+         * @param depth  The position in the prefix this node represents.
+         * @param route  The route to add.
+         * @return The new node.
+         */
+        private Node with(final String prefix, final int depth, final ComponentRoute<?> route) {
+            if (depth == prefix.length()) {
+                final ComponentRoute<?>[] newRoutes = Arrays.copyOf(routes, routes.length + 1);
+                newRoutes[routes.length] = route;
+                return new Node(keys, children, newRoutes);
+            }
+
+            final char key = prefix.charAt(depth);
+            final int index = Arrays.binarySearch(keys, key);
+            if (index >= 0) {
+                final Node[] newChildren = children.clone();
+                newChildren[index] = children[index].with(prefix, depth + 1, route);
+                return new Node(keys, newChildren, routes);
+            }
+
+            final int insertAt = -index - 1;
+            final char[] newKeys = new char[keys.length + 1];
+            final Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, insertAt);
+            System.arraycopy(children, 0, newChildren, 0, insertAt);
+            newKeys[insertAt] = key;
+            newChildren[insertAt] = EMPTY.with(prefix, depth + 1, route);
+            System.arraycopy(keys, insertAt, newKeys, insertAt + 1, keys.length - insertAt);
+            System.arraycopy(children, insertAt, newChildren, insertAt + 1, children.length - insertAt);
+            return new Node(newKeys, newChildren, routes);
+        }
+    }
+}
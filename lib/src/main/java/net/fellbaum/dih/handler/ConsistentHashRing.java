@@ -0,0 +1,180 @@
+package net.fellbaum.dih.handler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Assigns every server to one of the nodes of a partitioned bot with consistent hashing.
+ * <p>
+ * Every node is placed on a ring of 64-bit hashes at many points, its virtual nodes, and a server is owned by the node
+ * of the first point at or after the hash of its id. Adding or removing a node therefore only moves the servers between
+ * the points of that node and their predecessors, about {@code 1 / nodes} of all servers, and the servers are spread
+ * evenly even with few nodes.
+ * <p>
+ * Lookups do not lock and do not allocate, they binary search an immutable array of points which is replaced whenever
+ * a node is added or removed. All nodes of a bot have to be added to the ring with the same ids on every node.
+ *
+ * @see ComplexInteractionHandler#setPartitioning(String, ConsistentHashRing, PartitionTransport)
+ */
+public final class ConsistentHashRing {
+
+    private final int virtualNodes;
+    private final List<Runnable> listeners = new CopyOnWriteArrayList<>();
+
+    private volatile Points points = new Points(new long[0], new String[0]);
+
+    /**
+     * Creates an empty ring with 128 virtual nodes per node.
+     */
+    public ConsistentHashRing() {
+        this(128);
+    }
+
+    /**
+     * Creates an empty ring.
+     *
+     * @param virtualNodes The amount of points of every node on the ring. More points spread the servers more evenly.
+     */
+    public ConsistentHashRing(final int virtualNodes) {
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("The amount of virtual nodes must be at least 1");
+        }
+        this.virtualNodes = virtualNodes;
+    }
+
+    /**
+     * Adds a node to the ring, moving the servers it now owns to it.
+     *
+     * @param nodeId The unique id of the node.
+     * @return Whether the node was not on the ring yet.
+     */
+    public boolean addNode(final String nodeId) {
+        synchronized (this) {
+            final Set<String> nodes = getNodes();
+            if (nodes.contains(nodeId)) {
+                return false;
+            }
+            final Set<String> updated = new LinkedHashSet<>(nodes);
+            updated.add(nodeId);
+            points = build(updated);
+        }
+        listeners.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * Removes a node from the ring, moving the servers it owned to the remaining nodes.
+     *
+     * @param nodeId The id of the node.
+     * @return Whether the node was on the ring.
+     */
+    public boolean removeNode(final String nodeId) {
+        synchronized (this) {
+            final Set<String> updated = new LinkedHashSet<>(getNodes());
+            if (!updated.remove(nodeId)) {
+                return false;
+            }
+            points = build(updated);
+        }
+        listeners.forEach(Runnable::run);
+        return true;
+    }
+
+    /**
+     * Gets the ids of the nodes on the ring.
+     *
+     * @return The ids of the nodes.
+     */
+    public Set<String> getNodes() {
+        return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(points.owners)));
+    }
+
+    /**
+     * Gets the node owning a server.
+     *
+     * @param serverId The id of the server.
+     * @return The id of the node or {@code null} if the ring is empty.
+     */
+    public String getOwner(final long serverId) {
+        final Points current = points;
+        if (current.hashes.length == 0) {
+            return null;
+        }
+        int index = Arrays.binarySearch(current.hashes, mix(serverId));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return current.owners[index == current.hashes.length ? 0 : index];
+    }
+
+    /**
+     * Adds a listener called after a node was added or removed.
+     *
+     * @param listener The listener.
+     */
+    void addListener(final Runnable listener) {
+        listeners.add(listener);
+    }
+
+    void removeListener(final Runnable listener) {
+        listeners.remove(listener);
+    }
+
+    private Points build(final Set<String> nodes) {
+        final long[] hashes = new long[nodes.size() * virtualNodes];
+        final String[] owners = new String[hashes.length];
+        int i = 0;
+        for (final String node : nodes) {
+            for (int virtualNode = 0; virtualNode < virtualNodes; virtualNode++) {
+                hashes[i] = hash(node + '#' + virtualNode);
+                owners[i++] = node;
+            }
+        }
+
+        // Sorts the points by hash, breaking ties by node id so every node builds the same ring
+        final Integer[] order = new Integer[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            order[j] = j;
+        }
+        Arrays.sort(order, (a, b) -> hashes[a] != hashes[b] ? Long.compare(hashes[a], hashes[b]) : owners[a].compareTo(owners[b]));
+        final long[] sortedHashes = new long[hashes.length];
+        final String[] sortedOwners = new String[hashes.length];
+        for (int j = 0; j < order.length; j++) {
+            sortedHashes[j] = hashes[order[j]];
+            sortedOwners[j] = owners[order[j]];
+        }
+        return new Points(sortedHashes, sortedOwners);
+    }
+
+    /**
+     * Hashes a string with 64-bit FNV-1a and mixes the result.
+     */
+    private static long hash(final String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (final byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The finalizer of MurmurHash3, spreading the bits of snowflakes whose low bits mostly count up.
+     */
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+
+    private record Points(long[] hashes, String[] owners) {
+    }
+}
@@ -0,0 +1,87 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import net.fellbaum.dih.interaction.component.ModalComponent;
+import net.fellbaum.dih.interaction.component.SelectMenuComponent;
+
+/**
+ * The immutable set of all commands and components an {@link InteractionHandler} dispatches to, except the commands
+ * of the {@link ComplexInteractionHandler} bound to a server.
+ * <p>
+ * The handler publishes it through one atomic reference, so a listener always dispatches with one consistent set of
+ * commands and components without locking, while registering creates and swaps in a new snapshot.
+ */
+final class DispatchSnapshot {
+
+    static final DispatchSnapshot EMPTY = new DispatchSnapshot(ServerCommands.EMPTY, ServerCommands.EMPTY,
+            ComponentRouter.empty(), ComponentRouter.empty(), ComponentRouter.empty());
+
+    /**
+     * The global commands.
+     */
+    final ServerCommands globalCommands;
+
+    /**
+     * The server commands of the {@link SimpleInteractionHandler}, which are the same on every server.
+     */
+    final ServerCommands serverCommands;
+
+    final ComponentRouter<ButtonComponent> buttonComponents;
+    final ComponentRouter<SelectMenuComponent> selectMenuComponents;
+    final ComponentRouter<ModalComponent> modalComponents;
+
+    private DispatchSnapshot(final ServerCommands globalCommands, final ServerCommands serverCommands,
+                             final ComponentRouter<ButtonComponent> buttonComponents,
+                             final ComponentRouter<SelectMenuComponent> selectMenuComponents,
+                             final ComponentRouter<ModalComponent> modalComponents) {
+        this.globalCommands = globalCommands;
+        this.serverCommands = serverCommands;
+        this.buttonComponents = buttonComponents;
+        this.selectMenuComponents = selectMenuComponents;
+        this.modalComponents = modalComponents;
+    }
+
+    /**
+     * Creates a copy of this snapshot with the global command added, replacing a command of the same kind and name.
+     *
+     * @param command The command.
+     * @return The new snapshot.
+     */
+    DispatchSnapshot withGlobalCommand(final AbstractApplicationCommand command) {
+        return new DispatchSnapshot(globalCommands.with(command), serverCommands,
+                buttonComponents, selectMenuComponents, modalComponents);
+    }
+
+    /**
+     * Creates a copy of this snapshot with the server command added, replacing a command of the same kind and name.
+     *
+     * @param command The command.
+     * @return The new snapshot.
+     */
+    DispatchSnapshot withServerCommand(final AbstractApplicationCommand command) {
+        return new DispatchSnapshot(globalCommands, serverCommands.with(command),
+                buttonComponents, selectMenuComponents, modalComponents);
+    }
+
+    /**
+     * Creates a copy of this snapshot with the component added.
+     *
+     * @param component The component.
+     * @return The new snapshot.
+     */
+    DispatchSnapshot withComponent(final AbstractComponent component) {
+        if (component instanceof ButtonComponent comp) {
+            return new DispatchSnapshot(globalCommands, serverCommands,
+                    buttonComponents.with(comp), selectMenuComponents, modalComponents);
+        } else if (component instanceof SelectMenuComponent comp) {
+            return new DispatchSnapshot(globalCommands, serverCommands,
+                    buttonComponents, selectMenuComponents.with(comp), modalComponents);
+        } else if (component instanceof ModalComponent comp) {
+            return new DispatchSnapshot(globalCommands, serverCommands,
+                    buttonComponents, selectMenuComponents, modalComponents.with(comp));
+        }
+        throw new IllegalArgumentException("Argument is a not supported Interaction");
+    }
+}
@@ -0,0 +1,44 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * The kinds of interactions dispatched by an {@link InteractionHandler}.
+ */
+public enum DispatchType {
+    /**
+     * A slash command interaction.
+     */
+    SLASH_COMMAND,
+    /**
+     * An autocomplete interaction of a slash command option.
+     */
+    AUTOCOMPLETE,
+    /**
+     * A user context menu command interaction.
+     */
+    USER_CONTEXT_MENU_COMMAND,
+    /**
+     * A message context menu command interaction.
+     */
+    MESSAGE_CONTEXT_MENU_COMMAND,
+    /**
+     * A button interaction.
+     */
+    BUTTON,
+    /**
+     * A select menu interaction.
+     */
+    SELECT_MENU,
+    /**
+     * A modal submit interaction.
+     */
+    MODAL;
+
+    /**
+     * Gets whether interactions of this type are application commands which expect a visible response.
+     *
+     * @return Whether this is an application command type.
+     */
+    public boolean isCommand() {
+        return this == SLASH_COMMAND || this == USER_CONTEXT_MENU_COMMAND || this == MESSAGE_CONTEXT_MENU_COMMAND;
+    }
+}
@@ -0,0 +1,514 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.zip.CRC32C;
+
+/**
+ * A {@link ServerCommandRepository} storing the commands of all servers in one append-only file.
+ * <p>
+ * The file starts with a magic number and a format version. Every save appends a record consisting of the server id,
+ * the length of the serialized commands, a CRC-32C checksum of the record and the commands written by the
+ * {@link ServerCommandSerializer}. Deleting a server appends a record without commands. Only the position of the
+ * latest record of every server is kept in memory, in an open-addressing table of primitive {@code long}s with two
+ * {@code long}s per slot which is filled between 3/8 and 3/4. When the file is opened, it is read up to the first
+ * incomplete or corrupt record, which and all records after it are discarded, because they are either a torn write or
+ * cannot be trusted. Superseded records stay in the file until {@link #compact()} rewrites it.
+ * <p>
+ * Records are written to the operating system when saved, use {@link #flush()} to force them to the storage device.
+ */
+public final class FileServerCommandRepository implements ServerCommandRepository, Closeable {
+
+    private static final Logger LOGGER = LogManager.getLogger(FileServerCommandRepository.class);
+
+    /**
+     * The first bytes of the file, {@code DIHC}.
+     */
+    private static final int MAGIC = 0x44494843;
+
+    private static final int VERSION = 1;
+
+    private static final int FILE_HEADER_SIZE = Integer.BYTES + Integer.BYTES;
+
+    /**
+     * The size of the server id, length and checksum preceding the commands of a record.
+     */
+    private static final int HEADER_SIZE = Long.BYTES + Integer.BYTES + Integer.BYTES;
+
+    /**
+     * The length of a record deleting the commands of a server.
+     */
+    private static final int DELETED = -1;
+
+    private final Path file;
+    private final ServerCommandSerializer serializer;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * The file, guarded by the lock. Reading records only needs the read lock because reads are positional.
+     */
+    private FileChannel channel;
+
+    /**
+     * The position of the latest record of every server with commands, guarded by the lock.
+     */
+    private LongLongTable positions;
+
+    /**
+     * The end of the last complete record, guarded by the lock.
+     */
+    private long end;
+
+    /**
+     * The amount of bytes of superseded records, guarded by the lock.
+     */
+    private long garbageBytes;
+
+    /**
+     * Opens the repository, creating the file if it does not exist.
+     *
+     * @param file       The file.
+     * @param serializer Converts the commands of a server to bytes and back.
+     * @throws IOException If the file could not be opened or read.
+     */
+    public FileServerCommandRepository(final Path file, final ServerCommandSerializer serializer) throws IOException {
+        this.file = file;
+        this.serializer = serializer;
+        open();
+    }
+
+    @Override
+    public Collection<AbstractApplicationCommand> load(final long serverId) throws IOException {
+        final byte[] data;
+        lock.readLock().lock();
+        try {
+            final long position = positions.get(serverId);
+            if (position < 0) {
+                return List.of();
+            }
+            final int length = readFully(channel, position + Long.BYTES, Integer.BYTES).getInt();
+            data = readFully(channel, position + HEADER_SIZE, length).array();
+        } finally {
+            lock.readLock().unlock();
+        }
+        return serializer.read(serverId, new DataInputStream(new ByteArrayInputStream(data)));
+    }
+
+    @Override
+    public void save(final long serverId, final Collection<AbstractApplicationCommand> commands) throws IOException {
+        if (serverId == 0) {
+            throw new IllegalArgumentException("The server id must not be 0");
+        }
+        final ByteArrayOutputStream data = new ByteArrayOutputStream();
+        serializer.write(serverId, commands, new DataOutputStream(data));
+        lock.writeLock().lock();
+        try {
+            append(serverId, data.toByteArray());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void delete(final long serverId) throws IOException {
+        lock.writeLock().lock();
+        try {
+            if (positions.get(serverId) >= 0) {
+                append(serverId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Rewrites the file with only the latest record of every server.
+     *
+     * @throws IOException If the file could not be rewritten.
+     */
+    public void compact() throws IOException {
+        lock.writeLock().lock();
+        try {
+            final Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+            try {
+                writeCompacted(compacted);
+                // The current file stays open until the compacted one replaced it, so a failure leaves it usable
+                Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                Files.deleteIfExists(compacted);
+                throw e;
+            }
+            final FileChannel previous = channel;
+            open();
+            previous.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the latest record of every server to a new file.
+     *
+     * @param compacted The new file.
+     * @throws IOException If the file could not be written.
+     */
+    private void writeCompacted(final Path compacted) throws IOException {
+        try (FileChannel target = FileChannel.open(compacted, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writeFully(target, fileHeader(), 0);
+            // The records are transferred to the position of the target
+            target.position(FILE_HEADER_SIZE);
+            final IOException[] failure = new IOException[1];
+            positions.forEach((serverId, position) -> {
+                if (failure[0] != null) {
+                    return;
+                }
+                try {
+                    final int length = readFully(channel, position + Long.BYTES, Integer.BYTES).getInt();
+                    final long size = HEADER_SIZE + (long) length;
+                    long transferred = 0;
+                    while (transferred < size) {
+                        transferred += channel.transferTo(position + transferred, size - transferred, target);
+                    }
+                } catch (IOException e) {
+                    failure[0] = e;
+                }
+            });
+            if (failure[0] != null) {
+                throw failure[0];
+            }
+            target.force(true);
+        }
+    }
+
+    /**
+     * Forces all saved records to the storage device.
+     *
+     * @throws IOException If the records could not be forced.
+     */
+    public void flush() throws IOException {
+        lock.readLock().lock();
+        try {
+            channel.force(false);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of servers with saved commands.
+     *
+     * @return The amount of servers.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return positions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Gets the amount of bytes taken by superseded records, which {@link #compact()} would free.
+     *
+     * @return The amount of bytes.
+     */
+    public long getGarbageBytes() {
+        lock.readLock().lock();
+        try {
+            return garbageBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Appends a record and points the server to it.
+     *
+     * @param serverId The id of the server.
+     * @param data     The serialized commands or {@code null} to delete them.
+     * @throws IOException If the record could not be written.
+     */
+    private void append(final long serverId, final byte[] data) throws IOException {
+        final int length = data == null ? 0 : data.length;
+        final ByteBuffer record = ByteBuffer.allocate(HEADER_SIZE + length)
+                .putLong(serverId)
+                .putInt(data == null ? DELETED : length)
+                .putInt(0);
+        if (data != null) {
+            record.put(data);
+        }
+        record.putInt(Long.BYTES + Integer.BYTES, checksum(record.array()));
+        record.flip();
+        final long position = end;
+        writeFully(channel, record, position);
+        end = position + HEADER_SIZE + length;
+        supersede(serverId);
+        if (data == null) {
+            positions.remove(serverId);
+            garbageBytes += HEADER_SIZE;
+        } else {
+            positions.put(serverId, position);
+        }
+    }
+
+    /**
+     * Counts the current record of the server as garbage.
+     *
+     * @param serverId The id of the server.
+     * @throws IOException If the record could not be read.
+     */
+    private void supersede(final long serverId) throws IOException {
+        final long previous = positions.get(serverId);
+        if (previous >= 0) {
+            garbageBytes += HEADER_SIZE + readFully(channel, previous + Long.BYTES, Integer.BYTES).getInt();
+        }
+    }
+
+    /**
+     * Opens the file and indexes its records. If that fails, the previously opened file stays in use.
+     *
+     * @throws IOException If the file could not be opened or read or is not a server command file.
+     */
+    private void open() throws IOException {
+        final FileChannel previousChannel = channel;
+        final LongLongTable previousPositions = positions;
+        final long previousGarbageBytes = garbageBytes;
+        final FileChannel opened = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            channel = opened;
+            positions = new LongLongTable();
+            garbageBytes = 0;
+            end = index(opened);
+        } catch (IOException | RuntimeException e) {
+            channel = previousChannel;
+            positions = previousPositions;
+            garbageBytes = previousGarbageBytes;
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Indexes the records of the file, discarding everything from the first incomplete or corrupt record on.
+     *
+     * @param channel The file.
+     * @return The end of the last valid record.
+     * @throws IOException If the file could not be read or is not a server command file.
+     */
+    private long index(final FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final ByteBuffer expectedHeader = fileHeader();
+        if (size < FILE_HEADER_SIZE) {
+            // A new file, or one whose header was torn while creating it
+            final ByteBuffer header = readFully(channel, 0, (int) size);
+            if (!header.equals(expectedHeader.slice(0, (int) size))) {
+                throw new IOException(file + " is not a server command file");
+            }
+            channel.truncate(0);
+            writeFully(channel, expectedHeader, 0);
+            return FILE_HEADER_SIZE;
+        }
+        final ByteBuffer header = readFully(channel, 0, FILE_HEADER_SIZE);
+        if (header.getInt() != MAGIC) {
+            throw new IOException(file + " is not a server command file");
+        }
+        final int version = header.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " has the unsupported format version " + version);
+        }
+
+        long position = FILE_HEADER_SIZE;
+        while (position + HEADER_SIZE <= size) {
+            final ByteBuffer recordHeader = readFully(channel, position, HEADER_SIZE);
+            final long serverId = recordHeader.getLong();
+            final int length = recordHeader.getInt();
+            final long next = position + HEADER_SIZE + Math.max(0, length);
+            if (serverId == 0 || length < DELETED || length > Integer.MAX_VALUE - HEADER_SIZE || next > size) {
+                break;
+            }
+            final byte[] record = readFully(channel, position, (int) (next - position)).array();
+            if (recordHeader.getInt() != checksum(record)) {
+                break;
+            }
+            supersede(serverId);
+            if (length == DELETED) {
+                positions.remove(serverId);
+                garbageBytes += HEADER_SIZE;
+            } else {
+                positions.put(serverId, position);
+            }
+            position = next;
+        }
+        if (position < size) {
+            LOGGER.warn("Discarding {} bytes from an incomplete or corrupt record at the end of {}", size - position, file);
+            channel.truncate(position);
+        }
+        return position;
+    }
+
+    private static ByteBuffer fileHeader() {
+        return ByteBuffer.allocate(FILE_HEADER_SIZE).putInt(MAGIC).putInt(VERSION).flip();
+    }
+
+    /**
+     * Computes the checksum of a record over its server id, length and commands.
+     *
+     * @param record The record.
+     * @return The checksum.
+     */
+    private static int checksum(final byte[] record) {
+        final CRC32C crc = new CRC32C();
+        crc.update(record, 0, Long.BYTES + Integer.BYTES);
+        crc.update(record, HEADER_SIZE, record.length - HEADER_SIZE);
+        return (int) crc.getValue();
+    }
+
+    private static void writeFully(final FileChannel channel, final ByteBuffer buffer, final long position) throws IOException {
+        final int start = buffer.position();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, position + buffer.position() - start);
+        }
+    }
+
+    private static ByteBuffer readFully(final FileChannel channel, final long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of the server command file");
+            }
+        }
+        return buffer.flip();
+    }
+
+    /**
+     * An open-addressing hash table from non-zero {@code long} keys to non-negative {@code long} values.
+     * Not thread-safe.
+     */
+    private static final class LongLongTable {
+
+        private long[] keys = new long[16];
+        private long[] values = new long[16];
+        private int size;
+
+        private long get(final long key) {
+            int index = indexFor(key, keys.length);
+            long current;
+            while ((current = keys[index]) != 0) {
+                if (current == key) {
+                    return values[index];
+                }
+                index = (index + 1) & (keys.length - 1);
+            }
+            return -1;
+        }
+
+        private void put(final long key, final long value) {
+            if ((size + 1) * 4 > keys.length * 3) {
+                resize();
+            }
+            int index = indexFor(key, keys.length);
+            while (keys[index] != 0 && keys[index] != key) {
+                index = (index + 1) & (keys.length - 1);
+            }
+            if (keys[index] == 0) {
+                keys[index] = key;
+                size++;
+            }
+            values[index] = value;
+        }
+
+        private void remove(final long key) {
+            final int mask = keys.length - 1;
+            int index = indexFor(key, keys.length);
+            while (keys[index] != key) {
+                if (keys[index] == 0) {
+                    return;
+                }
+                index = (index + 1) & mask;
+            }
+            // Shift following entries back instead of leaving a marker, so lookups stay short
+            int next = index;
+            while (true) {
+                next = (next + 1) & mask;
+                if (keys[next] == 0) {
+                    break;
+                }
+                final int home = indexFor(keys[next], keys.length);
+                final boolean movable = index <= next ? home <= index || home > next : home <= index && home > next;
+                if (movable) {
+                    keys[index] = keys[next];
+                    values[index] = values[next];
+                    index = next;
+                }
+            }
+            keys[index] = 0;
+            size--;
+        }
+
+        private int size() {
+            return size;
+        }
+
+        private void forEach(final Consumer consumer) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] != 0) {
+                    consumer.accept(keys[i], values[i]);
+                }
+            }
+        }
+
+        private void resize() {
+            final long[] oldKeys = keys;
+            final long[] oldValues = values;
+            keys = new long[oldKeys.length * 2];
+            values = new long[oldValues.length * 2];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+
+        private static int indexFor(final long key, final int capacity) {
+            final long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & (capacity - 1);
+        }
+
+        @FunctionalInterface
+        private interface Consumer {
+            void accept(long key, long value);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Keeps the metrics of dispatched interactions in memory.
+ * <p>
+ * Latencies are recorded per type and name, which is the name of a command or the simple class name of a component,
+ * into {@link LatencyHistogram}s for the time spent waiting for the executor and the time spent in the handler.
+ * Use {@link #snapshot()} to export them, for example to Prometheus.
+ * <p>
+ * Server commands can have a different name on every server, so the amount of series per type is limited. Once the
+ * limit is reached, interactions of further names are recorded into one series named {@value #OTHER_SERIES_NAME}.
+ */
+public final class InMemoryInteractionMetrics implements InteractionMetrics {
+
+    /**
+     * The name of the series of every type which aggregates the names above the limit.
+     */
+    public static final String OTHER_SERIES_NAME = "other";
+
+    /**
+     * The default maximum amount of series per type.
+     */
+    public static final int DEFAULT_MAXIMUM_SERIES_PER_TYPE = 1_000;
+
+    private final int maximumSeriesPerType;
+
+    /**
+     * The series of every type by their name, indexed by the ordinal of the type.
+     */
+    private final Map<String, Series>[] series;
+
+    /**
+     * The amount of series of every type, indexed by the ordinal of the type.
+     */
+    private final AtomicInteger[] seriesCounts;
+
+    /**
+     * The series of every type which aggregates the names above the limit, indexed by the ordinal of the type.
+     */
+    private final Series[] otherSeries;
+
+    private final LongAdder[] rejectedCounts;
+    private final LongAdder[] unmatchedCounts;
+    private final LongAdder[] ambiguousCounts;
+
+    /**
+     * Creates new empty metrics with at most {@value #DEFAULT_MAXIMUM_SERIES_PER_TYPE} series per type.
+     */
+    public InMemoryInteractionMetrics() {
+        this(DEFAULT_MAXIMUM_SERIES_PER_TYPE);
+    }
+
+    /**
+     * Creates new empty metrics.
+     *
+     * @param maximumSeriesPerType The maximum amount of series per type, not counting the {@value #OTHER_SERIES_NAME}
+     *                             series.
+     */
+    @SuppressWarnings("unchecked")
+    public InMemoryInteractionMetrics(final int maximumSeriesPerType) {
+        if (maximumSeriesPerType <= 0) {
+            throw new IllegalArgumentException("The maximum amount of series must be positive");
+        }
+        final int typeCount = DispatchType.values().length;
+        this.maximumSeriesPerType = maximumSeriesPerType;
+        this.series = new Map[typeCount];
+        this.seriesCounts = new AtomicInteger[typeCount];
+        this.otherSeries = new Series[typeCount];
+        this.rejectedCounts = new LongAdder[typeCount];
+        this.unmatchedCounts = new LongAdder[typeCount];
+        this.ambiguousCounts = new LongAdder[typeCount];
+        for (int i = 0; i < typeCount; i++) {
+            series[i] = new ConcurrentHashMap<>();
+            seriesCounts[i] = new AtomicInteger();
+            otherSeries[i] = new Series();
+            rejectedCounts[i] = new LongAdder();
+            unmatchedCounts[i] = new LongAdder();
+            ambiguousCounts[i] = new LongAdder();
+        }
+    }
+
+    @Override
+    public void recordHandled(final DispatchType type, final Interaction target, final long queueNanos,
+                              final long executionNanos, final boolean failed) {
+        final Series targetSeries = getSeries(type, target);
+        targetSeries.queueTime.record(queueNanos);
+        targetSeries.executionTime.record(executionNanos);
+        if (failed) {
+            targetSeries.failedCount.increment();
+        }
+    }
+
+    @Override
+    public void recordRejected(final DispatchType type, final Interaction target) {
+        rejectedCounts[type.ordinal()].increment();
+    }
+
+    @Override
+    public void recordUnmatched(final DispatchType type) {
+        unmatchedCounts[type.ordinal()].increment();
+    }
+
+    @Override
+    public void recordAmbiguous(final DispatchType type) {
+        ambiguousCounts[type.ordinal()].increment();
+    }
+
+    /**
+     * Creates a copy of all metrics recorded so far.
+     *
+     * @return The snapshot.
+     */
+    public InteractionMetricsSnapshot snapshot() {
+        final List<InteractionSeriesSnapshot> seriesSnapshots = new ArrayList<>();
+        final Map<DispatchType, Long> rejected = new EnumMap<>(DispatchType.class);
+        final Map<DispatchType, Long> unmatched = new EnumMap<>(DispatchType.class);
+        final Map<DispatchType, Long> ambiguous = new EnumMap<>(DispatchType.class);
+        for (final DispatchType type : DispatchType.values()) {
+            series[type.ordinal()].forEach((name, typeSeries) -> seriesSnapshots.add(typeSeries.snapshot(type, name)));
+            final InteractionSeriesSnapshot other = otherSeries[type.ordinal()].snapshot(type, OTHER_SERIES_NAME);
+            if (other.handledCount() > 0) {
+                seriesSnapshots.add(other);
+            }
+            rejected.put(type, rejectedCounts[type.ordinal()].sum());
+            unmatched.put(type, unmatchedCounts[type.ordinal()].sum());
+            ambiguous.put(type, ambiguousCounts[type.ordinal()].sum());
+        }
+        return new InteractionMetricsSnapshot(List.copyOf(seriesSnapshots), Map.copyOf(rejected), Map.copyOf(unmatched), Map.copyOf(ambiguous));
+    }
+
+    private Series getSeries(final DispatchType type, final Interaction target) {
+        final String name = target instanceof AbstractApplicationCommand command
+                ? command.getName()
+                : target.getClass().getSimpleName();
+        final Map<String, Series> typeSeries = series[type.ordinal()];
+        final Series existing = typeSeries.get(name);
+        if (existing != null) {
+            return existing;
+        }
+        final AtomicInteger seriesCount = seriesCounts[type.ordinal()];
+        final Series created = typeSeries.computeIfAbsent(name, ignored -> tryReserve(seriesCount) ? new Series() : null);
+        return created != null ? created : otherSeries[type.ordinal()];
+    }
+
+    private boolean tryReserve(final AtomicInteger seriesCount) {
+        while (true) {
+            final int current = seriesCount.get();
+            if (current >= maximumSeriesPerType) {
+                return false;
+            }
+            if (seriesCount.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * The metrics of one command or component.
+     */
+    private static final class Series {
+        private final LatencyHistogram queueTime = new LatencyHistogram();
+        private final LatencyHistogram executionTime = new LatencyHistogram();
+        private final LongAdder failedCount = new LongAdder();
+
+        private InteractionSeriesSnapshot snapshot(final DispatchType type, final String name) {
+            return new InteractionSeriesSnapshot(type, name, failedCount.sum(), queueTime.snapshot(), executionTime.snapshot());
+        }
+    }
+}
@@ -0,0 +1,369 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.Interaction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.message.MessageFlag;
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.InteractionBase;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.ToLongFunction;
+
+/**
+ * Runs the handlers of received interactions on the configured executors.
+ */
+final class InteractionDispatcher {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionDispatcher.class);
+
+    /**
+     * Runs the commands and components when no task is given.
+     */
+    private final Handler handler;
+
+    /**
+     * The executor used for all interactions without an executor for their class.
+     */
+    private volatile Executor defaultExecutor = InteractionExecutors.inline();
+
+    /**
+     * The executors by the class of the interaction they are used for.
+     */
+    private final Map<Class<?>, Executor> executors = new ConcurrentHashMap<>();
+
+    /**
+     * Extracts the key of the interactions which have to run in order, or {@code null} if the order does not matter.
+     */
+    private volatile ToLongFunction<InteractionBase> orderingKey;
+
+    /**
+     * The lanes of the interactions which have to run in order.
+     */
+    private final SerialLanes lanes = new SerialLanes();
+
+    /**
+     * Bounds the amount of interactions in flight.
+     */
+    private final AdmissionControl admissionControl = new AdmissionControl();
+
+    /**
+     * The ephemeral response to commands which are rejected because too many interactions are in flight.
+     */
+    private volatile String busyMessage = "The bot is busy right now, please try again in a moment.";
+
+    /**
+     * Defers slow interactions automatically, or {@code null} if disabled.
+     */
+    private volatile AutoDeferrals autoDeferrals;
+
+    /**
+     * The classes of the interactions which are deferred automatically.
+     */
+    private final Set<Class<?>> autoDeferredClasses = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Receives the metrics of the dispatched interactions.
+     */
+    private volatile InteractionMetrics metrics = InteractionMetrics.NOOP;
+
+    /**
+     * Creates a new dispatcher.
+     *
+     * @param handler Runs the commands and components when no task is given.
+     */
+    InteractionDispatcher(final Handler handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Sets the executor used for all interactions without an executor for their class.
+     *
+     * @param executor The executor.
+     */
+    void setDefaultExecutor(final Executor executor) {
+        defaultExecutor = executor;
+    }
+
+    /**
+     * Sets the executor used for the interactions of the given class.
+     *
+     * @param interactionClass The class of the command or component.
+     * @param executor         The executor or {@code null} to use the default executor.
+     */
+    void setExecutor(final Class<? extends Interaction> interactionClass, final Executor executor) {
+        if (executor == null) {
+            executors.remove(interactionClass);
+        } else {
+            executors.put(interactionClass, executor);
+        }
+    }
+
+    /**
+     * Sets the key of the interactions which have to run in the order they were received.
+     *
+     * @param orderingKey Extracts the key from an interaction or {@code null} if the order does not matter.
+     */
+    void setOrderingKey(final ToLongFunction<InteractionBase> orderingKey) {
+        this.orderingKey = orderingKey;
+    }
+
+    /**
+     * Gets the amount of ordering keys with pending interactions.
+     *
+     * @return The amount of ordering keys.
+     */
+    int getOrderingLaneCount() {
+        return lanes.size();
+    }
+
+    /**
+     * Gets the admission control of this dispatcher.
+     *
+     * @return The admission control.
+     */
+    AdmissionControl getAdmissionControl() {
+        return admissionControl;
+    }
+
+    /**
+     * Sets the ephemeral response to commands which are rejected because too many interactions are in flight.
+     *
+     * @param busyMessage The response.
+     */
+    void setBusyMessage(final String busyMessage) {
+        this.busyMessage = busyMessage;
+    }
+
+    /**
+     * Sets the automatic deferral of slow interactions, stopping the previous one.
+     *
+     * @param autoDeferrals The automatic deferral or {@code null} to disable it.
+     */
+    void setAutoDeferrals(final AutoDeferrals autoDeferrals) {
+        final AutoDeferrals previous = this.autoDeferrals;
+        this.autoDeferrals = autoDeferrals;
+        if (previous != null) {
+            previous.shutdown();
+        }
+    }
+
+    /**
+     * Sets whether the interactions of the given class are deferred automatically.
+     *
+     * @param interactionClass The class of the command or component.
+     * @param autoDeferred     Whether its interactions are deferred automatically.
+     */
+    void setAutoDeferred(final Class<? extends Interaction> interactionClass, final boolean autoDeferred) {
+        if (autoDeferred) {
+            autoDeferredClasses.add(interactionClass);
+        } else {
+            autoDeferredClasses.remove(interactionClass);
+        }
+    }
+
+    /**
+     * Gets the automatic deferral of slow interactions.
+     *
+     * @return The automatic deferral or {@code null} if disabled.
+     */
+    AutoDeferrals getAutoDeferrals() {
+        return autoDeferrals;
+    }
+
+    /**
+     * Sets the receiver of the metrics of the dispatched interactions.
+     *
+     * @param metrics The metrics.
+     */
+    void setMetrics(final InteractionMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Gets the receiver of the metrics of the dispatched interactions.
+     *
+     * @return The metrics.
+     */
+    InteractionMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Gets the executor for the command or component.
+     *
+     * @param target The command or component.
+     * @return The executor.
+     */
+    Executor getExecutor(final Interaction target) {
+        if (!executors.isEmpty()) {
+            final Executor executor = executors.get(target.getClass());
+            if (executor != null) {
+                return executor;
+            }
+        }
+        return defaultExecutor;
+    }
+
+    /**
+     * Checks whether the handler of the command or component runs on the thread dispatching it.
+     *
+     * @param target The command or component.
+     * @return Whether the handler runs inline.
+     */
+    boolean runsInline(final Interaction target) {
+        return orderingKey == null && getExecutor(target) == InteractionExecutors.inline();
+    }
+
+    /**
+     * Runs the handler of the command or component, as {@link #dispatch(DispatchType, Interaction, InteractionBase, Runnable)}
+     * does with the task calling the handler of the dispatcher. Handlers running inline do not allocate anything.
+     *
+     * @param type        The type of the interaction.
+     * @param target      The command or component.
+     * @param interaction The received interaction.
+     * @return Whether the handler has been scheduled, false if the interaction was rejected.
+     */
+    boolean dispatch(final DispatchType type, final Interaction target, final InteractionBase interaction) {
+        return dispatch(type, target, interaction, null);
+    }
+
+    /**
+     * Runs the handler of the command or component on its executor.
+     * If an ordering key is set, the handler runs after all previously received interactions with the same key.
+     * If too many interactions of the type are in flight, the interaction is rejected instead.
+     *
+     * @param type        The type of the interaction.
+     * @param target      The command or component.
+     * @param interaction The received interaction.
+     * @param task        Runs the handler, or {@code null} to call the handler of the dispatcher.
+     * @return Whether the handler has been scheduled, false if the interaction was rejected.
+     */
+    boolean dispatch(final DispatchType type, final Interaction target, final InteractionBase interaction, final Runnable task) {
+        final long receivedNanos = System.nanoTime();
+        final InteractionMetrics currentMetrics = metrics;
+        if (!admissionControl.tryAcquire(type)) {
+            LOGGER.debug("Rejected the interaction for {} because too many {} interactions are in flight",
+                    target.getClass().getSimpleName(), type);
+            currentMetrics.recordRejected(type, target);
+            reject(type, interaction);
+            return false;
+        }
+
+        final AutoDeferrals currentAutoDeferrals = autoDeferrals;
+        final AutoDeferrals.AutoDeferral deferral = currentAutoDeferrals == null || !autoDeferredClasses.contains(target.getClass())
+                ? null
+                : currentAutoDeferrals.start(type, interaction, receivedNanos);
+        final Executor executor = getExecutor(target);
+        final ToLongFunction<InteractionBase> currentOrderingKey = orderingKey;
+        if (currentOrderingKey == null && executor == InteractionExecutors.inline()) {
+            // Runs on the current thread without wrapping the handler into a task
+            runHandler(type, target, interaction, task, receivedNanos, currentAutoDeferrals, deferral, currentMetrics);
+            return true;
+        }
+
+        final Runnable scheduled = () -> runHandler(type, target, interaction, task, receivedNanos, currentAutoDeferrals, deferral, currentMetrics);
+        try {
+            if (currentOrderingKey == null) {
+                executor.execute(scheduled);
+            } else {
+                lanes.execute(currentOrderingKey.applyAsLong(interaction), executor, scheduled);
+            }
+            return true;
+        } catch (RuntimeException e) {
+            // Thrown by a rejecting executor or the ordering key, the handler never runs
+            admissionControl.release(type);
+            if (deferral != null) {
+                currentAutoDeferrals.finish(deferral);
+            }
+            currentMetrics.recordRejected(type, target);
+            LOGGER.warn("Could not schedule the interaction for {}", target.getClass().getSimpleName(), e);
+            reject(type, interaction);
+            return false;
+        }
+    }
+
+    private void runHandler(final DispatchType type, final Interaction target, final InteractionBase interaction,
+                            final Runnable task, final long receivedNanos, final AutoDeferrals autoDeferrals,
+                            final AutoDeferrals.AutoDeferral deferral, final InteractionMetrics currentMetrics) {
+        final long startedNanos = System.nanoTime();
+        boolean completed = false;
+        try {
+            completed = run(type, target, interaction, task);
+        } finally {
+            admissionControl.release(type);
+            if (deferral != null) {
+                autoDeferrals.finish(deferral);
+            }
+            currentMetrics.recordHandled(type, target, startedNanos - receivedNanos, System.nanoTime() - startedNanos, !completed);
+        }
+    }
+
+    /**
+     * Responds to a rejected interaction as cheap as possible. Component interactions are dropped silently.
+     *
+     * @param type        The type of the interaction.
+     * @param interaction The rejected interaction.
+     */
+    private void reject(final DispatchType type, final InteractionBase interaction) {
+        if (type.isCommand()) {
+            interaction.createImmediateResponder()
+                    .setContent(busyMessage)
+                    .setFlags(MessageFlag.EPHEMERAL)
+                    .respond()
+                    .exceptionally(t -> {
+                        LOGGER.debug("Could not respond to a rejected interaction", t);
+                        return null;
+                    });
+        } else if (type == DispatchType.AUTOCOMPLETE && interaction instanceof AutocompleteInteraction autocompleteInteraction) {
+            autocompleteInteraction.respondWithChoices(List.of())
+                    .exceptionally(t -> {
+                        LOGGER.debug("Could not respond to a rejected autocomplete interaction", t);
+                        return null;
+                    });
+        }
+    }
+
+    /**
+     * Runs the handler and logs its exceptions.
+     *
+     * @param type        The type of the interaction.
+     * @param target      The command or component.
+     * @param interaction The received interaction.
+     * @param task        Runs the handler, or {@code null} to call the handler of the dispatcher.
+     * @return Whether the handler completed without an exception.
+     */
+    private boolean run(final DispatchType type, final Interaction target, final InteractionBase interaction, final Runnable task) {
+        try {
+            if (task == null) {
+                handler.run(type, target, interaction);
+            } else {
+                task.run();
+            }
+            return true;
+        } catch (Throwable t) {
+            LOGGER.error("Unhandled exception while running the interaction for {}", target.getClass().getSimpleName(), t);
+            return false;
+        }
+    }
+
+    /**
+     * Runs the command or component a received interaction was dispatched to.
+     */
+    @FunctionalInterface
+    interface Handler {
+
+        /**
+         * Runs the command or component.
+         *
+         * @param type        The type of the interaction.
+         * @param target      The command or component.
+         * @param interaction The received interaction.
+         */
+        void run(DispatchType type, Interaction target, InteractionBase interaction);
+    }
+}
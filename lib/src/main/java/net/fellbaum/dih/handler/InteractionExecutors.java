@@ -0,0 +1,70 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Executors which can be used to run the interactions received by an {@link InteractionHandler}.
+ */
+public final class InteractionExecutors {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionExecutors.class);
+
+    private static final Executor INLINE = Runnable::run;
+
+    private InteractionExecutors() {
+        throw new UnsupportedOperationException("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Gets an executor which runs the interaction on the thread of the Javacord listener which received it.
+     * This is the default.
+     *
+     * @return The inline executor.
+     */
+    public static Executor inline() {
+        return INLINE;
+    }
+
+    /**
+     * Gets a shared executor which runs every interaction on its own virtual thread.
+     * On Java versions without virtual threads every interaction runs on a thread of a cached thread pool instead.
+     *
+     * @return The thread per interaction executor.
+     */
+    public static Executor threadPerInteraction() {
+        return ThreadPerInteraction.EXECUTOR;
+    }
+
+    /**
+     * Creates a new executor service which runs every task on its own virtual thread.
+     * On Java versions without virtual threads a cached thread pool of daemon threads is created instead.
+     *
+     * @return The executor service.
+     */
+    public static ExecutorService newThreadPerInteractionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            LOGGER.debug("Virtual threads are not available, falling back to a cached thread pool");
+            final AtomicInteger threadNumber = new AtomicInteger();
+            return Executors.newCachedThreadPool(runnable -> {
+                final Thread thread = new Thread(runnable, "dih-interaction-" + threadNumber.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Holds the shared thread per interaction executor, which is only created when it is used.
+     */
+    private static final class ThreadPerInteraction {
+        private static final ExecutorService EXECUTOR = newThreadPerInteractionExecutor();
+    }
+}
@@ -1,6 +1,7 @@
 package net.fellbaum.dih.handler;
 
 import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.applicationcommand.AutocompleteChoiceProvider;
 import net.fellbaum.dih.interaction.applicationcommand.MessageContextMenuCommand;
 import net.fellbaum.dih.interaction.applicationcommand.SlashCommand;
 import net.fellbaum.dih.interaction.applicationcommand.UserContextMenuCommand;
@@ -12,25 +13,37 @@ import net.fellbaum.dih.interaction.component.ButtonComponent;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
+import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.interaction.ApplicationCommand;
+import org.javacord.api.interaction.ApplicationCommandBuilder;
+import org.javacord.api.interaction.ApplicationCommandInteraction;
 import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.InteractionBase;
 import org.javacord.api.interaction.MessageContextMenuInteraction;
+import org.javacord.api.interaction.ModalInteraction;
+import org.javacord.api.interaction.SelectMenuInteraction;
 import org.javacord.api.interaction.SlashCommandInteraction;
 import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
 import org.javacord.api.interaction.UserContextMenuInteraction;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Predicate;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
 import java.util.stream.Collectors;
 
 /**
@@ -42,47 +55,39 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
     private static final Logger LOGGER = LogManager.getLogger(InteractionHandler.class);
 
     /**
-     * The global slash commands.
+     * The commands and components to dispatch to, replaced as a whole whenever interactions are registered.
      */
-    protected final Map<String, SlashCommand> globalSlashCommands = new ConcurrentHashMap<>();
+    private final AtomicReference<DispatchSnapshot> snapshot = new AtomicReference<>(DispatchSnapshot.EMPTY);
 
+    //COMPONENTS
+    private final ComponentResolver<ButtonComponent> buttonComponents = new ComponentResolver<>();
+    private final ComponentResolver<SelectMenuComponent> selectMenuComponents = new ComponentResolver<>();
+    private final ComponentResolver<ModalComponent> modalComponents = new ComponentResolver<>();
 
     /**
-     * The global message context menu commands.
+     * Runs the handlers of the received interactions.
      */
-    protected final Map<String, MessageContextMenuCommand> globalMessageContextMenuCommands = new ConcurrentHashMap<>();
-
+    private final InteractionDispatcher dispatcher = new InteractionDispatcher(this::runInteraction);
 
     /**
-     * The global user context menu commands.
+     * The cache of autocomplete choices, or {@code null} if disabled.
      */
-    protected final Map<String, UserContextMenuCommand> globalUserContextMenuCommands = new ConcurrentHashMap<>();
-
-
-    //COMPONENTS
-    private final Map<Pattern, ButtonComponent> buttonComponents = new ConcurrentHashMap<>();
-    private final Map<Pattern, SelectMenuComponent> selectMenuComponents = new ConcurrentHashMap<>();
-    private final Map<Pattern, ModalComponent> modalComponents = new ConcurrentHashMap<>();
+    private volatile AutocompleteCache autocompleteCache;
 
     /**
-     * The slash command function.
+     * Skips autocomplete interactions superseded by a newer keystroke, or {@code null} if disabled.
      */
-    protected Function<SlashCommandInteractionListenerData, Boolean> slashCommandFunction;
+    private volatile AutocompleteCoalescer autocompleteCoalescer = new AutocompleteCoalescer();
 
     /**
-     * The autocomplete command function.
+     * The fingerprints of the overwritten application commands, or {@code null} to always overwrite them.
      */
-    protected Function<AutocompleteInteractionListenerData, Boolean> autocompleteCommandFunction;
+    private volatile ApplicationCommandSyncState applicationCommandSyncState;
 
     /**
-     * The message context menu command function.
+     * Records the received interactions, or {@code null} if they are not recorded.
      */
-    protected Function<UserContextMenuInteractionListenerData, Boolean> userContextMenuFunction;
-
-    /**
-     * The user context menu command function.
-     */
-    protected Function<MessageContextMenuInteractionListenerData, Boolean> messageContextMenuFunction;
+    private volatile InteractionRecorder recorder;
 
     /**
      * The complexity mode.
@@ -112,19 +117,414 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
      * @return The interaction handler.
      */
     protected T registerComponent(final AbstractComponent abstractComponent) {
-        if (abstractComponent instanceof ButtonComponent comp) {
-            buttonComponents.put(Pattern.compile(comp.getCustomIdPrefix()), comp);
-        } else if (abstractComponent instanceof SelectMenuComponent comp) {
-            selectMenuComponents.put(Pattern.compile(comp.getCustomIdPrefix()), comp);
-        } else if (abstractComponent instanceof ModalComponent comp) {
-            modalComponents.put(Pattern.compile(comp.getCustomIdPrefix()), comp);
-        } else {
-            throw new IllegalArgumentException("Argument is a not supported Interaction");
+        updateSnapshot(current -> current.withComponent(abstractComponent));
+        return (T) this;
+    }
+
+    /**
+     * Atomically replaces all registered commands and components by the given ones, for example to reload them.
+     * Interactions received during the replacement are dispatched either to the previous or to the new interactions,
+     * never to a mix of both. The server commands of a {@link ComplexInteractionHandler} are not affected.
+     *
+     * @param interactions The new interactions.
+     * @return The current instance to chain methods.
+     */
+    public T replaceInteractions(final Collection<? extends Interaction> interactions) {
+        DispatchSnapshot next = DispatchSnapshot.EMPTY;
+        for (final Interaction interaction : interactions) {
+            next = withInteraction(next, interaction);
+        }
+        final DispatchSnapshot replacement = next;
+        updateSnapshot(ignored -> replacement);
+        return (T) this;
+    }
+
+    /**
+     * Atomically registers all given interactions.
+     *
+     * @param interactions The interactions.
+     */
+    void registerAll(final Collection<? extends Interaction> interactions) {
+        updateSnapshot(current -> {
+            DispatchSnapshot next = current;
+            for (final Interaction interaction : interactions) {
+                next = withInteraction(next, interaction);
+            }
+            return next;
+        });
+    }
+
+    /**
+     * Adds an interaction to a snapshot, as the public registration methods of the handler do.
+     *
+     * @param current     The snapshot.
+     * @param interaction The interaction.
+     * @return The new snapshot.
+     */
+    abstract DispatchSnapshot withInteraction(DispatchSnapshot current, Interaction interaction);
+
+    /**
+     * Gets the server commands registered for a server without loading them.
+     *
+     * @param serverId The id of the server.
+     * @return The commands or {@code null} if they are not known without loading them.
+     */
+    abstract ServerCommands findServerCommands(long serverId);
+
+    /**
+     * Resolves a custom id to the registered components of a type.
+     *
+     * @param type     The type of the component.
+     * @param customId The custom id.
+     * @return The resolution.
+     */
+    ComponentResolution<? extends AbstractComponent> resolveComponent(final DispatchType type, final String customId) {
+        final DispatchSnapshot current = snapshot.get();
+        return switch (type) {
+            case BUTTON -> buttonComponents.resolve(current.buttonComponents, customId);
+            case SELECT_MENU -> selectMenuComponents.resolve(current.selectMenuComponents, customId);
+            case MODAL -> modalComponents.resolve(current.modalComponents, customId);
+            default -> throw new IllegalArgumentException("Argument is not a component type");
+        };
+    }
+
+    /**
+     * Gets the receiver of the dispatch metrics.
+     *
+     * @return The metrics.
+     */
+    InteractionMetrics getMetrics() {
+        return dispatcher.getMetrics();
+    }
+
+    /**
+     * Gets the current commands and components.
+     *
+     * @return The snapshot.
+     */
+    DispatchSnapshot getSnapshot() {
+        return snapshot.get();
+    }
+
+    /**
+     * Atomically replaces the current commands and components.
+     *
+     * @param update Creates the new snapshot from the current one. It may be called more than once.
+     */
+    void updateSnapshot(final UnaryOperator<DispatchSnapshot> update) {
+        DispatchSnapshot previous;
+        DispatchSnapshot next;
+        do {
+            previous = snapshot.get();
+            next = update.apply(previous);
+        } while (!snapshot.compareAndSet(previous, next));
+
+        if (previous.buttonComponents != next.buttonComponents) {
+            buttonComponents.invalidate();
+        }
+        if (previous.selectMenuComponents != next.selectMenuComponents) {
+            selectMenuComponents.invalidate();
+        }
+        if (previous.modalComponents != next.modalComponents) {
+            modalComponents.invalidate();
+        }
+    }
+
+    /**
+     * Sets the executor which runs the handlers of all commands and components without an executor for their class.
+     * By default, handlers run inline on the thread of the Javacord listener which received the interaction.
+     *
+     * @param executor The executor, for example {@link InteractionExecutors#threadPerInteraction()}.
+     * @return The current instance to chain methods.
+     * @see InteractionExecutors
+     */
+    public T setDefaultExecutor(final Executor executor) {
+        dispatcher.setDefaultExecutor(executor);
+        return (T) this;
+    }
+
+    /**
+     * Sets the executor which runs the handlers of the commands or components of the given class.
+     *
+     * @param interactionClass The class of the command or component.
+     * @param executor         The executor or {@code null} to use the default executor again.
+     * @return The current instance to chain methods.
+     */
+    public T setExecutor(final Class<? extends Interaction> interactionClass, final Executor executor) {
+        dispatcher.setExecutor(interactionClass, executor);
+        return (T) this;
+    }
+
+    /**
+     * Runs the handlers of interactions with the same key in the order they were received,
+     * while interactions with different keys still run in parallel. Every handler still runs on its own executor,
+     * the next handler of a key starts on its executor once the previous one has finished.
+     * This is useful for stateful commands when handlers do not run inline.
+     *
+     * @param orderingKey Extracts the key from an interaction, for example {@link OrderingKeys#server()},
+     *                    or {@code null} to stop ordering the interactions.
+     * @return The current instance to chain methods.
+     * @see OrderingKeys
+     */
+    public T setOrderingKey(final ToLongFunction<InteractionBase> orderingKey) {
+        dispatcher.setOrderingKey(orderingKey);
+        return (T) this;
+    }
+
+    /**
+     * Limits the amount of interactions of a type whose handler has not finished yet, including the ones waiting
+     * for their executor. Interactions above the limit are rejected immediately: commands get an ephemeral busy
+     * response, autocomplete interactions get no choices and component interactions are dropped silently.
+     *
+     * @param type  The type of the interactions.
+     * @param limit The maximum amount of interactions in flight, {@link Integer#MAX_VALUE} to remove the limit.
+     * @return The current instance to chain methods.
+     */
+    public T setAdmissionLimit(final DispatchType type, final int limit) {
+        dispatcher.getAdmissionControl().setLimit(type, limit);
+        return (T) this;
+    }
+
+    /**
+     * Sets the ephemeral response to commands which are rejected because of their admission limit.
+     *
+     * @param busyMessage The response.
+     * @return The current instance to chain methods.
+     */
+    public T setBusyMessage(final String busyMessage) {
+        dispatcher.setBusyMessage(busyMessage);
+        return (T) this;
+    }
+
+    /**
+     * Gets the admission statistics of a type of interactions.
+     *
+     * @param type The type of the interactions.
+     * @return The statistics.
+     */
+    public AdmissionStats getAdmissionStats(final DispatchType type) {
+        return dispatcher.getAdmissionControl().getStats(type);
+    }
+
+    /**
+     * Defers interactions automatically if their handler has not claimed the initial response before the threshold.
+     * Discord invalidates interactions which are not responded to within 3 seconds, so slow handlers should call
+     * {@link #claimImmediateResponse(InteractionBase)} before responding: if it returns false, the interaction has
+     * already been deferred and the handler has to send a follow-up message or update the original response instead.
+     * Slash and context menu commands are deferred with {@code respondLater}, message components with
+     * {@code acknowledge}. Autocomplete interactions are never deferred.
+     * <p>
+     * Only the commands and components enabled with {@link #setAutoDeferred(Class, boolean)} are deferred, so handlers
+     * which respond without claiming the response first are not affected.
+     *
+     * @param threshold The time after receiving an interaction when it is deferred.
+     * @param ephemeral Whether the deferred responses to commands are ephemeral.
+     * @return The current instance to chain methods.
+     */
+    public T enableAutoDeferral(final Duration threshold, final boolean ephemeral) {
+        dispatcher.setAutoDeferrals(new AutoDeferrals(threshold.toNanos(), ephemeral));
+        return (T) this;
+    }
+
+    /**
+     * Sets whether the interactions of a command or component are deferred automatically once automatic deferral is
+     * enabled. Its handler has to claim the response with {@link #claimImmediateResponse(InteractionBase)} before
+     * responding immediately.
+     *
+     * @param interactionClass The class of the command or component.
+     * @param autoDeferred     Whether its interactions are deferred automatically.
+     * @return The current instance to chain methods.
+     * @see #enableAutoDeferral(Duration, boolean)
+     */
+    public T setAutoDeferred(final Class<? extends Interaction> interactionClass, final boolean autoDeferred) {
+        dispatcher.setAutoDeferred(interactionClass, autoDeferred);
+        return (T) this;
+    }
+
+    /**
+     * Stops deferring slow interactions automatically.
+     *
+     * @return The current instance to chain methods.
+     */
+    public T disableAutoDeferral() {
+        dispatcher.setAutoDeferrals(null);
+        return (T) this;
+    }
+
+    /**
+     * Claims the initial response of an interaction for its handler, which prevents deferring it automatically.
+     *
+     * @param interaction The interaction.
+     * @return Whether the handler may respond immediately, false if the interaction has already been deferred.
+     */
+    public boolean claimImmediateResponse(final InteractionBase interaction) {
+        final AutoDeferrals autoDeferrals = dispatcher.getAutoDeferrals();
+        return autoDeferrals == null || autoDeferrals.claimImmediateResponse(interaction.getId());
+    }
+
+    /**
+     * Gets the automatic deferral of an interaction.
+     *
+     * @param interaction The interaction.
+     * @return A future which completes once Discord accepted the deferral, or empty if the interaction has not been deferred.
+     */
+    public Optional<CompletableFuture<Void>> getAutoDeferral(final InteractionBase interaction) {
+        final AutoDeferrals autoDeferrals = dispatcher.getAutoDeferrals();
+        return autoDeferrals == null
+                ? Optional.empty()
+                : Optional.ofNullable(autoDeferrals.getDeferral(interaction.getId()));
+    }
+
+    /**
+     * Gets the statistics of the automatic deferral.
+     *
+     * @return The statistics, empty if automatic deferral is disabled.
+     */
+    public AutoDeferralStats getAutoDeferralStats() {
+        final AutoDeferrals autoDeferrals = dispatcher.getAutoDeferrals();
+        return autoDeferrals == null ? new AutoDeferralStats(0, 0, 0, 0) : autoDeferrals.getStats();
+    }
+
+    /**
+     * Enables caching the choices of autocomplete providers bound with
+     * {@link SlashCommand#bindAutocomplete(String, AutocompleteChoiceProvider)}.
+     * Choices are cached by command name, focused option name, typed value and optionally by server.
+     *
+     * @param maximumSize The maximum amount of cached values.
+     * @param timeToLive  How long cached choices are used.
+     * @param perServer   Whether the choices are cached separately for every server.
+     * @return The current instance to chain methods.
+     */
+    public T enableAutocompleteCache(final int maximumSize, final Duration timeToLive, final boolean perServer) {
+        autocompleteCache = new AutocompleteCache(maximumSize, timeToLive.toNanos(), perServer);
+        return (T) this;
+    }
+
+    /**
+     * Disables caching the choices of autocomplete providers.
+     *
+     * @return The current instance to chain methods.
+     */
+    public T disableAutocompleteCache() {
+        autocompleteCache = null;
+        return (T) this;
+    }
+
+    /**
+     * Gets the statistics of the autocomplete cache.
+     *
+     * @return The statistics, empty if the cache is disabled.
+     */
+    public CacheStats getAutocompleteCacheStats() {
+        final AutocompleteCache cache = autocompleteCache;
+        return cache == null ? new CacheStats(0, 0, 0) : cache.getStats();
+    }
+
+    /**
+     * Sets whether autocomplete interactions are skipped if the same user has typed further into the same option
+     * before their handler started. Discord only shows the choices of the latest keystroke, so the skipped
+     * interactions are not responded to. This only has an effect if autocomplete handlers do not run inline,
+     * see {@link #setDefaultExecutor(Executor)}. Enabled by default.
+     *
+     * @param enabled Whether superseded autocomplete interactions are skipped.
+     * @return The current instance to chain methods.
+     */
+    public T setAutocompleteCoalescing(final boolean enabled) {
+        autocompleteCoalescer = enabled ? new AutocompleteCoalescer() : null;
+        return (T) this;
+    }
+
+    /**
+     * Gets the amount of autocomplete interactions skipped because the user had already typed further.
+     *
+     * @return The amount of skipped interactions since coalescing was enabled.
+     */
+    public long getCoalescedAutocompleteCount() {
+        final AutocompleteCoalescer coalescer = autocompleteCoalescer;
+        return coalescer == null ? 0 : coalescer.getSkippedCount();
+    }
+
+    /**
+     * Sets the receiver of the metrics of all dispatched interactions: the time each interaction waited for its
+     * executor and ran in its handler, and the amount of failed, rejected, unmatched and ambiguous interactions.
+     *
+     * @param metrics The metrics, for example an {@link InMemoryInteractionMetrics}, or {@link InteractionMetrics#NOOP}.
+     * @return The current instance to chain methods.
+     */
+    public T setMetrics(final InteractionMetrics metrics) {
+        dispatcher.setMetrics(metrics == null ? InteractionMetrics.NOOP : metrics);
+        return (T) this;
+    }
+
+    /**
+     * Records every received interaction, so the traffic can be replayed later with an {@link InteractionReplayer}.
+     *
+     * @param recorder The recorder or {@code null} to stop recording.
+     * @return The current instance to chain methods.
+     */
+    public T setRecorder(final InteractionRecorder recorder) {
+        this.recorder = recorder;
+        return (T) this;
+    }
+
+    private void record(final DispatchType type, final InteractionBase interaction) {
+        final InteractionRecorder currentRecorder = recorder;
+        if (currentRecorder != null) {
+            currentRecorder.record(type, interaction);
         }
+    }
+
+    /**
+     * Skips bulk overwriting the application commands of a scope, the global commands or the commands of one server,
+     * if they are unchanged since they were last overwritten. The returned futures then complete with the commands
+     * returned by the last overwrite during this run or, after a restart, with the commands fetched from Discord.
+     *
+     * @param syncState The fingerprints of the overwritten commands, or {@code null} to always overwrite them.
+     * @return The current instance to chain methods.
+     */
+    public T setApplicationCommandSyncState(final ApplicationCommandSyncState syncState) {
+        this.applicationCommandSyncState = syncState;
+        return (T) this;
+    }
 
+    /**
+     * Enables caching which components a received custom id resolves to.
+     * This includes custom ids matching no or multiple components.
+     * Every component type has its own cache, which is invalidated whenever a component is registered.
+     *
+     * @param maximumSize The maximum amount of cached custom ids per component type.
+     * @return The current instance to chain methods.
+     */
+    public T enableComponentResolutionCache(final int maximumSize) {
+        buttonComponents.enableCache(maximumSize);
+        selectMenuComponents.enableCache(maximumSize);
+        modalComponents.enableCache(maximumSize);
+        return (T) this;
+    }
+
+    /**
+     * Disables caching which components a received custom id resolves to.
+     *
+     * @return The current instance to chain methods.
+     */
+    public T disableComponentResolutionCache() {
+        buttonComponents.disableCache();
+        selectMenuComponents.disableCache();
+        modalComponents.disableCache();
         return (T) this;
     }
 
+    /**
+     * Gets the combined statistics of the component resolution caches.
+     *
+     * @return The statistics, empty if the cache is disabled.
+     */
+    public CacheStats getComponentResolutionCacheStats() {
+        return buttonComponents.getCacheStats()
+                .plus(selectMenuComponents.getCacheStats())
+                .plus(modalComponents.getCacheStats());
+    }
+
     /**
      * Attach the interaction listeners to the {@link DiscordApi}.
      *
@@ -132,129 +532,187 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
      * @return The current instance to chain methods.
      */
     public T attachListeners(final DiscordApi api) {
+        api.addSlashCommandCreateListener(event -> handleSlashCommandInteraction(event.getSlashCommandInteraction()));
+        api.addAutocompleteCreateListener(event -> handleAutocompleteInteraction(event.getAutocompleteInteraction()));
+        api.addUserContextMenuCommandListener(event -> handleUserContextMenuInteraction(event.getUserContextMenuInteraction()));
+        api.addMessageContextMenuCommandListener(event -> handleMessageContextMenuInteraction(event.getMessageContextMenuInteraction()));
+        api.addButtonClickListener(event -> handleButtonInteraction(event.getButtonInteraction()));
+        api.addSelectMenuChooseListener(event -> handleSelectMenuInteraction(event.getSelectMenuInteraction()));
+        api.addModalSubmitListener(event -> handleModalInteraction(event.getModalInteraction()));
+        return (T) this;
+    }
 
-        api.addSlashCommandCreateListener(event -> {
-            final SlashCommandInteraction interaction = event.getSlashCommandInteraction();
-            final String commandName = interaction.getCommandName();
-            final boolean isServerCommand = interaction.getRegisteredCommandServerId().isPresent();
-
-            if (!isServerCommand && null != globalSlashCommands.get(commandName)) {
-                handleCommand(interaction, globalSlashCommands.get(commandName));
-                return;
-            } else if (isServerCommand) {
-                if (slashCommandFunction.apply(new SlashCommandInteractionListenerData(interaction, interaction.getRegisteredCommandServerId().orElseThrow(), commandName))) {
-                    return;
-                }
-            }
-            LOGGER.info("Received a slash command interaction for a not registered command");
-        });
-
-        api.addAutocompleteCreateListener(event -> {
-            final AutocompleteInteraction interaction = event.getAutocompleteInteraction();
-            final boolean isServerCommand = interaction.getRegisteredCommandServerId().isPresent();
-            final String commandName = interaction.getCommandName();
-
-            if (!isServerCommand && globalSlashCommands.containsKey(commandName)) {
-                globalSlashCommands.get(commandName).autocompletionHandler(interaction);
-                return;
-            } else if (isServerCommand) {
-                if (autocompleteCommandFunction.apply(new AutocompleteInteractionListenerData(interaction, interaction.getRegisteredCommandServerId().orElseThrow(), commandName))) {
-                    return;
-                }
-            }
-            LOGGER.info("Autocompletion interaction is not from a created slash command in this application");
-        });
+    /**
+     * Dispatches an interaction received through any transport, for example the gateway listeners attached by
+     * {@link #attachListeners(DiscordApi)} or an HTTP interactions endpoint, to the matching command or component.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleInteraction(final InteractionBase interaction) {
+        if (interaction instanceof AutocompleteInteraction autocompleteInteraction) {
+            handleAutocompleteInteraction(autocompleteInteraction);
+        } else if (interaction instanceof SlashCommandInteraction slashCommandInteraction) {
+            handleSlashCommandInteraction(slashCommandInteraction);
+        } else if (interaction instanceof UserContextMenuInteraction userContextMenuInteraction) {
+            handleUserContextMenuInteraction(userContextMenuInteraction);
+        } else if (interaction instanceof MessageContextMenuInteraction messageContextMenuInteraction) {
+            handleMessageContextMenuInteraction(messageContextMenuInteraction);
+        } else if (interaction instanceof ButtonInteraction buttonInteraction) {
+            handleButtonInteraction(buttonInteraction);
+        } else if (interaction instanceof SelectMenuInteraction selectMenuInteraction) {
+            handleSelectMenuInteraction(selectMenuInteraction);
+        } else if (interaction instanceof ModalInteraction modalInteraction) {
+            handleModalInteraction(modalInteraction);
+        } else {
+            throw new IllegalArgumentException("Argument is a not supported Interaction");
+        }
+    }
 
-        api.addUserContextMenuCommandListener(event -> {
-            final UserContextMenuInteraction interaction = event.getUserContextMenuInteraction();
-            final String commandName = interaction.getCommandName();
-            final boolean isServerCommand = interaction.getRegisteredCommandServerId().isPresent();
+    /**
+     * Dispatches a received slash command interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleSlashCommandInteraction(final SlashCommandInteraction interaction) {
+        record(DispatchType.SLASH_COMMAND, interaction);
+        handleApplicationCommand(DispatchType.SLASH_COMMAND, interaction);
+    }
 
-            if (!isServerCommand && null != globalUserContextMenuCommands.get(commandName)) {
-                globalUserContextMenuCommands.get(commandName).runCommand(interaction);
-            } else if (isServerCommand) {
+    /**
+     * Dispatches a received autocomplete interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleAutocompleteInteraction(final AutocompleteInteraction interaction) {
+        record(DispatchType.AUTOCOMPLETE, interaction);
+        handleApplicationCommand(DispatchType.AUTOCOMPLETE, interaction);
+    }
 
-                if (userContextMenuFunction.apply(new UserContextMenuInteractionListenerData(interaction, interaction.getRegisteredCommandServerId().orElseThrow(), commandName))) {
-                    return;
-                }
+    /**
+     * Dispatches a received user context menu interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleUserContextMenuInteraction(final UserContextMenuInteraction interaction) {
+        record(DispatchType.USER_CONTEXT_MENU_COMMAND, interaction);
+        handleApplicationCommand(DispatchType.USER_CONTEXT_MENU_COMMAND, interaction);
+    }
 
-            }
-            LOGGER.info("Received a user context menu command interaction for a not registered command");
-        });
+    /**
+     * Dispatches a received message context menu interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleMessageContextMenuInteraction(final MessageContextMenuInteraction interaction) {
+        record(DispatchType.MESSAGE_CONTEXT_MENU_COMMAND, interaction);
+        handleApplicationCommand(DispatchType.MESSAGE_CONTEXT_MENU_COMMAND, interaction);
+    }
 
-        api.addMessageContextMenuCommandListener(event -> {
-            final MessageContextMenuInteraction interaction = event.getMessageContextMenuInteraction();
-            final String commandName = interaction.getCommandName();
-            final boolean isServerCommand = interaction.getRegisteredCommandServerId().isPresent();
+    /**
+     * Dispatches a received application command interaction to the global or server command with its name.
+     *
+     * @param type        The type of the interaction.
+     * @param interaction The interaction.
+     */
+    private void handleApplicationCommand(final DispatchType type, final ApplicationCommandInteraction interaction) {
+        final String commandName = interaction.getCommandName();
+        // Javacord creates a new Optional on every call, 0 is never the id of a server
+        final long serverId = interaction.getRegisteredCommandServerId().orElse(0L);
+
+        final ServerCommands commands = serverId == 0 ? snapshot.get().globalCommands : findServerCommands(serverId);
+        final boolean dispatched = commands != null
+                ? dispatchApplicationCommand(type, commands, commandName, interaction)
+                : dispatchServerCommandLater(type, serverId, commandName, interaction);
+        if (!dispatched) {
+            dispatcher.getMetrics().recordUnmatched(type);
+            LOGGER.info("Received a {} interaction for the not registered command {}", type, commandName);
+        }
+    }
 
-            if (!isServerCommand && null != globalMessageContextMenuCommands.get(commandName)) {
-                globalMessageContextMenuCommands.get(commandName).runCommand(interaction);
-            } else if (isServerCommand) {
-                if (messageContextMenuFunction.apply(new MessageContextMenuInteractionListenerData(interaction, interaction.getRegisteredCommandServerId().orElseThrow(), commandName))) {
-                    return;
+    /**
+     * Dispatches an application command interaction to the command with its name.
+     *
+     * @param type        The type of the interaction.
+     * @param commands    The commands to dispatch to.
+     * @param commandName The name of the command.
+     * @param interaction The interaction.
+     * @return Whether a command with the name exists.
+     */
+    final boolean dispatchApplicationCommand(final DispatchType type, final ServerCommands commands,
+                                             final String commandName, final ApplicationCommandInteraction interaction) {
+        switch (type) {
+            case SLASH_COMMAND, AUTOCOMPLETE -> {
+                final SlashCommand command = commands.getSlashCommand(commandName);
+                if (command == null) {
+                    return false;
+                } else if (type == DispatchType.SLASH_COMMAND) {
+                    dispatchSlashCommand((SlashCommandInteraction) interaction, command);
+                } else {
+                    dispatchAutocomplete((AutocompleteInteraction) interaction, command);
                 }
             }
-            LOGGER.info("Received a message context menu command interaction for a not registered command");
+            case USER_CONTEXT_MENU_COMMAND -> {
+                final UserContextMenuCommand command = commands.getUserContextMenuCommand(commandName);
+                if (command == null) {
+                    return false;
+                }
+                dispatchUserContextMenuCommand((UserContextMenuInteraction) interaction, command);
+            }
+            case MESSAGE_CONTEXT_MENU_COMMAND -> {
+                final MessageContextMenuCommand command = commands.getMessageContextMenuCommand(commandName);
+                if (command == null) {
+                    return false;
+                }
+                dispatchMessageContextMenuCommand((MessageContextMenuInteraction) interaction, command);
+            }
+            default -> throw new IllegalArgumentException("Argument is a not supported Interaction");
+        }
+        return true;
+    }
 
-        });
+    /**
+     * Dispatches an interaction of a server whose commands are not known without loading them, see
+     * {@link #findServerCommands(long)}.
+     *
+     * @param type        The type of the interaction.
+     * @param serverId    The id of the server.
+     * @param commandName The name of the command.
+     * @param interaction The interaction.
+     * @return Whether the interaction is dispatched once the commands are known.
+     */
+    boolean dispatchServerCommandLater(final DispatchType type, final long serverId, final String commandName,
+                                       final ApplicationCommandInteraction interaction) {
+        return false;
+    }
 
-        api.addButtonClickListener(event -> {
-            final String customId = event.getButtonInteraction().getCustomId();
-            final Set<Map.Entry<Pattern, ButtonComponent>> entrySet = buttonComponents.entrySet()
-                    .stream()
-                    .filter(stringComponentEntry -> stringComponentEntry.getKey().matcher(customId).matches())
-                    .collect(Collectors.toSet());
-
-            switch (entrySet.size()) {
-                case 0 -> LOGGER.debug("No matching Pattern found for received component interaction: {}", customId);
-                case 1 -> entrySet.stream().findFirst()
-                        .ifPresent(patternButtonComponentEntry -> patternButtonComponentEntry.getValue()
-                                .runButtonComponent(event.getButtonInteraction()));
-                default ->
-                        LOGGER.info(entrySet.stream().map(patternButtonComponentEntry -> patternButtonComponentEntry.getKey()
-                                        .pattern() + " -> " + patternButtonComponentEntry.getValue().getClass().getSimpleName())
-                                .collect(Collectors.joining(",", "Found multiple pattern patching the received component interaction: {", "}")));
-            }
-        });
+    /**
+     * Dispatches a received button interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleButtonInteraction(final ButtonInteraction interaction) {
+        record(DispatchType.BUTTON, interaction);
+        handleComponent(DispatchType.BUTTON, buttonComponents, snapshot.get().buttonComponents, interaction, interaction.getCustomId());
+    }
 
-        api.addSelectMenuChooseListener(event -> {
-            final String customId = event.getSelectMenuInteraction().getCustomId();
-            final Set<Map.Entry<Pattern, SelectMenuComponent>> entrySet = selectMenuComponents.entrySet()
-                    .stream()
-                    .filter(stringComponentEntry -> stringComponentEntry.getKey().matcher(customId).matches())
-                    .collect(Collectors.toSet());
-
-            switch (entrySet.size()) {
-                case 0 -> LOGGER.debug("No matching Pattern found for received component interaction: {}", customId);
-                case 1 -> entrySet.stream().findFirst()
-                        .ifPresent(patternSelectMenuComponentEntry -> patternSelectMenuComponentEntry.getValue()
-                                .runSelectMenuComponent(event.getSelectMenuInteraction()));
-                default ->
-                        LOGGER.info(entrySet.stream().map(patternSelectMenuComponentEntry -> patternSelectMenuComponentEntry.getKey()
-                                        .pattern() + " -> " + patternSelectMenuComponentEntry.getValue().getClass().getSimpleName())
-                                .collect(Collectors.joining(",", "Found multiple pattern patching the received component interaction: {", "}")));
-            }
-        });
+    /**
+     * Dispatches a received select menu interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleSelectMenuInteraction(final SelectMenuInteraction interaction) {
+        record(DispatchType.SELECT_MENU, interaction);
+        handleComponent(DispatchType.SELECT_MENU, selectMenuComponents, snapshot.get().selectMenuComponents, interaction, interaction.getCustomId());
+    }
 
-        api.addModalSubmitListener(event -> {
-            final String customId = event.getModalInteraction().getCustomId();
-            final Set<Map.Entry<Pattern, ModalComponent>> entrySet = modalComponents.entrySet()
-                    .stream()
-                    .filter(stringComponentEntry -> stringComponentEntry.getKey().matcher(customId).matches())
-                    .collect(Collectors.toSet());
-
-            switch (entrySet.size()) {
-                case 0 -> LOGGER.debug("No matching Pattern found for received component interaction: {}", customId);
-                case 1 -> entrySet.stream().findFirst()
-                        .ifPresent(patternSelectMenuComponentEntry -> patternSelectMenuComponentEntry.getValue()
-                                .runModalComponent(event.getModalInteraction()));
-                default ->
-                        LOGGER.info(entrySet.stream().map(patternSelectMenuComponentEntry -> patternSelectMenuComponentEntry.getKey()
-                                        .pattern() + " -> " + patternSelectMenuComponentEntry.getValue().getClass().getSimpleName())
-                                .collect(Collectors.joining(",", "Found multiple pattern patching the received component interaction: {", "}")));
-            }
-        });
-        return (T) this;
+    /**
+     * Dispatches a received modal interaction.
+     *
+     * @param interaction The interaction.
+     */
+    public void handleModalInteraction(final ModalInteraction interaction) {
+        record(DispatchType.MODAL, interaction);
+        handleComponent(DispatchType.MODAL, modalComponents, snapshot.get().modalComponents, interaction, interaction.getCustomId());
     }
 
     /**
@@ -277,6 +735,191 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
         return applicationCommands;
     }
 
+    /**
+     * Bulk overwrites the application commands of a scope unless they are unchanged since the last overwrite.
+     *
+     * @param scope     The scope of the commands.
+     * @param builders  The builders of all commands of the scope.
+     * @param overwrite Overwrites the commands of the scope with the builders.
+     * @param fetch     Fetches the current commands of the scope.
+     * @return A future to check if the operation was successful and the registered application commands.
+     */
+    protected CompletableFuture<Set<ApplicationCommand>> overwriteIfChanged(final String scope,
+                                                                           final Set<? extends ApplicationCommandBuilder<?, ?, ?>> builders,
+                                                                           final Function<Set<? extends ApplicationCommandBuilder<?, ?, ?>>, CompletableFuture<Set<ApplicationCommand>>> overwrite,
+                                                                           final Supplier<CompletableFuture<Set<ApplicationCommand>>> fetch) {
+        final ApplicationCommandSyncState syncState = applicationCommandSyncState;
+        if (syncState == null) {
+            return overwrite.apply(builders);
+        }
+
+        final String fingerprint = ApplicationCommandSyncState.fingerprint(builders);
+        if (syncState.isUnchanged(scope, fingerprint)) {
+            LOGGER.debug("Skipping the bulk overwrite of the unchanged {} application commands", scope);
+            final Set<ApplicationCommand> commands = syncState.getCommands(scope);
+            if (commands != null) {
+                return CompletableFuture.completedFuture(commands);
+            }
+            return fetch.get().thenApply(fetched -> {
+                syncState.putCommands(scope, fetched);
+                return fetched;
+            });
+        }
+        return overwrite.apply(builders).thenApply(commands -> {
+            syncState.overwritten(scope, fingerprint, commands);
+            return commands;
+        });
+    }
+
+    /**
+     * Handles receiving a component interaction by running the only component matching its custom id.
+     *
+     * @param type        The type of the interaction.
+     * @param resolver    The resolver of the component type.
+     * @param router      The registered components of the type.
+     * @param interaction The received interaction.
+     * @param customId    The received custom id.
+     * @param <C>         The type of the component.
+     */
+    private <C extends AbstractComponent> void handleComponent(final DispatchType type, final ComponentResolver<C> resolver,
+                                                               final ComponentRouter<C> router,
+                                                               final InteractionBase interaction, final String customId) {
+        final ComponentResolution<C> resolution = resolver.resolve(router, customId);
+        switch (resolution.size()) {
+            case 0 -> {
+                dispatcher.getMetrics().recordUnmatched(type);
+                LOGGER.debug("No matching Pattern found for received component interaction: {}", customId);
+            }
+            case 1 -> {
+                dispatcher.dispatch(type, resolution.component(), interaction);
+            }
+            default -> {
+                dispatcher.getMetrics().recordAmbiguous(type);
+                LOGGER.info(resolution.describe());
+            }
+        }
+    }
+
+    /**
+     * Records an interaction which does not belong to any registered command or component in the metrics.
+     *
+     * @param type The type of the interaction.
+     */
+    protected void recordUnmatched(final DispatchType type) {
+        dispatcher.getMetrics().recordUnmatched(type);
+    }
+
+    /**
+     * Runs the slash command on its executor.
+     *
+     * @param interaction The interaction.
+     * @param command     The command.
+     */
+    protected void dispatchSlashCommand(final SlashCommandInteraction interaction, final SlashCommand command) {
+        dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction);
+    }
+
+    /**
+     * Runs the autocompletion handler of the slash command on its executor.
+     *
+     * @param interaction The interaction.
+     * @param command     The command.
+     */
+    protected void dispatchAutocomplete(final AutocompleteInteraction interaction, final SlashCommand command) {
+        final AutocompleteCoalescer coalescer = autocompleteCoalescer;
+        // Inline handlers finish before the next keystroke is received, so there is nothing to coalesce
+        if (coalescer == null || dispatcher.runsInline(command)) {
+            dispatcher.dispatch(DispatchType.AUTOCOMPLETE, command, interaction);
+            return;
+        }
+
+        final AutocompleteCoalescer.Ticket ticket = coalescer.register(interaction.getUser().getId(),
+                interaction.getCommandId(), interaction.getFocusedOption().getName());
+        final boolean scheduled = dispatcher.dispatch(DispatchType.AUTOCOMPLETE, command, interaction, () -> {
+            try {
+                if (coalescer.begin(ticket)) {
+                    handleAutocomplete(interaction, command);
+                } else {
+                    LOGGER.trace("Skipped a superseded autocomplete interaction of /{}", interaction.getCommandName());
+                }
+            } finally {
+                coalescer.finish(ticket);
+            }
+        });
+        if (!scheduled) {
+            coalescer.finish(ticket);
+        }
+    }
+
+    /**
+     * Runs the user context menu command on its executor.
+     *
+     * @param interaction The interaction.
+     * @param command     The command.
+     */
+    protected void dispatchUserContextMenuCommand(final UserContextMenuInteraction interaction, final UserContextMenuCommand command) {
+        dispatcher.dispatch(DispatchType.USER_CONTEXT_MENU_COMMAND, command, interaction);
+    }
+
+    /**
+     * Runs the message context menu command on its executor.
+     *
+     * @param interaction The interaction.
+     * @param command     The command.
+     */
+    protected void dispatchMessageContextMenuCommand(final MessageContextMenuInteraction interaction, final MessageContextMenuCommand command) {
+        dispatcher.dispatch(DispatchType.MESSAGE_CONTEXT_MENU_COMMAND, command, interaction);
+    }
+
+    /**
+     * Runs the command or component an interaction was dispatched to, called by the dispatcher without capturing the
+     * interaction in a task.
+     *
+     * @param type        The type of the interaction.
+     * @param target      The command or component.
+     * @param interaction The interaction.
+     */
+    private void runInteraction(final DispatchType type, final Interaction target, final InteractionBase interaction) {
+        switch (type) {
+            case SLASH_COMMAND -> handleCommand((SlashCommandInteraction) interaction, (SlashCommand) target);
+            case AUTOCOMPLETE -> handleAutocomplete((AutocompleteInteraction) interaction, (SlashCommand) target);
+            case USER_CONTEXT_MENU_COMMAND -> ((UserContextMenuCommand) target).runCommand((UserContextMenuInteraction) interaction);
+            case MESSAGE_CONTEXT_MENU_COMMAND -> ((MessageContextMenuCommand) target).runCommand((MessageContextMenuInteraction) interaction);
+            case BUTTON -> ((ButtonComponent) target).runButtonComponent((ButtonInteraction) interaction);
+            case SELECT_MENU -> ((SelectMenuComponent) target).runSelectMenuComponent((SelectMenuInteraction) interaction);
+            case MODAL -> ((ModalComponent) target).runModalComponent((ModalInteraction) interaction);
+        }
+    }
+
+    /**
+     * Handles receiving an autocomplete interaction. If a provider is bound to the focused option,
+     * the interaction is answered with its choices, otherwise it is passed to the autocompletion handler of the command.
+     *
+     * @param interaction The interaction.
+     * @param command     The command.
+     */
+    protected void handleAutocomplete(final AutocompleteInteraction interaction, final SlashCommand command) {
+        final SlashCommandInteractionOption focusedOption = interaction.getFocusedOption();
+        final AutocompleteChoiceProvider provider = command.getAutocompleteChoiceProvider(focusedOption.getName());
+        if (provider == null) {
+            command.autocompletionHandler(interaction);
+            return;
+        }
+
+        final AutocompleteCache cache = autocompleteCache;
+        final List<SlashCommandOptionChoice> choices = cache == null
+                ? provider.getChoices(interaction)
+                : cache.getChoices(interaction,
+                interaction.getServer().map(DiscordEntity::getId).orElse(0L),
+                focusedOption.getName(),
+                focusedOption.getStringRepresentationValue().orElse(""),
+                provider);
+        interaction.respondWithChoices(choices).exceptionally(throwable -> {
+            LOGGER.warn("Could not respond to the autocomplete interaction of /{}", interaction.getCommandName(), throwable);
+            return null;
+        });
+    }
+
     /**
      * Handles receiving a slash command.
      *
@@ -284,12 +927,18 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
      * @param command     The command.
      */
     protected void handleCommand(final SlashCommandInteraction interaction, final SlashCommand command) {
+        if (LOGGER.isTraceEnabled()) {
+            LOGGER.trace("Received slash command: {} ({})",
+                    interaction.getFullCommandName(),
+                    getLogArguments(interaction.getArguments()));
+        }
 
-        LOGGER.trace("Received slash command: {} ({})",
-                interaction.getFullCommandName(),
-                getLogArguments(interaction.getArguments()));
-
-        command.runCommand(interaction);
+        final Consumer<SlashCommandInteraction> subcommandHandler = command.getSubcommandHandler(interaction);
+        if (subcommandHandler != null) {
+            subcommandHandler.accept(interaction);
+        } else {
+            command.runCommand(interaction);
+        }
     }
 
     /**
@@ -332,17 +981,17 @@ public abstract sealed class InteractionHandler<T extends InteractionHandler<?>>
      * @return A future to check if the operation was successful and the registered application commands.
      */
     public CompletableFuture<Set<ApplicationCommand>> bulkOverwriteGlobalApplicationCommands(final DiscordApi api, final Predicate<AbstractApplicationCommand> commandNamePredicate) {
-        final Set<AbstractApplicationCommand> abstractApplicationCommands = new HashSet<>();
-        abstractApplicationCommands.addAll(globalSlashCommands.values());
-        abstractApplicationCommands.addAll(globalMessageContextMenuCommands.values());
-        abstractApplicationCommands.addAll(globalUserContextMenuCommands.values());
+        final List<AbstractApplicationCommand> abstractApplicationCommands = snapshot.get().globalCommands.getAll();
 
-        return api.bulkOverwriteGlobalApplicationCommands(abstractApplicationCommands
+        return overwriteIfChanged(ApplicationCommandSyncState.GLOBAL_SCOPE,
+                abstractApplicationCommands
                         .stream()
                         .filter(commandNamePredicate)
                         .map(AbstractApplicationCommand::getApplicationCommandBuilder)
-                        .collect(Collectors.toSet()))
-                .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Global"));
+                        .collect(Collectors.toSet()),
+                builders -> api.bulkOverwriteGlobalApplicationCommands(builders)
+                        .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Global")),
+                api::getGlobalApplicationCommands);
     }
 
     /**
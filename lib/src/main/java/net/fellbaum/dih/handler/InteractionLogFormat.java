@@ -0,0 +1,184 @@
+package net.fellbaum.dih.handler;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The binary format of the interaction logs written by an {@link InteractionRecorder}.
+ * <p>
+ * A log starts with a magic number and the version of the format, followed by one record per interaction: the
+ * nanoseconds since the previous record, the type, the server ids, the user, channel and command ids, the name and the
+ * options. Logs of version 1 have no channel and command ids, which are read as {@code 0}. Numbers are
+ * written as unsigned variable-length integers and strings as their length followed by their UTF-8 bytes, so a slash
+ * command with one option takes about 50 bytes.
+ */
+final class InteractionLogFormat {
+
+    static final int MAGIC = 0x44494852;
+    static final int VERSION = 2;
+
+    /**
+     * The types by their code in the log, new types must only be appended.
+     */
+    private static final DispatchType[] TYPES = {DispatchType.SLASH_COMMAND, DispatchType.AUTOCOMPLETE,
+            DispatchType.USER_CONTEXT_MENU_COMMAND, DispatchType.MESSAGE_CONTEXT_MENU_COMMAND, DispatchType.BUTTON,
+            DispatchType.SELECT_MENU, DispatchType.MODAL};
+
+    private static final int SUBCOMMAND_OR_GROUP = 1;
+    private static final int FOCUSED = 2;
+    private static final int HAS_VALUE = 4;
+
+    private InteractionLogFormat() {
+    }
+
+    static void writeHeader(final DataOutput output) throws IOException {
+        output.writeInt(MAGIC);
+        output.writeByte(VERSION);
+    }
+
+    /**
+     * Reads the header of a log.
+     *
+     * @param input The input.
+     * @return The version of the format.
+     * @throws IOException If the input is no interaction log of a supported version.
+     */
+    static int readHeader(final DataInput input) throws IOException {
+        if (input.readInt() != MAGIC) {
+            throw new IOException("Not an interaction log");
+        }
+        final int version = input.readUnsignedByte();
+        if (version < 1 || version > VERSION) {
+            throw new IOException("Unsupported interaction log version " + version);
+        }
+        return version;
+    }
+
+    /**
+     * Writes a record.
+     *
+     * @param output               The output.
+     * @param interaction          The interaction.
+     * @param previousArrivalNanos The arrival of the previous record.
+     */
+    static void write(final DataOutput output, final RecordedInteraction interaction, final long previousArrivalNanos) throws IOException {
+        writeVarLong(output, Math.max(0, interaction.arrivalNanos() - previousArrivalNanos));
+        int code = 0;
+        while (TYPES[code] != interaction.type()) {
+            code++;
+        }
+        output.writeByte(code);
+        writeVarLong(output, interaction.serverId());
+        writeVarLong(output, interaction.commandServerId());
+        writeVarLong(output, interaction.userId());
+        writeVarLong(output, interaction.channelId());
+        writeVarLong(output, interaction.commandId());
+        writeString(output, interaction.name());
+        writeOptions(output, interaction.options());
+    }
+
+    /**
+     * Reads a record.
+     *
+     * @param input                The input.
+     * @param previousArrivalNanos The arrival of the previous record.
+     * @param version              The version of the format of the log.
+     * @return The record or {@code null} at the end of the log.
+     * @throws IOException If the record is invalid or cut off.
+     */
+    static RecordedInteraction read(final DataInput input, final long previousArrivalNanos, final int version) throws IOException {
+        final int first;
+        try {
+            first = input.readUnsignedByte();
+        } catch (EOFException e) {
+            return null;
+        }
+        final long arrivalNanos = previousArrivalNanos + readVarLong(input, first);
+        final int code = input.readUnsignedByte();
+        if (code >= TYPES.length) {
+            throw new IOException("Unknown interaction type " + code);
+        }
+        final long serverId = readVarLong(input, input.readUnsignedByte());
+        final long commandServerId = readVarLong(input, input.readUnsignedByte());
+        final long userId = readVarLong(input, input.readUnsignedByte());
+        final long channelId = version >= 2 ? readVarLong(input, input.readUnsignedByte()) : 0;
+        final long commandId = version >= 2 ? readVarLong(input, input.readUnsignedByte()) : 0;
+        return new RecordedInteraction(arrivalNanos, TYPES[code], serverId, commandServerId, userId, channelId, commandId,
+                readString(input), readOptions(input));
+    }
+
+    private static void writeOptions(final DataOutput output, final List<RecordedInteraction.Option> options) throws IOException {
+        writeVarLong(output, options.size());
+        for (final RecordedInteraction.Option option : options) {
+            writeString(output, option.name());
+            output.writeByte((option.subcommandOrGroup() ? SUBCOMMAND_OR_GROUP : 0)
+                    | (option.focused() ? FOCUSED : 0)
+                    | (option.value() != null ? HAS_VALUE : 0));
+            if (option.value() != null) {
+                writeString(output, option.value());
+            }
+            writeOptions(output, option.options());
+        }
+    }
+
+    private static List<RecordedInteraction.Option> readOptions(final DataInput input) throws IOException {
+        final int count = (int) readVarLong(input, input.readUnsignedByte());
+        if (count == 0) {
+            return List.of();
+        }
+        final List<RecordedInteraction.Option> options = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            final String name = readString(input);
+            final int flags = input.readUnsignedByte();
+            final String value = (flags & HAS_VALUE) != 0 ? readString(input) : null;
+            options.add(new RecordedInteraction.Option(name, value, (flags & SUBCOMMAND_OR_GROUP) != 0,
+                    (flags & FOCUSED) != 0, readOptions(input)));
+        }
+        return List.copyOf(options);
+    }
+
+    private static void writeString(final DataOutput output, final String value) throws IOException {
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(output, bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInput input) throws IOException {
+        final byte[] bytes = new byte[(int) readVarLong(input, input.readUnsignedByte())];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarLong(final DataOutput output, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            output.writeByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.writeByte((int) value);
+    }
+
+    /**
+     * Reads an unsigned variable-length integer.
+     *
+     * @param input The input.
+     * @param first The already read first byte.
+     * @return The value.
+     */
+    private static long readVarLong(final DataInput input, final int first) throws IOException {
+        long value = first & 0x7F;
+        int current = first;
+        for (int shift = 7; (current & 0x80) != 0; shift += 7) {
+            if (shift > 63) {
+                throw new IOException("Invalid variable-length integer");
+            }
+            current = input.readUnsignedByte();
+            value |= (long) (current & 0x7F) << shift;
+        }
+        return value;
+    }
+}
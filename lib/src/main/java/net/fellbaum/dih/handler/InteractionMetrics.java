@@ -0,0 +1,58 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.Interaction;
+
+/**
+ * Receives metrics about the interactions dispatched by an {@link InteractionHandler}.
+ * <p>
+ * The methods are called on the dispatching threads for every interaction, so implementations have to be thread-safe
+ * and should not block. All methods do nothing by default.
+ *
+ * @see InMemoryInteractionMetrics
+ */
+public interface InteractionMetrics {
+
+    /**
+     * Metrics which discard everything.
+     */
+    InteractionMetrics NOOP = new InteractionMetrics() {
+    };
+
+    /**
+     * Records an interaction whose handler has finished.
+     *
+     * @param type           The type of the interaction.
+     * @param target         The command or component which handled the interaction.
+     * @param queueNanos     The time between receiving the interaction and starting its handler.
+     * @param executionNanos The time the handler ran.
+     * @param failed         Whether the handler threw an exception.
+     */
+    default void recordHandled(final DispatchType type, final Interaction target, final long queueNanos,
+                               final long executionNanos, final boolean failed) {
+    }
+
+    /**
+     * Records an interaction which was rejected because of its admission limit or its executor.
+     *
+     * @param type   The type of the interaction.
+     * @param target The command or component which would have handled the interaction.
+     */
+    default void recordRejected(final DispatchType type, final Interaction target) {
+    }
+
+    /**
+     * Records an interaction which does not belong to any registered command or component.
+     *
+     * @param type The type of the interaction.
+     */
+    default void recordUnmatched(final DispatchType type) {
+    }
+
+    /**
+     * Records a component interaction whose custom id matches multiple components, so none of them was run.
+     *
+     * @param type The type of the interaction.
+     */
+    default void recordAmbiguous(final DispatchType type) {
+    }
+}
@@ -0,0 +1,18 @@
+package net.fellbaum.dih.handler;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A copy of the metrics recorded by {@link InMemoryInteractionMetrics}.
+ *
+ * @param series          The metrics of every command and component which handled an interaction.
+ * @param rejectedCounts  The amount of interactions rejected because of their admission limit or executor, by type.
+ * @param unmatchedCounts The amount of interactions without a registered command or component, by type.
+ * @param ambiguousCounts The amount of component interactions matching multiple components, by type.
+ */
+public record InteractionMetricsSnapshot(List<InteractionSeriesSnapshot> series,
+                                         Map<DispatchType, Long> rejectedCounts,
+                                         Map<DispatchType, Long> unmatchedCounts,
+                                         Map<DispatchType, Long> ambiguousCounts) {
+}
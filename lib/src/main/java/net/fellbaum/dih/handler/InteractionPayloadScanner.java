@@ -0,0 +1,322 @@
+package net.fellbaum.dih.handler;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Extracts the fields needed for routing from the raw UTF-8 JSON of an interaction in one pass, skipping every other
+ * value without materializing it. Accepts both the interaction object sent to HTTP endpoints and the
+ * {@code INTERACTION_CREATE} dispatch of the gateway wrapping it in {@code d}.
+ * <p>
+ * Only the command name and the custom id are allocated as strings. Not thread-safe, use one instance per payload.
+ */
+final class InteractionPayloadScanner {
+
+    private static final byte[] TYPE = ascii("type");
+    private static final byte[] GUILD_ID = ascii("guild_id");
+    private static final byte[] DATA = ascii("data");
+    private static final byte[] NAME = ascii("name");
+    private static final byte[] CUSTOM_ID = ascii("custom_id");
+    private static final byte[] COMPONENT_TYPE = ascii("component_type");
+    private static final byte[] GATEWAY_DATA = ascii("d");
+    private static final byte[] GATEWAY_EVENT = ascii("t");
+    private static final byte[] INTERACTION_CREATE = ascii("INTERACTION_CREATE");
+
+    private final byte[] payload;
+    private final int end;
+    private int position;
+
+    int type = -1;
+    int commandType = -1;
+    int componentType = -1;
+    long serverId;
+    long commandServerId;
+    String name;
+    String customId;
+
+    InteractionPayloadScanner(final byte[] payload, final int offset, final int length) {
+        this.payload = payload;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Scans the payload.
+     *
+     * @return This scanner with the extracted fields.
+     * @throws IllegalArgumentException If the payload is not a JSON object.
+     */
+    InteractionPayloadScanner scan() {
+        skipWhitespace();
+        final boolean interactionCreate = scanObject(true);
+        if (!interactionCreate) {
+            type = -1;
+        }
+        return this;
+    }
+
+    /**
+     * Scans the members of an interaction object or gateway dispatch.
+     *
+     * @param topLevel Whether the object may be a gateway dispatch.
+     * @return Whether the object is not a gateway dispatch of another event.
+     */
+    private boolean scanObject(final boolean topLevel) {
+        expect('{');
+        boolean interactionCreate = true;
+        if (tryConsume('}')) {
+            return true;
+        }
+        do {
+            final int keyStart = position + 1;
+            skipString();
+            final int keyEnd = position - 1;
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (keyEquals(keyStart, keyEnd, TYPE)) {
+                type = readInt();
+            } else if (keyEquals(keyStart, keyEnd, GUILD_ID)) {
+                serverId = readSnowflake();
+            } else if (keyEquals(keyStart, keyEnd, DATA) && peek() == '{') {
+                scanData();
+            } else if (topLevel && keyEquals(keyStart, keyEnd, GATEWAY_DATA) && peek() == '{') {
+                scanObject(false);
+            } else if (topLevel && keyEquals(keyStart, keyEnd, GATEWAY_EVENT) && peek() == '"') {
+                final int valueStart = position + 1;
+                skipString();
+                interactionCreate = keyEquals(valueStart, position - 1, INTERACTION_CREATE);
+            } else {
+                skipValue();
+            }
+            skipWhitespace();
+        } while (tryConsume(','));
+        expect('}');
+        return interactionCreate;
+    }
+
+    private void scanData() {
+        expect('{');
+        if (tryConsume('}')) {
+            return;
+        }
+        do {
+            final int keyStart = position + 1;
+            skipString();
+            final int keyEnd = position - 1;
+            skipWhitespace();
+            expect(':');
+            skipWhitespace();
+            if (keyEquals(keyStart, keyEnd, NAME) && peek() == '"') {
+                name = readString();
+            } else if (keyEquals(keyStart, keyEnd, CUSTOM_ID) && peek() == '"') {
+                customId = readString();
+            } else if (keyEquals(keyStart, keyEnd, TYPE)) {
+                commandType = readInt();
+            } else if (keyEquals(keyStart, keyEnd, COMPONENT_TYPE)) {
+                componentType = readInt();
+            } else if (keyEquals(keyStart, keyEnd, GUILD_ID)) {
+                commandServerId = readSnowflake();
+            } else {
+                skipValue();
+            }
+            skipWhitespace();
+        } while (tryConsume(','));
+        expect('}');
+    }
+
+    private int readInt() {
+        if (peek() == 'n') {
+            skipValue();
+            return -1;
+        }
+        int value = 0;
+        final int start = position;
+        while (position < end && payload[position] >= '0' && payload[position] <= '9') {
+            value = value * 10 + (payload[position++] - '0');
+        }
+        if (position == start) {
+            throw error("Expected a number");
+        }
+        return value;
+    }
+
+    private long readSnowflake() {
+        if (peek() != '"') {
+            skipValue();
+            return 0;
+        }
+        position++;
+        long value = 0;
+        while (position < end && payload[position] != '"') {
+            final byte digit = payload[position++];
+            if (digit < '0' || digit > '9') {
+                throw error("Expected a snowflake");
+            }
+            value = value * 10 + (digit - '0');
+        }
+        expect('"');
+        return value;
+    }
+
+    private String readString() {
+        final int start = position + 1;
+        boolean escaped = false;
+        position++;
+        while (true) {
+            if (position >= end) {
+                throw error("Unterminated string");
+            }
+            final byte c = payload[position++];
+            if (c == '"') {
+                break;
+            } else if (c == '\\') {
+                escaped = true;
+                position++;
+            }
+        }
+        if (!escaped) {
+            return new String(payload, start, position - 1 - start, StandardCharsets.UTF_8);
+        }
+        return unescape(new String(payload, start, position - 1 - start, StandardCharsets.UTF_8));
+    }
+
+    private String unescape(final String escaped) {
+        final StringBuilder builder = new StringBuilder(escaped.length());
+        for (int i = 0; i < escaped.length(); i++) {
+            final char c = escaped.charAt(i);
+            if (c != '\\') {
+                builder.append(c);
+                continue;
+            }
+            final char next = escaped.charAt(++i);
+            switch (next) {
+                case 'b' -> builder.append('\b');
+                case 'f' -> builder.append('\f');
+                case 'n' -> builder.append('\n');
+                case 'r' -> builder.append('\r');
+                case 't' -> builder.append('\t');
+                case 'u' -> {
+                    if (i + 5 > escaped.length()) {
+                        throw error("Invalid unicode escape sequence");
+                    }
+                    try {
+                        builder.append((char) Integer.parseInt(escaped, i + 1, i + 5, 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid unicode escape sequence");
+                    }
+                    i += 4;
+                }
+                default -> builder.append(next);
+            }
+        }
+        return builder.toString();
+    }
+
+    private void skipValue() {
+        switch (peek()) {
+            case '"' -> skipString();
+            case '{', '[' -> skipNested();
+            default -> {
+                while (position < end) {
+                    final byte c = payload[position];
+                    if (c == ',' || c == '}' || c == ']' || c == ' ' || c == '\n' || c == '\r' || c == '\t') {
+                        break;
+                    }
+                    position++;
+                }
+            }
+        }
+    }
+
+    /**
+     * Skips an object or array by counting brackets outside of strings.
+     */
+    private void skipNested() {
+        int depth = 0;
+        do {
+            if (position >= end) {
+                throw error("Unterminated object or array");
+            }
+            final byte c = payload[position];
+            if (c == '"') {
+                skipString();
+                continue;
+            }
+            if (c == '{' || c == '[') {
+                depth++;
+            } else if (c == '}' || c == ']') {
+                depth--;
+            }
+            position++;
+        } while (depth > 0);
+    }
+
+    private void skipString() {
+        expect('"');
+        while (true) {
+            if (position >= end) {
+                throw error("Unterminated string");
+            }
+            final byte c = payload[position++];
+            if (c == '"') {
+                return;
+            } else if (c == '\\') {
+                position++;
+            }
+        }
+    }
+
+    private boolean keyEquals(final int start, final int keyEnd, final byte[] expected) {
+        if (keyEnd - start != expected.length) {
+            return false;
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (payload[start + i] != expected[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void skipWhitespace() {
+        while (position < end) {
+            final byte c = payload[position];
+            if (c != ' ' && c != '\n' && c != '\r' && c != '\t') {
+                return;
+            }
+            position++;
+        }
+    }
+
+    private boolean tryConsume(final char expected) {
+        skipWhitespace();
+        if (position < end && payload[position] == expected) {
+            position++;
+            skipWhitespace();
+            return true;
+        }
+        return false;
+    }
+
+    private byte peek() {
+        if (position >= end) {
+            throw error("Unexpected end of the payload");
+        }
+        return payload[position];
+    }
+
+    private void expect(final char expected) {
+        if (peek() != expected) {
+            throw error("Expected '" + expected + "'");
+        }
+        position++;
+    }
+
+    private IllegalArgumentException error(final String message) {
+        return new IllegalArgumentException(message + " at position " + position);
+    }
+
+    private static byte[] ascii(final String value) {
+        return value.getBytes(StandardCharsets.US_ASCII);
+    }
+}
@@ -0,0 +1,122 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.component.AbstractComponent;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Resolves the command or component of an interaction from its raw JSON payload before it is deserialized.
+ * <p>
+ * The payload, either the interaction object sent to HTTP endpoints or the {@code INTERACTION_CREATE} dispatch of the
+ * gateway, is scanned once for the interaction type, {@code data.name}, {@code data.custom_id} and the server ids,
+ * skipping everything else. Interactions for unknown commands or custom ids can then be dropped without deserializing
+ * them into the objects of a Discord library. Dropped interactions are recorded as unmatched or ambiguous in the metrics
+ * of the handler, so they must not be dispatched to the handler afterwards.
+ * <p>
+ * Server commands of a {@link ComplexInteractionHandler} which are not in memory are not loaded, these interactions
+ * are neither resolved nor unmatched.
+ */
+public final class InteractionPreRouter {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionPreRouter.class);
+
+    private static final int APPLICATION_COMMAND = 2;
+    private static final int MESSAGE_COMPONENT = 3;
+    private static final int APPLICATION_COMMAND_AUTOCOMPLETE = 4;
+    private static final int MODAL_SUBMIT = 5;
+
+    private static final int USER_COMMAND = 2;
+    private static final int MESSAGE_COMMAND = 3;
+    private static final int BUTTON_COMPONENT = 2;
+
+    private final InteractionHandler<?> handler;
+
+    /**
+     * Creates a pre-router resolving with the registered commands and components of a handler.
+     *
+     * @param handler The handler.
+     */
+    public InteractionPreRouter(final InteractionHandler<?> handler) {
+        this.handler = handler;
+    }
+
+    /**
+     * Resolves the command or component of a payload.
+     *
+     * @param payload The UTF-8 encoded JSON payload.
+     * @return The routing fields and resolved target.
+     * @throws IllegalArgumentException If the payload is not a JSON object.
+     */
+    public PreRoutedInteraction route(final byte[] payload) {
+        return route(payload, 0, payload.length);
+    }
+
+    /**
+     * Resolves the command or component of a payload.
+     *
+     * @param payload The buffer containing the UTF-8 encoded JSON payload.
+     * @param offset  The start of the payload in the buffer.
+     * @param length  The length of the payload.
+     * @return The routing fields and resolved target.
+     * @throws IllegalArgumentException If the payload is not a JSON object.
+     */
+    public PreRoutedInteraction route(final byte[] payload, final int offset, final int length) {
+        final InteractionPayloadScanner scanned = new InteractionPayloadScanner(payload, offset, length).scan();
+        return switch (scanned.type) {
+            case APPLICATION_COMMAND, APPLICATION_COMMAND_AUTOCOMPLETE -> routeCommand(scanned);
+            case MESSAGE_COMPONENT -> routeComponent(scanned,
+                    scanned.componentType == BUTTON_COMPONENT ? DispatchType.BUTTON : DispatchType.SELECT_MENU);
+            case MODAL_SUBMIT -> routeComponent(scanned, DispatchType.MODAL);
+            default -> new PreRoutedInteraction(scanned.type, null, null, null, scanned.serverId, null, false);
+        };
+    }
+
+    private PreRoutedInteraction routeCommand(final InteractionPayloadScanner scanned) {
+        final DispatchType type;
+        if (scanned.type == APPLICATION_COMMAND_AUTOCOMPLETE) {
+            type = DispatchType.AUTOCOMPLETE;
+        } else if (scanned.commandType == USER_COMMAND) {
+            type = DispatchType.USER_CONTEXT_MENU_COMMAND;
+        } else if (scanned.commandType == MESSAGE_COMMAND) {
+            type = DispatchType.MESSAGE_CONTEXT_MENU_COMMAND;
+        } else {
+            type = DispatchType.SLASH_COMMAND;
+        }
+        final ServerCommands commands = scanned.commandServerId == 0
+                ? handler.getSnapshot().globalCommands
+                : handler.findServerCommands(scanned.commandServerId);
+        if (scanned.name == null || commands == null) {
+            return new PreRoutedInteraction(scanned.type, type, scanned.name, null, scanned.serverId, null, false);
+        }
+
+        final AbstractApplicationCommand command = switch (type) {
+            case USER_CONTEXT_MENU_COMMAND -> commands.getUserContextMenuCommand(scanned.name);
+            case MESSAGE_CONTEXT_MENU_COMMAND -> commands.getMessageContextMenuCommand(scanned.name);
+            default -> commands.getSlashCommand(scanned.name);
+        };
+        if (command == null) {
+            handler.getMetrics().recordUnmatched(type);
+            LOGGER.debug("Dropping a {} interaction for the not registered command {}", type, scanned.name);
+        }
+        return new PreRoutedInteraction(scanned.type, type, scanned.name, null, scanned.serverId, command, command == null);
+    }
+
+    private PreRoutedInteraction routeComponent(final InteractionPayloadScanner scanned, final DispatchType type) {
+        if (scanned.customId == null) {
+            return new PreRoutedInteraction(scanned.type, type, null, null, scanned.serverId, null, false);
+        }
+        final ComponentResolution<? extends AbstractComponent> resolution = handler.resolveComponent(type, scanned.customId);
+        if (resolution.size() == 1) {
+            return new PreRoutedInteraction(scanned.type, type, null, scanned.customId, scanned.serverId, resolution.component(), false);
+        }
+        if (resolution.size() == 0) {
+            handler.getMetrics().recordUnmatched(type);
+            LOGGER.debug("Dropping a {} interaction for the not registered custom id {}", type, scanned.customId);
+        } else {
+            handler.getMetrics().recordAmbiguous(type);
+            LOGGER.debug("Dropping a {} interaction for the ambiguous custom id {}", type, scanned.customId);
+        }
+        return new PreRoutedInteraction(scanned.type, type, null, scanned.customId, scanned.serverId, null, true);
+    }
+}
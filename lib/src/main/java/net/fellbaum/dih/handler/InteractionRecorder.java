@@ -0,0 +1,162 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.DiscordEntity;
+import org.javacord.api.interaction.ApplicationCommandInteraction;
+import org.javacord.api.interaction.InteractionBase;
+import org.javacord.api.interaction.MessageComponentInteractionBase;
+import org.javacord.api.interaction.ModalInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the interactions received by an {@link InteractionHandler} into a compact binary log, which an
+ * {@link InteractionReplayer} replays against a handler without a connection to Discord, for example to reproduce an
+ * incident or to plan capacity with real traffic.
+ * <p>
+ * Every interaction is recorded with its arrival time, type, command name or custom id, server and user ids and the
+ * options of slash commands. Chosen select menu options and modal inputs are not recorded. Recording never fails the
+ * dispatch of an interaction: if the log cannot be written, the recorder logs a warning and stops recording.
+ *
+ * @see InteractionHandler#setRecorder(InteractionRecorder)
+ */
+public final class InteractionRecorder implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionRecorder.class);
+
+    private final Path file;
+    private final long startNanos = System.nanoTime();
+
+    // Guarded by this
+    private DataOutputStream output;
+    private long previousArrivalNanos;
+    private long recordedCount;
+
+    /**
+     * Creates a recorder writing to a file, replacing an existing file.
+     *
+     * @param file The file.
+     * @throws IOException If the file could not be created.
+     */
+    public InteractionRecorder(final Path file) throws IOException {
+        this.file = file;
+        this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        InteractionLogFormat.writeHeader(output);
+    }
+
+    /**
+     * Records an interaction.
+     *
+     * @param type        The type of the interaction.
+     * @param interaction The interaction.
+     */
+    void record(final DispatchType type, final InteractionBase interaction) {
+        final long arrivalNanos = System.nanoTime() - startNanos;
+        final RecordedInteraction recorded;
+        try {
+            recorded = toRecorded(arrivalNanos, type, interaction);
+        } catch (RuntimeException e) {
+            LOGGER.debug("Could not record a {} interaction", type, e);
+            return;
+        }
+        synchronized (this) {
+            if (output == null) {
+                return;
+            }
+            try {
+                InteractionLogFormat.write(output, recorded, previousArrivalNanos);
+                previousArrivalNanos = Math.max(previousArrivalNanos, arrivalNanos);
+                recordedCount++;
+            } catch (IOException e) {
+                LOGGER.warn("Could not write to the interaction log {}, stopping the recording", file, e);
+                closeOutput();
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of recorded interactions.
+     *
+     * @return The amount of interactions.
+     */
+    public synchronized long getRecordedCount() {
+        return recordedCount;
+    }
+
+    /**
+     * Writes the buffered interactions to the file.
+     *
+     * @throws IOException If the file could not be written.
+     */
+    public synchronized void flush() throws IOException {
+        if (output != null) {
+            output.flush();
+        }
+    }
+
+    /**
+     * Stops recording and closes the file.
+     */
+    @Override
+    public synchronized void close() {
+        closeOutput();
+    }
+
+    private void closeOutput() {
+        if (output != null) {
+            try {
+                output.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the interaction log {}", file, e);
+            }
+            output = null;
+        }
+    }
+
+    private static RecordedInteraction toRecorded(final long arrivalNanos, final DispatchType type, final InteractionBase interaction) {
+        final long serverId = interaction.getServer().map(DiscordEntity::getId).orElse(0L);
+        final long userId = interaction.getUser().getId();
+        final long channelId = interaction.getChannel().map(DiscordEntity::getId).orElse(0L);
+        final String name;
+        long commandServerId = 0;
+        long commandId = 0;
+        List<RecordedInteraction.Option> options = List.of();
+        if (interaction instanceof ApplicationCommandInteraction applicationCommandInteraction) {
+            name = applicationCommandInteraction.getCommandName();
+            commandServerId = applicationCommandInteraction.getRegisteredCommandServerId().orElse(0L);
+            commandId = applicationCommandInteraction.getCommandId();
+            if (interaction instanceof SlashCommandInteraction slashCommandInteraction) {
+                options = toRecorded(slashCommandInteraction.getOptions());
+            }
+        } else if (interaction instanceof MessageComponentInteractionBase componentInteraction) {
+            name = componentInteraction.getCustomId();
+        } else if (interaction instanceof ModalInteraction modalInteraction) {
+            name = modalInteraction.getCustomId();
+        } else {
+            throw new IllegalArgumentException("Argument is a not supported Interaction");
+        }
+        return new RecordedInteraction(arrivalNanos, type, serverId, commandServerId, userId, channelId, commandId, name, options);
+    }
+
+    private static List<RecordedInteraction.Option> toRecorded(final List<SlashCommandInteractionOption> options) {
+        if (options.isEmpty()) {
+            return List.of();
+        }
+        final List<RecordedInteraction.Option> recorded = new ArrayList<>(options.size());
+        for (final SlashCommandInteractionOption option : options) {
+            recorded.add(new RecordedInteraction.Option(option.getName(),
+                    option.isSubcommandOrGroup() ? null : option.getStringRepresentationValue().orElse(null),
+                    option.isSubcommandOrGroup(), option.isFocused().orElse(false), toRecorded(option.getOptions())));
+        }
+        return recorded;
+    }
+}
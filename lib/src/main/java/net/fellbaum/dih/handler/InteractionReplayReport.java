@@ -0,0 +1,30 @@
+package net.fellbaum.dih.handler;
+
+import java.time.Duration;
+
+/**
+ * The outcome of an {@link InteractionReplayer}.
+ *
+ * @param replayed  The amount of replayed interactions.
+ * @param handled   The amount of interactions whose handler finished, including failed ones.
+ * @param failed    The amount of interactions whose handler threw an exception.
+ * @param rejected  The amount of interactions rejected by an admission limit or an executor.
+ * @param unmatched The amount of interactions without a registered command or component, including ambiguous ones.
+ * @param duration  The time from the first replayed interaction until the last one finished.
+ * @param latency   The time from replaying an interaction until its handler finished.
+ * @param lag       How late the interactions were replayed compared to the recording at the replay speed. A growing lag
+ *                  means the handler cannot keep up with the recorded traffic.
+ */
+public record InteractionReplayReport(long replayed, long handled, long failed, long rejected, long unmatched,
+                                      Duration duration, LatencySnapshot latency, LatencySnapshot lag) {
+
+    /**
+     * Gets the amount of handled interactions per second.
+     *
+     * @return The throughput.
+     */
+    public double getThroughput() {
+        final long nanos = duration.toNanos();
+        return nanos == 0 ? 0 : handled * 1_000_000_000d / nanos;
+    }
+}
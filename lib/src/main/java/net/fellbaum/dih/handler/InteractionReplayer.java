@@ -0,0 +1,221 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.Interaction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays interactions recorded by an {@link InteractionRecorder} against a handler, without a connection to Discord.
+ * <p>
+ * The interactions are passed to {@link InteractionHandler#handleInteraction(org.javacord.api.interaction.InteractionBase)}
+ * as stub Javacord interactions, which return the recorded values and accept any response without sending it. They are
+ * replayed with the recorded gaps divided by the speed, so the handler sees the traffic shape of the recording at
+ * {@code 1}, a multiple of it, or as fast as possible with {@link Double#POSITIVE_INFINITY}.
+ * <p>
+ * While replaying, the replayer wraps the metrics of the handler to measure the latency of every interaction. Replay
+ * against a handler which does not receive other interactions, because they would be included in the report.
+ */
+public final class InteractionReplayer {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionReplayer.class);
+
+    private final InteractionHandler<?> handler;
+    private final List<RecordedInteraction> interactions;
+
+    private double speed = 1;
+    private Duration completionTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Creates a replayer.
+     *
+     * @param handler      The handler with the commands and components of the recording.
+     * @param interactions The interactions in the order they were recorded, for example from {@link #read(Path)}.
+     */
+    public InteractionReplayer(final InteractionHandler<?> handler, final List<RecordedInteraction> interactions) {
+        this.handler = handler;
+        this.interactions = List.copyOf(interactions);
+    }
+
+    /**
+     * Reads the interactions of a log written by an {@link InteractionRecorder}. A record cut off by a crash of the
+     * recording process ends the log.
+     *
+     * @param file The log.
+     * @return The interactions.
+     * @throws IOException If the file could not be read or is not an interaction log.
+     */
+    public static List<RecordedInteraction> read(final Path file) throws IOException {
+        final List<RecordedInteraction> interactions = new ArrayList<>();
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            final int version = InteractionLogFormat.readHeader(input);
+            long previousArrivalNanos = 0;
+            try {
+                RecordedInteraction interaction;
+                while ((interaction = InteractionLogFormat.read(input, previousArrivalNanos, version)) != null) {
+                    interactions.add(interaction);
+                    previousArrivalNanos = interaction.arrivalNanos();
+                }
+            } catch (IOException e) {
+                LOGGER.warn("Ignoring the invalid end of the interaction log {} after {} interactions", file, interactions.size(), e);
+            }
+        }
+        return interactions;
+    }
+
+    /**
+     * Sets how many times faster than recorded the interactions are replayed. Defaults to 1, the recorded speed.
+     *
+     * @param speed The speed, {@link Double#POSITIVE_INFINITY} to replay as fast as possible.
+     * @return The current instance to chain methods.
+     */
+    public InteractionReplayer setSpeed(final double speed) {
+        if (!(speed > 0)) {
+            throw new IllegalArgumentException("The speed must be positive");
+        }
+        this.speed = speed;
+        return this;
+    }
+
+    /**
+     * Sets how long to wait for the handlers of the replayed interactions to finish after the last one was replayed.
+     * Defaults to 30 seconds.
+     *
+     * @param completionTimeout The timeout.
+     * @return The current instance to chain methods.
+     */
+    public InteractionReplayer setCompletionTimeout(final Duration completionTimeout) {
+        this.completionTimeout = completionTimeout;
+        return this;
+    }
+
+    /**
+     * Replays the interactions on the calling thread and waits until their handlers finished or the completion timeout
+     * elapsed.
+     *
+     * @return The report.
+     */
+    public InteractionReplayReport replay() {
+        final InteractionMetrics previousMetrics = handler.getMetrics();
+        final ReplayMetrics metrics = new ReplayMetrics(previousMetrics);
+        handler.setMetrics(metrics);
+        final LatencyHistogram lag = new LatencyHistogram();
+        final long startNanos = System.nanoTime();
+        final long replayedNanos;
+        try {
+            final long firstArrivalNanos = interactions.isEmpty() ? 0 : interactions.get(0).arrivalNanos();
+            long id = 0;
+            for (final RecordedInteraction interaction : interactions) {
+                final long dueNanos = startNanos + (long) ((interaction.arrivalNanos() - firstArrivalNanos) / speed);
+                long waitNanos;
+                while ((waitNanos = dueNanos - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                lag.record(-waitNanos);
+                try {
+                    handler.handleInteraction(StubInteractions.create(interaction, ++id));
+                } catch (RuntimeException e) {
+                    LOGGER.debug("Could not replay a {} interaction", interaction.type(), e);
+                    metrics.outcomes.incrementAndGet();
+                }
+            }
+            replayedNanos = System.nanoTime();
+            metrics.awaitOutcomes(interactions.size(), replayedNanos + completionTimeout.toNanos());
+        } finally {
+            handler.setMetrics(previousMetrics);
+        }
+        final long outcomes = metrics.outcomes.get();
+        final long endNanos;
+        if (outcomes < interactions.size()) {
+            LOGGER.warn("Only {} of {} replayed interactions finished within {}", outcomes, interactions.size(), completionTimeout);
+            endNanos = System.nanoTime();
+        } else {
+            endNanos = Math.max(replayedNanos, metrics.lastOutcomeNanos.get());
+        }
+        final long durationNanos = endNanos - startNanos;
+        return new InteractionReplayReport(interactions.size(), metrics.handled.get(), metrics.failed.get(),
+                metrics.rejected.get(), metrics.unmatched.get(), Duration.ofNanos(durationNanos),
+                metrics.latency.snapshot(), lag.snapshot());
+    }
+
+    /**
+     * Counts the outcomes of the replayed interactions and passes them on to the metrics of the handler.
+     */
+    private static final class ReplayMetrics implements InteractionMetrics {
+
+        private final InteractionMetrics delegate;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong handled = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong unmatched = new AtomicLong();
+        private final AtomicLong outcomes = new AtomicLong();
+        private final AtomicLong lastOutcomeNanos = new AtomicLong();
+
+        private ReplayMetrics(final InteractionMetrics delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordHandled(final DispatchType type, final Interaction target, final long queueNanos,
+                                  final long executionNanos, final boolean failed) {
+            latency.record(queueNanos + executionNanos);
+            handled.incrementAndGet();
+            if (failed) {
+                this.failed.incrementAndGet();
+            }
+            delegate.recordHandled(type, target, queueNanos, executionNanos, failed);
+            finished();
+        }
+
+        @Override
+        public void recordRejected(final DispatchType type, final Interaction target) {
+            rejected.incrementAndGet();
+            delegate.recordRejected(type, target);
+            finished();
+        }
+
+        @Override
+        public void recordUnmatched(final DispatchType type) {
+            unmatched.incrementAndGet();
+            delegate.recordUnmatched(type);
+            finished();
+        }
+
+        @Override
+        public void recordAmbiguous(final DispatchType type) {
+            unmatched.incrementAndGet();
+            delegate.recordAmbiguous(type);
+            finished();
+        }
+
+        private synchronized void finished() {
+            lastOutcomeNanos.set(System.nanoTime());
+            outcomes.incrementAndGet();
+            notifyAll();
+        }
+
+        private synchronized void awaitOutcomes(final long count, final long deadlineNanos) {
+            long remainingNanos;
+            while (outcomes.get() < count && (remainingNanos = deadlineNanos - System.nanoTime()) > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, remainingNanos);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * The metrics of the interactions handled by one command or component.
+ *
+ * @param type          The type of the interactions.
+ * @param name          The name of the command, the simple class name of the component or
+ *                      {@value InMemoryInteractionMetrics#OTHER_SERIES_NAME} for the names above the limit.
+ * @param failedCount   The amount of interactions whose handler threw an exception.
+ * @param queueTime     The time between receiving the interactions and starting their handler.
+ * @param executionTime The time the handlers ran.
+ */
+public record InteractionSeriesSnapshot(DispatchType type, String name, long failedCount,
+                                        LatencySnapshot queueTime, LatencySnapshot executionTime) {
+
+    /**
+     * Gets the amount of handled interactions, including the failed ones.
+     *
+     * @return The amount of handled interactions.
+     */
+    public long handledCount() {
+        return executionTime.getCount();
+    }
+}
@@ -0,0 +1,112 @@
+package net.fellbaum.dih.handler;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A concurrent histogram of latencies in nanoseconds with log-linear buckets.
+ * <p>
+ * Every power of two is split into {@value #SUB_BUCKETS} linear buckets, so a recorded value up to an hour is reported
+ * with a relative error of at most about 3%. Longer latencies share one overflow bucket and are reported as the highest
+ * recorded latency. This bounds a histogram to 1,206 buckets, about 9.6 KB. Recording a value only
+ * increments an array slot and does not allocate.
+ */
+public final class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 5;
+
+    /**
+     * The amount of buckets every power of two is split into.
+     */
+    static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    /**
+     * The highest latency which is recorded with a bounded error.
+     */
+    static final long MAX_TRACKABLE_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    /**
+     * The bucket of all latencies above the bucket of {@link #MAX_TRACKABLE_NANOS}.
+     */
+    static final int OVERFLOW_BUCKET = logLinearIndex(MAX_TRACKABLE_NANOS) + 1;
+
+    /**
+     * The amount of buckets including the overflow bucket.
+     */
+    static final int BUCKET_COUNT = OVERFLOW_BUCKET + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private final AtomicLong totalNanos = new AtomicLong();
+    private final AtomicLong maxNanos = new AtomicLong();
+
+    /**
+     * Records a latency. Negative values are recorded as zero.
+     *
+     * @param nanos The latency in nanoseconds.
+     */
+    public void record(final long nanos) {
+        final long value = Math.max(0, nanos);
+        counts.incrementAndGet(bucketIndex(value));
+        totalNanos.addAndGet(value);
+        long max = maxNanos.get();
+        while (value > max && !maxNanos.compareAndSet(max, value)) {
+            max = maxNanos.get();
+        }
+    }
+
+    /**
+     * Creates an immutable copy of the recorded latencies. The copy ends at the bucket of the highest latency, so it
+     * is short for short latencies. Values recorded concurrently may be missing.
+     *
+     * @return The snapshot.
+     */
+    public LatencySnapshot snapshot() {
+        final long max = maxNanos.get();
+        final long[] snapshotCounts = new long[bucketIndex(max) + 1];
+        long count = 0;
+        for (int i = 0; i < snapshotCounts.length; i++) {
+            snapshotCounts[i] = counts.get(i);
+            count += snapshotCounts[i];
+        }
+        return new LatencySnapshot(snapshotCounts, count, totalNanos.get(), max);
+    }
+
+    /**
+     * Gets the bucket of a value. Values below {@value #SUB_BUCKETS} have their own bucket, and values above the
+     * bucket of {@link #MAX_TRACKABLE_NANOS} are in the {@link #OVERFLOW_BUCKET}.
+     *
+     * @param value The non-negative value.
+     * @return The index of the bucket.
+     */
+    static int bucketIndex(final long value) {
+        return Math.min(logLinearIndex(value), OVERFLOW_BUCKET);
+    }
+
+    private static int logLinearIndex(final long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int shift = exponent - SUB_BUCKET_BITS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    /**
+     * Gets the largest value of a bucket.
+     *
+     * @param index The index of the bucket.
+     * @return The largest value which is recorded into the bucket.
+     */
+    static long bucketUpperBound(final int index) {
+        if (index >= OVERFLOW_BUCKET) {
+            return Long.MAX_VALUE;
+        }
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        final int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        final long lowerBound = (long) (SUB_BUCKETS + (index - SUB_BUCKETS) % SUB_BUCKETS) << shift;
+        return lowerBound + ((1L << shift) - 1);
+    }
+}
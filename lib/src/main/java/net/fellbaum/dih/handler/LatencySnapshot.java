@@ -0,0 +1,98 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * An immutable copy of the latencies recorded by a {@link LatencyHistogram}.
+ */
+public final class LatencySnapshot {
+
+    private final long[] counts;
+    private final long count;
+    private final long totalNanos;
+    private final long maxNanos;
+
+    LatencySnapshot(final long[] counts, final long count, final long totalNanos, final long maxNanos) {
+        this.counts = counts;
+        this.count = count;
+        this.totalNanos = totalNanos;
+        this.maxNanos = maxNanos;
+    }
+
+    /**
+     * Gets the amount of recorded latencies.
+     *
+     * @return The amount of recorded latencies.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the sum of all recorded latencies.
+     *
+     * @return The sum in nanoseconds.
+     */
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+
+    /**
+     * Gets the highest recorded latency.
+     *
+     * @return The highest latency in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMaxNanos() {
+        return maxNanos;
+    }
+
+    /**
+     * Gets the average recorded latency.
+     *
+     * @return The average latency in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getMeanNanos() {
+        return count == 0 ? 0 : totalNanos / count;
+    }
+
+    /**
+     * Gets the latency which the given percentage of all recorded latencies do not exceed.
+     *
+     * @param percentile The percentile between 0 and 100.
+     * @return The latency in nanoseconds, 0 if nothing was recorded.
+     */
+    public long getValueAtPercentile(final double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("The percentile must be between 0 and 100");
+        }
+        if (count == 0) {
+            return 0;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.bucketUpperBound(i), maxNanos);
+            }
+        }
+        return maxNanos;
+    }
+
+    /**
+     * Gets the amount of recorded latencies not exceeding the given bound, for example to fill the cumulative
+     * buckets of an external histogram. Latencies in the bucket containing the bound are counted as well.
+     *
+     * @param nanos The bound in nanoseconds.
+     * @return The amount of latencies.
+     */
+    public long getCountAtOrBelow(final long nanos) {
+        if (nanos < 0) {
+            return 0;
+        }
+        final int last = Math.min(LatencyHistogram.bucketIndex(nanos), counts.length - 1);
+        long result = 0;
+        for (int i = 0; i <= last; i++) {
+            result += counts[i];
+        }
+        return result;
+    }
+}
@@ -0,0 +1,61 @@
+package net.fellbaum.dih.handler;
+
+import org.javacord.api.interaction.InteractionBase;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Forwards interactions between the handlers of several nodes in the same process, to run a partitioned bot on one
+ * machine, for example in tests.
+ */
+public final class LoopbackPartitionTransport implements PartitionTransport {
+
+    private final Map<String, ComplexInteractionHandler> handlers = new ConcurrentHashMap<>();
+
+    /**
+     * Registers the handler of a node.
+     *
+     * @param nodeId  The id of the node.
+     * @param handler The handler of the node.
+     * @return The current instance to chain methods.
+     */
+    public LoopbackPartitionTransport register(final String nodeId, final ComplexInteractionHandler handler) {
+        handlers.put(nodeId, handler);
+        return this;
+    }
+
+    /**
+     * Unregisters the handler of a node, so interactions forwarded to it fail.
+     *
+     * @param nodeId The id of the node.
+     */
+    public void unregister(final String nodeId) {
+        handlers.remove(nodeId);
+    }
+
+    @Override
+    public CompletableFuture<Void> forward(final String nodeId, final InteractionBase interaction) {
+        final ComplexInteractionHandler handler = handlers.get(nodeId);
+        if (handler == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The node " + nodeId + " is not registered"));
+        }
+        try {
+            handler.handleForwardedInteraction(interaction);
+            return CompletableFuture.completedFuture(null);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Void> invalidate(final String nodeId, final long serverId) {
+        final ComplexInteractionHandler handler = handlers.get(nodeId);
+        if (handler == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("The node " + nodeId + " is not registered"));
+        }
+        handler.invalidateServerCommands(serverId);
+        return CompletableFuture.completedFuture(null);
+    }
+}
@@ -0,0 +1,141 @@
+package net.fellbaum.dih.handler;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A thread safe map which evicts the least recently used entry once it exceeds its maximum size.
+ * <p>
+ * The entries are split into stripes by the hash of their key, each with its own lock and an equal share of the
+ * maximum size, so concurrent lookups of different keys rarely wait for each other. The least recently used entry is
+ * evicted per stripe, which approximates a single least recently used order for keys with well spread hashes.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+final class LruCache<K, V> {
+
+    /**
+     * The maximum amount of stripes, enough to make contention unlikely without wasting memory on small caches.
+     */
+    private static final int MAXIMUM_STRIPE_COUNT = 16;
+
+    /**
+     * The minimum share of the maximum size per stripe, so small caches keep an exact least recently used order.
+     */
+    private static final int MINIMUM_STRIPE_SIZE = 64;
+
+    /**
+     * The entries of each stripe in access order.
+     */
+    private final LinkedHashMap<K, V>[] stripes;
+    private final int stripeMask;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize The maximum amount of entries.
+     */
+    LruCache(final int maximumSize) {
+        this(maximumSize, Math.min(MAXIMUM_STRIPE_COUNT, Integer.highestOneBit(Runtime.getRuntime().availableProcessors() * 2)));
+    }
+
+    /**
+     * Creates a new cache.
+     *
+     * @param maximumSize The maximum amount of entries.
+     * @param stripeCount The amount of stripes, rounded down to a power of two. Caches too small to give every stripe
+     *                    {@value #MINIMUM_STRIPE_SIZE} entries use fewer stripes.
+     */
+    @SuppressWarnings("unchecked")
+    LruCache(final int maximumSize, final int stripeCount) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("The stripe count must be positive");
+        }
+        final int stripeLength = Integer.highestOneBit(Math.min(stripeCount, Math.max(1, maximumSize / MINIMUM_STRIPE_SIZE)));
+        this.stripes = new LinkedHashMap[stripeLength];
+        this.stripeMask = stripeLength - 1;
+        for (int i = 0; i < stripeLength; i++) {
+            // Distribute the remainder, so the stripes together hold exactly the maximum size
+            final int stripeMaximumSize = maximumSize / stripeLength + (i < maximumSize % stripeLength ? 1 : 0);
+            stripes[i] = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(final Map.Entry<K, V> eldest) {
+                    return size() > stripeMaximumSize;
+                }
+            };
+        }
+    }
+
+    private LinkedHashMap<K, V> stripe(final Object key) {
+        final int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & stripeMask];
+    }
+
+    /**
+     * Gets the value of the key and marks it as recently used.
+     *
+     * @param key The key.
+     * @return The value or {@code null} if the key is not cached.
+     */
+    V get(final K key) {
+        final LinkedHashMap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            return stripe.get(key);
+        }
+    }
+
+    /**
+     * Caches the value for the key.
+     *
+     * @param key   The key.
+     * @param value The value.
+     */
+    void put(final K key, final V value) {
+        final LinkedHashMap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.put(key, value);
+        }
+    }
+
+    /**
+     * Removes the key from the cache.
+     *
+     * @param key The key.
+     */
+    void remove(final K key) {
+        final LinkedHashMap<K, V> stripe = stripe(key);
+        synchronized (stripe) {
+            stripe.remove(key);
+        }
+    }
+
+    /**
+     * Removes all entries.
+     */
+    void clear() {
+        for (final LinkedHashMap<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.clear();
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of cached entries.
+     *
+     * @return The amount of cached entries.
+     */
+    int size() {
+        int size = 0;
+        for (final LinkedHashMap<K, V> stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+}
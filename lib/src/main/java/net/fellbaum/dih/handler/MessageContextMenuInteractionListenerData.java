@@ -1,7 +0,0 @@
-package net.fellbaum.dih.handler;
-
-import org.javacord.api.interaction.MessageContextMenuInteraction;
-
-record MessageContextMenuInteractionListenerData(MessageContextMenuInteraction messageContextMenuInteraction, Long serverId, String commandName) {
-
-}
@@ -0,0 +1,62 @@
+package net.fellbaum.dih.handler;
+
+import org.javacord.api.entity.DiscordEntity;
+import org.javacord.api.interaction.ApplicationCommandInteraction;
+import org.javacord.api.interaction.InteractionBase;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Keys for {@link InteractionHandler#setOrderingKey(ToLongFunction)}.
+ * Interactions without a server or channel use the id of the user instead.
+ */
+public final class OrderingKeys {
+
+    private OrderingKeys() {
+        throw new UnsupportedOperationException("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Orders the interactions of every server.
+     *
+     * @return The key extractor.
+     */
+    public static ToLongFunction<InteractionBase> server() {
+        return interaction -> interaction.getServer()
+                .map(DiscordEntity::getId)
+                .orElseGet(() -> interaction.getUser().getId());
+    }
+
+    /**
+     * Orders the application command interactions of every server the command is registered on.
+     * Global commands and other interactions are ordered by the server they are used in.
+     *
+     * @return The key extractor.
+     */
+    public static ToLongFunction<InteractionBase> registeredCommandServer() {
+        final ToLongFunction<InteractionBase> server = server();
+        return interaction -> interaction instanceof ApplicationCommandInteraction applicationCommandInteraction
+                ? applicationCommandInteraction.getRegisteredCommandServerId().orElseGet(() -> server.applyAsLong(interaction))
+                : server.applyAsLong(interaction);
+    }
+
+    /**
+     * Orders the interactions of every channel.
+     *
+     * @return The key extractor.
+     */
+    public static ToLongFunction<InteractionBase> channel() {
+        return interaction -> interaction.getChannel()
+                .map(DiscordEntity::getId)
+                .orElseGet(() -> interaction.getUser().getId());
+    }
+
+    /**
+     * Orders the interactions of every user.
+     *
+     * @return The key extractor.
+     */
+    public static ToLongFunction<InteractionBase> user() {
+        return interaction -> interaction.getUser().getId();
+    }
+}
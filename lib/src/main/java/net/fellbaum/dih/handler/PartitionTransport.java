@@ -0,0 +1,42 @@
+package net.fellbaum.dih.handler;
+
+import org.javacord.api.interaction.InteractionBase;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Forwards interactions of servers owned by another node of a partitioned bot to that node.
+ * <p>
+ * The receiving node has to pass the interaction to
+ * {@link ComplexInteractionHandler#handleForwardedInteraction(InteractionBase)}, which dispatches it without forwarding
+ * it again. Transports between processes have to send what the receiving node needs to respond, for example the raw
+ * JSON of the interaction or its id and token. Implementations have to be thread-safe.
+ *
+ * @see ComplexInteractionHandler#setPartitioning(String, ConsistentHashRing, PartitionTransport)
+ * @see LoopbackPartitionTransport
+ */
+@FunctionalInterface
+public interface PartitionTransport {
+
+    /**
+     * Forwards an interaction to a node.
+     *
+     * @param nodeId      The id of the node owning the server of the interaction.
+     * @param interaction The interaction.
+     * @return A future completing once the node accepted the interaction.
+     */
+    CompletableFuture<Void> forward(String nodeId, InteractionBase interaction);
+
+    /**
+     * Tells a node that the commands of a server it owns were changed in the repository by this node. The receiving
+     * node has to call {@link ComplexInteractionHandler#invalidateServerCommands(long)}. Does nothing by default, so
+     * the owner keeps using the commands in its memory until it evicts them.
+     *
+     * @param nodeId   The id of the node owning the server.
+     * @param serverId The id of the server.
+     * @return A future completing once the node removed the commands from memory.
+     */
+    default CompletableFuture<Void> invalidate(final String nodeId, final long serverId) {
+        return CompletableFuture.completedFuture(null);
+    }
+}
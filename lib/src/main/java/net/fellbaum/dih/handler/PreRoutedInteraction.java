@@ -0,0 +1,97 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.Interaction;
+
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * The routing fields of a raw interaction payload and the command or component it resolved to.
+ *
+ * @see InteractionPreRouter
+ */
+public final class PreRoutedInteraction {
+
+    private final int type;
+    private final DispatchType dispatchType;
+    private final String commandName;
+    private final String customId;
+    private final long serverId;
+    private final Interaction target;
+    private final boolean unmatched;
+
+    PreRoutedInteraction(final int type, final DispatchType dispatchType, final String commandName, final String customId,
+                         final long serverId, final Interaction target, final boolean unmatched) {
+        this.type = type;
+        this.dispatchType = dispatchType;
+        this.commandName = commandName;
+        this.customId = customId;
+        this.serverId = serverId;
+        this.target = target;
+        this.unmatched = unmatched;
+    }
+
+    /**
+     * Gets the interaction type of the payload, for example 1 for a ping or 2 for an application command.
+     *
+     * @return The type, -1 if the payload is no interaction.
+     */
+    public int getType() {
+        return type;
+    }
+
+    /**
+     * Gets the dispatch type of the interaction.
+     *
+     * @return The dispatch type, empty for pings and unknown interaction types.
+     */
+    public Optional<DispatchType> getDispatchType() {
+        return Optional.ofNullable(dispatchType);
+    }
+
+    /**
+     * Gets the name of the invoked command.
+     *
+     * @return The name of the command, empty for components.
+     */
+    public Optional<String> getCommandName() {
+        return Optional.ofNullable(commandName);
+    }
+
+    /**
+     * Gets the custom id of the component.
+     *
+     * @return The custom id, empty for commands.
+     */
+    public Optional<String> getCustomId() {
+        return Optional.ofNullable(customId);
+    }
+
+    /**
+     * Gets the id of the server the interaction was sent from.
+     *
+     * @return The id of the server, empty for direct messages.
+     */
+    public OptionalLong getServerId() {
+        return serverId == 0 ? OptionalLong.empty() : OptionalLong.of(serverId);
+    }
+
+    /**
+     * Gets the registered command or component the interaction will be dispatched to.
+     *
+     * @return The command or component, empty if there is none or it could not be resolved without loading.
+     */
+    public Optional<Interaction> getTarget() {
+        return Optional.ofNullable(target);
+    }
+
+    /**
+     * Gets whether the interaction is certainly not dispatched to any command or component, so it can be dropped
+     * without deserializing it.
+     *
+     * @return Whether the interaction is unmatched.
+     */
+    public boolean isUnmatched() {
+        return unmatched;
+    }
+}
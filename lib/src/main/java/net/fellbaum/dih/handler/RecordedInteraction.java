@@ -0,0 +1,34 @@
+package net.fellbaum.dih.handler;
+
+import java.util.List;
+
+/**
+ * An interaction recorded by an {@link InteractionRecorder}.
+ *
+ * @param arrivalNanos    When the interaction was received, in nanoseconds since the recording started.
+ * @param type            The type of the interaction.
+ * @param serverId        The id of the server the interaction was received in, {@code 0} in private channels.
+ * @param commandServerId The id of the server the command is registered for, {@code 0} for global commands and
+ *                        components.
+ * @param userId          The id of the user.
+ * @param channelId       The id of the channel the interaction was received in, {@code 0} if it is unknown.
+ * @param commandId       The id of the invoked command, {@code 0} for components.
+ * @param name            The command name or the custom id of the component.
+ * @param options         The options of a slash command, empty for other interactions.
+ */
+public record RecordedInteraction(long arrivalNanos, DispatchType type, long serverId, long commandServerId, long userId,
+                                  long channelId, long commandId, String name, List<Option> options) {
+
+    /**
+     * An option of a recorded slash command.
+     *
+     * @param name              The name of the option.
+     * @param value             The value as string, the id for users, channels, roles, mentionables and attachments,
+     *                          {@code null} for subcommands and groups.
+     * @param subcommandOrGroup Whether the option is a subcommand or subcommand group.
+     * @param focused           Whether the option is focused in an autocomplete interaction.
+     * @param options           The options of a subcommand or group.
+     */
+    public record Option(String name, String value, boolean subcommandOrGroup, boolean focused, List<Option> options) {
+    }
+}
@@ -0,0 +1,149 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs tasks with the same key one after another in the order they were submitted,
+ * while tasks with different keys run in parallel.
+ * <p>
+ * Every key with pending tasks has a lane which drains its tasks. Every task runs on the executor it was submitted
+ * with: the lane moves to the executor of its next task whenever it differs, so a task never runs on the executor of
+ * another task. A lane only exists while it has pending tasks and is removed as soon as it runs empty, so the memory
+ * usage depends on the amount of keys with pending tasks instead of the amount of keys ever seen.
+ * <p>
+ * Handing tasks to a lane and retiring it only uses compare-and-set on a counter and a lock-free queue. Creating a
+ * lane is not lock-free, it goes through {@link ConcurrentHashMap#computeIfAbsent}, which locks the bin of the key.
+ * A draining lane may also spin briefly while a submitting thread has counted its task but not added it yet.
+ */
+final class SerialLanes {
+
+    private static final Logger LOGGER = LogManager.getLogger(SerialLanes.class);
+
+    /**
+     * The lanes with pending tasks by their key.
+     */
+    private final ConcurrentHashMap<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    /**
+     * Runs the task after all previously submitted tasks with the same key.
+     *
+     * @param key      The key.
+     * @param executor The executor which runs the task.
+     * @param task     The task.
+     */
+    void execute(final long key, final Executor executor, final Runnable task) {
+        while (true) {
+            final Lane lane = lanes.computeIfAbsent(key, Lane::new);
+            if (lane.offer(executor, task)) {
+                return;
+            }
+            // The lane ran empty and was retired concurrently
+            lanes.remove(key, lane);
+        }
+    }
+
+    /**
+     * Gets the amount of lanes with pending tasks.
+     *
+     * @return The amount of lanes.
+     */
+    int size() {
+        return lanes.size();
+    }
+
+    /**
+     * A lane of tasks with the same key.
+     */
+    private final class Lane implements Runnable {
+
+        private final long key;
+
+        private final Queue<Task> tasks = new ConcurrentLinkedQueue<>();
+
+        /**
+         * The amount of submitted tasks which have not finished yet, or -1 once the lane is retired.
+         */
+        private final AtomicInteger pending = new AtomicInteger();
+
+        /**
+         * The executor currently draining the lane, only accessed by the draining thread.
+         */
+        private Executor drainingExecutor;
+
+        private Lane(final long key) {
+            this.key = key;
+        }
+
+        /**
+         * Adds the task to the lane and starts draining it if it had no pending tasks.
+         *
+         * @param executor The executor which runs the task.
+         * @param task     The task.
+         * @return Whether the task was added, false if the lane has been retired.
+         */
+        private boolean offer(final Executor executor, final Runnable task) {
+            while (true) {
+                final int current = pending.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (pending.compareAndSet(current, current + 1)) {
+                    tasks.add(new Task(executor, task));
+                    if (current == 0) {
+                        start(executor);
+                    }
+                    return true;
+                }
+            }
+        }
+
+        private void start(final Executor executor) {
+            drainingExecutor = executor;
+            try {
+                executor.execute(this);
+            } catch (RuntimeException e) {
+                // The task is already queued, so the lane would never drain if the exception was passed on
+                LOGGER.warn("The executor rejected draining the ordered tasks of key {}, running them on the current thread", key, e);
+                run();
+            }
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                Task task;
+                while ((task = tasks.peek()) == null) {
+                    // The submitting thread has counted the task but not added it yet
+                    Thread.onSpinWait();
+                }
+                if (task.executor() != drainingExecutor) {
+                    // Only this thread drains the lane, so the task stays at the head until the new executor runs it
+                    start(task.executor());
+                    return;
+                }
+                tasks.poll();
+                try {
+                    task.runnable().run();
+                } catch (Throwable t) {
+                    LOGGER.error("Unhandled exception while running an ordered task of key {}", key, t);
+                }
+                if (pending.decrementAndGet() == 0) {
+                    if (pending.compareAndSet(0, -1)) {
+                        lanes.remove(key, this);
+                    }
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Task(Executor executor, Runnable runnable) {
+    }
+}
@@ -0,0 +1,433 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.exception.RatelimitException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
+
+/**
+ * Overwrites the server application commands of many servers with a bounded amount of concurrent requests.
+ * <p>
+ * The amount of concurrent overwrites adapts to the rate limits of Discord: it grows by one per round of successful
+ * overwrites up to the maximum, and is halved whenever an overwrite is rate limited or takes longer than the slow
+ * threshold, which happens when Javacord queues requests because of a rate limit. Rate limited overwrites are retried
+ * after a delay.
+ * <p>
+ * With a checkpoint file, the id of every server whose commands were overwritten is appended to it together with the
+ * fingerprint of the overwritten commands. Servers recorded with the fingerprint of their current commands are skipped
+ * when starting, so a deployment interrupted by a crash resumes where it stopped, while servers whose commands changed
+ * since are overwritten again. Servers without a fingerprint are never skipped. The checkpoint is deleted once the
+ * commands of all servers are overwritten.
+ *
+ * @see ComplexInteractionHandler#deployServerCommands(Collection)
+ */
+public final class ServerCommandDeployment {
+
+    private static final Logger LOGGER = LogManager.getLogger(ServerCommandDeployment.class);
+
+    private final Set<Long> serverIds;
+    private final LongFunction<String> fingerprint;
+    private final LongFunction<? extends CompletableFuture<?>> overwrite;
+
+    private int maximumConcurrency = 8;
+    private int maximumAttempts = 5;
+    private Duration retryDelay = Duration.ofSeconds(1);
+    private long slowThresholdNanos = Duration.ofSeconds(5).toNanos();
+    private Predicate<Throwable> rateLimited = RatelimitException.class::isInstance;
+    private Consumer<ServerCommandDeploymentProgress> progressListener = progress -> {
+    };
+    private Path checkpoint;
+
+    private final CompletableFuture<ServerCommandDeploymentResult> result = new CompletableFuture<>();
+
+    // The state of a started deployment, guarded by this
+    private final Queue<Long> pending = new ArrayDeque<>();
+    private final Map<Long, Integer> attempts = new HashMap<>();
+    private final Map<Long, Throwable> failures = new HashMap<>();
+    private BufferedWriter checkpointWriter;
+    private double concurrency;
+    private int inFlight;
+    private int waiting;
+    private int deployed;
+    private int skipped;
+    private boolean started;
+
+    /**
+     * Whether a thread is starting overwrites, and whether it has to look for overwrites to start again because an
+     * overwrite finished meanwhile, guarded by this.
+     */
+    private boolean starting;
+    private boolean startAgain;
+
+    /**
+     * Creates a deployment without fingerprints, so a checkpoint never skips a server.
+     *
+     * @param serverIds The ids of the servers.
+     * @param overwrite Overwrites the commands of the server with the given id, usually with
+     *                  {@link ComplexInteractionHandler#bulkOverwriteServerApplicationCommands(org.javacord.api.entity.server.Server)}.
+     */
+    public ServerCommandDeployment(final Collection<Long> serverIds, final LongFunction<? extends CompletableFuture<?>> overwrite) {
+        this(serverIds, serverId -> null, overwrite);
+    }
+
+    /**
+     * Creates a deployment.
+     *
+     * @param serverIds   The ids of the servers.
+     * @param fingerprint Gets the fingerprint of the commands the server with the given id is overwritten with, or
+     *                    {@code null} if it is unknown.
+     * @param overwrite   Overwrites the commands of the server with the given id, usually with
+     *                    {@link ComplexInteractionHandler#bulkOverwriteServerApplicationCommands(org.javacord.api.entity.server.Server)}.
+     */
+    public ServerCommandDeployment(final Collection<Long> serverIds, final LongFunction<String> fingerprint,
+                                   final LongFunction<? extends CompletableFuture<?>> overwrite) {
+        this.serverIds = new LinkedHashSet<>(serverIds);
+        this.fingerprint = fingerprint;
+        this.overwrite = overwrite;
+    }
+
+    /**
+     * Sets the maximum amount of concurrent overwrites. Defaults to 8.
+     *
+     * @param maximumConcurrency The maximum amount.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setMaximumConcurrency(final int maximumConcurrency) {
+        if (maximumConcurrency < 1) {
+            throw new IllegalArgumentException("The maximum concurrency must be at least 1");
+        }
+        this.maximumConcurrency = maximumConcurrency;
+        return this;
+    }
+
+    /**
+     * Sets how often the overwrite of a server is attempted if it is rate limited. Defaults to 5.
+     *
+     * @param maximumAttempts The maximum amount of attempts.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setMaximumAttempts(final int maximumAttempts) {
+        if (maximumAttempts < 1) {
+            throw new IllegalArgumentException("The maximum attempts must be at least 1");
+        }
+        this.maximumAttempts = maximumAttempts;
+        return this;
+    }
+
+    /**
+     * Sets the delay before retrying a rate limited overwrite, which is multiplied by the amount of attempts.
+     * Defaults to 1 second.
+     *
+     * @param retryDelay The delay.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setRetryDelay(final Duration retryDelay) {
+        this.retryDelay = retryDelay;
+        return this;
+    }
+
+    /**
+     * Sets the duration after which a successful overwrite is considered delayed by a rate limit. Defaults to 5
+     * seconds.
+     *
+     * @param slowThreshold The duration.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setSlowThreshold(final Duration slowThreshold) {
+        this.slowThresholdNanos = slowThreshold.toNanos();
+        return this;
+    }
+
+    /**
+     * Sets which failures of an overwrite are caused by a rate limit. Defaults to Javacord's {@link RatelimitException}.
+     *
+     * @param rateLimited Tests the cause of a failed overwrite.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setRateLimitPredicate(final Predicate<Throwable> rateLimited) {
+        this.rateLimited = rateLimited;
+        return this;
+    }
+
+    /**
+     * Sets the listener called after every finished overwrite.
+     *
+     * @param progressListener The listener.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setProgressListener(final Consumer<ServerCommandDeploymentProgress> progressListener) {
+        this.progressListener = progressListener;
+        return this;
+    }
+
+    /**
+     * Sets the file recording the servers whose commands are overwritten and the fingerprints of their commands.
+     *
+     * @param checkpoint The file.
+     * @return The current instance to chain methods.
+     */
+    public ServerCommandDeployment setCheckpoint(final Path checkpoint) {
+        this.checkpoint = checkpoint;
+        return this;
+    }
+
+    /**
+     * Starts overwriting the commands of the servers.
+     *
+     * @return A future completing once every server is either deployed or failed. It completes exceptionally if the
+     * checkpoint could not be read or written, or a fingerprint of a server in it could not be calculated.
+     */
+    public CompletableFuture<ServerCommandDeploymentResult> start() {
+        synchronized (this) {
+            if (started) {
+                throw new IllegalStateException("The deployment was already started");
+            }
+            started = true;
+            concurrency = Math.min(2, maximumConcurrency);
+            try {
+                final Map<Long, String> done = readCheckpoint();
+                for (final long serverId : serverIds) {
+                    final String deployedFingerprint = done.get(serverId);
+                    if (deployedFingerprint != null && deployedFingerprint.equals(fingerprint.apply(serverId))) {
+                        skipped++;
+                    } else {
+                        pending.add(serverId);
+                    }
+                }
+                if (checkpoint != null) {
+                    checkpointWriter = Files.newBufferedWriter(checkpoint, StandardCharsets.UTF_8,
+                            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+                }
+            } catch (IOException e) {
+                result.completeExceptionally(new UncheckedIOException("Could not open the checkpoint " + checkpoint, e));
+                return result;
+            } catch (RuntimeException e) {
+                result.completeExceptionally(e);
+                return result;
+            }
+            LOGGER.debug("Deploying the commands of {} servers, skipping {} already deployed servers", pending.size(), skipped);
+        }
+        startOverwrites();
+        return result;
+    }
+
+    /**
+     * Gets the current maximum amount of concurrent overwrites.
+     *
+     * @return The amount of concurrent overwrites.
+     */
+    public synchronized int getConcurrency() {
+        return (int) concurrency;
+    }
+
+    /**
+     * Starts pending overwrites while the concurrency allows it, or completes the deployment if nothing is left.
+     * <p>
+     * Overwrites which complete immediately call this again from {@link #finished(long, String, long, Throwable)} before their
+     * future is returned. Only one thread starts overwrites at a time, other calls make it loop once more instead, so
+     * the stack does not grow with every completed overwrite.
+     */
+    private void startOverwrites() {
+        synchronized (this) {
+            if (starting) {
+                startAgain = true;
+                return;
+            }
+            starting = true;
+        }
+        while (true) {
+            final List<Long> next = new ArrayList<>();
+            synchronized (this) {
+                if (result.isDone()) {
+                    starting = false;
+                    return;
+                }
+                while (inFlight < (int) concurrency && !pending.isEmpty()) {
+                    next.add(pending.poll());
+                    inFlight++;
+                }
+                if (inFlight == 0 && waiting == 0 && pending.isEmpty()) {
+                    starting = false;
+                    complete();
+                    return;
+                }
+                if (next.isEmpty() && !startAgain) {
+                    starting = false;
+                    return;
+                }
+                startAgain = false;
+            }
+            for (final long serverId : next) {
+                final long startNanos = System.nanoTime();
+                String deployedFingerprint = null;
+                CompletableFuture<?> future;
+                try {
+                    // Taken before overwriting, so changes during the overwrite are deployed again by the next run
+                    deployedFingerprint = checkpoint == null ? null : fingerprint.apply(serverId);
+                    future = overwrite.apply(serverId);
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                final String finishedFingerprint = deployedFingerprint;
+                future.whenComplete((ignored, throwable) ->
+                        finished(serverId, finishedFingerprint, System.nanoTime() - startNanos, throwable));
+            }
+        }
+    }
+
+    private void finished(final long serverId, final String deployedFingerprint, final long durationNanos, final Throwable throwable) {
+        final ServerCommandDeploymentProgress progress;
+        synchronized (this) {
+            inFlight--;
+            final Throwable cause = unwrap(throwable);
+            if (cause == null) {
+                deployed++;
+                if (durationNanos > slowThresholdNanos) {
+                    decreaseConcurrency();
+                } else {
+                    // Grows by about one for every round of concurrent overwrites
+                    concurrency = Math.min(maximumConcurrency, concurrency + 1 / concurrency);
+                }
+                try {
+                    writeCheckpoint(serverId, deployedFingerprint);
+                } catch (IOException e) {
+                    result.completeExceptionally(new UncheckedIOException("Could not write the checkpoint " + checkpoint, e));
+                    closeCheckpoint();
+                    return;
+                }
+            } else if (rateLimited.test(cause)) {
+                decreaseConcurrency();
+                final int attempt = attempts.merge(serverId, 1, Integer::sum);
+                if (attempt < maximumAttempts) {
+                    waiting++;
+                    CompletableFuture.delayedExecutor(retryDelay.toMillis() * attempt, TimeUnit.MILLISECONDS).execute(() -> retry(serverId));
+                } else {
+                    failures.put(serverId, cause);
+                }
+            } else {
+                LOGGER.debug("Could not overwrite the commands of the server {}", serverId, cause);
+                failures.put(serverId, cause);
+            }
+            progress = new ServerCommandDeploymentProgress(deployed, failures.size(),
+                    pending.size() + inFlight + waiting, (int) concurrency);
+        }
+        try {
+            progressListener.accept(progress);
+        } catch (RuntimeException e) {
+            LOGGER.warn("The progress listener of the server command deployment threw an exception", e);
+        }
+        startOverwrites();
+    }
+
+    private void retry(final long serverId) {
+        synchronized (this) {
+            waiting--;
+            pending.add(serverId);
+        }
+        startOverwrites();
+    }
+
+    /**
+     * Halves the concurrency, guarded by this.
+     */
+    private void decreaseConcurrency() {
+        concurrency = Math.max(1, concurrency / 2);
+    }
+
+    /**
+     * Completes the deployment, guarded by this.
+     */
+    private void complete() {
+        closeCheckpoint();
+        if (checkpoint != null && failures.isEmpty()) {
+            try {
+                Files.deleteIfExists(checkpoint);
+            } catch (IOException e) {
+                LOGGER.warn("Could not delete the checkpoint {}", checkpoint, e);
+            }
+        }
+        LOGGER.debug("Deployed the commands of {} servers, {} failed", deployed, failures.size());
+        result.complete(new ServerCommandDeploymentResult(deployed, skipped, Map.copyOf(failures)));
+    }
+
+    /**
+     * Reads the fingerprints of the deployed servers from the checkpoint, a line per server with its id and the
+     * fingerprint of its overwritten commands.
+     *
+     * @return The fingerprints by server id.
+     * @throws IOException If the checkpoint could not be read.
+     */
+    private Map<Long, String> readCheckpoint() throws IOException {
+        final Map<Long, String> done = new HashMap<>();
+        if (checkpoint != null && Files.exists(checkpoint)) {
+            for (final String line : Files.readAllLines(checkpoint, StandardCharsets.UTF_8)) {
+                // A line torn by a crash is ignored, so its server is deployed again
+                final int separator = line.indexOf(' ');
+                if (separator <= 0 || separator == line.length() - 1) {
+                    if (!line.isBlank()) {
+                        LOGGER.warn("Ignoring the invalid line '{}' of the checkpoint {}", line, checkpoint);
+                    }
+                    continue;
+                }
+                try {
+                    done.put(Long.parseLong(line.substring(0, separator)), line.substring(separator + 1));
+                } catch (NumberFormatException e) {
+                    LOGGER.warn("Ignoring the invalid line '{}' of the checkpoint {}", line, checkpoint);
+                }
+            }
+        }
+        return done;
+    }
+
+    private void writeCheckpoint(final long serverId, final String deployedFingerprint) throws IOException {
+        // Servers without a fingerprint would never be skipped, so they are not recorded
+        if (checkpointWriter != null && deployedFingerprint != null) {
+            checkpointWriter.write(serverId + " " + deployedFingerprint);
+            checkpointWriter.newLine();
+            checkpointWriter.flush();
+        }
+    }
+
+    private void closeCheckpoint() {
+        if (checkpointWriter != null) {
+            try {
+                checkpointWriter.close();
+            } catch (IOException e) {
+                LOGGER.warn("Could not close the checkpoint {}", checkpoint, e);
+            }
+            checkpointWriter = null;
+        }
+    }
+
+    private static Throwable unwrap(final Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        return cause;
+    }
+}
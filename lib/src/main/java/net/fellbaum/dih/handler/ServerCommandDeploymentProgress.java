@@ -0,0 +1,12 @@
+package net.fellbaum.dih.handler;
+
+/**
+ * The progress of a {@link ServerCommandDeployment}.
+ *
+ * @param deployed    The amount of servers whose commands were overwritten.
+ * @param failed      The amount of servers whose commands could not be overwritten.
+ * @param remaining   The amount of servers which are pending, in progress or waiting for a retry.
+ * @param concurrency The current maximum amount of concurrent overwrites.
+ */
+public record ServerCommandDeploymentProgress(int deployed, int failed, int remaining, int concurrency) {
+}
@@ -0,0 +1,22 @@
+package net.fellbaum.dih.handler;
+
+import java.util.Map;
+
+/**
+ * The outcome of a {@link ServerCommandDeployment}.
+ *
+ * @param deployed The amount of servers whose commands were overwritten.
+ * @param skipped  The amount of servers which a previous run already recorded in the checkpoint.
+ * @param failures The cause why the commands could not be overwritten by server id.
+ */
+public record ServerCommandDeploymentResult(int deployed, int skipped, Map<Long, Throwable> failures) {
+
+    /**
+     * Gets whether the commands of all servers are deployed.
+     *
+     * @return Whether no server failed.
+     */
+    public boolean isComplete() {
+        return failures.isEmpty();
+    }
+}
@@ -0,0 +1,46 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Stores the application commands of servers outside the heap, so a {@link ComplexInteractionHandler} only has to keep
+ * the commands of recently active servers in memory.
+ * <p>
+ * The interaction handler loads the commands of a server the first time it receives an interaction of the server which
+ * are not in memory, at most once at a time per server, and saves the commands of a server whenever they are
+ * registered or unregistered. Implementations have to be thread-safe.
+ *
+ * @see ComplexInteractionHandler#setServerCommandRepository(ServerCommandRepository, int, java.util.concurrent.Executor)
+ * @see FileServerCommandRepository
+ */
+public interface ServerCommandRepository {
+
+    /**
+     * Loads the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @return The commands, empty if the server has none.
+     * @throws IOException If the commands could not be loaded.
+     */
+    Collection<AbstractApplicationCommand> load(long serverId) throws IOException;
+
+    /**
+     * Saves the commands of a server, replacing the previously saved ones.
+     *
+     * @param serverId The id of the server.
+     * @param commands All commands of the server.
+     * @throws IOException If the commands could not be saved.
+     */
+    void save(long serverId, Collection<AbstractApplicationCommand> commands) throws IOException;
+
+    /**
+     * Deletes the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @throws IOException If the commands could not be deleted.
+     */
+    void delete(long serverId) throws IOException;
+}
@@ -0,0 +1,36 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Collection;
+
+/**
+ * Converts the commands of a server to bytes and back for a {@link FileServerCommandRepository}.
+ * Usually only the definition of every command is written, for example the name and the response of a custom command
+ * of a server, and the command instance is created from it again when reading.
+ */
+public interface ServerCommandSerializer {
+
+    /**
+     * Writes the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @param commands The commands.
+     * @param output   The output.
+     * @throws IOException If the commands could not be written.
+     */
+    void write(long serverId, Collection<AbstractApplicationCommand> commands, DataOutput output) throws IOException;
+
+    /**
+     * Reads the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @param input    The input containing exactly the written commands.
+     * @return The commands.
+     * @throws IOException If the commands could not be read.
+     */
+    Collection<AbstractApplicationCommand> read(long serverId, DataInput input) throws IOException;
+}
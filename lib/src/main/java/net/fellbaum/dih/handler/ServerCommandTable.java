@@ -0,0 +1,279 @@
+package net.fellbaum.dih.handler;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongConsumer;
+import java.util.function.UnaryOperator;
+
+/**
+ * A concurrent open-addressing hash table from server ids to the {@link ServerCommands} of the server.
+ * <p>
+ * Server ids are stored as primitive {@code long}s with linear probing, so lookups neither box the id nor allocate.
+ * Lookups do not lock: entries are published with release writes and read with acquire reads. Modifications are
+ * serialized by the monitor of the table and replace the immutable entry of a server at once. A removed entry keeps
+ * its id with a {@code null} value until the next rehash, because reusing its slot for another id could let a
+ * concurrent lookup see the new value under the old id.
+ * <p>
+ * On a 64-bit JVM with compressed references, a slot takes an estimated 13 bytes, an 8 byte id, a 4 byte reference and
+ * the referenced mark. The capacity is a power of two and the table grows at 3/4 of it to at most 3/8, so it is filled
+ * between 3/16 and 3/4 and the slots take an estimated 17 to 70 bytes per server in addition to the
+ * {@link ServerCommands} of the server. Heap deltas after a full GC with 100,000 to 600,000 servers of one command each
+ * measured 19 to 64 bytes per server for the slots and about 95 bytes for the {@code ServerCommands}. Unlike a
+ * {@code Map<Long, ...>}, there is no boxed id and no map entry object per server.
+ * <p>
+ * The amount of servers can be bounded. Lookups mark the slot of a server as referenced, and inserting a server into a
+ * full table evicts servers with the CLOCK algorithm: a hand sweeps over the slots, clearing the mark of referenced
+ * servers and evicting the first server which has not been referenced since the last sweep.
+ */
+final class ServerCommandTable {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final VarHandle VALUES = MethodHandles.arrayElementVarHandle(ServerCommands[].class);
+
+    /**
+     * The id marking an unused slot. Discord ids are never 0.
+     */
+    private static final long FREE = 0;
+
+    private static final int MINIMUM_CAPACITY = 16;
+
+    private volatile Table table = new Table(MINIMUM_CAPACITY);
+
+    /**
+     * The amount of slots with a value, guarded by this.
+     */
+    private int size;
+
+    /**
+     * The amount of slots whose value was removed, guarded by this.
+     */
+    private int removed;
+
+    /**
+     * The maximum amount of servers, guarded by this.
+     */
+    private int maximumSize = Integer.MAX_VALUE;
+
+    /**
+     * The position of the CLOCK hand, guarded by this.
+     */
+    private int hand;
+
+    /**
+     * The amount of servers evicted because the table was full.
+     */
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Sets the maximum amount of servers. Servers are only evicted when another server is inserted.
+     *
+     * @param maximumSize The maximum amount of servers, {@link Integer#MAX_VALUE} if unbounded.
+     */
+    synchronized void setMaximumSize(final int maximumSize) {
+        if (maximumSize <= 0) {
+            throw new IllegalArgumentException("The maximum size must be positive");
+        }
+        this.maximumSize = maximumSize;
+    }
+
+    /**
+     * Gets the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @return The commands or {@code null} if the server has none.
+     */
+    ServerCommands get(final long serverId) {
+        final Table current = table;
+        final long[] keys = current.keys;
+        int index = current.indexFor(serverId);
+        while (true) {
+            final long key = (long) KEYS.getAcquire(keys, index);
+            if (key == serverId) {
+                if (!current.referenced[index]) {
+                    // A lost mark only makes the server a candidate for eviction one sweep earlier
+                    current.referenced[index] = true;
+                }
+                return (ServerCommands) VALUES.getAcquire(current.values, index);
+            } else if (key == FREE) {
+                return null;
+            }
+            index = (index + 1) & current.mask;
+        }
+    }
+
+    /**
+     * Atomically replaces the commands of a server.
+     *
+     * @param serverId The id of the server.
+     * @param update   Receives the current commands, {@link ServerCommands#EMPTY} if there are none,
+     *                 and returns the new commands or {@code null} to remove them.
+     *                 Returning {@link ServerCommands#EMPTY} keeps the server in the table without commands.
+     * @return The new commands.
+     */
+    synchronized ServerCommands compute(final long serverId, final UnaryOperator<ServerCommands> update) {
+        if (serverId == FREE) {
+            throw new IllegalArgumentException("The server id must not be 0");
+        }
+        Table current = table;
+        int index = current.indexFor(serverId);
+        long key;
+        while ((key = current.keys[index]) != FREE && key != serverId) {
+            index = (index + 1) & current.mask;
+        }
+
+        final ServerCommands previous = key == FREE ? null : current.values[index];
+        final ServerCommands next = update.apply(previous == null ? ServerCommands.EMPTY : previous);
+        if (next == previous) {
+            return next;
+        }
+
+        if (next == null) {
+            VALUES.setRelease(current.values, index, (ServerCommands) null);
+            size--;
+            removed++;
+        } else if (key == serverId) {
+            VALUES.setRelease(current.values, index, next);
+            current.referenced[index] = true;
+            if (previous == null) {
+                size++;
+                removed--;
+                evictIfFull(current);
+            }
+        } else {
+            if ((size + removed + 1) * 4L > current.keys.length * 3L) {
+                current = rehash(current, size + 1);
+                table = current;
+                removed = 0;
+                index = current.indexFor(serverId);
+                while (current.keys[index] != FREE) {
+                    index = (index + 1) & current.mask;
+                }
+            }
+            // The value has to be visible before the key, which makes the slot visible to lookups
+            VALUES.setRelease(current.values, index, next);
+            KEYS.setRelease(current.keys, index, serverId);
+            current.referenced[index] = true;
+            size++;
+            evictIfFull(current);
+        }
+        return next;
+    }
+
+    /**
+     * Evicts servers which have not been referenced recently until the table is not larger than its maximum size.
+     *
+     * @param current The current table.
+     */
+    private void evictIfFull(final Table current) {
+        while (size > maximumSize) {
+            hand = (hand + 1) & current.mask;
+            if (current.values[hand] == null) {
+                continue;
+            }
+            if (current.referenced[hand]) {
+                current.referenced[hand] = false;
+            } else {
+                VALUES.setRelease(current.values, hand, (ServerCommands) null);
+                size--;
+                removed++;
+                evictionCount.increment();
+            }
+        }
+    }
+
+    /**
+     * Gets the amount of servers evicted because the table was full.
+     *
+     * @return The amount of evicted servers.
+     */
+    long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    /**
+     * Removes the commands of a server.
+     *
+     * @param serverId The id of the server.
+     */
+    void remove(final long serverId) {
+        if (serverId != FREE && get(serverId) != null) {
+            compute(serverId, ignored -> null);
+        }
+    }
+
+    /**
+     * Gets the amount of servers with commands.
+     *
+     * @return The amount of servers.
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Runs the action for the id of every server with commands.
+     *
+     * @param action The action.
+     */
+    void forEachServerId(final LongConsumer action) {
+        final Table current = table;
+        for (int i = 0; i < current.keys.length; i++) {
+            final long key = (long) KEYS.getAcquire(current.keys, i);
+            if (key != FREE && VALUES.getAcquire(current.values, i) != null) {
+                action.accept(key);
+            }
+        }
+    }
+
+    /**
+     * Copies all servers with commands into a new table with room for at least the given amount of servers.
+     *
+     * @param current     The current table.
+     * @param minimumSize The amount of servers.
+     * @return The new table.
+     */
+    private static Table rehash(final Table current, final int minimumSize) {
+        int capacity = MINIMUM_CAPACITY;
+        while (capacity * 3L < minimumSize * 8L) {
+            capacity <<= 1;
+        }
+        final Table rehashed = new Table(capacity);
+        for (int i = 0; i < current.keys.length; i++) {
+            final ServerCommands value = current.values[i];
+            if (value != null) {
+                int index = rehashed.indexFor(current.keys[i]);
+                while (rehashed.keys[index] != FREE) {
+                    index = (index + 1) & rehashed.mask;
+                }
+                rehashed.keys[index] = current.keys[i];
+                rehashed.values[index] = value;
+                rehashed.referenced[index] = current.referenced[i];
+            }
+        }
+        return rehashed;
+    }
+
+    /**
+     * The slots of the table. The arrays are published by the volatile write of {@link #table}.
+     */
+    private static final class Table {
+
+        private final long[] keys;
+        private final ServerCommands[] values;
+        private final boolean[] referenced;
+        private final int mask;
+
+        private Table(final int capacity) {
+            this.keys = new long[capacity];
+            this.values = new ServerCommands[capacity];
+            this.referenced = new boolean[capacity];
+            this.mask = capacity - 1;
+        }
+
+        private int indexFor(final long serverId) {
+            final long hash = serverId * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
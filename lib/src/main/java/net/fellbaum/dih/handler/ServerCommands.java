@@ -0,0 +1,151 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.applicationcommand.MessageContextMenuCommand;
+import net.fellbaum.dih.interaction.applicationcommand.SlashCommand;
+import net.fellbaum.dih.interaction.applicationcommand.UserContextMenuCommand;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The immutable set of application commands registered for one server, or the global commands.
+ * <p>
+ * Every kind of command is stored in one array sorted by the hash code of the command names, next to an array of
+ * these hash codes, so a lookup is a binary search over an {@code int[]} without allocating. Adding a command
+ * creates a new instance which shares the arrays of the other kinds.
+ */
+final class ServerCommands {
+
+    static final ServerCommands EMPTY = new ServerCommands(NamedCommands.EMPTY, NamedCommands.EMPTY, NamedCommands.EMPTY);
+
+    private final NamedCommands slashCommands;
+    private final NamedCommands userContextMenuCommands;
+    private final NamedCommands messageContextMenuCommands;
+
+    private ServerCommands(final NamedCommands slashCommands, final NamedCommands userContextMenuCommands,
+                           final NamedCommands messageContextMenuCommands) {
+        this.slashCommands = slashCommands;
+        this.userContextMenuCommands = userContextMenuCommands;
+        this.messageContextMenuCommands = messageContextMenuCommands;
+    }
+
+    /**
+     * Creates a copy of these commands with the given command added, replacing a command of the same kind and name.
+     *
+     * @param command The command.
+     * @return The new commands.
+     */
+    ServerCommands with(final AbstractApplicationCommand command) {
+        if (command instanceof SlashCommand) {
+            return new ServerCommands(slashCommands.with(command), userContextMenuCommands, messageContextMenuCommands);
+        } else if (command instanceof UserContextMenuCommand) {
+            return new ServerCommands(slashCommands, userContextMenuCommands.with(command), messageContextMenuCommands);
+        } else if (command instanceof MessageContextMenuCommand) {
+            return new ServerCommands(slashCommands, userContextMenuCommands, messageContextMenuCommands.with(command));
+        }
+        throw new IllegalArgumentException("Argument is a not supported Interaction");
+    }
+
+    SlashCommand getSlashCommand(final String name) {
+        return (SlashCommand) slashCommands.get(name);
+    }
+
+    UserContextMenuCommand getUserContextMenuCommand(final String name) {
+        return (UserContextMenuCommand) userContextMenuCommands.get(name);
+    }
+
+    MessageContextMenuCommand getMessageContextMenuCommand(final String name) {
+        return (MessageContextMenuCommand) messageContextMenuCommands.get(name);
+    }
+
+    /**
+     * Gets all commands of the server.
+     *
+     * @return The commands.
+     */
+    List<AbstractApplicationCommand> getAll() {
+        final List<AbstractApplicationCommand> all = new ArrayList<>(size());
+        all.addAll(Arrays.asList(slashCommands.commands));
+        all.addAll(Arrays.asList(userContextMenuCommands.commands));
+        all.addAll(Arrays.asList(messageContextMenuCommands.commands));
+        return all;
+    }
+
+    /**
+     * Gets the amount of commands of the server.
+     *
+     * @return The amount of commands.
+     */
+    int size() {
+        return slashCommands.commands.length + userContextMenuCommands.commands.length + messageContextMenuCommands.commands.length;
+    }
+
+    /**
+     * The commands of one kind sorted by the hash code of their name.
+     */
+    private static final class NamedCommands {
+
+        private static final NamedCommands EMPTY = new NamedCommands(new int[0], new AbstractApplicationCommand[0]);
+
+        private final int[] hashes;
+        private final AbstractApplicationCommand[] commands;
+
+        private NamedCommands(final int[] hashes, final AbstractApplicationCommand[] commands) {
+            this.hashes = hashes;
+            this.commands = commands;
+        }
+
+        private AbstractApplicationCommand get(final String name) {
+            final int index = indexOf(name, name.hashCode());
+            return index < 0 ? null : commands[index];
+        }
+
+        private NamedCommands with(final AbstractApplicationCommand command) {
+            final int hash = command.getName().hashCode();
+            final int existing = indexOf(command.getName(), hash);
+            if (existing >= 0) {
+                final AbstractApplicationCommand[] newCommands = commands.clone();
+                newCommands[existing] = command;
+                return new NamedCommands(hashes, newCommands);
+            }
+
+            int insertAt = Arrays.binarySearch(hashes, hash);
+            insertAt = insertAt < 0 ? -insertAt - 1 : insertAt;
+            final int[] newHashes = new int[hashes.length + 1];
+            final AbstractApplicationCommand[] newCommands = new AbstractApplicationCommand[commands.length + 1];
+            System.arraycopy(hashes, 0, newHashes, 0, insertAt);
+            System.arraycopy(commands, 0, newCommands, 0, insertAt);
+            newHashes[insertAt] = hash;
+            newCommands[insertAt] = command;
+            System.arraycopy(hashes, insertAt, newHashes, insertAt + 1, hashes.length - insertAt);
+            System.arraycopy(commands, insertAt, newCommands, insertAt + 1, commands.length - insertAt);
+            return new NamedCommands(newHashes, newCommands);
+        }
+
+        /**
+         * Finds the command with the given name.
+         *
+         * @param name The name.
+         * @param hash The hash code of the name.
+         * @return The index of the command or -1 if there is none.
+         */
+        private int indexOf(final String name, final int hash) {
+            int index = Arrays.binarySearch(hashes, hash);
+            if (index < 0) {
+                return -1;
+            }
+            // Commands with colliding hash codes are next to each other
+            while (index > 0 && hashes[index - 1] == hash) {
+                index--;
+            }
+            for (; index < hashes.length && hashes[index] == hash; index++) {
+                if (commands[index].getName().equals(name)) {
+                    return index;
+                }
+            }
+            return -1;
+        }
+    }
+}
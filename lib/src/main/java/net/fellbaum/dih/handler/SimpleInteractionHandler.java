@@ -1,17 +1,14 @@
 package net.fellbaum.dih.handler;
 
 import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.InteractionRegistry;
 import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
-import net.fellbaum.dih.interaction.applicationcommand.MessageContextMenuCommand;
-import net.fellbaum.dih.interaction.applicationcommand.SlashCommand;
-import net.fellbaum.dih.interaction.applicationcommand.UserContextMenuCommand;
 import net.fellbaum.dih.interaction.component.AbstractComponent;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.interaction.ApplicationCommand;
 
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiFunction;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
@@ -22,71 +19,35 @@ import java.util.stream.Collectors;
 @SuppressWarnings({"UnusedReturnValue", "unused"})
 public non-sealed class SimpleInteractionHandler extends InteractionHandler<SimpleInteractionHandler> {
 
-    /**
-     * The simple server slash commands.
-     */
-    protected final Map<String, SlashCommand> serverSlashCommands = new ConcurrentHashMap<>();
-    /**
-     * The simple server message context menu commands.
-     */
-    protected final Map<String, MessageContextMenuCommand> serverMessageContextMenuCommands = new ConcurrentHashMap<>();
-    /**
-     * The simple server user context menu commands.
-     */
-    protected final Map<String, UserContextMenuCommand> serverUserContextMenuCommands = new ConcurrentHashMap<>();
-
     /**
      * Creates an instance of this class.
      */
     public SimpleInteractionHandler() {
         super(ComplexityMode.SIMPLE);
+    }
 
-        slashCommandFunction = (data) -> {
-            final String commandName = data.commandName();
-            if (serverSlashCommands.containsKey(commandName)) {
-                handleCommand(data.slashCommandInteraction(), serverSlashCommands.get(commandName));
-                return true;
-            }
-            return false;
-        };
-
-        autocompleteCommandFunction = (data) -> {
-            final String commandName = data.commandName();
-            if (serverSlashCommands.containsKey(commandName)) {
-                serverSlashCommands.get(commandName).autocompletionHandler(data.autocompleteInteraction());
-                return true;
-            }
-            return false;
-        };
-
-        userContextMenuFunction = (data) -> {
-            final String commandName = data.commandName();
-            if (serverUserContextMenuCommands.containsKey(commandName)) {
-                serverUserContextMenuCommands.get(commandName).runCommand(data.userContextMenuInteraction());
-                return true;
-            }
-            return false;
-        };
-
-        messageContextMenuFunction = (data) -> {
-            final String commandName = data.commandName();
-            if (serverMessageContextMenuCommands.containsKey(commandName)) {
-                serverMessageContextMenuCommands.get(commandName).runCommand(data.messageContextMenuInteraction());
-                return true;
-            }
-            return false;
-        };
-
+    /**
+     * Register all interactions of a registry to the handler, for example the one generated by the
+     * {@code dih-processor} annotation processor.
+     * All interactions are registered at once, so received interactions see either none or all of them.
+     *
+     * @param registry The registry.
+     * @return The current instance to chain methods.
+     */
+    public SimpleInteractionHandler registerInteractions(final InteractionRegistry registry) {
+        registerAll(registry.createInteractions());
+        return this;
     }
 
     /**
      * Register an interaction to the handler.
+     * All interactions are registered at once, so received interactions see either none or all of them.
      *
      * @param interactions The interactions to register.
      * @return The current instance to chain methods.
      */
     public SimpleInteractionHandler registerInteractions(final Collection<Interaction> interactions) {
-        interactions.forEach(this::registerInteraction);
+        registerAll(interactions);
         return this;
     }
 
@@ -97,28 +58,25 @@ public non-sealed class SimpleInteractionHandler extends InteractionHandler<Simp
      * @return The current instance to chain methods.
      */
     public SimpleInteractionHandler registerInteraction(final Interaction interaction) {
+        updateSnapshot(current -> withInteraction(current, interaction));
+        return this;
+    }
+
+    @Override
+    ServerCommands findServerCommands(final long serverId) {
+        return getSnapshot().serverCommands;
+    }
+
+    @Override
+    DispatchSnapshot withInteraction(final DispatchSnapshot current, final Interaction interaction) {
         if (interaction instanceof AbstractComponent comp) {
-            registerComponent(comp);
+            return current.withComponent(comp);
         } else if (interaction instanceof AbstractApplicationCommand abstractApplicationCommand) {
-            if (abstractApplicationCommand instanceof SlashCommand s) {
-                (abstractApplicationCommand.isGlobal()
-                        ? globalSlashCommands
-                        : serverSlashCommands).put(abstractApplicationCommand.getName(), s);
-            } else if (abstractApplicationCommand instanceof MessageContextMenuCommand m) {
-                (abstractApplicationCommand.isGlobal()
-                        ? globalMessageContextMenuCommands
-                        : serverMessageContextMenuCommands).put(abstractApplicationCommand.getName(), m);
-            } else if (abstractApplicationCommand instanceof UserContextMenuCommand u) {
-                (abstractApplicationCommand.isGlobal()
-                        ? globalUserContextMenuCommands
-                        : serverUserContextMenuCommands).put(abstractApplicationCommand.getName(), u);
-            } else {
-                throw new IllegalArgumentException("Argument is a not supported Interaction");
-            }
-        } else {
-            throw new IllegalArgumentException("Argument is a not supported Interaction");
+            return abstractApplicationCommand.isGlobal()
+                    ? current.withGlobalCommand(abstractApplicationCommand)
+                    : current.withServerCommand(abstractApplicationCommand);
         }
-        return this;
+        throw new IllegalArgumentException("Argument is a not supported Interaction");
     }
 
     /**
@@ -161,17 +119,17 @@ public non-sealed class SimpleInteractionHandler extends InteractionHandler<Simp
      * @return A future to check if the operation was successful and the registered application commands.
      */
     public CompletableFuture<Set<ApplicationCommand>> bulkOverwriteServerApplicationCommands(final Server server, final Predicate<AbstractApplicationCommand> commandNamePredicate) {
-        Set<AbstractApplicationCommand> abstractApplicationCommands = new HashSet<>();
-        abstractApplicationCommands.addAll(serverSlashCommands.values());
-        abstractApplicationCommands.addAll(serverMessageContextMenuCommands.values());
-        abstractApplicationCommands.addAll(serverUserContextMenuCommands.values());
+        final List<AbstractApplicationCommand> abstractApplicationCommands = getSnapshot().serverCommands.getAll();
 
-        return server.getApi().bulkOverwriteServerApplicationCommands(server, abstractApplicationCommands
+        return overwriteIfChanged(ApplicationCommandSyncState.serverScope(server.getId()),
+                abstractApplicationCommands
                         .stream()
                         .filter(commandNamePredicate)
                         .map(AbstractApplicationCommand::getApplicationCommandBuilder)
-                        .collect(Collectors.toSet()))
-                .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Server"));
+                        .collect(Collectors.toSet()),
+                builders -> server.getApi().bulkOverwriteServerApplicationCommands(server, builders)
+                        .thenApply(applicationCommands -> handleBulkOverwrittenApplicationCommands(applicationCommands, "Server")),
+                () -> server.getApi().getServerApplicationCommands(server));
     }
 
 }
@@ -0,0 +1,296 @@
+package net.fellbaum.dih.handler;
+
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.InteractionBase;
+import org.javacord.api.interaction.MessageContextMenuInteraction;
+import org.javacord.api.interaction.ModalInteraction;
+import org.javacord.api.interaction.SelectMenuInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.interaction.UserContextMenuInteraction;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalDouble;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Creates stubs of Javacord types, which work without a connection to Discord. The replay creates interactions from
+ * recorded interactions, which answer the recorded values and accept any response without sending it. Entities like
+ * the user, the channel or the user of an option are stubs with the recorded id. Methods the recording has no value
+ * for return empty values, and methods returning another Javacord type, like responders, return a stub of that type,
+ * so commands can respond as usual.
+ */
+public final class StubInteractions {
+
+    private StubInteractions() {
+        throw new UnsupportedOperationException("This class is not meant to be instantiated.");
+    }
+
+    /**
+     * Creates a stub of a Javacord interface. Methods the answer returns {@code null} for return an empty value of
+     * their return type: 0, false, an empty string, an empty optional or collection, the stub itself if they return
+     * its type, like the methods of a builder, a future completed with a stub of its result type, or a stub of another
+     * interface. {@code equals} and {@code hashCode} use the identity of the stub.
+     *
+     * @param type   The interface.
+     * @param answer Answers the calls of the stub.
+     * @param <T>    The type of the interface.
+     * @return The stub.
+     */
+    public static <T> T stub(final Class<T> type, final Answer answer) {
+        return type.cast(proxy(type, 0, answer));
+    }
+
+    /**
+     * Answers the calls of a stub.
+     */
+    @FunctionalInterface
+    public interface Answer {
+
+        /**
+         * Answers a call.
+         *
+         * @param method The called method.
+         * @param args   The arguments, {@code null} if the method has no parameters.
+         * @return The value to return, {@code null} for the default value.
+         */
+        Object answer(Method method, Object[] args);
+    }
+
+    /**
+     * Creates an interaction.
+     *
+     * @param recorded The recorded interaction.
+     * @param id       The id of the interaction.
+     * @return The interaction.
+     */
+    static InteractionBase create(final RecordedInteraction recorded, final long id) {
+        final Class<?> type = switch (recorded.type()) {
+            case SLASH_COMMAND -> SlashCommandInteraction.class;
+            case AUTOCOMPLETE -> AutocompleteInteraction.class;
+            case USER_CONTEXT_MENU_COMMAND -> UserContextMenuInteraction.class;
+            case MESSAGE_CONTEXT_MENU_COMMAND -> MessageContextMenuInteraction.class;
+            case BUTTON -> ButtonInteraction.class;
+            case SELECT_MENU -> SelectMenuInteraction.class;
+            case MODAL -> ModalInteraction.class;
+        };
+        final List<SlashCommandInteractionOption> options = createOptions(recorded.options());
+        return (InteractionBase) proxy(type, id, (method, args) -> switch (method.getName()) {
+            case "getCommandName", "getCustomId" -> recorded.name();
+            case "getFullCommandName" -> fullCommandName(recorded.name(), recorded.options());
+            case "getRegisteredCommandServerId" -> recorded.commandServerId() == 0
+                    ? Optional.empty()
+                    : Optional.of(recorded.commandServerId());
+            case "getServer" -> recorded.serverId() == 0
+                    ? Optional.empty()
+                    : Optional.of(proxy(Server.class, recorded.serverId(), null));
+            case "getUser" -> proxy(User.class, recorded.userId(), null);
+            case "getChannel" -> entity(method, recorded.channelId());
+            case "getCommandId" -> recorded.commandId();
+            case "getCommandIdAsString" -> Long.toUnsignedString(recorded.commandId());
+            case "getOptions" -> options;
+            case "getArguments" -> arguments(options);
+            case "getFocusedOption" -> focused(options);
+            default -> null;
+        });
+    }
+
+    private static List<SlashCommandInteractionOption> createOptions(final List<RecordedInteraction.Option> recorded) {
+        if (recorded.isEmpty()) {
+            return List.of();
+        }
+        final List<SlashCommandInteractionOption> options = new ArrayList<>(recorded.size());
+        for (final RecordedInteraction.Option option : recorded) {
+            final List<SlashCommandInteractionOption> nested = createOptions(option.options());
+            final String value = option.value();
+            options.add((SlashCommandInteractionOption) proxy(SlashCommandInteractionOption.class, 0, (method, args) -> switch (method.getName()) {
+                case "getName" -> option.name();
+                case "isSubcommandOrGroup" -> option.subcommandOrGroup();
+                case "isFocused" -> Optional.of(option.focused());
+                case "getStringRepresentationValue", "getStringValue" -> Optional.ofNullable(value);
+                case "getLongValue" -> parse(value, Long::valueOf);
+                case "getDecimalValue" -> parse(value, Double::valueOf);
+                case "getBooleanValue" -> "true".equals(value) || "false".equals(value)
+                        ? Optional.of(Boolean.parseBoolean(value))
+                        : Optional.empty();
+                // Javacord represents these values by the id of the entity
+                case "getUserValue", "requestUserValue", "getChannelValue", "getRoleValue", "getMentionableValue",
+                     "requestMentionableValue", "getAttachmentValue" -> entity(method, parse(value, Long::valueOf).orElse(0L));
+                case "getOptions" -> nested;
+                case "getArguments" -> arguments(nested);
+                default -> null;
+            }));
+        }
+        return List.copyOf(options);
+    }
+
+    /**
+     * Gets the arguments of the deepest subcommand like Javacord.
+     */
+    private static List<SlashCommandInteractionOption> arguments(final List<SlashCommandInteractionOption> options) {
+        if (!options.isEmpty() && options.get(0).isSubcommandOrGroup()) {
+            return arguments(options.get(0).getOptions());
+        }
+        return options;
+    }
+
+    private static SlashCommandInteractionOption focused(final List<SlashCommandInteractionOption> options) {
+        for (final SlashCommandInteractionOption option : options) {
+            if (option.isFocused().orElse(false)) {
+                return option;
+            }
+            final SlashCommandInteractionOption nested = focused(option.getOptions());
+            if (nested != null) {
+                return nested;
+            }
+        }
+        return null;
+    }
+
+    private static String fullCommandName(final String name, final List<RecordedInteraction.Option> options) {
+        final StringBuilder fullName = new StringBuilder(name);
+        List<RecordedInteraction.Option> current = options;
+        while (!current.isEmpty() && current.get(0).subcommandOrGroup()) {
+            fullName.append(' ').append(current.get(0).name());
+            current = current.get(0).options();
+        }
+        return fullName.toString();
+    }
+
+    /**
+     * Answers a method returning an optional entity, or an optional future of it, with a stub of the entity.
+     *
+     * @param method The method.
+     * @param id     The id of the entity, {@code 0} if there is none.
+     * @return The optional stub.
+     */
+    private static Optional<Object> entity(final Method method, final long id) {
+        if (id == 0 || !(method.getGenericReturnType() instanceof ParameterizedType optionalType)) {
+            return Optional.empty();
+        }
+        final Type entityType = optionalType.getActualTypeArguments()[0];
+        if (entityType instanceof Class<?> entityClass && entityClass.isInterface()) {
+            return Optional.of(proxy(entityClass, id, null));
+        }
+        if (entityType instanceof ParameterizedType futureType && futureType.getRawType() == CompletableFuture.class
+                && futureType.getActualTypeArguments()[0] instanceof Class<?> entityClass && entityClass.isInterface()) {
+            return Optional.of(CompletableFuture.completedFuture(proxy(entityClass, id, null)));
+        }
+        return Optional.empty();
+    }
+
+    private static <T> Optional<T> parse(final String value, final Function<String, T> parser) {
+        if (value == null) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(parser.apply(value));
+        } catch (NumberFormatException e) {
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Creates a stub of an interface.
+     *
+     * @param type    The interface.
+     * @param id      The id returned by {@code getId()}.
+     * @param answers Answers specific methods, returning {@code null} for the others, or {@code null}.
+     * @return The stub.
+     */
+    private static Object proxy(final Class<?> type, final long id, final Answer answers) {
+        return Proxy.newProxyInstance(StubInteractions.class.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return switch (method.getName()) {
+                    case "equals" -> proxy == args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    default -> type.getSimpleName() + "Stub[" + id + "]";
+                };
+            }
+            if (answers != null) {
+                final Object answer = answers.answer(method, args);
+                if (answer != null) {
+                    return answer;
+                }
+            }
+            if (method.getName().equals("getId") && method.getParameterCount() == 0) {
+                return id;
+            }
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            return defaultAnswer(method.getReturnType(), method.getGenericReturnType(), proxy);
+        });
+    }
+
+    private static Object defaultAnswer(final Class<?> returnType, final Type genericReturnType, final Object proxy) {
+        if (returnType == void.class) {
+            return null;
+        } else if (returnType == boolean.class) {
+            return false;
+        } else if (returnType == char.class) {
+            return '\0';
+        } else if (returnType == byte.class) {
+            return (byte) 0;
+        } else if (returnType == short.class) {
+            return (short) 0;
+        } else if (returnType == int.class) {
+            return 0;
+        } else if (returnType == long.class) {
+            return 0L;
+        } else if (returnType == float.class) {
+            return 0f;
+        } else if (returnType == double.class) {
+            return 0d;
+        } else if (returnType == String.class) {
+            return "";
+        } else if (returnType == Optional.class) {
+            return Optional.empty();
+        } else if (returnType == OptionalInt.class) {
+            return OptionalInt.empty();
+        } else if (returnType == OptionalLong.class) {
+            return OptionalLong.empty();
+        } else if (returnType == OptionalDouble.class) {
+            return OptionalDouble.empty();
+        } else if (returnType == Set.class) {
+            return Set.of();
+        } else if (returnType == Map.class) {
+            return Map.of();
+        } else if (returnType == Stream.class) {
+            return Stream.empty();
+        } else if (returnType.isAssignableFrom(List.class) && Collection.class.isAssignableFrom(returnType)) {
+            return List.of();
+        } else if (returnType == CompletableFuture.class) {
+            // Completes with a stub of the result type, for example the updater of respondLater()
+            if (genericReturnType instanceof ParameterizedType parameterizedType
+                    && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> resultType) {
+                final Object result = defaultAnswer(resultType, resultType, proxy);
+                return CompletableFuture.completedFuture(result);
+            }
+            return CompletableFuture.completedFuture(null);
+        } else if (returnType.isInstance(proxy)) {
+            // Builders return themselves
+            return proxy;
+        } else if (returnType.isInterface()) {
+            return proxy(returnType, 0, null);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,169 @@
+package net.fellbaum.dih.handler;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A hashed timer wheel which runs short tasks after a delay with a precision of one tick.
+ * <p>
+ * Scheduling and cancelling a task are cheap constant time operations, which makes the wheel suitable for timeouts
+ * which are created for every interaction and are cancelled in most cases. All tasks run on the single worker thread
+ * of the wheel and must therefore not block.
+ */
+final class TimerWheel {
+
+    private static final Logger LOGGER = LogManager.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+
+    /**
+     * The buckets of the wheel, only accessed by the worker thread.
+     */
+    private final Queue<Timeout>[] buckets;
+
+    /**
+     * The timeouts which have not been added to a bucket yet.
+     */
+    private final Queue<Timeout> scheduled = new ConcurrentLinkedQueue<>();
+
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean stopped;
+
+    /**
+     * Creates and starts a new timer wheel.
+     *
+     * @param name         The name of the worker thread.
+     * @param tickDuration The duration of one tick.
+     * @param unit         The unit of the tick duration.
+     * @param wheelSize    The amount of buckets, which is rounded up to a power of two.
+     */
+    @SuppressWarnings("unchecked")
+    TimerWheel(final String name, final long tickDuration, final TimeUnit unit, final int wheelSize) {
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        final int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::work, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Runs the task on the worker thread once the delay has passed.
+     *
+     * @param task       The task.
+     * @param delayNanos The delay in nanoseconds.
+     * @return The timeout which can be used to cancel the task.
+     */
+    Timeout schedule(final Runnable task, final long delayNanos) {
+        final Timeout timeout = new Timeout(task, System.nanoTime() + Math.max(0, delayNanos));
+        scheduled.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Stops the worker thread. Pending tasks are not run anymore.
+     */
+    void stop() {
+        stopped = true;
+        worker.interrupt();
+    }
+
+    private void work() {
+        long tick = 0;
+        while (!stopped) {
+            final long tickDeadline = startNanos + (tick + 1) * tickNanos;
+            long sleepNanos;
+            while ((sleepNanos = tickDeadline - System.nanoTime()) > 0 && !stopped) {
+                LockSupport.parkNanos(this, sleepNanos);
+            }
+            transferScheduled(tick);
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferScheduled(final long currentTick) {
+        Timeout timeout;
+        while ((timeout = scheduled.poll()) != null) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            final long targetTick = Math.max(currentTick, (timeout.deadlineNanos - startNanos + tickNanos - 1) / tickNanos - 1);
+            timeout.remainingRounds = (targetTick - currentTick) / buckets.length;
+            buckets[(int) (targetTick & mask)].add(timeout);
+        }
+    }
+
+    private void expire(final Queue<Timeout> bucket) {
+        final Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            final Timeout timeout = iterator.next();
+            if (timeout.isCancelled()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                timeout.expire();
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    /**
+     * A scheduled task.
+     */
+    static final class Timeout {
+
+        private final Runnable task;
+        private final long deadlineNanos;
+        private final AtomicBoolean done = new AtomicBoolean();
+
+        /**
+         * The amount of wheel rotations left before the task runs, only accessed by the worker thread.
+         */
+        private long remainingRounds;
+
+        private Timeout(final Runnable task, final long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        /**
+         * Cancels the task.
+         *
+         * @return Whether the task was cancelled, false if it already ran or was cancelled before.
+         */
+        boolean cancel() {
+            return done.compareAndSet(false, true);
+        }
+
+        private boolean isCancelled() {
+            return done.get();
+        }
+
+        private void expire() {
+            if (done.compareAndSet(false, true)) {
+                try {
+                    task.run();
+                } catch (Throwable t) {
+                    LOGGER.error("Unhandled exception in a timer task", t);
+                }
+            }
+        }
+    }
+}
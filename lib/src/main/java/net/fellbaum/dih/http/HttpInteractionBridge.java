@@ -0,0 +1,43 @@
+package net.fellbaum.dih.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Handles the interactions received by an {@link InteractionEndpoint}.
+ * <p>
+ * Javacord cannot create its interaction objects from the JSON of a webhook interaction, so interactions received
+ * over HTTP cannot be passed to
+ * {@link net.fellbaum.dih.handler.InteractionHandler#handleInteraction(org.javacord.api.interaction.InteractionBase)},
+ * and commands and components answering through the responders of Javacord cannot answer them. Commands and
+ * components implementing {@link RawInteractionResponder} answer them from the {@link RawInteraction} instead, with
+ * the bridge of {@link #dispatchingToTargets(HttpInteractionBridge)} and the pre-router of the endpoint resolving
+ * the command or component. Other bridges have to create the response themselves, for example with another Discord
+ * library.
+ */
+@FunctionalInterface
+public interface HttpInteractionBridge {
+
+    /**
+     * Handles an interaction.
+     *
+     * @param interaction The verified interaction.
+     * @return A future completing with the JSON of the interaction response, which is returned in the HTTP response.
+     * If it does not complete in time, the endpoint defers the response and the interaction has to be answered with
+     * a follow-up instead.
+     */
+    CompletableFuture<String> handle(RawInteraction interaction);
+
+    /**
+     * Creates a bridge which passes every interaction to the command or component the pre-router of the endpoint
+     * resolved it to, if that implements {@link RawInteractionResponder}.
+     *
+     * @param fallback Handles the interactions which were not resolved to a {@link RawInteractionResponder}.
+     * @return The bridge.
+     * @see InteractionEndpoint#setPreRouter(net.fellbaum.dih.handler.InteractionPreRouter)
+     */
+    static HttpInteractionBridge dispatchingToTargets(final HttpInteractionBridge fallback) {
+        return interaction -> interaction.getTarget().orElse(null) instanceof RawInteractionResponder responder
+                ? responder.respondToRawInteraction(interaction)
+                : fallback.handle(interaction);
+    }
+}
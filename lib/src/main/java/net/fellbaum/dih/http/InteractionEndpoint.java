@@ -0,0 +1,332 @@
+package net.fellbaum.dih.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import net.fellbaum.dih.handler.InteractionPreRouter;
+import net.fellbaum.dih.handler.PreRoutedInteraction;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Receives interactions over HTTP, the outgoing webhook mode of Discord, so interactions can be handled by stateless
+ * nodes behind a load balancer without a gateway connection.
+ * <p>
+ * Every request is verified with the public key of the application and answered with {@code 401} if its signature
+ * is invalid. Discord's {@code PING} is answered by the endpoint itself, every other interaction is passed to the
+ * {@link HttpInteractionBridge} and its response returned in the HTTP response. If the bridge does not respond within
+ * the response timeout, the endpoint defers the response so Discord does not fail the interaction.
+ * <p>
+ * The endpoint uses the HTTP server of the JDK and its own JSON parser, so it has no further dependencies.
+ */
+public final class InteractionEndpoint implements AutoCloseable {
+
+    private static final Logger LOGGER = LogManager.getLogger(InteractionEndpoint.class);
+
+    private static final String PONG = "{\"type\":1}";
+    private static final String DEFERRED_CHANNEL_MESSAGE = "{\"type\":5}";
+    private static final String DEFERRED_UPDATE_MESSAGE = "{\"type\":6}";
+    private static final String NO_AUTOCOMPLETE_CHOICES = "{\"type\":8,\"data\":{\"choices\":[]}}";
+
+    private final InetSocketAddress address;
+    private final InteractionSignatureVerifier verifier;
+    private final HttpInteractionBridge bridge;
+
+    private String path = "/interactions";
+    private Duration responseTimeout = Duration.ofMillis(2500);
+    private Duration maximumTimestampAge;
+    private int maximumBodySize = 1 << 20;
+    private Executor executor;
+    private InteractionPreRouter preRouter;
+    private String unmatchedResponse = "{\"type\":4,\"data\":{\"content\":\"This interaction is not available.\",\"flags\":64}}";
+
+    private HttpServer server;
+
+    /**
+     * Creates an endpoint.
+     *
+     * @param address   The address to listen on, for example {@code new InetSocketAddress(8080)}.
+     * @param publicKey The public key of the application shown in the Discord developer portal, hex encoded.
+     * @param bridge    Handles the received interactions.
+     */
+    public InteractionEndpoint(final InetSocketAddress address, final String publicKey, final HttpInteractionBridge bridge) {
+        this.address = address;
+        this.verifier = new InteractionSignatureVerifier(publicKey);
+        this.bridge = bridge;
+    }
+
+    /**
+     * Sets the path of the endpoint, which has to match the interactions endpoint URL of the application.
+     * Defaults to {@code /interactions}.
+     *
+     * @param path The path.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setPath(final String path) {
+        this.path = path;
+        return this;
+    }
+
+    /**
+     * Sets how long to wait for the response of the bridge before deferring it. Discord fails interactions which are
+     * not answered within 3 seconds. Defaults to 2.5 seconds.
+     *
+     * @param responseTimeout The timeout.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setResponseTimeout(final Duration responseTimeout) {
+        this.responseTimeout = responseTimeout;
+        return this;
+    }
+
+    /**
+     * Rejects requests whose signed timestamp is older than the given age, so captured requests cannot be replayed
+     * later. Disabled by default.
+     *
+     * @param maximumTimestampAge The maximum age or {@code null} to accept any timestamp.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setMaximumTimestampAge(final Duration maximumTimestampAge) {
+        this.maximumTimestampAge = maximumTimestampAge;
+        return this;
+    }
+
+    /**
+     * Sets the maximum size of a request body. Defaults to 1 MiB.
+     *
+     * @param maximumBodySize The maximum size in bytes.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setMaximumBodySize(final int maximumBodySize) {
+        if (maximumBodySize <= 0) {
+            throw new IllegalArgumentException("The maximum body size must be positive");
+        }
+        this.maximumBodySize = maximumBodySize;
+        return this;
+    }
+
+    /**
+     * Sets the executor reading and verifying the requests. Defaults to the thread of the HTTP server.
+     *
+     * @param executor The executor.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setExecutor(final Executor executor) {
+        this.executor = executor;
+        return this;
+    }
+
+    /**
+     * Resolves the command or component of every interaction from the raw request body before parsing it. Interactions
+     * which match no command or component are answered with the unmatched response without parsing them or calling
+     * the bridge.
+     *
+     * @param preRouter The pre-router or {@code null} to pass all interactions to the bridge.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setPreRouter(final InteractionPreRouter preRouter) {
+        this.preRouter = preRouter;
+        return this;
+    }
+
+    /**
+     * Sets the interaction response to interactions the pre-router dropped. Defaults to an ephemeral message.
+     * Dropped autocomplete interactions, which cannot be answered with a message, are answered without choices.
+     *
+     * @param unmatchedResponse The JSON of the interaction response.
+     * @return The current instance to chain methods.
+     */
+    public InteractionEndpoint setUnmatchedResponse(final String unmatchedResponse) {
+        this.unmatchedResponse = unmatchedResponse;
+        return this;
+    }
+
+    /**
+     * Starts listening for requests.
+     *
+     * @return The current instance to chain methods.
+     * @throws IOException If the address could not be bound.
+     */
+    public synchronized InteractionEndpoint start() throws IOException {
+        if (server != null) {
+            throw new IllegalStateException("The endpoint was already started");
+        }
+        server = HttpServer.create(address, 0);
+        server.createContext(path, this::handle);
+        server.setExecutor(executor);
+        server.start();
+        LOGGER.info("Listening for interactions on {}{}", server.getAddress(), path);
+        return this;
+    }
+
+    /**
+     * Gets the port the endpoint listens on, which is useful if it was started on port 0.
+     *
+     * @return The port.
+     */
+    public synchronized int getPort() {
+        if (server == null) {
+            throw new IllegalStateException("The endpoint is not started");
+        }
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops listening for requests.
+     */
+    @Override
+    public synchronized void close() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException {
+        try {
+            if (!"POST".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().add("Allow", "POST");
+                send(exchange, 405, null);
+                return;
+            }
+            final byte[] body = readBody(exchange.getRequestBody());
+            if (body == null) {
+                send(exchange, 413, null);
+                return;
+            }
+            final String signature = exchange.getRequestHeaders().getFirst("X-Signature-Ed25519");
+            final String timestamp = exchange.getRequestHeaders().getFirst("X-Signature-Timestamp");
+            if (!verifier.verify(signature, timestamp, body) || !isRecent(timestamp)) {
+                LOGGER.debug("Rejecting an interaction request with an invalid signature from {}", exchange.getRemoteAddress());
+                send(exchange, 401, null);
+                return;
+            }
+
+            final RawInteraction interaction;
+            final PreRoutedInteraction preRouted;
+            try {
+                preRouted = preRouter == null ? null : preRouter.route(body);
+                if (preRouted != null && preRouted.getType() == RawInteraction.PING) {
+                    send(exchange, 200, PONG);
+                    return;
+                } else if (preRouted != null && preRouted.isUnmatched()) {
+                    send(exchange, 200, preRouted.getType() == RawInteraction.APPLICATION_COMMAND_AUTOCOMPLETE
+                            ? NO_AUTOCOMPLETE_CHOICES : unmatchedResponse);
+                    return;
+                }
+                interaction = new RawInteraction(new String(body, StandardCharsets.UTF_8));
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Rejecting an interaction request with an invalid body", e);
+                send(exchange, 400, null);
+                return;
+            }
+            if (interaction.getType() == RawInteraction.PING) {
+                send(exchange, 200, PONG);
+                return;
+            }
+            if (preRouted != null) {
+                preRouted.getTarget().ifPresent(interaction::setTarget);
+            }
+            respond(exchange, interaction);
+        } catch (IOException | RuntimeException e) {
+            LOGGER.warn("Could not handle an interaction request", e);
+            exchange.close();
+        }
+    }
+
+    /**
+     * Responds with the response of the bridge, or defers the response if the bridge does not respond in time.
+     */
+    private void respond(final HttpExchange exchange, final RawInteraction interaction) {
+        CompletableFuture<String> response;
+        try {
+            response = bridge.handle(interaction);
+        } catch (RuntimeException e) {
+            response = CompletableFuture.failedFuture(e);
+        }
+        if (response == null) {
+            response = CompletableFuture.completedFuture(null);
+        }
+        // A copy, so the bridge does not see its own future completed by the timeout
+        response.copy()
+                .completeOnTimeout(null, responseTimeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((json, throwable) -> {
+                    try {
+                        if (throwable != null) {
+                            LOGGER.warn("Could not handle the interaction {}", interaction.getId(), throwable);
+                            send(exchange, 500, null);
+                        } else {
+                            send(exchange, 200, json != null ? json : deferredResponse(interaction.getType()));
+                        }
+                    } catch (IOException e) {
+                        LOGGER.warn("Could not send the response of the interaction {}", interaction.getId(), e);
+                        exchange.close();
+                    }
+                });
+    }
+
+    private boolean isRecent(final String timestamp) {
+        if (maximumTimestampAge == null) {
+            return true;
+        }
+        try {
+            final long ageSeconds = System.currentTimeMillis() / 1000 - Long.parseLong(timestamp);
+            return ageSeconds <= maximumTimestampAge.toSeconds();
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String deferredResponse(final int type) {
+        return switch (type) {
+            case RawInteraction.MESSAGE_COMPONENT -> DEFERRED_UPDATE_MESSAGE;
+            case RawInteraction.APPLICATION_COMMAND_AUTOCOMPLETE -> NO_AUTOCOMPLETE_CHOICES;
+            default -> DEFERRED_CHANNEL_MESSAGE;
+        };
+    }
+
+    /**
+     * Reads the request body.
+     *
+     * @param input The body.
+     * @return The bytes or {@code null} if the body is larger than the maximum size.
+     */
+    private byte[] readBody(final InputStream input) throws IOException {
+        try (input) {
+            final ByteArrayOutputStream body = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[8192];
+            int read;
+            while ((read = input.read(buffer)) >= 0) {
+                if (body.size() + read > maximumBodySize) {
+                    return null;
+                }
+                body.write(buffer, 0, read);
+            }
+            return body.toByteArray();
+        }
+    }
+
+    private static void send(final HttpExchange exchange, final int status, final String json) throws IOException {
+        if (json == null) {
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        final byte[] response = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, response.length);
+        try (OutputStream output = exchange.getResponseBody()) {
+            output.write(response);
+        }
+    }
+}
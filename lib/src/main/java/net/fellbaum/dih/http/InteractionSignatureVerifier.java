@@ -0,0 +1,74 @@
+package net.fellbaum.dih.http;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.HexFormat;
+
+/**
+ * Verifies the Ed25519 signature Discord sends with every interaction delivered to an HTTP endpoint.
+ * The signed message is the value of the {@code X-Signature-Timestamp} header followed by the raw request body.
+ */
+public final class InteractionSignatureVerifier {
+
+    /**
+     * The DER prefix turning a raw 32 byte Ed25519 public key into an X.509 encoded key.
+     */
+    private static final byte[] X509_PREFIX = HexFormat.of().parseHex("302a300506032b6570032100");
+
+    private static final int KEY_LENGTH = 32;
+    private static final int SIGNATURE_LENGTH = 64;
+
+    private final PublicKey publicKey;
+
+    /**
+     * Creates a verifier for the public key of an application.
+     *
+     * @param publicKey The public key shown in the Discord developer portal, hex encoded.
+     */
+    public InteractionSignatureVerifier(final String publicKey) {
+        final byte[] rawKey;
+        try {
+            rawKey = HexFormat.of().parseHex(publicKey);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("The public key must be hex encoded", e);
+        }
+        if (rawKey.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("The public key must be 32 bytes long");
+        }
+        final byte[] encoded = new byte[X509_PREFIX.length + KEY_LENGTH];
+        System.arraycopy(X509_PREFIX, 0, encoded, 0, X509_PREFIX.length);
+        System.arraycopy(rawKey, 0, encoded, X509_PREFIX.length, KEY_LENGTH);
+        try {
+            this.publicKey = KeyFactory.getInstance("Ed25519").generatePublic(new X509EncodedKeySpec(encoded));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Ed25519 is not supported by this JVM", e);
+        }
+    }
+
+    /**
+     * Verifies the signature of a request.
+     *
+     * @param signature The value of the {@code X-Signature-Ed25519} header.
+     * @param timestamp The value of the {@code X-Signature-Timestamp} header.
+     * @param body      The raw request body.
+     * @return Whether the request was signed by Discord.
+     */
+    public boolean verify(final String signature, final String timestamp, final byte[] body) {
+        if (signature == null || timestamp == null || signature.length() != SIGNATURE_LENGTH * 2) {
+            return false;
+        }
+        try {
+            final Signature verifier = Signature.getInstance("Ed25519");
+            verifier.initVerify(publicKey);
+            verifier.update(timestamp.getBytes(StandardCharsets.UTF_8));
+            verifier.update(body);
+            return verifier.verify(HexFormat.of().parseHex(signature));
+        } catch (IllegalArgumentException | GeneralSecurityException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package net.fellbaum.dih.http;
+
+import net.fellbaum.dih.interaction.Interaction;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalLong;
+
+/**
+ * An interaction received by an {@link InteractionEndpoint}, consisting of the raw request body and its parsed JSON.
+ */
+public final class RawInteraction {
+
+    /**
+     * The type of the interaction Discord sends to verify the endpoint.
+     */
+    public static final int PING = 1;
+
+    /**
+     * The type of slash command and context menu interactions.
+     */
+    public static final int APPLICATION_COMMAND = 2;
+
+    /**
+     * The type of button and select menu interactions.
+     */
+    public static final int MESSAGE_COMPONENT = 3;
+
+    /**
+     * The type of autocomplete interactions.
+     */
+    public static final int APPLICATION_COMMAND_AUTOCOMPLETE = 4;
+
+    /**
+     * The type of modal interactions.
+     */
+    public static final int MODAL_SUBMIT = 5;
+
+    private final String body;
+    private final Map<String, Object> json;
+    private Interaction target;
+
+    /**
+     * Creates an interaction from the body of a request.
+     *
+     * @param body The JSON body.
+     * @throws IllegalArgumentException If the body is not a JSON object with a type.
+     */
+    @SuppressWarnings("unchecked")
+    RawInteraction(final String body) {
+        final Object parsed = Json.parse(body);
+        if (!(parsed instanceof Map<?, ?> map) || !(map.get("type") instanceof Long)) {
+            throw new IllegalArgumentException("The body is not an interaction");
+        }
+        this.body = body;
+        this.json = (Map<String, Object>) map;
+    }
+
+    /**
+     * Parses an interaction, for example a sample payload in a test.
+     *
+     * @param body The JSON body.
+     * @return The interaction.
+     * @throws IllegalArgumentException If the body is not a JSON object with a type.
+     */
+    public static RawInteraction parse(final String body) {
+        return new RawInteraction(body);
+    }
+
+    /**
+     * Gets the type of the interaction, for example {@link #APPLICATION_COMMAND}.
+     *
+     * @return The type.
+     */
+    public int getType() {
+        return ((Long) json.get("type")).intValue();
+    }
+
+    /**
+     * Gets the id of the interaction.
+     *
+     * @return The id.
+     */
+    public String getId() {
+        return (String) json.get("id");
+    }
+
+    /**
+     * Gets the token to respond to the interaction with follow-ups.
+     *
+     * @return The token.
+     */
+    public String getToken() {
+        return (String) json.get("token");
+    }
+
+    /**
+     * Gets the id of the application the interaction is for.
+     *
+     * @return The id of the application.
+     */
+    public String getApplicationId() {
+        return (String) json.get("application_id");
+    }
+
+    /**
+     * Gets the id of the server the interaction was sent from.
+     *
+     * @return The id of the server, empty for direct messages or if it is not a valid snowflake.
+     */
+    public OptionalLong getServerId() {
+        if (!(json.get("guild_id") instanceof String id)) {
+            return OptionalLong.empty();
+        }
+        try {
+            return OptionalLong.of(Long.parseLong(id));
+        } catch (NumberFormatException e) {
+            return OptionalLong.empty();
+        }
+    }
+
+    /**
+     * Gets the name of the invoked command of an application command or autocomplete interaction.
+     *
+     * @return The name of the command.
+     */
+    public Optional<String> getCommandName() {
+        return getDataString("name");
+    }
+
+    /**
+     * Gets the custom id of a message component or modal submit interaction.
+     *
+     * @return The custom id.
+     */
+    public Optional<String> getCustomId() {
+        return getDataString("custom_id");
+    }
+
+    /**
+     * Gets the command or component the {@link net.fellbaum.dih.handler.InteractionPreRouter} of the endpoint resolved
+     * the interaction to.
+     *
+     * @return The command or component, empty if the endpoint has no pre-router or it could not resolve it.
+     */
+    public Optional<Interaction> getTarget() {
+        return Optional.ofNullable(target);
+    }
+
+    void setTarget(final Interaction target) {
+        this.target = target;
+    }
+
+    /**
+     * Gets the parsed JSON of the interaction. Objects are {@link Map}s, arrays are {@link java.util.List}s, integral
+     * numbers are {@link Long}s and other numbers are {@link Double}s.
+     *
+     * @return The JSON object.
+     */
+    public Map<String, Object> getJson() {
+        return json;
+    }
+
+    /**
+     * Gets the raw request body.
+     *
+     * @return The body.
+     */
+    public String getBody() {
+        return body;
+    }
+
+    private Optional<String> getDataString(final String name) {
+        return json.get("data") instanceof Map<?, ?> data && data.get(name) instanceof String value
+                ? Optional.of(value)
+                : Optional.empty();
+    }
+}
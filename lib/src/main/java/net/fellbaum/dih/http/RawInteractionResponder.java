@@ -0,0 +1,23 @@
+package net.fellbaum.dih.http;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A command or component which answers interactions received by an {@link InteractionEndpoint} from their raw JSON,
+ * without an interaction object of a Discord library.
+ * <p>
+ * Interactions the pre-router of the endpoint resolved to a command or component implementing this interface are
+ * answered by it through the bridge of {@link HttpInteractionBridge#dispatchingToTargets(HttpInteractionBridge)}.
+ */
+@FunctionalInterface
+public interface RawInteractionResponder {
+
+    /**
+     * Answers an interaction received over HTTP.
+     *
+     * @param interaction The verified interaction.
+     * @return A future completing with the JSON of the interaction response, which is returned in the HTTP response,
+     * or with {@code null} to defer the response.
+     */
+    CompletableFuture<String> respondToRawInteraction(RawInteraction interaction);
+}
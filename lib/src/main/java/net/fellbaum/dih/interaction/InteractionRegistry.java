@@ -0,0 +1,30 @@
+package net.fellbaum.dih.interaction;
+
+import java.util.List;
+
+/**
+ * The commands and components of a bot, known without scanning the classpath.
+ * <p>
+ * The {@code dih-processor} annotation processor generates an implementation for all classes annotated with
+ * {@link RegisterInteraction}, which creates them with plain constructor calls and therefore needs no reflection,
+ * neither at startup nor in a native image.
+ *
+ * @see net.fellbaum.dih.handler.SimpleInteractionHandler#registerInteractions(InteractionRegistry)
+ * @see net.fellbaum.dih.handler.ComplexInteractionHandler#registerGlobalInteractions(InteractionRegistry)
+ */
+public interface InteractionRegistry {
+
+    /**
+     * Gets the classes of the commands and components.
+     *
+     * @return The classes in the order their instances are created.
+     */
+    List<Class<? extends Interaction>> getInteractionClasses();
+
+    /**
+     * Creates a new instance of every command and component.
+     *
+     * @return The interactions.
+     */
+    List<Interaction> createInteractions();
+}
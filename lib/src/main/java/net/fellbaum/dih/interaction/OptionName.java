@@ -0,0 +1,27 @@
+package net.fellbaum.dih.interaction;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a record component to the slash command option or modal text input with the given name instead of the name of
+ * the component, for example to bind {@code userId} to the option {@code user-id}.
+ *
+ * @see net.fellbaum.dih.interaction.applicationcommand.SlashCommandOptionBinder
+ * @see net.fellbaum.dih.interaction.component.ModalInputBinder
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.RECORD_COMPONENT)
+public @interface OptionName {
+
+    /**
+     * The name of the slash command option or the custom id of the modal text input.
+     *
+     * @return The name.
+     */
+    String value();
+}
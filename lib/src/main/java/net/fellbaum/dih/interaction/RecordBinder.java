@@ -0,0 +1,197 @@
+package net.fellbaum.dih.interaction;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Creates records from values bound to their components by name, the shared part of the
+ * {@link net.fellbaum.dih.interaction.applicationcommand.SlashCommandOptionBinder} and the
+ * {@link net.fellbaum.dih.interaction.component.ModalInputBinder}.
+ * <p>
+ * The components of the record and its canonical constructor are looked up once, creating a record only invokes the
+ * constructor through a method handle. A component is bound to the name of the component or its {@link OptionName}.
+ * Components of type {@link Optional} receive an empty optional for missing values, other reference types receive
+ * {@code null}.
+ *
+ * @param <R> The type of the record.
+ */
+public final class RecordBinder<R extends Record> {
+
+    private final Class<R> type;
+    private final String[] names;
+    private final Class<?>[] valueTypes;
+    private final boolean[] optionals;
+    private final boolean[] primitives;
+
+    /**
+     * The canonical constructor taking the values as one array.
+     */
+    private final MethodHandle constructor;
+
+    private RecordBinder(final Class<R> type) {
+        final RecordComponent[] components = type.getRecordComponents();
+        if (components == null) {
+            throw new IllegalArgumentException(type.getName() + " is not a record");
+        }
+        this.type = type;
+        this.names = new String[components.length];
+        this.valueTypes = new Class<?>[components.length];
+        this.optionals = new boolean[components.length];
+        this.primitives = new boolean[components.length];
+        final Class<?>[] parameterTypes = new Class<?>[components.length];
+        final Set<String> boundNames = new HashSet<>();
+        for (int i = 0; i < components.length; i++) {
+            final RecordComponent component = components[i];
+            final OptionName optionName = component.getAnnotation(OptionName.class);
+            names[i] = optionName == null ? component.getName() : optionName.value();
+            if (!boundNames.add(names[i])) {
+                throw new IllegalArgumentException("The name " + names[i] + " is bound to more than one component of " + type.getName());
+            }
+            parameterTypes[i] = component.getType();
+            optionals[i] = component.getType() == Optional.class;
+            primitives[i] = component.getType().isPrimitive();
+            valueTypes[i] = optionals[i] ? optionalValueType(type, component) : MethodType.methodType(component.getType()).wrap().returnType();
+        }
+
+        try {
+            final Constructor<R> canonicalConstructor = type.getDeclaredConstructor(parameterTypes);
+            canonicalConstructor.setAccessible(true);
+            this.constructor = MethodHandles.lookup().unreflectConstructor(canonicalConstructor)
+                    .asSpreader(Object[].class, components.length)
+                    .asType(MethodType.methodType(Object.class, Object[].class));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            throw new IllegalArgumentException("Could not access the canonical constructor of " + type.getName(), e);
+        }
+    }
+
+    /**
+     * Creates a binder for a record.
+     *
+     * @param type The type of the record.
+     * @param <R>  The type of the record.
+     * @return The binder.
+     * @throws IllegalArgumentException If the type is not a record, two components have the same name, an optional
+     *                                  component has no concrete type argument or the constructor is not accessible.
+     */
+    public static <R extends Record> RecordBinder<R> of(final Class<R> type) {
+        return new RecordBinder<>(type);
+    }
+
+    private static Class<?> optionalValueType(final Class<?> type, final RecordComponent component) {
+        final Type genericType = component.getGenericType();
+        if (genericType instanceof ParameterizedType parameterizedType
+                && parameterizedType.getActualTypeArguments()[0] instanceof Class<?> valueType) {
+            return valueType;
+        }
+        throw new IllegalArgumentException("The optional component " + component.getName() + " of " + type.getName()
+                + " needs a concrete type argument");
+    }
+
+    /**
+     * Gets the type of the record.
+     *
+     * @return The type.
+     */
+    public Class<R> getType() {
+        return type;
+    }
+
+    /**
+     * Gets the amount of components.
+     *
+     * @return The amount of components.
+     */
+    public int size() {
+        return names.length;
+    }
+
+    /**
+     * Gets the name a component is bound to.
+     *
+     * @param index The index of the component.
+     * @return The name.
+     */
+    public String getName(final int index) {
+        return names[index];
+    }
+
+    /**
+     * Gets the index of the component bound to a name.
+     *
+     * @param name The name.
+     * @return The index or {@code -1} if no component is bound to the name.
+     */
+    public int indexOf(final String name) {
+        for (int i = 0; i < names.length; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the type of the values of a component: the type argument of optional components and the wrapper type of
+     * primitive components.
+     *
+     * @param index The index of the component.
+     * @return The type of the values.
+     */
+    public Class<?> getValueType(final int index) {
+        return valueTypes[index];
+    }
+
+    /**
+     * Checks whether a component is an {@link Optional}.
+     *
+     * @param index The index of the component.
+     * @return Whether the component is optional.
+     */
+    public boolean isOptional(final int index) {
+        return optionals[index];
+    }
+
+    /**
+     * Checks whether a component has a primitive type and therefore always needs a value.
+     *
+     * @param index The index of the component.
+     * @return Whether the component is primitive.
+     */
+    public boolean isPrimitive(final int index) {
+        return primitives[index];
+    }
+
+    /**
+     * Creates a record. The values of optional components are wrapped into optionals in place.
+     *
+     * @param values The values of the components in their order, {@code null} for missing values.
+     * @return The record.
+     * @throws IllegalArgumentException If a primitive component has no value.
+     */
+    @SuppressWarnings("unchecked")
+    public R create(final Object[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (optionals[i]) {
+                values[i] = Optional.ofNullable(values[i]);
+            } else if (primitives[i] && values[i] == null) {
+                throw new IllegalArgumentException("Missing a value for " + names[i] + " of " + type.getSimpleName());
+            }
+        }
+        try {
+            final Object record = constructor.invokeExact(values);
+            return (R) record;
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new IllegalStateException("Could not create " + type.getSimpleName(), t);
+        }
+    }
+}
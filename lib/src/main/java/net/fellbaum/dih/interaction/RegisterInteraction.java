@@ -0,0 +1,18 @@
+package net.fellbaum.dih.interaction;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Adds a command or component to the {@link InteractionRegistry} generated at compile time by the {@code dih-processor}
+ * annotation processor. The class has to be a public, non-abstract {@link Interaction} with a public constructor
+ * without parameters. Nested classes have to be static.
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface RegisterInteraction {
+}
@@ -0,0 +1,307 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.BiPredicate;
+
+/**
+ * An immutable index over a static list of autocomplete choices, matching the typed value case-insensitively
+ * against the names of the choices.
+ * <p>
+ * The case-folded names are sorted once when the index is created, so the choices starting with the typed value are
+ * found with a binary search and returned in alphabetical order. Optionally, choices containing the typed value are
+ * added after them, ranked by how early the value occurs in their name. At most {@value #MAX_CHOICES} choices are
+ * selected without sorting the matches. A lookup allocates the returned list, which is a view of the index, and when
+ * substrings are matched, an array of the positions of at most {@value #MAX_CHOICES} substring matches.
+ *
+ * <pre>{@code
+ * bindAutocomplete("timezone", AutocompleteChoiceIndex.ofNames(ZoneId.getAvailableZoneIds(), true));
+ * }</pre>
+ */
+public final class AutocompleteChoiceIndex implements AutocompleteChoiceProvider {
+
+    /**
+     * The case-folded names of the choices in ascending order.
+     */
+    private final String[] foldedNames;
+
+    /**
+     * The choices in the same order as their folded names.
+     */
+    private final SlashCommandOptionChoice[] choices;
+
+    /**
+     * Whether choices containing the typed value are matched after the choices starting with it.
+     */
+    private final boolean matchSubstrings;
+
+    private AutocompleteChoiceIndex(final Collection<SlashCommandOptionChoice> choices, final boolean matchSubstrings) {
+        final SlashCommandOptionChoice[] unsorted = choices.toArray(new SlashCommandOptionChoice[0]);
+        final String[] unsortedFoldedNames = new String[unsorted.length];
+        final Integer[] order = new Integer[unsorted.length];
+        for (int i = 0; i < unsorted.length; i++) {
+            unsortedFoldedNames[i] = fold(unsorted[i].getName());
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparing((Integer i) -> unsortedFoldedNames[i]).thenComparing(i -> unsorted[i].getName()));
+
+        this.foldedNames = new String[unsorted.length];
+        this.choices = new SlashCommandOptionChoice[unsorted.length];
+        for (int i = 0; i < order.length; i++) {
+            this.foldedNames[i] = unsortedFoldedNames[order[i]];
+            this.choices[i] = unsorted[order[i]];
+        }
+        this.matchSubstrings = matchSubstrings;
+    }
+
+    /**
+     * Creates a new index over the given choices.
+     *
+     * @param choices         The choices.
+     * @param matchSubstrings Whether choices containing the typed value are matched after the choices starting with it.
+     * @return The index.
+     */
+    public static AutocompleteChoiceIndex ofChoices(final Collection<SlashCommandOptionChoice> choices, final boolean matchSubstrings) {
+        return new AutocompleteChoiceIndex(choices, matchSubstrings);
+    }
+
+    /**
+     * Creates a new index over choices whose value is their name.
+     *
+     * @param names           The names of the choices.
+     * @param matchSubstrings Whether choices containing the typed value are matched after the choices starting with it.
+     * @return The index.
+     */
+    public static AutocompleteChoiceIndex ofNames(final Collection<String> names, final boolean matchSubstrings) {
+        final List<SlashCommandOptionChoice> choices = new ArrayList<>(names.size());
+        for (final String name : names) {
+            choices.add(SlashCommandOptionChoice.create(name, name));
+        }
+        return new AutocompleteChoiceIndex(choices, matchSubstrings);
+    }
+
+    @Override
+    public List<SlashCommandOptionChoice> getChoices(final AutocompleteInteraction interaction) {
+        return search(interaction.getFocusedOption().getStringRepresentationValue().orElse(""));
+    }
+
+    /**
+     * The choices for a longer value are the choices for a shorter start of it which start with the longer value,
+     * as long as choices containing the value are not matched.
+     *
+     * @return The filter or {@code null} if substrings are matched.
+     */
+    @Override
+    public BiPredicate<SlashCommandOptionChoice, String> getRefinementFilter() {
+        return matchSubstrings ? null : (choice, value) -> startsWithFolded(choice.getName(), value);
+    }
+
+    /**
+     * Searches the choices matching the typed value.
+     *
+     * @param value The typed value.
+     * @return At most {@value #MAX_CHOICES} choices, the ones starting with the value first.
+     */
+    public List<SlashCommandOptionChoice> search(final String value) {
+        final int first = lowerBound(value);
+        int prefixMatches = 0;
+        while (prefixMatches < MAX_CHOICES && first + prefixMatches < foldedNames.length
+                && regionMatchesFolded(foldedNames[first + prefixMatches], 0, value)) {
+            prefixMatches++;
+        }
+
+        if (!matchSubstrings || prefixMatches == MAX_CHOICES || value.isEmpty()) {
+            return new Matches(choices, first, prefixMatches, null, 0);
+        }
+
+        // Keeps the best substring matches ordered by their position and index, packed as (position << 32 | index)
+        final long[] best = new long[MAX_CHOICES - prefixMatches];
+        int bestCount = 0;
+        for (int i = 0; i < foldedNames.length; i++) {
+            final int position = indexOfFolded(foldedNames[i], value);
+            if (position <= 0) {
+                continue;
+            }
+            final long candidate = ((long) position << 32) | i;
+            if (bestCount == best.length) {
+                if (candidate >= best[bestCount - 1]) {
+                    continue;
+                }
+                bestCount--;
+            }
+            int insertAt = bestCount++;
+            while (insertAt > 0 && best[insertAt - 1] > candidate) {
+                best[insertAt] = best[insertAt - 1];
+                insertAt--;
+            }
+            best[insertAt] = candidate;
+        }
+
+        return new Matches(choices, first, prefixMatches, best, bestCount);
+    }
+
+    /**
+     * Gets the amount of indexed choices.
+     *
+     * @return The amount of choices.
+     */
+    public int size() {
+        return choices.length;
+    }
+
+    /**
+     * Finds the first folded name which is not less than the value.
+     *
+     * @param value The typed value.
+     * @return The index of the name, or the amount of names if all are less.
+     */
+    private int lowerBound(final String value) {
+        int low = 0;
+        int high = foldedNames.length;
+        while (low < high) {
+            final int mid = (low + high) >>> 1;
+            if (compareFolded(foldedNames[mid], value) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Compares a folded name with the value as if the value was folded too.
+     *
+     * @param foldedName The folded name.
+     * @param value      The typed value.
+     * @return A negative number, zero or a positive number if the name is less than, equal to or greater than the value.
+     */
+    private static int compareFolded(final String foldedName, final String value) {
+        final int length = Math.min(foldedName.length(), value.length());
+        for (int i = 0; i < length; i++) {
+            final char a = foldedName.charAt(i);
+            final char b = fold(value.charAt(i));
+            if (a != b) {
+                return a - b;
+            }
+        }
+        return foldedName.length() - value.length();
+    }
+
+    /**
+     * Finds the first occurrence of the value in a folded name.
+     *
+     * @param foldedName The folded name.
+     * @param value      The typed value.
+     * @return The position of the value in the name or -1 if the name does not contain it.
+     */
+    private static int indexOfFolded(final String foldedName, final String value) {
+        final int last = foldedName.length() - value.length();
+        for (int position = 0; position <= last; position++) {
+            if (regionMatchesFolded(foldedName, position, value)) {
+                return position;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the value occurs at the given position of a folded name.
+     *
+     * @param foldedName The folded name.
+     * @param position   The position in the name.
+     * @param value      The typed value.
+     * @return Whether the value occurs at the position.
+     */
+    private static boolean regionMatchesFolded(final String foldedName, final int position, final String value) {
+        if (position + value.length() > foldedName.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (foldedName.charAt(position + i) != fold(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether a name starts with the value, ignoring the case of both.
+     *
+     * @param name  The name.
+     * @param value The typed value.
+     * @return Whether the name starts with the value.
+     */
+    private static boolean startsWithFolded(final String name, final String value) {
+        if (value.length() > name.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (fold(name.charAt(i)) != fold(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String fold(final String name) {
+        final char[] folded = new char[name.length()];
+        for (int i = 0; i < folded.length; i++) {
+            folded[i] = fold(name.charAt(i));
+        }
+        return new String(folded);
+    }
+
+    private static char fold(final char c) {
+        return Character.toLowerCase(Character.toUpperCase(c));
+    }
+
+    /**
+     * An unmodifiable view of the choices matching a value, the prefix matches followed by the substring matches.
+     */
+    private static final class Matches extends AbstractList<SlashCommandOptionChoice> implements RandomAccess {
+
+        private final SlashCommandOptionChoice[] choices;
+        private final int first;
+        private final int prefixMatches;
+
+        /**
+         * The substring matches packed as (position << 32 | index), {@code null} if there are none.
+         */
+        private final long[] substringMatches;
+        private final int substringMatchCount;
+
+        private Matches(final SlashCommandOptionChoice[] choices, final int first, final int prefixMatches,
+                        final long[] substringMatches, final int substringMatchCount) {
+            this.choices = choices;
+            this.first = first;
+            this.prefixMatches = prefixMatches;
+            this.substringMatches = substringMatches;
+            this.substringMatchCount = substringMatchCount;
+        }
+
+        @Override
+        public SlashCommandOptionChoice get(final int index) {
+            if (index < 0 || index >= size()) {
+                throw new IndexOutOfBoundsException("Index " + index + " out of bounds for length " + size());
+            }
+            if (index < prefixMatches) {
+                return choices[first + index];
+            }
+            return choices[(int) substringMatches[index - prefixMatches]];
+        }
+
+        @Override
+        public int size() {
+            return prefixMatches + substringMatchCount;
+        }
+    }
+}
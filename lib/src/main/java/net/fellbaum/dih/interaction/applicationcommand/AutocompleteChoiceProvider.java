@@ -0,0 +1,43 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+
+/**
+ * Provides the autocomplete choices of a slash command option.
+ *
+ * @see SlashCommand#bindAutocomplete(String, AutocompleteChoiceProvider)
+ */
+@FunctionalInterface
+public interface AutocompleteChoiceProvider {
+
+    /**
+     * The maximum amount of choices Discord accepts in an autocomplete response.
+     */
+    int MAX_CHOICES = 25;
+
+    /**
+     * Gets the choices for the current value of the focused option.
+     * If the interaction handler caches autocomplete results, the choices may only depend on the command,
+     * the focused option, its value and, if the cache is per server, the server.
+     *
+     * @param interaction The autocomplete interaction.
+     * @return At most {@value #MAX_CHOICES} choices.
+     */
+    List<SlashCommandOptionChoice> getChoices(AutocompleteInteraction interaction);
+
+    /**
+     * Gets the filter this provider selects its choices with, if the choices for a value are exactly all choices
+     * for a shorter start of the value which pass the filter, in the same order.
+     * If such a provider returned fewer than {@value #MAX_CHOICES} choices for a value, the autocomplete cache
+     * answers longer values by filtering these choices instead of calling the provider again.
+     *
+     * @return The filter receiving a choice and the typed value, or {@code null} if the choices cannot be refined.
+     */
+    default BiPredicate<SlashCommandOptionChoice, String> getRefinementFilter() {
+        return null;
+    }
+}
@@ -4,6 +4,13 @@ import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.interaction.*;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
 /**
  * A slash command.
  */
@@ -13,6 +20,26 @@ public abstract sealed class SlashCommand extends AbstractApplicationCommand per
 
     private final SlashCommandBuilder slashCommandBuilder;
 
+    /**
+     * The handlers of the subcommands which are not part of a subcommand group.
+     */
+    private final Map<String, Consumer<SlashCommandInteraction>> subcommandHandlers = new HashMap<>();
+
+    /**
+     * The handlers of the subcommands by the name of their subcommand group.
+     */
+    private final Map<String, Map<String, Consumer<SlashCommandInteraction>>> subcommandGroupHandlers = new HashMap<>();
+
+    /**
+     * The providers of autocomplete choices by the name of their option.
+     */
+    private final Map<String, AutocompleteChoiceProvider> autocompleteChoiceProviders = new HashMap<>();
+
+    /**
+     * The handler of the options added with {@link #addOptions(SlashCommandOptionBinder, BiConsumer)}, or {@code null}.
+     */
+    private Consumer<SlashCommandInteraction> optionsHandler;
+
     /**
      * Creates a new slash command.
      *
@@ -30,15 +57,145 @@ public abstract sealed class SlashCommand extends AbstractApplicationCommand per
         return slashCommandBuilder;
     }
 
+    /**
+     * Adds a subcommand to the slash command builder and routes its interactions to the handler of the subcommand.
+     * This has to be done before the command is registered to an interaction handler.
+     *
+     * @param subcommand The subcommand.
+     * @return The current instance to chain methods.
+     * @throws IllegalStateException If options were added with {@link #addOptions(SlashCommandOptionBinder, BiConsumer)}.
+     */
+    protected final SlashCommand addSubcommand(final Subcommand subcommand) {
+        requireNoOptions();
+        slashCommandBuilder.addOption(createSubcommandOption(subcommand));
+        subcommandHandlers.put(subcommand.name(), subcommand.handler());
+        return this;
+    }
+
+    /**
+     * Adds a subcommand group to the slash command builder and routes the interactions of its subcommands
+     * to their handlers.
+     * This has to be done before the command is registered to an interaction handler.
+     *
+     * @param name        The name of the subcommand group.
+     * @param description The description of the subcommand group.
+     * @param subcommands The subcommands of the group.
+     * @return The current instance to chain methods.
+     * @throws IllegalStateException If options were added with {@link #addOptions(SlashCommandOptionBinder, BiConsumer)}.
+     */
+    protected final SlashCommand addSubcommandGroup(final String name, final String description, final Subcommand... subcommands) {
+        requireNoOptions();
+        final List<SlashCommandOption> options = new ArrayList<>(subcommands.length);
+        final Map<String, Consumer<SlashCommandInteraction>> handlers = new HashMap<>();
+        for (final Subcommand subcommand : subcommands) {
+            options.add(createSubcommandOption(subcommand));
+            handlers.put(subcommand.name(), subcommand.handler());
+        }
+        slashCommandBuilder.addOption(SlashCommandOption.createWithOptions(SlashCommandOptionType.SUB_COMMAND_GROUP, name, description, options));
+        subcommandGroupHandlers.put(name, handlers);
+        return this;
+    }
+
+    /**
+     * Adds the options of a binder to the slash command builder and runs the handler with the bound options instead
+     * of {@link #runCommand(SlashCommandInteraction)}, unless it is overridden.
+     * This has to be done before the command is registered to an interaction handler, at most once and not together
+     * with subcommands, because Discord does not allow options next to subcommands.
+     *
+     * @param binder  The binder of the options.
+     * @param handler The handler which is run with the interaction and its bound options.
+     * @param <A>     The type of the record the options are bound to.
+     * @return The current instance to chain methods.
+     * @throws IllegalStateException If options or subcommands were already added.
+     */
+    protected final <A extends Record> SlashCommand addOptions(final SlashCommandOptionBinder<A> binder,
+                                                              final BiConsumer<SlashCommandInteraction, A> handler) {
+        requireNoOptions();
+        if (!subcommandHandlers.isEmpty() || !subcommandGroupHandlers.isEmpty()) {
+            throw new IllegalStateException("Options cannot be added to a slash command with subcommands");
+        }
+        binder.getOptions().forEach(slashCommandBuilder::addOption);
+        optionsHandler = interaction -> handler.accept(interaction, binder.bind(interaction));
+        return this;
+    }
+
+    private void requireNoOptions() {
+        if (optionsHandler != null) {
+            throw new IllegalStateException("The options of the slash command were already added");
+        }
+    }
+
+    private static SlashCommandOption createSubcommandOption(final Subcommand subcommand) {
+        return SlashCommandOption.createWithOptions(SlashCommandOptionType.SUB_COMMAND, subcommand.name(), subcommand.description(), subcommand.options());
+    }
+
+    /**
+     * Gets the handler of the subcommand used by the interaction.
+     *
+     * @param interaction The interaction.
+     * @return The handler or {@code null} if no handler has been added for the used subcommand.
+     */
+    public final Consumer<SlashCommandInteraction> getSubcommandHandler(final SlashCommandInteraction interaction) {
+        final List<SlashCommandInteractionOption> options = interaction.getOptions();
+        if (options.isEmpty() || !options.get(0).isSubcommandOrGroup()) {
+            return null;
+        }
+        final SlashCommandInteractionOption option = options.get(0);
+        final Consumer<SlashCommandInteraction> handler = subcommandHandlers.get(option.getName());
+        if (handler != null) {
+            return handler;
+        }
+        final Map<String, Consumer<SlashCommandInteraction>> groupHandlers = subcommandGroupHandlers.get(option.getName());
+        if (groupHandlers == null || option.getOptions().isEmpty()) {
+            return null;
+        }
+        return groupHandlers.get(option.getOptions().get(0).getName());
+    }
+
     /**
      * Runs the command.
+     * Interactions of subcommands added with {@link #addSubcommand(Subcommand)} or
+     * {@link #addSubcommandGroup(String, String, Subcommand...)} are dispatched to their handler instead.
+     * Runs the handler of {@link #addOptions(SlashCommandOptionBinder, BiConsumer)} unless it is overridden.
      *
      * @param interaction The interaction that triggered this command.
      */
-    public abstract void runCommand(SlashCommandInteraction interaction);
+    public void runCommand(SlashCommandInteraction interaction) {
+        if (optionsHandler != null) {
+            optionsHandler.accept(interaction);
+            return;
+        }
+        LOGGER.info("Slash command interaction [/{}] triggered a not overridden command handler.",
+                interaction.getFullCommandName());
+    }
+
+    /**
+     * Binds a provider of autocomplete choices to an option of this slash command.
+     * Autocomplete interactions for the option are answered with the choices of the provider instead of being passed
+     * to {@link #autocompletionHandler(AutocompleteInteraction)}, which allows the interaction handler to cache them.
+     * This has to be done before the command is registered to an interaction handler.
+     *
+     * @param optionName The name of the option.
+     * @param provider   The provider of the choices.
+     * @return The current instance to chain methods.
+     */
+    protected final SlashCommand bindAutocomplete(final String optionName, final AutocompleteChoiceProvider provider) {
+        autocompleteChoiceProviders.put(optionName, provider);
+        return this;
+    }
+
+    /**
+     * Gets the provider of autocomplete choices bound to an option.
+     *
+     * @param optionName The name of the option.
+     * @return The provider or {@code null} if none is bound to the option.
+     */
+    public final AutocompleteChoiceProvider getAutocompleteChoiceProvider(final String optionName) {
+        return autocompleteChoiceProviders.get(optionName);
+    }
 
     /**
-     * Autocompletion handler for the first option of this slash command.
+     * Autocompletion handler for the options of this slash command without a bound {@link AutocompleteChoiceProvider}.
      *
      * @param interaction The interaction that triggered this autocompletion handler.
      */
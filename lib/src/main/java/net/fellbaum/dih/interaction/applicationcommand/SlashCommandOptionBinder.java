@@ -0,0 +1,170 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import net.fellbaum.dih.interaction.OptionName;
+import net.fellbaum.dih.interaction.RecordBinder;
+import org.javacord.api.entity.Attachment;
+import org.javacord.api.entity.Mentionable;
+import org.javacord.api.entity.channel.ServerChannel;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.interaction.SlashCommandOption;
+import org.javacord.api.interaction.SlashCommandOptionType;
+
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Binds the options of a slash command to the components of a record, so handlers receive their arguments as one typed
+ * object instead of looking up every option in the list of arguments.
+ * <p>
+ * The binder is built once from the options of the command and checks that every component has an option of a
+ * matching type. Binding an interaction walks its arguments once and creates the record with its canonical
+ * constructor. Components are bound to the option with their name or {@link OptionName}, and options which are not
+ * required have to be bound to an {@link java.util.Optional} or a nullable reference type.
+ *
+ * <pre>{@code
+ * record BanOptions(User user, Optional<String> reason, @OptionName("delete-days") Long deleteDays) {}
+ *
+ * SlashCommandOptionBinder<BanOptions> binder = SlashCommandOptionBinder.of(BanOptions.class,
+ *         SlashCommandOption.createUserOption("user", "The user to ban", true),
+ *         SlashCommandOption.createStringOption("reason", "The reason", false),
+ *         SlashCommandOption.createLongOption("delete-days", "Days of messages to delete", false));
+ * }</pre>
+ *
+ * @param <A> The type of the record.
+ * @see SlashCommand#addOptions(SlashCommandOptionBinder, java.util.function.BiConsumer)
+ * @see Subcommand#of(String, String, SlashCommandOptionBinder, java.util.function.BiConsumer)
+ */
+public final class SlashCommandOptionBinder<A extends Record> {
+
+    private final RecordBinder<A> binder;
+    private final List<SlashCommandOption> options;
+
+    /**
+     * Extracts the value of an option by the index of its component.
+     */
+    private final Function<SlashCommandInteractionOption, Object>[] extractors;
+
+    @SuppressWarnings("unchecked")
+    private SlashCommandOptionBinder(final Class<A> type, final List<SlashCommandOption> options) {
+        this.binder = RecordBinder.of(type);
+        this.options = List.copyOf(options);
+        this.extractors = new Function[binder.size()];
+        for (final SlashCommandOption option : this.options) {
+            final int index = binder.indexOf(option.getName());
+            if (index < 0) {
+                continue;
+            }
+            if (binder.isPrimitive(index) && !option.isRequired()) {
+                throw new IllegalArgumentException("The option " + option.getName() + " is not required and cannot be bound to a primitive");
+            }
+            extractors[index] = extractor(option, binder.getValueType(index));
+        }
+        for (int i = 0; i < extractors.length; i++) {
+            if (extractors[i] == null) {
+                throw new IllegalArgumentException("There is no option " + binder.getName(i) + " for " + type.getSimpleName());
+            }
+        }
+    }
+
+    /**
+     * Creates a binder for the options of a slash command or subcommand.
+     *
+     * @param type    The type of the record.
+     * @param options The options. Options without a component are ignored.
+     * @param <A>     The type of the record.
+     * @return The binder.
+     * @throws IllegalArgumentException If a component has no option or cannot hold the values of its option.
+     */
+    public static <A extends Record> SlashCommandOptionBinder<A> of(final Class<A> type, final List<SlashCommandOption> options) {
+        return new SlashCommandOptionBinder<>(type, options);
+    }
+
+    /**
+     * Creates a binder for the options of a slash command or subcommand.
+     *
+     * @param type    The type of the record.
+     * @param options The options. Options without a component are ignored.
+     * @param <A>     The type of the record.
+     * @return The binder.
+     * @throws IllegalArgumentException If a component has no option or cannot hold the values of its option.
+     */
+    public static <A extends Record> SlashCommandOptionBinder<A> of(final Class<A> type, final SlashCommandOption... options) {
+        return new SlashCommandOptionBinder<>(type, List.of(options));
+    }
+
+    private static Function<SlashCommandInteractionOption, Object> extractor(final SlashCommandOption option, final Class<?> valueType) {
+        final SlashCommandOptionType optionType = option.getType();
+        final Function<SlashCommandInteractionOption, Object> extractor = switch (optionType) {
+            case STRING -> argument -> argument.getStringValue().orElse(null);
+            case LONG -> valueType == Integer.class
+                    ? argument -> argument.getLongValue().map(Math::toIntExact).orElse(null)
+                    : argument -> argument.getLongValue().orElse(null);
+            case BOOLEAN -> argument -> argument.getBooleanValue().orElse(null);
+            case DECIMAL -> argument -> argument.getDecimalValue().orElse(null);
+            case USER -> argument -> argument.getUserValue().orElse(null);
+            case CHANNEL -> argument -> argument.getChannelValue().orElse(null);
+            case ROLE -> argument -> argument.getRoleValue().orElse(null);
+            case MENTIONABLE -> argument -> argument.getMentionableValue().orElse(null);
+            case ATTACHMENT -> argument -> argument.getAttachmentValue().orElse(null);
+            default -> throw new IllegalArgumentException("The option " + option.getName() + " of type " + optionType + " cannot be bound");
+        };
+        final Class<?> optionValueType = switch (optionType) {
+            case STRING -> String.class;
+            case LONG -> valueType == Integer.class ? Integer.class : Long.class;
+            case BOOLEAN -> Boolean.class;
+            case DECIMAL -> Double.class;
+            case USER -> User.class;
+            case CHANNEL -> ServerChannel.class;
+            case ROLE -> Role.class;
+            case MENTIONABLE -> Mentionable.class;
+            default -> Attachment.class;
+        };
+        if (!valueType.isAssignableFrom(optionValueType)) {
+            throw new IllegalArgumentException("The option " + option.getName() + " of type " + optionType
+                    + " cannot be bound to " + valueType.getSimpleName());
+        }
+        return extractor;
+    }
+
+    /**
+     * Gets the options of this binder, to add them to the slash command or subcommand.
+     *
+     * @return The options.
+     */
+    public List<SlashCommandOption> getOptions() {
+        return options;
+    }
+
+    /**
+     * Binds the arguments of an interaction, the options of the used subcommand if there is one.
+     *
+     * @param interaction The interaction.
+     * @return The record.
+     * @throws IllegalArgumentException If a required option is missing.
+     */
+    public A bind(final SlashCommandInteraction interaction) {
+        return bind(interaction.getArguments());
+    }
+
+    /**
+     * Binds a list of arguments.
+     *
+     * @param arguments The arguments.
+     * @return The record.
+     * @throws IllegalArgumentException If a required option is missing.
+     */
+    public A bind(final List<SlashCommandInteractionOption> arguments) {
+        final Object[] values = new Object[extractors.length];
+        for (int i = 0; i < arguments.size(); i++) {
+            final SlashCommandInteractionOption argument = arguments.get(i);
+            final int index = binder.indexOf(argument.getName());
+            if (index >= 0) {
+                values[index] = extractors[index].apply(argument);
+            }
+        }
+        return binder.create(values);
+    }
+}
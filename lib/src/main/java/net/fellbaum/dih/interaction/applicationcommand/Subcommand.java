@@ -0,0 +1,63 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.SlashCommandOption;
+
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * A subcommand of a slash command together with the handler it is dispatched to.
+ *
+ * @param name        The name of the subcommand.
+ * @param description The description of the subcommand.
+ * @param options     The options of the subcommand.
+ * @param handler     The handler which is run when the subcommand is used.
+ */
+public record Subcommand(String name, String description, List<SlashCommandOption> options,
+                         Consumer<SlashCommandInteraction> handler) {
+
+    /**
+     * Creates a subcommand without options.
+     *
+     * @param name        The name of the subcommand.
+     * @param description The description of the subcommand.
+     * @param handler     The handler which is run when the subcommand is used.
+     * @return The subcommand.
+     */
+    public static Subcommand of(final String name, final String description, final Consumer<SlashCommandInteraction> handler) {
+        return new Subcommand(name, description, List.of(), handler);
+    }
+
+    /**
+     * Creates a subcommand.
+     *
+     * @param name        The name of the subcommand.
+     * @param description The description of the subcommand.
+     * @param options     The options of the subcommand.
+     * @param handler     The handler which is run when the subcommand is used.
+     * @return The subcommand.
+     */
+    public static Subcommand of(final String name, final String description, final List<SlashCommandOption> options,
+                                final Consumer<SlashCommandInteraction> handler) {
+        return new Subcommand(name, description, options, handler);
+    }
+
+    /**
+     * Creates a subcommand whose options are bound to a record.
+     *
+     * @param name        The name of the subcommand.
+     * @param description The description of the subcommand.
+     * @param binder      The binder of the options.
+     * @param handler     The handler which is run with the interaction and its bound options.
+     * @param <A>         The type of the record the options are bound to.
+     * @return The subcommand.
+     */
+    public static <A extends Record> Subcommand of(final String name, final String description,
+                                                   final SlashCommandOptionBinder<A> binder,
+                                                   final BiConsumer<SlashCommandInteraction, A> handler) {
+        return new Subcommand(name, description, binder.getOptions(),
+                interaction -> handler.accept(interaction, binder.bind(interaction)));
+    }
+}
@@ -0,0 +1,47 @@
+package net.fellbaum.dih.interaction.component;
+
+import org.javacord.api.interaction.ModalInteraction;
+
+/**
+ * A modal component whose text inputs are bound to a record by a {@link ModalInputBinder}.
+ *
+ * @param <A> The type of the record.
+ */
+public abstract class BoundModalComponent<A extends Record> extends ModalComponent {
+
+    /**
+     * The binder of the text inputs.
+     */
+    private final ModalInputBinder<A> binder;
+
+    /**
+     * @param customIdPrefix The customId as a Regex.
+     * @param binder         The binder of the text inputs.
+     */
+    protected BoundModalComponent(final String customIdPrefix, final ModalInputBinder<A> binder) {
+        super(customIdPrefix);
+        this.binder = binder;
+    }
+
+    /**
+     * Gets the binder of the text inputs.
+     *
+     * @return The binder.
+     */
+    public ModalInputBinder<A> getBinder() {
+        return binder;
+    }
+
+    @Override
+    public final void runModalComponent(final ModalInteraction interaction) {
+        runModalComponent(interaction, binder.bind(interaction));
+    }
+
+    /**
+     * Runs the component.
+     *
+     * @param interaction The interaction that triggered this component.
+     * @param inputs      The text inputs bound to the record.
+     */
+    public abstract void runModalComponent(final ModalInteraction interaction, final A inputs);
+}
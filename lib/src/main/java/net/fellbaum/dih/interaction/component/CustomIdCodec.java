@@ -0,0 +1,114 @@
+package net.fellbaum.dih.interaction.component;
+
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * Encodes a typed payload into a custom id and decodes it again.
+ * <p>
+ * A custom id consists of a fixed prefix which identifies the component, followed by the compactly encoded fields of
+ * the payload. Numbers are stored as variable length values with 5 bits per character, so far more state fits into
+ * the 100 characters Discord allows than with decimal text.
+ *
+ * <pre>{@code
+ * record Page(int number, long ownerId) {}
+ *
+ * CustomIdCodec<Page> codec = new CustomIdCodec<>("page:",
+ *         (page, writer) -> writer.writeInt(page.number()).writeSnowflake(page.ownerId()),
+ *         reader -> new Page(reader.readInt(), reader.readSnowflake()));
+ * }</pre>
+ *
+ * @param <P> The type of the payload.
+ */
+public final class CustomIdCodec<P> {
+
+    /**
+     * The maximum length of a custom id allowed by Discord.
+     */
+    public static final int MAX_CUSTOM_ID_LENGTH = 100;
+
+    /**
+     * The prefix of every custom id.
+     */
+    private final String prefix;
+
+    /**
+     * Writes the fields of a payload.
+     */
+    private final BiConsumer<P, CustomIdWriter> writer;
+
+    /**
+     * Reads the fields of a payload.
+     */
+    private final Function<CustomIdReader, P> reader;
+
+    /**
+     * Creates a new custom id codec.
+     *
+     * @param prefix The prefix of every custom id, which must not be the start of the prefix of another component.
+     * @param writer Writes the fields of a payload.
+     * @param reader Reads the fields of a payload in the same order they have been written.
+     */
+    public CustomIdCodec(final String prefix, final BiConsumer<P, CustomIdWriter> writer, final Function<CustomIdReader, P> reader) {
+        if (prefix.length() >= MAX_CUSTOM_ID_LENGTH) {
+            throw new IllegalArgumentException("The prefix must be shorter than " + MAX_CUSTOM_ID_LENGTH + " characters");
+        }
+        this.prefix = prefix;
+        this.writer = writer;
+        this.reader = reader;
+    }
+
+    /**
+     * Encodes the payload into a custom id.
+     *
+     * @param payload The payload.
+     * @return The custom id.
+     * @throws IllegalArgumentException If the encoded custom id is longer than {@value #MAX_CUSTOM_ID_LENGTH} characters.
+     */
+    public String encode(final P payload) {
+        final CustomIdWriter customIdWriter = new CustomIdWriter(prefix);
+        writer.accept(payload, customIdWriter);
+        final String customId = customIdWriter.toString();
+        if (customId.length() > MAX_CUSTOM_ID_LENGTH) {
+            throw new IllegalArgumentException("The encoded custom id has " + customId.length()
+                    + " characters but at most " + MAX_CUSTOM_ID_LENGTH + " are allowed");
+        }
+        return customId;
+    }
+
+    /**
+     * Decodes the payload of a custom id created by this codec.
+     *
+     * @param customId The custom id.
+     * @return The payload.
+     * @throws IllegalArgumentException If the custom id was not created by this codec.
+     */
+    public P decode(final String customId) {
+        if (!customId.startsWith(prefix)) {
+            throw new IllegalArgumentException("The custom id does not start with the prefix " + prefix);
+        }
+        final CustomIdReader customIdReader = new CustomIdReader(customId, prefix.length());
+        final P payload = reader.apply(customIdReader);
+        customIdReader.requireFullyRead();
+        return payload;
+    }
+
+    /**
+     * Gets the prefix of every custom id.
+     *
+     * @return The prefix.
+     */
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * Gets the custom id regex matching every custom id of this codec.
+     *
+     * @return The custom id regex.
+     */
+    public String getCustomIdRegex() {
+        return Pattern.quote(prefix) + "(?s:.*)";
+    }
+}
@@ -0,0 +1,180 @@
+package net.fellbaum.dih.interaction.component;
+
+import java.util.Arrays;
+
+/**
+ * Reads the fields of a payload from a custom id without creating intermediate strings.
+ *
+ * @see CustomIdCodec
+ */
+public final class CustomIdReader {
+
+    /**
+     * Maps a character of the alphabet to its 6 bit value, or -1 if it is not part of the alphabet.
+     */
+    private static final byte[] VALUES = new byte[128];
+
+    /**
+     * The enum constants by their class.
+     */
+    private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<>() {
+        @Override
+        protected Object[] computeValue(final Class<?> type) {
+            return type.getEnumConstants();
+        }
+    };
+
+    static {
+        Arrays.fill(VALUES, (byte) -1);
+        for (int i = 0; i < CustomIdWriter.ALPHABET.length(); i++) {
+            VALUES[CustomIdWriter.ALPHABET.charAt(i)] = (byte) i;
+        }
+    }
+
+    private final String customId;
+    private int position;
+
+    /**
+     * Creates a new reader.
+     *
+     * @param customId The custom id.
+     * @param position The position of the first field.
+     */
+    CustomIdReader(final String customId, final int position) {
+        this.customId = customId;
+        this.position = position;
+    }
+
+    /**
+     * Reads an int written by {@link CustomIdWriter#writeInt(int)}.
+     *
+     * @return The value.
+     */
+    public int readInt() {
+        final long zigZag = readUnsignedLong();
+        if ((zigZag & ~0xFFFFFFFFL) != 0) {
+            throw new IllegalArgumentException("Encoded value at position " + position + " exceeds an int");
+        }
+        final int value = (int) zigZag;
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Reads a long written by {@link CustomIdWriter#writeLong(long)}.
+     *
+     * @return The value.
+     */
+    public long readLong() {
+        final long zigZag = readUnsignedLong();
+        return (zigZag >>> 1) ^ -(zigZag & 1);
+    }
+
+    /**
+     * Reads a snowflake written by {@link CustomIdWriter#writeSnowflake(long)}.
+     *
+     * @return The snowflake.
+     */
+    public long readSnowflake() {
+        // The first character only holds the 4 highest bits, 11 characters carry 66 bits
+        long snowflake = nextValue();
+        if (snowflake > 0xF) {
+            throw new IllegalArgumentException("Encoded snowflake at position " + (position - 1) + " exceeds a long");
+        }
+        for (int i = 1; i < CustomIdWriter.SNOWFLAKE_LENGTH; i++) {
+            snowflake = (snowflake << 6) | nextValue();
+        }
+        return snowflake;
+    }
+
+    /**
+     * Reads a boolean written by {@link CustomIdWriter#writeBoolean(boolean)}.
+     *
+     * @return The value.
+     */
+    public boolean readBoolean() {
+        return switch (nextValue()) {
+            case 0 -> false;
+            case 1 -> true;
+            default -> throw new IllegalArgumentException("Invalid boolean at position " + (position - 1));
+        };
+    }
+
+    /**
+     * Reads an enum constant written by {@link CustomIdWriter#writeEnum(Enum)}.
+     *
+     * @param type The class of the enum.
+     * @param <E>  The type of the enum.
+     * @return The enum constant.
+     */
+    public <E extends Enum<E>> E readEnum(final Class<E> type) {
+        final Object[] constants = ENUM_CONSTANTS.get(type);
+        final long ordinal = readUnsignedLong();
+        if (ordinal >= constants.length) {
+            throw new IllegalArgumentException("Invalid ordinal " + ordinal + " for " + type.getSimpleName());
+        }
+        return type.cast(constants[(int) ordinal]);
+    }
+
+    /**
+     * Reads a string written by {@link CustomIdWriter#writeString(String)}.
+     *
+     * @return The string.
+     */
+    public String readString() {
+        final long length = readUnsignedLong();
+        if (length > customId.length() - position) {
+            throw new IllegalArgumentException("String length " + length + " exceeds the custom id");
+        }
+        final int start = position;
+        position += (int) length;
+        return customId.substring(start, position);
+    }
+
+    /**
+     * Reads an unsigned value with 5 bits per character.
+     *
+     * @return The value.
+     * @throws IllegalArgumentException If the value does not fit into a long.
+     */
+    private long readUnsignedLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 5) {
+            final int next = nextValue();
+            // The 13th character only has room for the 4 highest bits
+            if (shift == 60 && (next & 0x10) != 0) {
+                throw new IllegalArgumentException("Encoded value at position " + (position - 1) + " exceeds a long");
+            }
+            value |= (long) (next & 0x1F) << shift;
+            if ((next & CustomIdWriter.CONTINUATION_BIT) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Encoded value at position " + position + " is too long");
+    }
+
+    /**
+     * Reads the 6 bit value of the next character.
+     *
+     * @return The value.
+     */
+    private int nextValue() {
+        if (position >= customId.length()) {
+            throw new IllegalArgumentException("Unexpected end of the custom id");
+        }
+        final char c = customId.charAt(position++);
+        final byte value = c < VALUES.length ? VALUES[c] : -1;
+        if (value < 0) {
+            throw new IllegalArgumentException("Invalid character '" + c + "' at position " + (position - 1));
+        }
+        return value;
+    }
+
+    /**
+     * Ensures that every character of the custom id has been read.
+     */
+    void requireFullyRead() {
+        if (position != customId.length()) {
+            throw new IllegalArgumentException("The custom id has " + (customId.length() - position) + " unread characters");
+        }
+    }
+}
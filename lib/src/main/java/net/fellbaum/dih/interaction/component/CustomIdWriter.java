@@ -0,0 +1,121 @@
+package net.fellbaum.dih.interaction.component;
+
+/**
+ * Writes the fields of a payload into a custom id.
+ *
+ * @see CustomIdCodec
+ */
+public final class CustomIdWriter {
+
+    /**
+     * The characters used to encode 6 bits each.
+     */
+    static final String ALPHABET = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz-_";
+
+    /**
+     * The bit of an encoded character which marks that the value continues in the next character.
+     */
+    static final int CONTINUATION_BIT = 0x20;
+
+    /**
+     * The amount of characters of an encoded snowflake.
+     */
+    static final int SNOWFLAKE_LENGTH = 11;
+
+    private final StringBuilder customId;
+
+    /**
+     * Creates a new writer.
+     *
+     * @param prefix The prefix of the custom id.
+     */
+    CustomIdWriter(final String prefix) {
+        this.customId = new StringBuilder(CustomIdCodec.MAX_CUSTOM_ID_LENGTH).append(prefix);
+    }
+
+    /**
+     * Writes an int, using fewer characters for values close to zero.
+     *
+     * @param value The value.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeInt(final int value) {
+        return writeUnsignedLong(Integer.toUnsignedLong((value << 1) ^ (value >> 31)));
+    }
+
+    /**
+     * Writes a long, using fewer characters for values close to zero.
+     *
+     * @param value The value.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeLong(final long value) {
+        return writeUnsignedLong((value << 1) ^ (value >> 63));
+    }
+
+    /**
+     * Writes a snowflake like a user or channel id with a fixed length of 11 characters.
+     *
+     * @param snowflake The snowflake.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeSnowflake(final long snowflake) {
+        for (int shift = 6 * (SNOWFLAKE_LENGTH - 1); shift >= 0; shift -= 6) {
+            customId.append(ALPHABET.charAt((int) (snowflake >>> shift) & 0x3F));
+        }
+        return this;
+    }
+
+    /**
+     * Writes a boolean.
+     *
+     * @param value The value.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeBoolean(final boolean value) {
+        customId.append(value ? '1' : '0');
+        return this;
+    }
+
+    /**
+     * Writes an enum constant by its ordinal.
+     *
+     * @param value The enum constant.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeEnum(final Enum<?> value) {
+        return writeUnsignedLong(value.ordinal());
+    }
+
+    /**
+     * Writes a short string.
+     *
+     * @param value The string.
+     * @return The current instance to chain methods.
+     */
+    public CustomIdWriter writeString(final String value) {
+        writeUnsignedLong(value.length());
+        customId.append(value);
+        return this;
+    }
+
+    /**
+     * Writes an unsigned value with 5 bits per character.
+     *
+     * @param value The value.
+     * @return The current instance to chain methods.
+     */
+    private CustomIdWriter writeUnsignedLong(long value) {
+        while ((value & ~0x1FL) != 0) {
+            customId.append(ALPHABET.charAt((int) (value & 0x1F) | CONTINUATION_BIT));
+            value >>>= 5;
+        }
+        customId.append(ALPHABET.charAt((int) value));
+        return this;
+    }
+
+    @Override
+    public String toString() {
+        return customId.toString();
+    }
+}
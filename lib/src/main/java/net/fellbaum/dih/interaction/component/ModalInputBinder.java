@@ -0,0 +1,63 @@
+package net.fellbaum.dih.interaction.component;
+
+import net.fellbaum.dih.interaction.OptionName;
+import net.fellbaum.dih.interaction.RecordBinder;
+import org.javacord.api.interaction.ModalInteraction;
+
+/**
+ * Binds the text inputs of a submitted modal to the components of a record, so handlers receive the inputs as one
+ * typed object.
+ * <p>
+ * Every component has to be a {@link String} or an {@link java.util.Optional} of a string and is bound to the text
+ * input whose custom id is the name of the component or its {@link OptionName}. Components of missing text inputs are
+ * {@code null} or empty.
+ *
+ * <pre>{@code
+ * record Feedback(String subject, @OptionName("feedback-body") Optional<String> body) {}
+ *
+ * ModalInputBinder<Feedback> binder = ModalInputBinder.of(Feedback.class);
+ * }</pre>
+ *
+ * @param <A> The type of the record.
+ * @see BoundModalComponent
+ */
+public final class ModalInputBinder<A extends Record> {
+
+    private final RecordBinder<A> binder;
+
+    private ModalInputBinder(final Class<A> type) {
+        this.binder = RecordBinder.of(type);
+        for (int i = 0; i < binder.size(); i++) {
+            if (binder.getValueType(i) != String.class) {
+                throw new IllegalArgumentException("The text input " + binder.getName(i) + " of " + type.getSimpleName()
+                        + " can only be bound to a String or an Optional of a String");
+            }
+        }
+    }
+
+    /**
+     * Creates a binder for the text inputs of a modal.
+     *
+     * @param type The type of the record.
+     * @param <A>  The type of the record.
+     * @return The binder.
+     * @throws IllegalArgumentException If a component is not a string or an optional of a string.
+     */
+    public static <A extends Record> ModalInputBinder<A> of(final Class<A> type) {
+        return new ModalInputBinder<>(type);
+    }
+
+    /**
+     * Binds the text inputs of a submitted modal.
+     *
+     * @param interaction The interaction.
+     * @return The record.
+     */
+    public A bind(final ModalInteraction interaction) {
+        final Object[] values = new Object[binder.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = interaction.getTextInputValueByCustomId(binder.getName(i)).orElse(null);
+        }
+        return binder.create(values);
+    }
+}
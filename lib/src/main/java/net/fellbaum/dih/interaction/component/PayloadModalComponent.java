@@ -0,0 +1,56 @@
+package net.fellbaum.dih.interaction.component;
+
+import org.javacord.api.interaction.ModalInteraction;
+
+/**
+ * A modal component whose custom ids carry a typed payload encoded by a {@link CustomIdCodec}.
+ *
+ * @param <P> The type of the payload.
+ */
+public abstract class PayloadModalComponent<P> extends ModalComponent {
+
+    /**
+     * The codec of the custom ids.
+     */
+    private final CustomIdCodec<P> codec;
+
+    /**
+     * @param codec The codec of the custom ids.
+     */
+    protected PayloadModalComponent(final CustomIdCodec<P> codec) {
+        super(codec.getCustomIdRegex());
+        this.codec = codec;
+    }
+
+    /**
+     * Creates the custom id for the payload.
+     *
+     * @param payload The payload.
+     * @return The custom id.
+     */
+    public String createCustomId(final P payload) {
+        return codec.encode(payload);
+    }
+
+    /**
+     * Gets the codec of the custom ids.
+     *
+     * @return The codec.
+     */
+    public CustomIdCodec<P> getCodec() {
+        return codec;
+    }
+
+    @Override
+    public final void runModalComponent(final ModalInteraction interaction) {
+        runModalComponent(interaction, codec.decode(interaction.getCustomId()));
+    }
+
+    /**
+     * Runs the modal interaction.
+     *
+     * @param interaction The interaction.
+     * @param payload     The payload decoded from the custom id.
+     */
+    public abstract void runModalComponent(final ModalInteraction interaction, final P payload);
+}
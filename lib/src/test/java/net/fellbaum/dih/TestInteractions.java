@@ -0,0 +1,87 @@
+package net.fellbaum.dih;
+
+import net.fellbaum.dih.handler.StubInteractions;
+import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+
+/**
+ * Commands and components doing nothing and stubs of Javacord types, shared by the tests.
+ */
+public final class TestInteractions {
+
+    private TestInteractions() {
+    }
+
+    /**
+     * A global slash command doing nothing.
+     */
+    public static final class TestGlobalCommand extends GlobalSlashCommand {
+
+        public TestGlobalCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+        }
+    }
+
+    /**
+     * A server slash command doing nothing.
+     */
+    public static final class TestServerCommand extends ServerSlashCommand {
+
+        public TestServerCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+        }
+    }
+
+    /**
+     * A button doing nothing.
+     */
+    public static final class TestButton extends ButtonComponent {
+
+        public TestButton(final String customIdPrefix) {
+            super(customIdPrefix);
+        }
+
+        @Override
+        public void runButtonComponent(final ButtonInteraction interaction) {
+        }
+    }
+
+    /**
+     * Creates a stub of a Javacord interface with {@link StubInteractions#stub(Class, StubInteractions.Answer)}.
+     *
+     * @param type   The interface.
+     * @param answer Answers the calls of the stub.
+     * @param <S>    The type of the interface.
+     * @return The stub.
+     */
+    public static <S> S stub(final Class<S> type, final Answer answer) {
+        return StubInteractions.stub(type, (method, args) -> answer.answer(method.getName(), args));
+    }
+
+    /**
+     * Answers the calls of a stub.
+     */
+    @FunctionalInterface
+    public interface Answer {
+
+        /**
+         * Answers a call.
+         *
+         * @param methodName The name of the called method.
+         * @param args       The arguments, {@code null} if the method has no parameters.
+         * @return The value to return, {@code null} for the default value.
+         */
+        Object answer(String methodName, Object[] args);
+    }
+}
@@ -0,0 +1,85 @@
+package net.fellbaum.dih.handler;
+
+import org.javacord.api.interaction.SlashCommand;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ApplicationCommandSyncStateTest {
+
+    @Test
+    void remembersOverwrittenScopesAcrossRuns() throws IOException {
+        final Path file = Files.createTempFile("application-commands", ".properties");
+        Files.delete(file);
+        try {
+            final String fingerprint = ApplicationCommandSyncState.fingerprint(Set.of());
+            assertNotNull(fingerprint);
+
+            final ApplicationCommandSyncState first = new ApplicationCommandSyncState(file);
+            assertFalse(first.isUnchanged(ApplicationCommandSyncState.GLOBAL_SCOPE, fingerprint));
+            first.overwritten(ApplicationCommandSyncState.GLOBAL_SCOPE, fingerprint, Set.of());
+            first.overwritten(ApplicationCommandSyncState.serverScope(42), null, Set.of());
+            assertTrue(first.isUnchanged(ApplicationCommandSyncState.GLOBAL_SCOPE, fingerprint));
+            assertNotNull(first.getCommands(ApplicationCommandSyncState.serverScope(42)));
+
+            final ApplicationCommandSyncState second = new ApplicationCommandSyncState(file);
+            assertEquals(1, second.size());
+            assertTrue(second.isUnchanged(ApplicationCommandSyncState.GLOBAL_SCOPE, fingerprint));
+            assertFalse(second.isUnchanged(ApplicationCommandSyncState.GLOBAL_SCOPE, "other"));
+            // Builders without a fingerprint are always overwritten
+            assertFalse(second.isUnchanged(ApplicationCommandSyncState.serverScope(42), null));
+            assertNull(second.getCommands(ApplicationCommandSyncState.GLOBAL_SCOPE));
+
+            second.clear();
+            assertEquals(0, new ApplicationCommandSyncState(file).size());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void fingerprintsTheJsonOfJavacordBuilders() {
+        final String fingerprint = ApplicationCommandSyncState.fingerprint(Set.of(SlashCommand.with("ping", "Pong")));
+        assertNotNull(fingerprint);
+        assertEquals(fingerprint, ApplicationCommandSyncState.fingerprint(Set.of(SlashCommand.with("ping", "Pong"))));
+        assertNotEquals(fingerprint, ApplicationCommandSyncState.fingerprint(Set.of(SlashCommand.with("ping", "Ping"))));
+        // The order of the builders does not matter
+        assertEquals(ApplicationCommandSyncState.fingerprint(List.of(SlashCommand.with("a", "A"), SlashCommand.with("b", "B"))),
+                ApplicationCommandSyncState.fingerprint(List.of(SlashCommand.with("b", "B"), SlashCommand.with("a", "A"))));
+    }
+
+    @Test
+    void appendsFingerprintsWithoutGrowingTheFileUnbounded() throws IOException {
+        final Path file = Files.createTempFile("application-commands", ".properties");
+        Files.delete(file);
+        try {
+            final ApplicationCommandSyncState state = new ApplicationCommandSyncState(file);
+            for (long serverId = 1; serverId <= 100; serverId++) {
+                state.overwritten(ApplicationCommandSyncState.serverScope(serverId), "first", Set.of());
+            }
+            for (int i = 0; i < 1_000; i++) {
+                state.overwritten(ApplicationCommandSyncState.serverScope(1 + i % 100), "second" + i / 100, Set.of());
+            }
+
+            final long fingerprintLines = Files.readAllLines(file).stream().filter(line -> !line.startsWith("#")).count();
+            assertTrue(fingerprintLines <= 200, fingerprintLines + " lines");
+            final ApplicationCommandSyncState reloaded = new ApplicationCommandSyncState(file);
+            assertEquals(100, reloaded.size());
+            assertTrue(reloaded.isUnchanged(ApplicationCommandSyncState.serverScope(1), "second9"));
+            assertTrue(reloaded.isUnchanged(ApplicationCommandSyncState.serverScope(100), "second9"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+}
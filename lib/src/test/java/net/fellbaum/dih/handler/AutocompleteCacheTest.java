@@ -0,0 +1,85 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AutocompleteChoiceProvider;
+import org.javacord.api.interaction.AutocompleteInteraction;
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiPredicate;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AutocompleteCacheTest {
+
+    private static final List<String> NAMES = List.of("Berlin", "Bern", "Bergen", "Boston", "Brasilia");
+
+    @Test
+    void refinesCompleteChoicesOfShorterValues() {
+        final AtomicInteger calls = new AtomicInteger();
+        final String[] typed = {""};
+        final AutocompleteChoiceProvider provider = new AutocompleteChoiceProvider() {
+            @Override
+            public List<SlashCommandOptionChoice> getChoices(final AutocompleteInteraction interaction) {
+                calls.incrementAndGet();
+                return NAMES.stream().filter(name -> name.startsWith(typed[0])).map(AutocompleteCacheTest::choice).toList();
+            }
+
+            @Override
+            public BiPredicate<SlashCommandOptionChoice, String> getRefinementFilter() {
+                return (choice, value) -> choice.getName().startsWith(value);
+            }
+        };
+        final AutocompleteCache cache = new AutocompleteCache(100, TimeUnit.MINUTES.toNanos(1), false);
+        final AutocompleteInteraction interaction = interaction(1, "weather");
+
+        typed[0] = "Be";
+        assertEquals(3, cache.getChoices(interaction, 0, "city", "Be", provider).size());
+        assertEquals(List.of("Berlin", "Bern"), cache.getChoices(interaction, 0, "city", "Ber", provider)
+                .stream().map(SlashCommandOptionChoice::getName).toList().subList(0, 2));
+        assertEquals(1, cache.getChoices(interaction, 0, "city", "Berl", provider).size());
+        assertEquals(3, cache.getChoices(interaction, 0, "city", "Be", provider).size());
+        assertEquals(1, calls.get());
+
+        typed[0] = "B";
+        assertEquals(5, cache.getChoices(interaction, 0, "city", "B", provider).size());
+        assertEquals(2, calls.get());
+        assertEquals(new CacheStats(3, 2, 4), cache.getStats());
+    }
+
+    @Test
+    void separatesCommandsWithTheSameName() {
+        final AtomicInteger calls = new AtomicInteger();
+        final AutocompleteChoiceProvider provider = interaction -> List.of(choice(interaction.getFullCommandName() + calls.incrementAndGet()));
+        final AutocompleteCache cache = new AutocompleteCache(100, TimeUnit.MINUTES.toNanos(1), false);
+
+        // Subcommands of the same command with the same option
+        assertEquals("weather today1", name(cache.getChoices(interaction(1, "weather today"), 0, "city", "B", provider)));
+        assertEquals("weather week2", name(cache.getChoices(interaction(1, "weather week"), 0, "city", "B", provider)));
+        // Server commands with the same name registered on different servers
+        assertEquals("weather3", name(cache.getChoices(interaction(2, "weather"), 10, "city", "B", provider)));
+        assertEquals("weather4", name(cache.getChoices(interaction(3, "weather"), 20, "city", "B", provider)));
+        assertEquals("weather3", name(cache.getChoices(interaction(2, "weather"), 10, "city", "B", provider)));
+        assertEquals(new CacheStats(1, 4, 4), cache.getStats());
+    }
+
+    private static String name(final List<SlashCommandOptionChoice> choices) {
+        return choices.get(0).getName();
+    }
+
+    private static AutocompleteInteraction interaction(final long commandId, final String fullCommandName) {
+        return stub(AutocompleteInteraction.class, (method, args) -> switch (method) {
+            case "getCommandId" -> commandId;
+            case "getCommandName" -> fullCommandName.split(" ")[0];
+            case "getFullCommandName" -> fullCommandName;
+            default -> null;
+        });
+    }
+
+    private static SlashCommandOptionChoice choice(final String name) {
+        return stub(SlashCommandOptionChoice.class, (method, args) -> method.equals("getName") ? name : null);
+    }
+}
@@ -0,0 +1,74 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutocompleteCoalescerTest {
+
+    @Test
+    void skipsInteractionsSupersededBeforeTheyStarted() {
+        final AutocompleteCoalescer coalescer = new AutocompleteCoalescer();
+        final AutocompleteCoalescer.Ticket first = coalescer.register(1, 10, "city");
+        final AutocompleteCoalescer.Ticket second = coalescer.register(1, 10, "city");
+        final AutocompleteCoalescer.Ticket otherUser = coalescer.register(2, 10, "city");
+        final AutocompleteCoalescer.Ticket otherOption = coalescer.register(1, 10, "country");
+
+        assertFalse(coalescer.begin(first));
+        coalescer.finish(first);
+        assertTrue(coalescer.begin(second));
+        assertTrue(coalescer.begin(otherUser));
+        assertTrue(coalescer.begin(otherOption));
+        assertEquals(1, coalescer.getSkippedCount());
+    }
+
+    @Test
+    void removesKeysOnceTheLatestInteractionFinished() {
+        final AutocompleteCoalescer coalescer = new AutocompleteCoalescer();
+        final AutocompleteCoalescer.Ticket first = coalescer.register(1, 10, "city");
+        assertTrue(coalescer.begin(first));
+        final AutocompleteCoalescer.Ticket second = coalescer.register(1, 10, "city");
+
+        coalescer.finish(first);
+        assertEquals(1, coalescer.size());
+        assertTrue(coalescer.begin(second));
+        coalescer.finish(second);
+        assertEquals(0, coalescer.size());
+    }
+
+    @Test
+    void keepsTheNewestSequenceUnderConcurrentRegistrations() throws InterruptedException {
+        final AutocompleteCoalescer coalescer = new AutocompleteCoalescer();
+        final List<AutocompleteCoalescer.Ticket> newest = Collections.synchronizedList(new ArrayList<>());
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            final Thread thread = new Thread(() -> {
+                AutocompleteCoalescer.Ticket ticket = null;
+                for (int i = 0; i < 10_000; i++) {
+                    ticket = coalescer.register(1, 10, "city");
+                }
+                newest.add(ticket);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        // Exactly the ticket registered last is not superseded
+        int notSuperseded = 0;
+        for (final AutocompleteCoalescer.Ticket ticket : newest) {
+            if (coalescer.begin(ticket)) {
+                notSuperseded++;
+            }
+        }
+        assertEquals(1, notSuperseded);
+    }
+}
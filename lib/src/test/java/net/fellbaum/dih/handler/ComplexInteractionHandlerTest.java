@@ -0,0 +1,220 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ComplexInteractionHandlerTest {
+
+    private static final long SERVER_ID = 42;
+
+    private final BlockingRepository repository = new BlockingRepository();
+    private final List<Thread> loadThreads = new ArrayList<>();
+    private final Executor loadExecutor = task -> {
+        final Thread thread = new Thread(task);
+        synchronized (loadThreads) {
+            loadThreads.add(thread);
+        }
+        thread.start();
+    };
+    private final ComplexInteractionHandler handler = new ComplexInteractionHandler()
+            .setServerCommandRepository(repository, 1000, loadExecutor);
+
+    @Test
+    void sharesTheLoadOfConcurrentFirstInteractions() throws InterruptedException {
+        final CountingCommand command = new CountingCommand("tag");
+        repository.save(SERVER_ID, List.of(command));
+
+        repository.blockNextLoad(SERVER_ID);
+        final List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Thread thread = new Thread(() -> handler.handleInteraction(slashCommand("tag")));
+            thread.start();
+            threads.add(thread);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+        assertTrue(repository.loading.await(10, TimeUnit.SECONDS));
+        repository.release.countDown();
+        joinLoads();
+
+        assertEquals(1, repository.loads(SERVER_ID));
+        assertEquals(8, command.invocations.get());
+        assertEquals(1, handler.getResidentServerCount());
+    }
+
+    @Test
+    void replacesServersAfterTheLoadInProgress() throws InterruptedException {
+        final CountingCommand command = new CountingCommand("tag");
+        repository.save(SERVER_ID, List.of(command));
+
+        repository.blockNextLoad(SERVER_ID);
+        handler.handleInteraction(slashCommand("tag"));
+        assertTrue(repository.loading.await(10, TimeUnit.SECONDS));
+        final Thread replace = new Thread(() -> handler.replaceServerInteractions(SERVER_ID, List.of()));
+        replace.start();
+        awaitWaiting(replace);
+        repository.release.countDown();
+        joinLoads();
+        replace.join();
+
+        handler.handleInteraction(slashCommand("tag"));
+        joinLoads();
+        // Only the interaction received before the change ran the loaded command
+        assertEquals(1, command.invocations.get());
+    }
+
+    @Test
+    void removesServersAfterTheLoadInProgress() throws InterruptedException {
+        final CountingCommand command = new CountingCommand("tag");
+        repository.save(SERVER_ID, List.of(command));
+
+        repository.blockNextLoad(SERVER_ID);
+        handler.handleInteraction(slashCommand("tag"));
+        assertTrue(repository.loading.await(10, TimeUnit.SECONDS));
+        final Server server = stub(Server.class, (method, args) -> method.equals("getId") ? SERVER_ID : null);
+        final Thread remove = new Thread(() -> handler.unregisterAllServerInteractions(server));
+        remove.start();
+        awaitWaiting(remove);
+        repository.release.countDown();
+        joinLoads();
+        remove.join();
+
+        handler.handleInteraction(slashCommand("tag"));
+        joinLoads();
+        // Only the interaction received before the change ran the loaded command
+        assertEquals(1, command.invocations.get());
+        // The removed server was read again
+        assertEquals(2, repository.loads(SERVER_ID));
+    }
+
+    @Test
+    void changesOfOtherServersNeitherWaitForNorRepeatALoad() throws InterruptedException {
+        final CountingCommand command = new CountingCommand("tag");
+        repository.save(SERVER_ID, List.of(command));
+
+        repository.blockNextLoad(SERVER_ID);
+        handler.handleInteraction(slashCommand("tag"));
+        assertTrue(repository.loading.await(10, TimeUnit.SECONDS));
+        // Saving the other servers does not wait for the load in progress
+        for (long serverId = 1; serverId <= 1_000; serverId++) {
+            if (serverId != SERVER_ID) {
+                handler.registerServerInteraction(serverId, new CountingCommand("other"));
+                handler.replaceServerInteractions(serverId, List.of());
+            }
+        }
+        repository.release.countDown();
+        joinLoads();
+
+        assertEquals(1, command.invocations.get());
+        assertEquals(1, repository.loads(SERVER_ID));
+    }
+
+    /**
+     * Waits until a thread waits for the operation in progress on a server.
+     */
+    private static void awaitWaiting(final Thread thread) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (thread.getState() != Thread.State.WAITING) {
+            assertTrue(System.nanoTime() < deadline, "The thread did not wait for the load");
+            Thread.sleep(1);
+        }
+    }
+
+    private void joinLoads() throws InterruptedException {
+        final List<Thread> threads;
+        synchronized (loadThreads) {
+            threads = new ArrayList<>(loadThreads);
+        }
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private static SlashCommandInteraction slashCommand(final String commandName) {
+        return stub(SlashCommandInteraction.class, (method, args) -> switch (method) {
+            case "getCommandName", "getFullCommandName" -> commandName;
+            case "getRegisteredCommandServerId" -> Optional.of(SERVER_ID);
+            default -> null;
+        });
+    }
+
+    private static final class CountingCommand extends ServerSlashCommand {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private CountingCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations.incrementAndGet();
+        }
+    }
+
+    /**
+     * A repository which can hold a load after it read the saved commands, like a slow database.
+     */
+    private static final class BlockingRepository implements ServerCommandRepository {
+
+        private final Map<Long, List<AbstractApplicationCommand>> commands = new ConcurrentHashMap<>();
+        private final Map<Long, AtomicInteger> loads = new ConcurrentHashMap<>();
+        private final CountDownLatch loading = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile long blockedServerId;
+
+        private void blockNextLoad(final long serverId) {
+            blockedServerId = serverId;
+        }
+
+        private int loads(final long serverId) {
+            final AtomicInteger serverLoads = loads.get(serverId);
+            return serverLoads == null ? 0 : serverLoads.get();
+        }
+
+        @Override
+        public Collection<AbstractApplicationCommand> load(final long serverId) {
+            loads.computeIfAbsent(serverId, ignored -> new AtomicInteger()).incrementAndGet();
+            final List<AbstractApplicationCommand> saved = commands.getOrDefault(serverId, List.of());
+            if (blockedServerId == serverId) {
+                blockedServerId = 0;
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return saved;
+        }
+
+        @Override
+        public void save(final long serverId, final Collection<AbstractApplicationCommand> serverCommands) {
+            commands.put(serverId, new ArrayList<>(serverCommands));
+        }
+
+        @Override
+        public void delete(final long serverId) {
+            commands.remove(serverId);
+        }
+    }
+}
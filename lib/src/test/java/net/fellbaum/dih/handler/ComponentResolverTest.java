@@ -0,0 +1,48 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ComponentResolverTest {
+
+    @Test
+    void cachesResolutionsPerRouter() {
+        final ComponentResolver<ButtonComponent> resolver = new ComponentResolver<>();
+        final TestButton confirm = new TestButton("confirm_ban");
+        final ComponentRouter<ButtonComponent> router = ComponentRouter.<ButtonComponent>empty().with(confirm);
+        resolver.enableCache(10);
+
+        assertSame(confirm, resolver.resolve(router, "confirm_ban").component());
+        assertSame(confirm, resolver.resolve(router, "confirm_ban").component());
+        assertEquals(0, resolver.resolve(router, "unknown").size());
+        assertEquals(0, resolver.resolve(router, "unknown").size());
+        assertEquals(new CacheStats(2, 2, 2), resolver.getCacheStats());
+
+        final ComponentRouter<ButtonComponent> newRouter = router.with(new TestButton("confirm_.*"));
+
+        assertEquals(2, resolver.resolve(newRouter, "confirm_ban").size());
+        assertEquals(new CacheStats(2, 3, 2), resolver.getCacheStats());
+        resolver.invalidate();
+        assertEquals(new CacheStats(2, 3, 0), resolver.getCacheStats());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedCustomIds() {
+        final ComponentResolver<ButtonComponent> resolver = new ComponentResolver<>();
+        final ComponentRouter<ButtonComponent> router = ComponentRouter.<ButtonComponent>empty().with(new TestButton("page_\\d+"));
+        resolver.enableCache(2);
+
+        resolver.resolve(router, "page_1");
+        resolver.resolve(router, "page_2");
+        resolver.resolve(router, "page_1");
+        resolver.resolve(router, "page_3");
+        resolver.resolve(router, "page_1");
+        resolver.resolve(router, "page_2");
+
+        assertEquals(new CacheStats(2, 4, 2), resolver.getCacheStats());
+    }
+}
@@ -0,0 +1,50 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ComponentRouterTest {
+
+    @Test
+    void literalPrefixStopsAtRegexSyntax() {
+        assertEquals("next_page_button_", ComponentRouter.literalPrefix("next_page_button_\\d+"));
+        assertEquals("confirm_ban", ComponentRouter.literalPrefix("confirm_ban"));
+        assertEquals("confirm_ba", ComponentRouter.literalPrefix("confirm_ban?"));
+        assertEquals("a.b", ComponentRouter.literalPrefix("^a\\.b[0-9]"));
+        assertEquals("ticket:", ComponentRouter.literalPrefix("\\Qticket:\\E.*"));
+        assertEquals("", ComponentRouter.literalPrefix("yes|no"));
+        assertEquals("vote_", ComponentRouter.literalPrefix("vote_(yes|no)"));
+        assertEquals("", ComponentRouter.literalPrefix("(?i)menu"));
+    }
+
+    @Test
+    void resolvesUnmatchedSingleAndAmbiguousCustomIds() {
+        final TestButton page = new TestButton("next_page_button_\\d+");
+        final TestButton confirm = new TestButton("confirm_ban");
+        final TestButton anything = new TestButton("confirm.*");
+        final ComponentRouter<ButtonComponent> router = ComponentRouter.<ButtonComponent>empty()
+                .with(page)
+                .with(confirm)
+                .with(anything);
+
+        assertEquals(0, router.resolve("previous_page_button_3").size());
+        assertEquals(0, router.resolve("next_page_button_x").size());
+        assertSame(page, router.resolve("next_page_button_42").component());
+        assertSame(anything, router.resolve("confirm_kick").component());
+        assertEquals(2, router.resolve("confirm_ban").size());
+        assertEquals(3, router.size());
+    }
+
+    @Test
+    void addingRoutesKeepsPreviousRouterUnchanged() {
+        final ComponentRouter<ButtonComponent> first = ComponentRouter.<ButtonComponent>empty().with(new TestButton("a\\d"));
+        final ComponentRouter<ButtonComponent> second = first.with(new TestButton("a1"));
+
+        assertEquals(1, first.resolve("a1").size());
+        assertEquals(2, second.resolve("a1").size());
+    }
+}
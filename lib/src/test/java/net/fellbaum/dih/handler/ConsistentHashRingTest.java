@@ -0,0 +1,89 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConsistentHashRingTest {
+
+    private static final int SERVER_COUNT = 20_000;
+
+    @Test
+    void spreadsServersEvenly() {
+        final ConsistentHashRing ring = new ConsistentHashRing();
+        assertNull(ring.getOwner(1));
+        for (int node = 0; node < 4; node++) {
+            assertTrue(ring.addNode("node" + node));
+        }
+        assertFalse(ring.addNode("node0"));
+        assertEquals(4, ring.getNodes().size());
+
+        final Map<String, Integer> counts = new HashMap<>();
+        final long[] serverIds = serverIds();
+        for (final long serverId : serverIds) {
+            counts.merge(ring.getOwner(serverId), 1, Integer::sum);
+        }
+        for (final int count : counts.values()) {
+            assertTrue(count > SERVER_COUNT * 0.17 && count < SERVER_COUNT * 0.33, "Unbalanced share " + count);
+        }
+    }
+
+    @Test
+    void movesOnlyTheServersOfAddedAndRemovedNodes() {
+        final ConsistentHashRing ring = new ConsistentHashRing();
+        ring.addNode("a");
+        ring.addNode("b");
+        ring.addNode("c");
+        final long[] serverIds = serverIds();
+        final String[] before = new String[serverIds.length];
+        for (int i = 0; i < serverIds.length; i++) {
+            before[i] = ring.getOwner(serverIds[i]);
+        }
+
+        ring.addNode("d");
+        int moved = 0;
+        for (int i = 0; i < serverIds.length; i++) {
+            final String owner = ring.getOwner(serverIds[i]);
+            if (!owner.equals(before[i])) {
+                assertEquals("d", owner);
+                moved++;
+            }
+        }
+        assertTrue(moved > SERVER_COUNT * 0.17 && moved < SERVER_COUNT * 0.33, "Moved " + moved);
+
+        assertTrue(ring.removeNode("d"));
+        for (int i = 0; i < serverIds.length; i++) {
+            assertEquals(before[i], ring.getOwner(serverIds[i]));
+        }
+    }
+
+    @Test
+    void ringsWithTheSameNodesAgree() {
+        final ConsistentHashRing first = new ConsistentHashRing();
+        first.addNode("a");
+        first.addNode("b");
+        final ConsistentHashRing second = new ConsistentHashRing();
+        second.addNode("b");
+        second.addNode("a");
+        for (final long serverId : serverIds()) {
+            assertEquals(first.getOwner(serverId), second.getOwner(serverId));
+        }
+    }
+
+    private static long[] serverIds() {
+        // Snowflakes created over about a year
+        final SplittableRandom random = new SplittableRandom(7);
+        final long[] serverIds = new long[SERVER_COUNT];
+        for (int i = 0; i < SERVER_COUNT; i++) {
+            serverIds[i] = (random.nextLong(1L << 35) << 22) | random.nextInt(1 << 22);
+        }
+        return serverIds;
+    }
+}
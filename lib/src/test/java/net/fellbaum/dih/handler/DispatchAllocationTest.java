@@ -0,0 +1,206 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import net.fellbaum.dih.interaction.applicationcommand.UserContextMenuCommand;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.InteractionBase;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.UserContextMenuInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class DispatchAllocationTest {
+
+    private static final int WARMUP_DISPATCHES = 50_000;
+    private static final int DISPATCHES = 10_000;
+
+    /**
+     * Less than the smallest object, so allocating on every dispatch fails while rare allocations of the JVM itself,
+     * for example while recompiling, do not.
+     */
+    private static final long MAXIMUM_BYTES_PER_DISPATCH = 8;
+
+    private final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+    private final CountingSlashCommand globalCommand = new CountingSlashCommand();
+    private final CountingServerSlashCommand serverCommand = new CountingServerSlashCommand();
+    private final CountingUserContextMenuCommand userContextMenuCommand = new CountingUserContextMenuCommand();
+    private final CountingButton literalButton = new CountingButton("confirm");
+    private final CountingButton regexButton = new CountingButton("vote_\\d+");
+    private final SimpleInteractionHandler handler = new SimpleInteractionHandler()
+            .registerInteractions(List.of(globalCommand, serverCommand, userContextMenuCommand, literalButton, regexButton));
+
+    @Test
+    void dispatchesGlobalSlashCommandsWithoutAllocating() {
+        final SlashCommandInteraction interaction = cachedInteraction(SlashCommandInteraction.class, "ping", Optional.empty());
+        assertAllocationFree(() -> handler.handleSlashCommandInteraction(interaction));
+        assertEquals(WARMUP_DISPATCHES + DISPATCHES, globalCommand.invocations);
+    }
+
+    @Test
+    void dispatchesServerSlashCommandsWithoutAllocating() {
+        final SlashCommandInteraction interaction = cachedInteraction(SlashCommandInteraction.class, "tag", Optional.of(1L));
+        assertAllocationFree(() -> handler.handleSlashCommandInteraction(interaction));
+        assertEquals(WARMUP_DISPATCHES + DISPATCHES, serverCommand.invocations);
+    }
+
+    @Test
+    void dispatchesServerSlashCommandsOfTheComplexHandlerWithoutAllocating() {
+        final CountingServerSlashCommand command = new CountingServerSlashCommand();
+        final ComplexInteractionHandler complexHandler = new ComplexInteractionHandler();
+        // Like Javacord, every call returns another optional with another id, of one of many servers
+        final List<Optional<Long>> serverIds = new ArrayList<>();
+        for (int i = 0; i < 1_024; i++) {
+            final long serverId = 81_384_788_765_712_384L + i % 64;
+            complexHandler.registerServerInteraction(serverId, command);
+            serverIds.add(Optional.of(Long.valueOf(serverId)));
+        }
+        final List<Object> options = List.of();
+        final int[] calls = new int[1];
+        final SlashCommandInteraction interaction = stub(SlashCommandInteraction.class, (method, args) -> switch (method) {
+            case "getCommandName", "getFullCommandName" -> "tag";
+            case "getRegisteredCommandServerId" -> serverIds.get(calls[0]++ & 1_023);
+            case "getArguments", "getOptions" -> options;
+            default -> null;
+        });
+
+        assertAllocationFree(() -> complexHandler.handleSlashCommandInteraction(interaction));
+        assertEquals(WARMUP_DISPATCHES + DISPATCHES, command.invocations);
+    }
+
+    @Test
+    void dispatchesContextMenuCommandsWithoutAllocating() {
+        final UserContextMenuInteraction interaction = cachedInteraction(UserContextMenuInteraction.class, "Report", Optional.empty());
+        assertAllocationFree(() -> handler.handleUserContextMenuInteraction(interaction));
+        assertEquals(WARMUP_DISPATCHES + DISPATCHES, userContextMenuCommand.invocations);
+    }
+
+    @Test
+    void dispatchesButtonsWithoutAllocating() {
+        final ButtonInteraction literal = cachedInteraction(ButtonInteraction.class, "confirm", Optional.empty());
+        assertAllocationFree(() -> handler.handleButtonInteraction(literal));
+        assertEquals(WARMUP_DISPATCHES + DISPATCHES, literalButton.invocations);
+        // Custom id regexes allocate a matcher per dispatch
+        final ButtonInteraction regex = cachedInteraction(ButtonInteraction.class, "vote_42", Optional.empty());
+        handler.handleButtonInteraction(regex);
+        assertEquals(1, regexButton.invocations);
+    }
+
+    /**
+     * Dispatches until the code is compiled, then checks the bytes allocated by the current thread per dispatch.
+     * Without the optimizing compiler, for example with {@code -Xint} or {@code -XX:TieredStopAtLevel=1}, or with an
+     * agent like a coverage tool, the stubs and the dispatch path allocate anyway, so the check is skipped then.
+     */
+    private void assertAllocationFree(final Runnable dispatch) {
+        assumeTrue(allocationsAreMeasurable(), "Allocations are only measurable with the optimizing compiler and without agents");
+        final long bytesPerDispatch = allocatedBytesPerDispatch(dispatch);
+        assertTrue(bytesPerDispatch <= MAXIMUM_BYTES_PER_DISPATCH, bytesPerDispatch + " bytes allocated per dispatch");
+    }
+
+    private boolean allocationsAreMeasurable() {
+        if (!threads.isThreadAllocatedMemorySupported() || ManagementFactory.getCompilationMXBean() == null) {
+            return false;
+        }
+        for (final String argument : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (argument.equals("-Xint") || (argument.startsWith("-XX:TieredStopAtLevel=") && !argument.endsWith("=4")) || argument.equals("-XX:-UseCompiler")
+                    || argument.startsWith("-javaagent") || argument.startsWith("-agentlib") || argument.startsWith("-agentpath")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Dispatches until the code is compiled, then measures the bytes allocated by the current thread. Overheads of the
+     * measurement itself are far below one byte per dispatch.
+     */
+    private long allocatedBytesPerDispatch(final Runnable dispatch) {
+        for (int i = 0; i < WARMUP_DISPATCHES; i++) {
+            dispatch.run();
+        }
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < DISPATCHES; i++) {
+            dispatch.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / DISPATCHES;
+    }
+
+    /**
+     * Creates an interaction answering with values created once, like Javacord's cached fields.
+     */
+    private static <I extends InteractionBase> I cachedInteraction(final Class<I> type, final String name, final Optional<Long> serverId) {
+        final List<Object> options = List.of();
+        return stub(type, (method, args) -> switch (method) {
+            case "getCommandName", "getFullCommandName", "getCustomId" -> name;
+            case "getRegisteredCommandServerId" -> serverId;
+            case "getArguments", "getOptions" -> options;
+            default -> null;
+        });
+    }
+
+    private static final class CountingSlashCommand extends GlobalSlashCommand {
+
+        private int invocations;
+
+        private CountingSlashCommand() {
+            super("ping", "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    private static final class CountingServerSlashCommand extends ServerSlashCommand {
+
+        private int invocations;
+
+        private CountingServerSlashCommand() {
+            super("tag", "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    private static final class CountingUserContextMenuCommand extends UserContextMenuCommand {
+
+        private int invocations;
+
+        private CountingUserContextMenuCommand() {
+            super("Report", true);
+        }
+
+        @Override
+        public void runCommand(final UserContextMenuInteraction interaction) {
+            invocations++;
+        }
+    }
+
+    private static final class CountingButton extends ButtonComponent {
+
+        private int invocations;
+
+        private CountingButton(final String customIdPrefix) {
+            super(customIdPrefix);
+        }
+
+        @Override
+        public void runButtonComponent(final ButtonInteraction interaction) {
+            invocations++;
+        }
+    }
+}
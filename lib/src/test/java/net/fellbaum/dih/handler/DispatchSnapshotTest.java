@@ -0,0 +1,98 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.TestInteractions.TestGlobalCommand;
+import net.fellbaum.dih.TestInteractions.TestServerCommand;
+import net.fellbaum.dih.interaction.Interaction;
+import net.fellbaum.dih.interaction.InteractionRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DispatchSnapshotTest {
+
+    @Test
+    void registeringPublishesANewSnapshot() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        final DispatchSnapshot empty = handler.getSnapshot();
+        final TestGlobalCommand ping = new TestGlobalCommand("ping");
+        final TestServerCommand tag = new TestServerCommand("tag");
+        final TestButton confirm = new TestButton("confirm");
+        handler.registerInteractions(List.of(ping, tag, confirm));
+
+        final DispatchSnapshot snapshot = handler.getSnapshot();
+        assertNotSame(empty, snapshot);
+        assertNull(empty.globalCommands.getSlashCommand("ping"));
+        assertSame(ping, snapshot.globalCommands.getSlashCommand("ping"));
+        assertNull(snapshot.serverCommands.getSlashCommand("ping"));
+        assertSame(tag, snapshot.serverCommands.getSlashCommand("tag"));
+        assertSame(confirm, snapshot.buttonComponents.resolve("confirm").component());
+    }
+
+    @Test
+    void replacingDropsAllPreviousInteractions() {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+        handler.registerInteractions(List.of(new TestGlobalCommand("ping"), new TestButton("confirm")));
+        final TestGlobalCommand pong = new TestGlobalCommand("pong");
+        handler.replaceInteractions(List.of(pong));
+
+        final DispatchSnapshot snapshot = handler.getSnapshot();
+        assertNull(snapshot.globalCommands.getSlashCommand("ping"));
+        assertSame(pong, snapshot.globalCommands.getSlashCommand("pong"));
+        assertEquals(0, snapshot.buttonComponents.size());
+    }
+
+    @Test
+    void anInvalidInteractionLeavesTheSnapshotUnchanged() {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler();
+        handler.registerGlobalInteraction(new TestGlobalCommand("ping"));
+        final DispatchSnapshot before = handler.getSnapshot();
+
+        final List<Interaction> interactions = List.of(new TestGlobalCommand("pong"), new TestServerCommand("tag"));
+        assertThrows(IllegalArgumentException.class, () -> handler.replaceInteractions(interactions));
+        assertThrows(IllegalArgumentException.class, () -> handler.registerGlobalInteractions(interactions));
+        assertSame(before, handler.getSnapshot());
+    }
+
+    @Test
+    void rejectsRegistriesWithServerCommands() {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler();
+        final DispatchSnapshot before = handler.getSnapshot();
+
+        final InteractionRegistry registry = new InteractionRegistry() {
+            @Override
+            public List<Class<? extends Interaction>> getInteractionClasses() {
+                return List.of(TestGlobalCommand.class, TestServerCommand.class);
+            }
+
+            @Override
+            public List<Interaction> createInteractions() {
+                return List.of(new TestGlobalCommand("ping"), new TestServerCommand("tag"));
+            }
+        };
+        final IllegalArgumentException exception = assertThrows(IllegalArgumentException.class,
+                () -> handler.registerGlobalInteractions(registry));
+        assertTrue(exception.getMessage().contains(TestServerCommand.class.getName()), exception.getMessage());
+        assertSame(before, handler.getSnapshot());
+    }
+
+    @Test
+    void replacesTheCommandsOfOneServer() {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler();
+        handler.registerServerInteraction(1, new TestServerCommand("tag"));
+        handler.registerServerInteraction(2, new TestServerCommand("tag"));
+        handler.replaceServerInteractions(1, List.of(new TestServerCommand("settings"), new TestServerCommand("help")));
+        handler.replaceServerInteractions(2, List.of());
+
+        assertEquals(2, handler.getResidentServerCount());
+        assertThrows(IllegalArgumentException.class,
+                () -> handler.replaceServerInteractions(1, List.of(new TestGlobalCommand("ping"))));
+    }
+}
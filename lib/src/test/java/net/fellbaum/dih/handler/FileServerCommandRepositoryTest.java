@@ -0,0 +1,180 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FileServerCommandRepositoryTest {
+
+    private static final ServerCommandSerializer NAMES = new ServerCommandSerializer() {
+        @Override
+        public void write(final long serverId, final Collection<AbstractApplicationCommand> commands, final DataOutput output) throws IOException {
+            output.writeInt(commands.size());
+            for (final AbstractApplicationCommand command : commands) {
+                output.writeUTF(command.getName());
+            }
+        }
+
+        @Override
+        public Collection<AbstractApplicationCommand> read(final long serverId, final DataInput input) throws IOException {
+            final int size = input.readInt();
+            final List<AbstractApplicationCommand> commands = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                commands.add(new TestSlashCommand(input.readUTF()));
+            }
+            return commands;
+        }
+    };
+
+    @Test
+    void loadsTheLatestSavedCommandsAfterReopening() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            repository.save(1, List.of(new TestSlashCommand("tag")));
+            repository.save(2, List.of(new TestSlashCommand("tag")));
+            repository.save(1, List.of(new TestSlashCommand("tag"), new TestSlashCommand("settings")));
+            repository.delete(2);
+        }
+
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            assertEquals(List.of("tag", "settings"), names(repository.load(1)));
+            assertTrue(repository.load(2).isEmpty());
+            assertTrue(repository.load(3).isEmpty());
+            assertEquals(1, repository.size());
+            assertTrue(repository.getGarbageBytes() > 0);
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void compactionKeepsOnlyTheLatestRecords() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            for (long serverId = 1; serverId <= 100; serverId++) {
+                repository.save(serverId, List.of(new TestSlashCommand("old")));
+                repository.save(serverId, List.of(new TestSlashCommand("new")));
+            }
+            for (long serverId = 1; serverId <= 100; serverId += 2) {
+                repository.delete(serverId);
+            }
+            final long sizeBefore = Files.size(file);
+            repository.compact();
+
+            assertEquals(0, repository.getGarbageBytes());
+            assertEquals(50, repository.size());
+            assertTrue(Files.size(file) < sizeBefore / 3);
+            assertTrue(repository.load(1).isEmpty());
+            assertEquals(List.of("new"), names(repository.load(2)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void discardsAnIncompleteRecordAtTheEnd() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            repository.save(1, List.of(new TestSlashCommand("tag")));
+        }
+        final long complete = Files.size(file);
+        // The header of a record whose commands were never written
+        Files.write(file, new byte[]{0, 0, 0, 0, 0, 0, 0, 2, 0, 0, 0, 100, 1}, StandardOpenOption.APPEND);
+
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            assertEquals(complete, Files.size(file));
+            assertEquals(List.of("tag"), names(repository.load(1)));
+            repository.save(2, List.of(new TestSlashCommand("settings")));
+            assertEquals(List.of("settings"), names(repository.load(2)));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void discardsRecordsFromTheFirstCorruptOneOn() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        final long intact;
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            repository.save(1, List.of(new TestSlashCommand("tag")));
+            intact = Files.size(file);
+            repository.save(2, List.of(new TestSlashCommand("settings")));
+            repository.save(3, List.of(new TestSlashCommand("ban")));
+        }
+        // Flips a bit in the commands of the second record
+        final byte[] bytes = Files.readAllBytes(file);
+        bytes[(int) intact + 20] ^= 1;
+        Files.write(file, bytes);
+
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            assertEquals(intact, Files.size(file));
+            assertEquals(List.of("tag"), names(repository.load(1)));
+            assertTrue(repository.load(2).isEmpty());
+            assertTrue(repository.load(3).isEmpty());
+            assertThrows(IllegalArgumentException.class, () -> repository.save(0, List.of()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void rejectsFilesOfAnotherFormat() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        Files.write(file, new byte[]{0, 0, 0, 0, 0, 0, 0, 1, 0, 0, 0, 0});
+        try {
+            assertThrows(IOException.class, () -> new FileServerCommandRepository(file, NAMES));
+            assertEquals(12, Files.size(file));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    void staysUsableIfCompactionFails() throws IOException {
+        final Path file = Files.createTempFile("server-commands", ".bin");
+        final Path compacted = file.resolveSibling(file.getFileName() + ".compact");
+        try (FileServerCommandRepository repository = new FileServerCommandRepository(file, NAMES)) {
+            repository.save(1, List.of(new TestSlashCommand("tag")));
+            // The compacted file cannot be created where a directory is
+            Files.createDirectory(compacted);
+            assertThrows(IOException.class, repository::compact);
+
+            assertEquals(List.of("tag"), names(repository.load(1)));
+            repository.save(2, List.of(new TestSlashCommand("settings")));
+            assertEquals(List.of("settings"), names(repository.load(2)));
+        } finally {
+            Files.deleteIfExists(compacted);
+            Files.delete(file);
+        }
+    }
+
+    private static List<String> names(final Collection<AbstractApplicationCommand> commands) {
+        return commands.stream().map(AbstractApplicationCommand::getName).toList();
+    }
+
+    private static final class TestSlashCommand extends ServerSlashCommand {
+
+        private TestSlashCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.TestInteractions.TestServerCommand;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class InMemoryInteractionMetricsTest {
+
+    @Test
+    void recordsSeriesAndCountersPerType() {
+        final InMemoryInteractionMetrics metrics = new InMemoryInteractionMetrics();
+        final TestButton button = new TestButton("test");
+        metrics.recordHandled(DispatchType.BUTTON, button, 1_000, 20_000, false);
+        metrics.recordHandled(DispatchType.BUTTON, button, 3_000, 40_000, true);
+        metrics.recordUnmatched(DispatchType.SLASH_COMMAND);
+        metrics.recordAmbiguous(DispatchType.BUTTON);
+        metrics.recordRejected(DispatchType.BUTTON, button);
+
+        final InteractionMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.series().size());
+        final InteractionSeriesSnapshot series = snapshot.series().get(0);
+        assertEquals("TestButton", series.name());
+        assertEquals(2, series.handledCount());
+        assertEquals(1, series.failedCount());
+        assertEquals(2_000, series.queueTime().getMeanNanos());
+        assertEquals(40_000, series.executionTime().getMaxNanos());
+        assertEquals(1, snapshot.unmatchedCounts().get(DispatchType.SLASH_COMMAND).longValue());
+        assertEquals(0, snapshot.unmatchedCounts().get(DispatchType.BUTTON).longValue());
+        assertEquals(1, snapshot.ambiguousCounts().get(DispatchType.BUTTON).longValue());
+        assertEquals(1, snapshot.rejectedCounts().get(DispatchType.BUTTON).longValue());
+    }
+
+    @Test
+    void aggregatesNamesAboveTheLimit() {
+        final InMemoryInteractionMetrics metrics = new InMemoryInteractionMetrics(2);
+        for (int i = 0; i < 100; i++) {
+            metrics.recordHandled(DispatchType.SLASH_COMMAND, new TestServerCommand("command" + i), 1_000, 1_000, false);
+        }
+        metrics.recordHandled(DispatchType.SLASH_COMMAND, new TestServerCommand("command0"), 1_000, 1_000, false);
+
+        final Map<String, Long> handledCounts = new HashMap<>();
+        for (final InteractionSeriesSnapshot series : metrics.snapshot().series()) {
+            handledCounts.put(series.name(), series.handledCount());
+        }
+        assertEquals(Map.of("command0", 2L, "command1", 1L, InMemoryInteractionMetrics.OTHER_SERIES_NAME, 98L), handledCounts);
+    }
+}
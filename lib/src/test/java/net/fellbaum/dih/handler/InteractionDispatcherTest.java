@@ -0,0 +1,341 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.TestInteractions.TestGlobalCommand;
+import net.fellbaum.dih.interaction.Interaction;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.InteractionBase;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.javacord.api.interaction.callback.InteractionImmediateResponseBuilder;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionDispatcherTest {
+
+    private final TestGlobalCommand command = new TestGlobalCommand("ping");
+    private final TestButton button = new TestButton("confirm");
+
+    @Test
+    void runsHandlersOnTheExecutorOfTheirClass() {
+        final List<Interaction> handled = new ArrayList<>();
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> handled.add(target));
+        final QueuedExecutor defaultExecutor = new QueuedExecutor();
+        final QueuedExecutor buttonExecutor = new QueuedExecutor();
+
+        assertTrue(dispatcher.runsInline(command));
+        assertTrue(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction(SlashCommandInteraction.class)));
+        assertEquals(List.of(command), handled);
+
+        dispatcher.setDefaultExecutor(defaultExecutor);
+        dispatcher.setExecutor(TestButton.class, buttonExecutor);
+        assertFalse(dispatcher.runsInline(command));
+        assertSame(buttonExecutor, dispatcher.getExecutor(button));
+        dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction(SlashCommandInteraction.class));
+        dispatcher.dispatch(DispatchType.BUTTON, button, interaction(ButtonInteraction.class));
+        assertEquals(1, defaultExecutor.tasks.size());
+        assertEquals(1, buttonExecutor.tasks.size());
+        assertEquals(1, handled.size());
+
+        defaultExecutor.runAll();
+        buttonExecutor.runAll();
+        assertEquals(List.of(command, command, button), handled);
+
+        dispatcher.setExecutor(TestButton.class, null);
+        assertSame(defaultExecutor, dispatcher.getExecutor(button));
+    }
+
+    @Test
+    void releasesTheAdmissionOfInteractionsTheExecutorRejects() {
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+        });
+        dispatcher.setDefaultExecutor(task -> {
+            throw new RejectedExecutionException();
+        });
+
+        assertFalse(dispatcher.dispatch(DispatchType.BUTTON, button, interaction(ButtonInteraction.class)));
+        assertEquals(new AdmissionStats(0, Integer.MAX_VALUE, 1, 0),
+                dispatcher.getAdmissionControl().getStats(DispatchType.BUTTON));
+    }
+
+    @Test
+    void rejectsInteractionsWhichCannotBeScheduled() {
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+        });
+        dispatcher.setBusyMessage("Busy");
+        dispatcher.getAdmissionControl().setLimit(DispatchType.SLASH_COMMAND, 1);
+        final InMemoryInteractionMetrics metrics = new InMemoryInteractionMetrics();
+        dispatcher.setMetrics(metrics);
+        final List<String> responses = new ArrayList<>();
+
+        dispatcher.setDefaultExecutor(task -> {
+            throw new IllegalStateException("Shut down");
+        });
+        assertFalse(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+        dispatcher.setDefaultExecutor(new QueuedExecutor());
+        dispatcher.setOrderingKey(interaction -> {
+            throw new IllegalArgumentException("No key");
+        });
+        assertFalse(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+
+        assertEquals(List.of("Busy", "Busy"), responses);
+        assertEquals(2L, metrics.snapshot().rejectedCounts().get(DispatchType.SLASH_COMMAND).longValue());
+        // The permits were released, so the limit of one interaction still admits the next one
+        dispatcher.setOrderingKey(null);
+        assertTrue(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+    }
+
+    @Test
+    void runsInteractionsWithTheSameKeyInOrder() throws InterruptedException {
+        final int keys = 4;
+        final int interactionsPerKey = 500;
+        final List<List<Integer>> handled = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            handled.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        final CountDownLatch done = new CountDownLatch(keys * interactionsPerKey);
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+            final long id = interaction.getId();
+            handled.get((int) (id % keys)).add((int) (id / keys));
+            done.countDown();
+        });
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        dispatcher.setDefaultExecutor(executor);
+        dispatcher.setOrderingKey(interaction -> interaction.getId() % keys);
+
+        try {
+            for (int i = 0; i < keys * interactionsPerKey; i++) {
+                final long id = i;
+                dispatcher.dispatch(DispatchType.BUTTON, button, stub(ButtonInteraction.class,
+                        (method, args) -> method.equals("getId") ? id : null));
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        for (final List<Integer> keyHandled : handled) {
+            assertEquals(interactionsPerKey, keyHandled.size());
+            for (int i = 0; i < interactionsPerKey; i++) {
+                assertEquals(i, keyHandled.get(i).intValue());
+            }
+        }
+    }
+
+    @Test
+    void rejectsCommandsAboveTheLimitWithTheBusyMessage() {
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+        });
+        final QueuedExecutor executor = new QueuedExecutor();
+        dispatcher.setDefaultExecutor(executor);
+        dispatcher.getAdmissionControl().setLimit(DispatchType.SLASH_COMMAND, 1);
+        dispatcher.setBusyMessage("Busy");
+        final List<String> responses = new ArrayList<>();
+
+        assertTrue(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+        assertFalse(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+        assertFalse(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+        assertEquals(List.of("Busy", "Busy"), responses);
+        assertEquals(new AdmissionStats(1, 1, 1, 2), dispatcher.getAdmissionControl().getStats(DispatchType.SLASH_COMMAND));
+
+        // Other types have their own limit
+        assertTrue(dispatcher.dispatch(DispatchType.BUTTON, button, interaction(ButtonInteraction.class)));
+
+        executor.runAll();
+        assertEquals(0, dispatcher.getAdmissionControl().getStats(DispatchType.SLASH_COMMAND).inFlight());
+        assertTrue(dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, respondingInteraction(responses)));
+    }
+
+    @Test
+    void dropsComponentsAboveTheLimitSilently() {
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+        });
+        dispatcher.setDefaultExecutor(new QueuedExecutor());
+        dispatcher.getAdmissionControl().setLimit(DispatchType.BUTTON, 1);
+        final List<String> responses = new ArrayList<>();
+
+        assertTrue(dispatcher.dispatch(DispatchType.BUTTON, button, respondingInteraction(responses)));
+        assertFalse(dispatcher.dispatch(DispatchType.BUTTON, button, respondingInteraction(responses)));
+        assertEquals(List.of(), responses);
+        assertEquals(1, dispatcher.getAdmissionControl().getStats(DispatchType.BUTTON).rejectedCount());
+    }
+
+    @Test
+    void shedsLoadBeyondTheLimitUnderConcurrentBursts() throws InterruptedException {
+        final int limit = 8;
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maximumRunning = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+            maximumRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+            try {
+                release.await(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            running.decrementAndGet();
+        });
+        final ExecutorService executor = Executors.newCachedThreadPool();
+        dispatcher.setDefaultExecutor(executor);
+        dispatcher.getAdmissionControl().setLimit(DispatchType.BUTTON, limit);
+
+        final int threadCount = 8;
+        final int interactionsPerThread = 100;
+        final List<Thread> threads = new ArrayList<>();
+        try {
+            for (int t = 0; t < threadCount; t++) {
+                final Thread thread = new Thread(() -> {
+                    for (int i = 0; i < interactionsPerThread; i++) {
+                        dispatcher.dispatch(DispatchType.BUTTON, button, interaction(ButtonInteraction.class));
+                    }
+                });
+                thread.start();
+                threads.add(thread);
+            }
+            for (final Thread thread : threads) {
+                thread.join();
+            }
+
+            final AdmissionStats stats = dispatcher.getAdmissionControl().getStats(DispatchType.BUTTON);
+            assertEquals(limit, stats.admittedCount());
+            assertEquals(threadCount * interactionsPerThread - limit, stats.rejectedCount());
+            assertEquals(limit, stats.inFlight());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertTrue(maximumRunning.get() <= limit);
+        assertEquals(0, dispatcher.getAdmissionControl().getStats(DispatchType.BUTTON).inFlight());
+    }
+
+    @Test
+    void defersSlowInteractionsOnlyForEnabledClasses() throws Exception {
+        final AutoDeferrals autoDeferrals = new AutoDeferrals(TimeUnit.MILLISECONDS.toNanos(20), true);
+        final CountDownLatch deferred = new CountDownLatch(1);
+        final AtomicInteger deferrals = new AtomicInteger();
+        final List<Boolean> claims = new ArrayList<>();
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+            try {
+                // A slow handler which only claims the response after the threshold
+                deferred.await(200, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            claims.add(autoDeferrals.claimImmediateResponse(interaction.getId()));
+        });
+        final SlashCommandInteraction interaction = stub(SlashCommandInteraction.class, (method, args) -> switch (method) {
+            case "getId" -> 1L;
+            case "respondLater" -> {
+                deferrals.incrementAndGet();
+                deferred.countDown();
+                yield CompletableFuture.completedFuture(null);
+            }
+            default -> null;
+        });
+        dispatcher.setAutoDeferrals(autoDeferrals);
+
+        try {
+            // Handlers which respond on their own are never deferred
+            dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction);
+            assertEquals(0, deferrals.get());
+
+            dispatcher.setAutoDeferred(TestGlobalCommand.class, true);
+            dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction);
+            assertEquals(1, deferrals.get());
+            assertEquals(List.of(true, false), claims);
+            assertEquals(1, autoDeferrals.getStats().deferredCount());
+            // Completes once the deferral has been accepted
+            autoDeferrals.getDeferral(1).get(10, TimeUnit.SECONDS);
+        } finally {
+            dispatcher.setAutoDeferrals(null);
+        }
+    }
+
+    @Test
+    void doesNotDeferInteractionsWhoseHandlerClaimedTheResponse() throws InterruptedException {
+        final AutoDeferrals autoDeferrals = new AutoDeferrals(TimeUnit.MILLISECONDS.toNanos(20), true);
+        final AtomicInteger deferrals = new AtomicInteger();
+        final List<Boolean> claims = new ArrayList<>();
+        final InteractionDispatcher dispatcher = new InteractionDispatcher((type, target, interaction) -> {
+            claims.add(autoDeferrals.claimImmediateResponse(interaction.getId()));
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        final SlashCommandInteraction interaction = stub(SlashCommandInteraction.class, (method, args) -> switch (method) {
+            case "getId" -> 2L;
+            case "respondLater" -> {
+                deferrals.incrementAndGet();
+                yield CompletableFuture.completedFuture(null);
+            }
+            default -> null;
+        });
+        dispatcher.setAutoDeferrals(autoDeferrals);
+        dispatcher.setAutoDeferred(TestGlobalCommand.class, true);
+
+        try {
+            dispatcher.dispatch(DispatchType.SLASH_COMMAND, command, interaction);
+            Thread.sleep(100);
+            assertEquals(List.of(true), claims);
+            assertEquals(0, deferrals.get());
+            assertEquals(0, autoDeferrals.getStats().deferredCount());
+        } finally {
+            dispatcher.setAutoDeferrals(null);
+        }
+    }
+
+    private static <I extends InteractionBase> I interaction(final Class<I> type) {
+        return stub(type, (method, args) -> null);
+    }
+
+    private static ButtonInteraction respondingInteraction(final List<String> responses) {
+        final InteractionImmediateResponseBuilder responder = stub(InteractionImmediateResponseBuilder.class, (method, args) -> {
+            if (method.equals("setContent")) {
+                responses.add((String) args[0]);
+            }
+            return method.equals("respond") ? CompletableFuture.completedFuture(null) : null;
+        });
+        return stub(ButtonInteraction.class, (method, args) -> method.equals("createImmediateResponder") ? responder : null);
+    }
+
+    /**
+     * Holds the tasks until they are run explicitly.
+     */
+    private static final class QueuedExecutor implements Executor {
+
+        private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void execute(final Runnable task) {
+            tasks.add(task);
+        }
+
+        private void runAll() {
+            Runnable task;
+            while ((task = tasks.poll()) != null) {
+                task.run();
+            }
+        }
+    }
+}
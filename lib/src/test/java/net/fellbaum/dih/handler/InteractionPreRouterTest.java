@@ -0,0 +1,74 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.TestInteractions.TestButton;
+import net.fellbaum.dih.TestInteractions.TestGlobalCommand;
+import net.fellbaum.dih.TestInteractions.TestServerCommand;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionPreRouterTest {
+
+    private final InMemoryInteractionMetrics metrics = new InMemoryInteractionMetrics();
+    private final TestGlobalCommand ping = new TestGlobalCommand("ping");
+    private final TestServerCommand tag = new TestServerCommand("tag");
+    private final TestButton confirm = new TestButton("confirm_\\d+");
+    private final InteractionPreRouter preRouter = new InteractionPreRouter(new SimpleInteractionHandler()
+            .setMetrics(metrics)
+            .registerInteractions(List.of(ping, tag, confirm)));
+
+    @Test
+    void resolvesCommandsByNameAndServer() {
+        final PreRoutedInteraction global = route("{\"id\":\"1\",\"type\":2,\"guild_id\":\"5\",\"data\":"
+                + "{\"options\":[{\"name\":\"tag\",\"type\":3,\"value\":\"x\"}],\"type\":1,\"name\":\"ping\"}}");
+        assertSame(ping, global.getTarget().orElseThrow());
+        assertEquals(DispatchType.SLASH_COMMAND, global.getDispatchType().orElseThrow());
+        assertEquals(5, global.getServerId().getAsLong());
+
+        final PreRoutedInteraction server = route("{\"type\":2,\"data\":{\"name\":\"tag\",\"guild_id\":\"5\",\"type\":1}}");
+        assertSame(tag, server.getTarget().orElseThrow());
+        assertTrue(route("{\"type\":2,\"data\":{\"name\":\"tag\",\"type\":1}}").isUnmatched());
+    }
+
+    @Test
+    void dropsUnknownCommandsAndCustomIds() {
+        final PreRoutedInteraction command = route("{\"type\":4,\"data\":{\"name\":\"unknown\",\"type\":1}}");
+        assertTrue(command.isUnmatched());
+        assertEquals("unknown", command.getCommandName().orElseThrow());
+        assertTrue(route("{\"type\":3,\"data\":{\"component_type\":2,\"custom_id\":\"cancel_1\"}}").isUnmatched());
+
+        final InteractionMetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.unmatchedCounts().get(DispatchType.AUTOCOMPLETE).longValue());
+        assertEquals(1, snapshot.unmatchedCounts().get(DispatchType.BUTTON).longValue());
+    }
+
+    @Test
+    void resolvesButtonsOfGatewayDispatches() {
+        final PreRoutedInteraction button = route("{\"op\":0,\"s\":42,\"t\":\"INTERACTION_CREATE\",\"d\":"
+                + "{\"type\":3,\"message\":{\"content\":\"{\\\"custom_id\\\":\\\"x\\\"}\"},"
+                + "\"data\":{\"custom_id\":\"confirm_\\u0031\",\"component_type\":2}}}");
+        assertSame(confirm, button.getTarget().orElseThrow());
+        assertEquals("confirm_1", button.getCustomId().orElseThrow());
+
+        final PreRoutedInteraction other = route("{\"op\":0,\"t\":\"MESSAGE_CREATE\",\"d\":{\"type\":3,\"data\":{}}}");
+        assertFalse(other.isUnmatched());
+        assertFalse(other.getDispatchType().isPresent());
+    }
+
+    @Test
+    void rejectsMalformedPayloads() {
+        assertThrows(IllegalArgumentException.class, () -> route("{\"type\":2,\"data\":{\"name\":\"ping"));
+        assertThrows(IllegalArgumentException.class, () -> route("[]"));
+    }
+
+    private PreRoutedInteraction route(final String payload) {
+        return preRouter.route(payload.getBytes(StandardCharsets.UTF_8));
+    }
+}
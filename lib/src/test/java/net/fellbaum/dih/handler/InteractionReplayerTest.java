@@ -0,0 +1,143 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+import net.fellbaum.dih.interaction.component.ButtonComponent;
+import org.javacord.api.interaction.ButtonInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionReplayerTest {
+
+    private static final RecordedInteraction.Option SUBCOMMAND = new RecordedInteraction.Option("add", null, true, false,
+            List.of(new RecordedInteraction.Option("name", "Zoë", false, false, List.of()),
+                    new RecordedInteraction.Option("count", "3", false, false, List.of())));
+
+    @Test
+    void recordsInteractionsCompactly() throws IOException {
+        final Path file = Files.createTempFile("interactions", ".log");
+        try {
+            final SimpleInteractionHandler handler = new SimpleInteractionHandler();
+            final List<RecordedInteraction> interactions = List.of(
+                    new RecordedInteraction(0, DispatchType.SLASH_COMMAND, 1234567890123L, 0, 42, 7, 99, "tag", List.of(SUBCOMMAND)),
+                    new RecordedInteraction(0, DispatchType.BUTTON, 0, 0, 43, 7, 0, "confirm_1", List.of()));
+            try (InteractionRecorder recorder = new InteractionRecorder(file)) {
+                handler.setRecorder(recorder);
+                for (final RecordedInteraction interaction : interactions) {
+                    handler.handleInteraction(StubInteractions.create(interaction, 1));
+                }
+                assertEquals(2, recorder.getRecordedCount());
+            }
+            assertTrue(Files.size(file) < 80, "Log of " + Files.size(file) + " bytes");
+
+            // A record torn by a crash is ignored
+            Files.write(file, new byte[]{(byte) 0x80}, StandardOpenOption.APPEND);
+            final List<RecordedInteraction> read = InteractionReplayer.read(file);
+            assertEquals(2, read.size());
+            for (int i = 0; i < interactions.size(); i++) {
+                final RecordedInteraction expected = interactions.get(i);
+                final RecordedInteraction actual = read.get(i);
+                assertEquals(expected.type(), actual.type());
+                assertEquals(expected.serverId(), actual.serverId());
+                assertEquals(expected.userId(), actual.userId());
+                assertEquals(expected.channelId(), actual.channelId());
+                assertEquals(expected.commandId(), actual.commandId());
+                assertEquals(expected.name(), actual.name());
+                assertEquals(expected.options(), actual.options());
+            }
+            assertTrue(read.get(1).arrivalNanos() >= read.get(0).arrivalNanos());
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    void replaysAgainstStubInteractions() {
+        final TagCommand tag = new TagCommand();
+        final AtomicInteger clicks = new AtomicInteger();
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler()
+                .registerInteractions(List.of(tag, new ButtonComponent("confirm_\\d+") {
+                    @Override
+                    public void runButtonComponent(final ButtonInteraction interaction) {
+                        interaction.createImmediateResponder().setContent("Confirmed").respond();
+                        clicks.incrementAndGet();
+                    }
+                }));
+        final List<RecordedInteraction> interactions = List.of(
+                new RecordedInteraction(0, DispatchType.SLASH_COMMAND, 1, 0, 42, 7, 99, "tag", List.of(SUBCOMMAND)),
+                new RecordedInteraction(20_000_000, DispatchType.BUTTON, 1, 0, 42, 7, 0, "confirm_1", List.of()),
+                new RecordedInteraction(40_000_000, DispatchType.BUTTON, 1, 0, 42, 7, 0, "unknown", List.of()));
+
+        final InteractionReplayReport report = new InteractionReplayer(handler, interactions).setSpeed(2).replay();
+        assertEquals(3, report.replayed());
+        assertEquals(2, report.handled());
+        assertEquals(0, report.failed());
+        assertEquals(1, report.unmatched());
+        assertEquals(2, report.latency().getCount());
+        assertEquals(3, report.lag().getCount());
+        assertTrue(report.duration().toMillis() >= 20, "Replayed in " + report.duration());
+        assertEquals("tag add Zoë 3", tag.received);
+        assertEquals(1, clicks.get());
+
+        final InteractionReplayReport fast = new InteractionReplayer(handler, interactions)
+                .setSpeed(Double.POSITIVE_INFINITY)
+                .replay();
+        assertTrue(fast.duration().toMillis() < 20, "Replayed in " + fast.duration());
+        assertTrue(fast.getThroughput() > 0);
+    }
+
+    @Test
+    void answersEntityOptionsWithTheRecordedIds() {
+        final AtomicReference<String> received = new AtomicReference<>();
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler()
+                .registerInteractions(List.of(new GlobalSlashCommand("ban", "Test command") {
+                    @Override
+                    public void runCommand(final SlashCommandInteraction interaction) {
+                        received.set(interaction.getArguments().get(0).getUserValue().orElseThrow().getId() + " "
+                                + interaction.getArguments().get(1).getChannelValue().orElseThrow().getId() + " "
+                                + interaction.getArguments().get(2).getRoleValue().isPresent() + " "
+                                + interaction.getChannel().orElseThrow().getId() + " "
+                                + interaction.getCommandId());
+                    }
+                }));
+        final List<RecordedInteraction> interactions = List.of(new RecordedInteraction(0, DispatchType.SLASH_COMMAND,
+                1, 0, 42, 7, 99, "ban", List.of(
+                        new RecordedInteraction.Option("user", "1234567890123", false, false, List.of()),
+                        new RecordedInteraction.Option("channel", "55", false, false, List.of()),
+                        new RecordedInteraction.Option("role", null, false, false, List.of()))));
+
+        final InteractionReplayReport report = new InteractionReplayer(handler, interactions)
+                .setSpeed(Double.POSITIVE_INFINITY)
+                .replay();
+        assertEquals(1, report.handled());
+        assertEquals(0, report.failed());
+        assertEquals("1234567890123 55 false 7 99", received.get());
+    }
+
+    private static final class TagCommand extends GlobalSlashCommand {
+
+        private String received;
+
+        private TagCommand() {
+            super("tag", "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            received = interaction.getFullCommandName() + " "
+                    + interaction.getArguments().get(0).getStringValue().orElseThrow() + " "
+                    + interaction.getArguments().get(1).getLongValue().orElseThrow();
+            interaction.respondLater().thenAccept(updater -> updater.setContent("Added").update());
+        }
+    }
+}
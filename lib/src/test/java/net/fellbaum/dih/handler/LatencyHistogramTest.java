@@ -0,0 +1,57 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void bucketsCoverAllValuesWithBoundedError() {
+        assertTrue(LatencyHistogram.bucketUpperBound(LatencyHistogram.OVERFLOW_BUCKET - 1) >= LatencyHistogram.MAX_TRACKABLE_NANOS);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.bucketUpperBound(LatencyHistogram.OVERFLOW_BUCKET));
+        assertEquals(LatencyHistogram.OVERFLOW_BUCKET, LatencyHistogram.bucketIndex(Long.MAX_VALUE));
+        for (int i = 1; i < LatencyHistogram.OVERFLOW_BUCKET; i++) {
+            final long lowerBound = LatencyHistogram.bucketUpperBound(i - 1) + 1;
+            final long upperBound = LatencyHistogram.bucketUpperBound(i);
+            assertEquals(i, LatencyHistogram.bucketIndex(lowerBound));
+            assertEquals(i, LatencyHistogram.bucketIndex(upperBound));
+            assertTrue(upperBound - lowerBound <= lowerBound / LatencyHistogram.SUB_BUCKETS);
+        }
+    }
+
+    @Test
+    void reportsPercentilesOfRecordedValues() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1_000L);
+        }
+        final LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMaxNanos());
+        assertEquals(500_500, snapshot.getMeanNanos());
+        assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+        final long median = snapshot.getValueAtPercentile(50);
+        assertTrue(median >= 500_000 && median <= 500_000 * 33 / 32, String.valueOf(median));
+        assertEquals(1000, snapshot.getCountAtOrBelow(1_000_000));
+        assertEquals(0, snapshot.getCountAtOrBelow(900));
+    }
+
+    @Test
+    void recordsLatenciesAboveAnHourIntoTheOverflowBucket() {
+        final LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1_000);
+        histogram.record(LatencyHistogram.MAX_TRACKABLE_NANOS * 2);
+        histogram.record(Long.MAX_VALUE / 4);
+        final LatencySnapshot snapshot = histogram.snapshot();
+
+        assertEquals(3, snapshot.getCount());
+        assertEquals(Long.MAX_VALUE / 4, snapshot.getValueAtPercentile(100));
+        assertEquals(Long.MAX_VALUE / 4, snapshot.getValueAtPercentile(50));
+        assertEquals(1, snapshot.getCountAtOrBelow(LatencyHistogram.MAX_TRACKABLE_NANOS));
+        assertEquals(3, snapshot.getCountAtOrBelow(Long.MAX_VALUE));
+        assertEquals(0, new LatencyHistogram().snapshot().getCountAtOrBelow(Long.MAX_VALUE));
+    }
+}
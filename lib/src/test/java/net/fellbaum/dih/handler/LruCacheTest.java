@@ -0,0 +1,79 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LruCacheTest {
+
+    @Test
+    void evictsTheLeastRecentlyUsedEntryOfSmallCaches() {
+        final LruCache<String, Integer> cache = new LruCache<>(2, 16);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        cache.get("a");
+        cache.put("c", 3);
+
+        assertEquals(1, cache.get("a").intValue());
+        assertNull(cache.get("b"));
+        assertEquals(3, cache.get("c").intValue());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void boundsStripedCachesByTheirMaximumSize() {
+        final LruCache<Integer, Integer> cache = new LruCache<>(1_000, 8);
+        for (int i = 0; i < 10_000; i++) {
+            cache.put(i, i);
+        }
+
+        assertEquals(1_000, cache.size());
+        // The most recently added keys survive in every stripe
+        assertEquals(9_999, cache.get(9_999).intValue());
+        cache.clear();
+        assertEquals(0, cache.size());
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new LruCache<>(1, 0));
+    }
+
+    @Test
+    void keepsEntriesConsistentUnderConcurrentAccess() throws InterruptedException {
+        final LruCache<Integer, Integer> cache = new LruCache<>(512, 8);
+        final CountDownLatch start = new CountDownLatch(1);
+        final AtomicInteger wrongValues = new AtomicInteger();
+        final List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            final Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 20_000; i++) {
+                    final int key = i % 1_024;
+                    final Integer value = cache.get(key);
+                    if (value != null && value != key) {
+                        wrongValues.incrementAndGet();
+                    }
+                    cache.put(key, key);
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (final Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, wrongValues.get());
+        assertEquals(512, cache.size());
+    }
+}
@@ -0,0 +1,164 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.AbstractApplicationCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PartitionedInteractionHandlerTest {
+
+    private static final int SERVER_COUNT = 200;
+
+    private final MapRepository repository = new MapRepository();
+    private final ConsistentHashRing ring = new ConsistentHashRing();
+    private final LoopbackPartitionTransport transport = new LoopbackPartitionTransport();
+    private final ComplexInteractionHandler first = node("first");
+    private final ComplexInteractionHandler second = node("second");
+
+    @Test
+    void keepsOnlyOwnedServersInMemory() {
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            first.registerServerInteraction(serverId, new CountingCommand("tag"));
+        }
+        assertEquals(SERVER_COUNT, repository.commands.size());
+        int owned = 0;
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            owned += first.ownsServer(serverId) ? 1 : 0;
+        }
+        assertEquals(owned, first.getResidentServerCount());
+        assertTrue(owned > SERVER_COUNT / 4 && owned < SERVER_COUNT * 3 / 4, "Owns " + owned);
+        assertEquals(0, second.getResidentServerCount());
+    }
+
+    @Test
+    void forwardsInteractionsToTheOwner() {
+        final long serverId = serverOwnedBy(second);
+        final CountingCommand command = new CountingCommand("tag");
+        first.registerServerInteraction(serverId, command);
+
+        first.handleInteraction(slashCommand(serverId, "tag"));
+        assertEquals(1, command.invocations.get());
+        assertEquals(0, first.getResidentServerCount());
+        assertEquals(1, second.getResidentServerCount());
+
+        // The owner reloads commands changed by another node
+        final CountingCommand replacement = new CountingCommand("tag");
+        first.replaceServerInteractions(serverId, List.of(replacement));
+        assertEquals(0, second.getResidentServerCount());
+        first.handleInteraction(slashCommand(serverId, "tag"));
+        assertEquals(1, command.invocations.get());
+        assertEquals(1, replacement.invocations.get());
+    }
+
+    @Test
+    void rebalancesWhenNodesJoinAndLeave() {
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            (first.ownsServer(serverId) ? first : second).registerServerInteraction(serverId, new CountingCommand("tag"));
+        }
+        final int residentBefore = first.getResidentServerCount() + second.getResidentServerCount();
+        assertEquals(SERVER_COUNT, residentBefore);
+
+        final ComplexInteractionHandler third = node("third");
+        assertTrue(first.getResidentServerCount() + second.getResidentServerCount() < SERVER_COUNT);
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            first.handleInteraction(slashCommand(serverId, "tag"));
+        }
+        assertEquals(SERVER_COUNT, first.getResidentServerCount() + second.getResidentServerCount() + third.getResidentServerCount());
+
+        ring.removeNode("second");
+        transport.unregister("second");
+        assertEquals(0, countOwned(second));
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            third.handleInteraction(slashCommand(serverId, "tag"));
+        }
+        assertEquals(SERVER_COUNT, first.getResidentServerCount() + third.getResidentServerCount());
+    }
+
+    @Test
+    void requiresARepository() {
+        assertThrows(IllegalStateException.class,
+                () -> new ComplexInteractionHandler().setPartitioning("node", ring, transport));
+    }
+
+    private ComplexInteractionHandler node(final String nodeId) {
+        final ComplexInteractionHandler handler = new ComplexInteractionHandler()
+                .setServerCommandRepository(repository, 1000, InteractionExecutors.inline());
+        ring.addNode(nodeId);
+        transport.register(nodeId, handler);
+        return handler.setPartitioning(nodeId, ring, transport);
+    }
+
+    private long serverOwnedBy(final ComplexInteractionHandler handler) {
+        for (long serverId = 1; ; serverId++) {
+            if (handler.ownsServer(serverId)) {
+                return serverId;
+            }
+        }
+    }
+
+    private static int countOwned(final ComplexInteractionHandler handler) {
+        int owned = 0;
+        for (long serverId = 1; serverId <= SERVER_COUNT; serverId++) {
+            owned += handler.ownsServer(serverId) ? 1 : 0;
+        }
+        return owned;
+    }
+
+    private static SlashCommandInteraction slashCommand(final long serverId, final String commandName) {
+        return stub(SlashCommandInteraction.class, (method, args) -> switch (method) {
+            case "getCommandName", "getFullCommandName" -> commandName;
+            case "getRegisteredCommandServerId" -> Optional.of(serverId);
+            default -> null;
+        });
+    }
+
+    private static final class CountingCommand extends ServerSlashCommand {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+
+        private CountingCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+            invocations.incrementAndGet();
+        }
+    }
+
+    /**
+     * A repository shared by all nodes, like a database.
+     */
+    private static final class MapRepository implements ServerCommandRepository {
+
+        private final Map<Long, List<AbstractApplicationCommand>> commands = new ConcurrentHashMap<>();
+
+        @Override
+        public Collection<AbstractApplicationCommand> load(final long serverId) {
+            return commands.getOrDefault(serverId, List.of());
+        }
+
+        @Override
+        public void save(final long serverId, final Collection<AbstractApplicationCommand> serverCommands) {
+            commands.put(serverId, new ArrayList<>(serverCommands));
+        }
+
+        @Override
+        public void delete(final long serverId) {
+            commands.remove(serverId);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SerialLanesTest {
+
+    @Test
+    void runsTasksOfTheSameKeyInOrderAndReclaimsIdleLanes() throws InterruptedException {
+        final int keys = 16;
+        final int tasksPerKey = 2_000;
+        final SerialLanes lanes = new SerialLanes();
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        final List<List<Integer>> executed = new ArrayList<>();
+        for (int key = 0; key < keys; key++) {
+            executed.add(Collections.synchronizedList(new ArrayList<>()));
+        }
+        final CountDownLatch done = new CountDownLatch(keys * tasksPerKey);
+
+        try {
+            for (int i = 0; i < tasksPerKey; i++) {
+                for (int key = 0; key < keys; key++) {
+                    final List<Integer> keyExecutions = executed.get(key);
+                    final int sequence = i;
+                    lanes.execute(key, executor, () -> {
+                        keyExecutions.add(sequence);
+                        done.countDown();
+                    });
+                }
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdown();
+        }
+
+        for (final List<Integer> keyExecutions : executed) {
+            assertEquals(tasksPerKey, keyExecutions.size());
+            for (int i = 0; i < tasksPerKey; i++) {
+                assertEquals(i, (int) keyExecutions.get(i));
+            }
+        }
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(0, lanes.size());
+    }
+
+    @Test
+    void runsTasksOnTheCurrentThreadIfTheExecutorFails() {
+        final SerialLanes lanes = new SerialLanes();
+        final List<Integer> executed = new ArrayList<>();
+
+        lanes.execute(1, task -> {
+            throw new IllegalStateException("Shut down");
+        }, () -> executed.add(1));
+        lanes.execute(1, Runnable::run, () -> executed.add(2));
+
+        assertEquals(List.of(1, 2), executed);
+        assertEquals(0, lanes.size());
+    }
+
+    @Test
+    void runsEveryTaskOnTheExecutorItWasSubmittedWith() throws InterruptedException {
+        final SerialLanes lanes = new SerialLanes();
+        final ExecutorService first = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "first"));
+        final ExecutorService second = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "second"));
+        final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+        final int taskCount = 1_000;
+        final CountDownLatch done = new CountDownLatch(taskCount);
+
+        try {
+            for (int i = 0; i < taskCount; i++) {
+                final ExecutorService executor = i % 3 == 0 ? second : first;
+                final int sequence = i;
+                lanes.execute(1, executor, () -> {
+                    executed.add(sequence + ":" + Thread.currentThread().getName());
+                    done.countDown();
+                });
+            }
+            assertTrue(done.await(30, TimeUnit.SECONDS));
+        } finally {
+            first.shutdown();
+            second.shutdown();
+        }
+
+        for (int i = 0; i < taskCount; i++) {
+            assertEquals(i + ":" + (i % 3 == 0 ? "second" : "first"), executed.get(i));
+        }
+    }
+}
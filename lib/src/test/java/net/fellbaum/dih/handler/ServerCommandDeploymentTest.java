@@ -0,0 +1,199 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ServerCommandDeploymentTest {
+
+    @Test
+    void boundsTheAmountOfConcurrentOverwrites() throws Exception {
+        final StubRestLayer rest = new StubRestLayer();
+        try {
+            final List<Integer> remaining = new ArrayList<>();
+            final ServerCommandDeploymentResult result = new ServerCommandDeployment(serverIds(200), rest::overwrite)
+                    .setMaximumConcurrency(4)
+                    .setProgressListener(progress -> {
+                        synchronized (remaining) {
+                            remaining.add(progress.remaining());
+                        }
+                    })
+                    .start().get(10, TimeUnit.SECONDS);
+
+            assertEquals(200, result.deployed());
+            assertTrue(result.isComplete());
+            assertEquals(200, rest.calls.get());
+            assertTrue(rest.maximumConcurrent.get() <= 4);
+            assertEquals(200, remaining.size());
+            assertTrue(remaining.contains(0));
+        } finally {
+            rest.close();
+        }
+    }
+
+    @Test
+    void retriesRateLimitedOverwritesWithLowerConcurrency() throws Exception {
+        final StubRestLayer rest = new StubRestLayer();
+        rest.rateLimitedOnce.addAll(Set.of(30L, 31L, 32L));
+        try {
+            final ServerCommandDeployment deployment = new ServerCommandDeployment(serverIds(50), rest::overwrite)
+                    .setMaximumConcurrency(8)
+                    .setRetryDelay(Duration.ofMillis(1))
+                    .setSlowThreshold(Duration.ofMinutes(1))
+                    .setRateLimitPredicate(RateLimited.class::isInstance);
+            rest.deployment = deployment;
+            final ServerCommandDeploymentResult result = deployment.start().get(10, TimeUnit.SECONDS);
+
+            assertEquals(50, result.deployed());
+            assertTrue(result.isComplete());
+            assertEquals(53, rest.calls.get());
+            // The concurrency only grows unless an overwrite is rate limited
+            assertTrue(rest.minimumConcurrencyAfterRateLimit.get() < rest.maximumConcurrencyBeforeRateLimit.get(),
+                    rest.minimumConcurrencyAfterRateLimit.get() + " after, " + rest.maximumConcurrencyBeforeRateLimit.get() + " before");
+        } finally {
+            rest.close();
+        }
+    }
+
+    @Test
+    void deploysOverwritesWhichCompleteImmediately() throws Exception {
+        final AtomicInteger calls = new AtomicInteger();
+        final ServerCommandDeploymentResult result = new ServerCommandDeployment(serverIds(20_000), serverId -> {
+            calls.incrementAndGet();
+            return CompletableFuture.completedFuture(null);
+        }).start().get(10, TimeUnit.SECONDS);
+
+        assertEquals(20_000, result.deployed());
+        assertEquals(20_000, calls.get());
+    }
+
+    @Test
+    void resumesFromTheCheckpoint() throws Exception {
+        final Path checkpoint = Files.createTempFile("deployment", ".checkpoint");
+        final StubRestLayer rest = new StubRestLayer();
+        rest.failing.add(3L);
+        try {
+            final ServerCommandDeploymentResult first = new ServerCommandDeployment(serverIds(10), serverId -> "v1", rest::overwrite)
+                    .setCheckpoint(checkpoint)
+                    .start().get(10, TimeUnit.SECONDS);
+            assertEquals(9, first.deployed());
+            assertEquals(Set.of(3L), first.failures().keySet());
+            assertEquals(9, Files.readAllLines(checkpoint).size());
+
+            rest.failing.clear();
+            rest.calls.set(0);
+            final ServerCommandDeploymentResult second = new ServerCommandDeployment(serverIds(10), serverId -> "v1", rest::overwrite)
+                    .setCheckpoint(checkpoint)
+                    .start().get(10, TimeUnit.SECONDS);
+            assertEquals(1, second.deployed());
+            assertEquals(9, second.skipped());
+            assertEquals(1, rest.calls.get());
+            assertFalse(Files.exists(checkpoint));
+        } finally {
+            rest.close();
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    @Test
+    void deploysServersWhoseCommandsChangedSinceTheCheckpoint() throws Exception {
+        final Path checkpoint = Files.createTempFile("deployment", ".checkpoint");
+        final StubRestLayer rest = new StubRestLayer();
+        rest.failing.add(3L);
+        try {
+            new ServerCommandDeployment(serverIds(10), serverId -> "v1", rest::overwrite)
+                    .setCheckpoint(checkpoint)
+                    .start().get(10, TimeUnit.SECONDS);
+
+            rest.failing.clear();
+            rest.calls.set(0);
+            // The commands of the even servers changed, the servers without a fingerprint are never skipped
+            final ServerCommandDeploymentResult second = new ServerCommandDeployment(serverIds(10),
+                    serverId -> serverId % 2 == 0 ? "v2" : serverId == 9 ? null : "v1", rest::overwrite)
+                    .setCheckpoint(checkpoint)
+                    .start().get(10, TimeUnit.SECONDS);
+            assertEquals(7, second.deployed());
+            assertEquals(3, second.skipped());
+            assertEquals(7, rest.calls.get());
+        } finally {
+            rest.close();
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    private static List<Long> serverIds(final int count) {
+        final List<Long> serverIds = new ArrayList<>();
+        for (long serverId = 1; serverId <= count; serverId++) {
+            serverIds.add(serverId);
+        }
+        return serverIds;
+    }
+
+    private static final class RateLimited extends RuntimeException {
+    }
+
+    /**
+     * Completes overwrites asynchronously like the REST client of Javacord.
+     */
+    private static final class StubRestLayer {
+
+        private final ExecutorService executor = Executors.newFixedThreadPool(16);
+        private final AtomicInteger calls = new AtomicInteger();
+        private final AtomicInteger concurrent = new AtomicInteger();
+        private final AtomicInteger maximumConcurrent = new AtomicInteger();
+        private final Set<Long> rateLimitedOnce = ConcurrentHashMap.newKeySet();
+        private final Set<Long> failing = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger maximumConcurrencyBeforeRateLimit = new AtomicInteger();
+        private final AtomicInteger minimumConcurrencyAfterRateLimit = new AtomicInteger(Integer.MAX_VALUE);
+        private volatile ServerCommandDeployment deployment;
+        private volatile boolean rateLimitedBefore;
+
+        private CompletableFuture<Void> overwrite(final long serverId) {
+            calls.incrementAndGet();
+            if (deployment != null) {
+                final int concurrency = deployment.getConcurrency();
+                if (rateLimitedBefore) {
+                    minimumConcurrencyAfterRateLimit.accumulateAndGet(concurrency, Math::min);
+                } else {
+                    maximumConcurrencyBeforeRateLimit.accumulateAndGet(concurrency, Math::max);
+                }
+            }
+            maximumConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            return CompletableFuture.runAsync(() -> {
+                try {
+                    Thread.sleep(1);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                concurrent.decrementAndGet();
+                if (rateLimitedOnce.remove(serverId)) {
+                    rateLimitedBefore = true;
+                    throw new RateLimited();
+                }
+                if (failing.contains(serverId)) {
+                    throw new IllegalStateException("Missing access");
+                }
+            }, executor);
+        }
+
+        private void close() {
+            executor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package net.fellbaum.dih.handler;
+
+import net.fellbaum.dih.interaction.applicationcommand.MessageContextMenuCommand;
+import net.fellbaum.dih.interaction.applicationcommand.ServerSlashCommand;
+import org.javacord.api.interaction.MessageContextMenuInteraction;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ServerCommandTableTest {
+
+    @Test
+    void storesAllCommandKindsOfAServerInOneEntry() {
+        final ServerCommandTable table = new ServerCommandTable();
+        final TestSlashCommand tag = new TestSlashCommand("tag");
+        final TestSlashCommand settings = new TestSlashCommand("settings");
+        final TestMessageCommand report = new TestMessageCommand("Report");
+        table.compute(1, commands -> commands.with(tag).with(settings).with(report));
+
+        final ServerCommands commands = table.get(1);
+        assertSame(tag, commands.getSlashCommand("tag"));
+        assertSame(settings, commands.getSlashCommand("settings"));
+        assertNull(commands.getSlashCommand("Report"));
+        assertSame(report, commands.getMessageContextMenuCommand("Report"));
+        assertNull(commands.getUserContextMenuCommand("Report"));
+        assertEquals(3, commands.size());
+        assertNull(table.get(2));
+    }
+
+    @Test
+    void growsAndReusesSlotsOfRemovedServers() {
+        final ServerCommandTable table = new ServerCommandTable();
+        final TestSlashCommand tag = new TestSlashCommand("tag");
+        for (long serverId = 1; serverId <= 10_000; serverId++) {
+            table.compute(serverId, commands -> commands.with(tag));
+        }
+        for (long serverId = 1; serverId <= 10_000; serverId += 2) {
+            table.remove(serverId);
+        }
+        table.compute(1, commands -> commands.with(tag));
+
+        assertEquals(5_001, table.size());
+        assertSame(tag, table.get(1).getSlashCommand("tag"));
+        assertNull(table.get(3));
+        assertSame(tag, table.get(10_000).getSlashCommand("tag"));
+        final AtomicInteger visited = new AtomicInteger();
+        table.forEachServerId(serverId -> visited.incrementAndGet());
+        assertEquals(5_001, visited.get());
+    }
+
+    @Test
+    void replacesCommandsWithTheSameNameAndHash() {
+        final ServerCommandTable table = new ServerCommandTable();
+        // "Aa" and "BB" have the same hash code
+        final TestSlashCommand first = new TestSlashCommand("Aa");
+        final TestSlashCommand second = new TestSlashCommand("BB");
+        final TestSlashCommand replacement = new TestSlashCommand("Aa");
+        table.compute(7, commands -> commands.with(first).with(second).with(replacement));
+
+        assertSame(replacement, table.get(7).getSlashCommand("Aa"));
+        assertSame(second, table.get(7).getSlashCommand("BB"));
+        assertEquals(2, table.get(7).size());
+    }
+
+    @Test
+    void evictsServersWhichWereNotLookedUpRecently() {
+        final ServerCommandTable table = new ServerCommandTable();
+        table.setMaximumSize(3);
+        final TestSlashCommand tag = new TestSlashCommand("tag");
+        for (long serverId = 1; serverId <= 3; serverId++) {
+            table.compute(serverId, commands -> commands.with(tag));
+        }
+        // Inserting the fourth server clears the marks set by inserting, so the next insert evicts
+        table.compute(4, commands -> commands.with(tag));
+        table.get(2);
+        table.get(3);
+        table.get(4);
+        table.compute(5, commands -> commands.with(tag));
+
+        assertEquals(3, table.size());
+        assertEquals(2, table.getEvictionCount());
+        assertNull(table.get(1));
+        assertSame(tag, table.get(5).getSlashCommand("tag"));
+    }
+
+    private static final class TestSlashCommand extends ServerSlashCommand {
+
+        private TestSlashCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+        }
+    }
+
+    private static final class TestMessageCommand extends MessageContextMenuCommand {
+
+        private TestMessageCommand(final String name) {
+            super(name, false);
+        }
+
+        @Override
+        public void runCommand(final MessageContextMenuInteraction interaction) {
+        }
+    }
+}
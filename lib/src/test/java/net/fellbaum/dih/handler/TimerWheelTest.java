@@ -0,0 +1,39 @@
+package net.fellbaum.dih.handler;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    @Test
+    void runsTasksAfterTheirDelayUnlessCancelled() throws InterruptedException {
+        final TimerWheel timerWheel = new TimerWheel("test-timer", 5, TimeUnit.MILLISECONDS, 8);
+        try {
+            final CountDownLatch expired = new CountDownLatch(1);
+            final AtomicLong expiredAt = new AtomicLong();
+            final AtomicBoolean cancelledRan = new AtomicBoolean();
+            final long scheduledAt = System.nanoTime();
+
+            // The delay spans multiple rotations of the 8 bucket wheel
+            timerWheel.schedule(() -> {
+                expiredAt.set(System.nanoTime());
+                expired.countDown();
+            }, TimeUnit.MILLISECONDS.toNanos(100));
+            final TimerWheel.Timeout cancelled = timerWheel.schedule(() -> cancelledRan.set(true), TimeUnit.MILLISECONDS.toNanos(20));
+            assertTrue(cancelled.cancel());
+
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+            assertTrue(expiredAt.get() - scheduledAt >= TimeUnit.MILLISECONDS.toNanos(100));
+            assertFalse(cancelledRan.get());
+        } finally {
+            timerWheel.stop();
+        }
+    }
+}
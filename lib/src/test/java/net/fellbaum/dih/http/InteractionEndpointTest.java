@@ -0,0 +1,190 @@
+package net.fellbaum.dih.http;
+
+import net.fellbaum.dih.TestInteractions.TestGlobalCommand;
+import net.fellbaum.dih.handler.InteractionPreRouter;
+import net.fellbaum.dih.handler.SimpleInteractionHandler;
+import net.fellbaum.dih.interaction.applicationcommand.GlobalSlashCommand;
+import org.javacord.api.interaction.SlashCommandInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.Signature;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InteractionEndpointTest {
+
+    private static final String COMMAND = "{\"id\":\"1\",\"application_id\":\"2\",\"type\":2,\"token\":\"abc\","
+            + "\"guild_id\":\"1234567890\",\"data\":{\"id\":\"3\",\"name\":\"ping\",\"type\":1,\"options\":[]}}";
+
+    private final KeyPair keyPair;
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    InteractionEndpointTest() throws GeneralSecurityException {
+        keyPair = KeyPairGenerator.getInstance("Ed25519").generateKeyPair();
+    }
+
+    @Test
+    void answersPingsAndRejectsInvalidSignatures() throws Exception {
+        try (InteractionEndpoint endpoint = start(interaction -> CompletableFuture.completedFuture(null))) {
+            final HttpResponse<String> pong = post(endpoint, "{\"type\":1}", true);
+            assertEquals(200, pong.statusCode());
+            assertEquals("{\"type\":1}", pong.body());
+
+            assertEquals(401, post(endpoint, "{\"type\":1}", false).statusCode());
+        }
+    }
+
+    @Test
+    void returnsTheResponseOfTheBridgeInline() throws Exception {
+        final AtomicReference<RawInteraction> received = new AtomicReference<>();
+        try (InteractionEndpoint endpoint = start(interaction -> {
+            received.set(interaction);
+            return CompletableFuture.completedFuture("{\"type\":4,\"data\":{\"content\":\"Pong!\"}}");
+        })) {
+            final HttpResponse<String> response = post(endpoint, COMMAND, true);
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"type\":4,\"data\":{\"content\":\"Pong!\"}}", response.body());
+        }
+
+        final RawInteraction interaction = received.get();
+        assertEquals(RawInteraction.APPLICATION_COMMAND, interaction.getType());
+        assertEquals("ping", interaction.getCommandName().orElseThrow());
+        assertFalse(interaction.getCustomId().isPresent());
+        assertEquals(1234567890L, interaction.getServerId().getAsLong());
+        assertEquals("abc", interaction.getToken());
+        assertFalse(RawInteraction.parse(COMMAND.replace("1234567890", "not a snowflake")).getServerId().isPresent());
+    }
+
+    @Test
+    void defersTheResponseIfTheBridgeIsSlow() throws Exception {
+        final CompletableFuture<String> never = new CompletableFuture<>();
+        try (InteractionEndpoint endpoint = start(interaction -> never)) {
+            endpoint.setResponseTimeout(Duration.ofMillis(50));
+            final HttpResponse<String> response = post(endpoint, COMMAND, true);
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"type\":5}", response.body());
+            assertFalse(never.isDone());
+        }
+    }
+
+    @Test
+    void answersUnmatchedInteractionsWithoutTheBridge() throws Exception {
+        final AtomicReference<RawInteraction> received = new AtomicReference<>();
+        try (InteractionEndpoint endpoint = start(interaction -> {
+            received.set(interaction);
+            return CompletableFuture.completedFuture(null);
+        })) {
+            endpoint.setPreRouter(new InteractionPreRouter(new SimpleInteractionHandler()))
+                    .setUnmatchedResponse("{\"type\":4,\"data\":{\"content\":\"Unknown\"}}");
+            final HttpResponse<String> response = post(endpoint, COMMAND, true);
+            assertEquals(200, response.statusCode());
+            assertEquals("{\"type\":4,\"data\":{\"content\":\"Unknown\"}}", response.body());
+            // Autocompletes cannot be answered with a message
+            assertEquals("{\"type\":8,\"data\":{\"choices\":[]}}",
+                    post(endpoint, COMMAND.replace("\"type\":2", "\"type\":4"), true).body());
+            assertEquals("{\"type\":1}", post(endpoint, "{\"type\":1}", true).body());
+        }
+        assertNull(received.get());
+    }
+
+    @Test
+    void passesPreRoutedInteractionsToTheirCommand() throws Exception {
+        final SimpleInteractionHandler handler = new SimpleInteractionHandler()
+                .registerInteraction(new RespondingCommand("ping"));
+        final AtomicReference<RawInteraction> fallback = new AtomicReference<>();
+        try (InteractionEndpoint endpoint = start(HttpInteractionBridge.dispatchingToTargets(interaction -> {
+            fallback.set(interaction);
+            return CompletableFuture.completedFuture(null);
+        }))) {
+            endpoint.setPreRouter(new InteractionPreRouter(handler));
+            assertEquals("{\"type\":4,\"data\":{\"content\":\"Pong from 1234567890\"}}", post(endpoint, COMMAND, true).body());
+            assertNull(fallback.get());
+
+            // Resolved interactions of commands which cannot answer raw interactions reach the fallback
+            handler.registerInteraction(new TestGlobalCommand("tag"));
+            assertEquals("{\"type\":5}", post(endpoint, COMMAND.replace("\"ping\"", "\"tag\""), true).body());
+            assertEquals("tag", fallback.get().getCommandName().orElseThrow());
+        }
+    }
+
+    @Test
+    void rejectsMalformedBodies() throws Exception {
+        try (InteractionEndpoint endpoint = start(interaction -> CompletableFuture.completedFuture(null))) {
+            assertEquals(400, post(endpoint, "{\"type\":", true).statusCode());
+            assertEquals(400, post(endpoint, "[1,2]", true).statusCode());
+        }
+    }
+
+    @Test
+    void parsesJson() {
+        final Object parsed = Json.parse(" {\"a\": [1, -2.5e1, \"x\\\"\\u0041\", true, null], \"b\": {}} ");
+        final Map<?, ?> object = (Map<?, ?>) parsed;
+        final List<?> array = (List<?>) object.get("a");
+        assertEquals(1L, ((Long) array.get(0)).longValue());
+        assertEquals(Double.valueOf(-25.0), array.get(1));
+        assertEquals("x\"A", array.get(2));
+        assertEquals(Boolean.TRUE, array.get(3));
+        assertNull(array.get(4));
+        assertTrue(((Map<?, ?>) object.get("b")).isEmpty());
+        assertEquals("\"a\\\"b\\n\"", Json.quote("a\"b\n"));
+    }
+
+    private InteractionEndpoint start(final HttpInteractionBridge bridge) throws IOException {
+        final byte[] encoded = keyPair.getPublic().getEncoded();
+        final String publicKey = HexFormat.of().formatHex(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length));
+        return new InteractionEndpoint(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), publicKey, bridge).start();
+    }
+
+    private HttpResponse<String> post(final InteractionEndpoint endpoint, final String body, final boolean validSignature)
+            throws GeneralSecurityException, IOException, InterruptedException {
+        final String timestamp = Long.toString(System.currentTimeMillis() / 1000);
+        final Signature signer = Signature.getInstance("Ed25519");
+        signer.initSign(keyPair.getPrivate());
+        signer.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        signer.update((validSignature ? body : body + " ").getBytes(StandardCharsets.UTF_8));
+        final HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + endpoint.getPort() + "/interactions"))
+                .header("X-Signature-Ed25519", HexFormat.of().formatHex(signer.sign()))
+                .header("X-Signature-Timestamp", timestamp)
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static final class RespondingCommand extends GlobalSlashCommand implements RawInteractionResponder {
+
+        private RespondingCommand(final String name) {
+            super(name, "Test command");
+        }
+
+        @Override
+        public void runCommand(final SlashCommandInteraction interaction) {
+        }
+
+        @Override
+        public CompletableFuture<String> respondToRawInteraction(final RawInteraction interaction) {
+            return CompletableFuture.completedFuture("{\"type\":4,\"data\":{\"content\":\"Pong from "
+                    + interaction.getServerId().getAsLong() + "\"}}");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import org.javacord.api.interaction.SlashCommandOptionChoice;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AutocompleteChoiceIndexTest {
+
+    private static final List<String> CITIES = List.of("Bern", "berlin", "Bergen", "Boston", "Brasilia", "Hamburg", "Oldenburg", "Rome");
+
+    @Test
+    void findsPrefixMatchesCaseInsensitivelyInOrder() {
+        final AutocompleteChoiceIndex index = AutocompleteChoiceIndex.ofChoices(choices(CITIES), false);
+
+        assertEquals(List.of("Bergen", "berlin", "Bern"), names(index.search("BER")));
+        assertEquals(List.of("berlin"), names(index.search("berl")));
+        assertEquals(List.of(), names(index.search("x")));
+        assertEquals(List.of(), names(index.search("Romeo")));
+        assertEquals(CITIES.size(), index.search("").size());
+        assertTrue(index.getRefinementFilter().test(choice("Berlin"), "bERl"));
+    }
+
+    @Test
+    void addsSubstringMatchesRankedByPosition() {
+        final AutocompleteChoiceIndex index = AutocompleteChoiceIndex.ofChoices(choices(CITIES), true);
+
+        assertEquals(List.of("Hamburg", "Oldenburg"), names(index.search("BUR")));
+        assertEquals(List.of("Bergen", "berlin", "Bern", "Boston", "Brasilia", "Hamburg", "Oldenburg"), names(index.search("b")));
+        assertNull(index.getRefinementFilter());
+    }
+
+    @Test
+    void selectsAtMostTheMaximumAmountOfChoices() {
+        final List<String> names = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            names.add("item" + (char) ('a' + i % 26) + i);
+            names.add("x" + i + "item");
+        }
+        final AutocompleteChoiceIndex index = AutocompleteChoiceIndex.ofChoices(choices(names), true);
+
+        final List<String> prefixMatches = names(index.search("ITEM"));
+        assertEquals(AutocompleteChoiceProvider.MAX_CHOICES, prefixMatches.size());
+        assertEquals("itema0", prefixMatches.get(0));
+
+        final List<String> substringMatches = names(index.search("tem"));
+        assertEquals(AutocompleteChoiceProvider.MAX_CHOICES, substringMatches.size());
+        assertTrue(substringMatches.stream().allMatch(name -> name.startsWith("item")));
+    }
+
+    private static List<String> names(final List<SlashCommandOptionChoice> choices) {
+        return choices.stream().map(SlashCommandOptionChoice::getName).collect(Collectors.toList());
+    }
+
+    private static List<SlashCommandOptionChoice> choices(final List<String> names) {
+        return names.stream().map(AutocompleteChoiceIndexTest::choice).collect(Collectors.toList());
+    }
+
+    private static SlashCommandOptionChoice choice(final String name) {
+        return stub(SlashCommandOptionChoice.class, (method, args) -> method.equals("getName") ? name : null);
+    }
+}
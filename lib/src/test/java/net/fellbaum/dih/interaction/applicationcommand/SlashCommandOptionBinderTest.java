@@ -0,0 +1,116 @@
+package net.fellbaum.dih.interaction.applicationcommand;
+
+import net.fellbaum.dih.TestInteractions.TestGlobalCommand;
+import net.fellbaum.dih.interaction.OptionName;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.interaction.SlashCommandInteractionOption;
+import org.javacord.api.interaction.SlashCommandOption;
+import org.javacord.api.interaction.SlashCommandOptionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SlashCommandOptionBinderTest {
+
+    private record BanOptions(User user, Optional<String> reason, @OptionName("delete-days") Long deleteDays,
+                              int limit) {
+    }
+
+    private static final User USER = stub(User.class, (method, args) -> null);
+
+    private static final List<SlashCommandOption> OPTIONS = List.of(
+            option("user", SlashCommandOptionType.USER, true),
+            option("reason", SlashCommandOptionType.STRING, false),
+            option("delete-days", SlashCommandOptionType.LONG, false),
+            option("limit", SlashCommandOptionType.LONG, true),
+            option("silent", SlashCommandOptionType.BOOLEAN, false));
+
+    @Test
+    void bindsArgumentsInAnyOrder() {
+        final SlashCommandOptionBinder<BanOptions> binder = SlashCommandOptionBinder.of(BanOptions.class, OPTIONS);
+        final BanOptions options = binder.bind(List.of(
+                argument("limit", 5L),
+                argument("silent", true),
+                argument("reason", "spam"),
+                argument("user", USER)));
+
+        assertSame(USER, options.user());
+        assertEquals(Optional.of("spam"), options.reason());
+        assertNull(options.deleteDays());
+        assertEquals(5, options.limit());
+        assertEquals(OPTIONS, binder.getOptions());
+    }
+
+    @Test
+    void bindsMissingOptionalArgumentsAsEmpty() {
+        final BanOptions options = SlashCommandOptionBinder.of(BanOptions.class, OPTIONS)
+                .bind(List.of(argument("user", USER), argument("limit", 1L), argument("delete-days", 7L)));
+
+        assertEquals(Optional.empty(), options.reason());
+        assertEquals(7L, options.deleteDays().longValue());
+    }
+
+    @Test
+    void rejectsRecordsNotMatchingTheOptions() {
+        // No option for the component
+        assertThrows(IllegalArgumentException.class, () -> SlashCommandOptionBinder.of(BanOptions.class, OPTIONS.subList(0, 3)));
+        // Wrong value type
+        assertThrows(IllegalArgumentException.class, () -> SlashCommandOptionBinder.of(BanOptions.class,
+                option("user", SlashCommandOptionType.ROLE, true), OPTIONS.get(1), OPTIONS.get(2), OPTIONS.get(3)));
+        // Primitive component of an option which is not required
+        assertThrows(IllegalArgumentException.class, () -> SlashCommandOptionBinder.of(BanOptions.class,
+                OPTIONS.get(0), OPTIONS.get(1), OPTIONS.get(2), option("limit", SlashCommandOptionType.LONG, false)));
+    }
+
+    @Test
+    void rejectsMissingRequiredArguments() {
+        final SlashCommandOptionBinder<BanOptions> binder = SlashCommandOptionBinder.of(BanOptions.class, OPTIONS);
+        assertThrows(IllegalArgumentException.class, () -> binder.bind(List.of(argument("user", USER))));
+    }
+
+    @Test
+    void addsOptionsToACommandOnlyOnce() {
+        final SlashCommandOptionBinder<BanOptions> binder = SlashCommandOptionBinder.of(BanOptions.class, OPTIONS);
+        final TestGlobalCommand command = new TestGlobalCommand("ban");
+        command.addOptions(binder, (interaction, options) -> {
+        });
+
+        assertThrows(IllegalStateException.class, () -> command.addOptions(binder, (interaction, options) -> {
+        }));
+        assertThrows(IllegalStateException.class, () -> command.addSubcommand(Subcommand.of("user", "Ban a user", interaction -> {
+        })));
+
+        final TestGlobalCommand withSubcommand = new TestGlobalCommand("ban");
+        withSubcommand.addSubcommand(Subcommand.of("user", "Ban a user", interaction -> {
+        }));
+        assertThrows(IllegalStateException.class, () -> withSubcommand.addOptions(binder, (interaction, options) -> {
+        }));
+    }
+
+    private static SlashCommandOption option(final String name, final SlashCommandOptionType type, final boolean required) {
+        return stub(SlashCommandOption.class, (method, args) -> switch (method) {
+            case "getName" -> name;
+            case "getType" -> type;
+            case "isRequired" -> required;
+            default -> null;
+        });
+    }
+
+    private static SlashCommandInteractionOption argument(final String name, final Object value) {
+        return stub(SlashCommandInteractionOption.class, (method, args) -> switch (method) {
+            case "getName" -> name;
+            case "getStringValue" -> Optional.of(value).filter(String.class::isInstance);
+            case "getLongValue" -> Optional.of(value).filter(Long.class::isInstance);
+            case "getBooleanValue" -> Optional.of(value).filter(Boolean.class::isInstance);
+            case "getUserValue" -> Optional.of(value).filter(User.class::isInstance);
+            default -> null;
+        });
+    }
+}
@@ -0,0 +1,69 @@
+package net.fellbaum.dih.interaction.component;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CustomIdCodecTest {
+
+    private enum Mode {
+        VIEW, EDIT
+    }
+
+    private record Payload(int page, long value, long userId, boolean confirmed, Mode mode, String tag) {
+    }
+
+    private static final CustomIdCodec<Payload> CODEC = new CustomIdCodec<>("ticket:",
+            (payload, writer) -> writer.writeInt(payload.page())
+                    .writeLong(payload.value())
+                    .writeSnowflake(payload.userId())
+                    .writeBoolean(payload.confirmed())
+                    .writeEnum(payload.mode())
+                    .writeString(payload.tag()),
+            reader -> new Payload(reader.readInt(), reader.readLong(), reader.readSnowflake(),
+                    reader.readBoolean(), reader.readEnum(Mode.class), reader.readString()));
+
+    @Test
+    void roundTripsAllFieldTypes() {
+        final Payload[] payloads = {
+                new Payload(0, 0, 0, false, Mode.VIEW, ""),
+                new Payload(-1, Long.MIN_VALUE, Long.MAX_VALUE, true, Mode.EDIT, "a:b"),
+                new Payload(Integer.MAX_VALUE, Long.MAX_VALUE, 1046427946113822790L, true, Mode.VIEW, "\u00fc"),
+                new Payload(Integer.MIN_VALUE, -42, -1, false, Mode.EDIT, "tag"),
+        };
+        for (final Payload payload : payloads) {
+            final String customId = CODEC.encode(payload);
+            assertTrue(Pattern.compile(CODEC.getCustomIdRegex()).matcher(customId).matches());
+            assertEquals(payload, CODEC.decode(customId));
+        }
+    }
+
+    @Test
+    void encodesSnowflakesShorterThanDecimalText() {
+        final String customId = CODEC.encode(new Payload(1, 0, 1046427946113822790L, false, Mode.VIEW, ""));
+        assertEquals("ticket:".length() + 1 + 1 + 11 + 1 + 1 + 1, customId.length());
+    }
+
+    @Test
+    void rejectsInvalidCustomIds() {
+        assertThrows(IllegalArgumentException.class, () -> CODEC.decode("other:0"));
+        assertThrows(IllegalArgumentException.class, () -> CODEC.decode("ticket:"));
+        assertThrows(IllegalArgumentException.class, () -> CODEC.decode(CODEC.encode(new Payload(1, 1, 1, true, Mode.VIEW, "")) + "0"));
+        assertThrows(IllegalArgumentException.class, () -> CODEC.encode(new Payload(1, 1, 1, true, Mode.VIEW, "x".repeat(100))));
+    }
+
+    @Test
+    void rejectsValuesExceedingTheirType() {
+        // 12 full characters and the 4 highest bits are the largest long
+        assertEquals(Long.MIN_VALUE, new CustomIdReader("____________F", 0).readLong());
+        assertThrows(IllegalArgumentException.class, () -> new CustomIdReader("____________G", 0).readLong());
+        assertThrows(IllegalArgumentException.class, () -> new CustomIdReader("_____________0", 0).readLong());
+        assertThrows(IllegalArgumentException.class, () -> new CustomIdReader("________0", 0).readInt());
+        assertEquals(-1, new CustomIdReader("F__________", 0).readSnowflake());
+        assertThrows(IllegalArgumentException.class, () -> new CustomIdReader("G0000000000", 0).readSnowflake());
+    }
+}
@@ -0,0 +1,48 @@
+package net.fellbaum.dih.interaction.component;
+
+import net.fellbaum.dih.interaction.OptionName;
+import org.javacord.api.interaction.ModalInteraction;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Optional;
+
+import static net.fellbaum.dih.TestInteractions.stub;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ModalInputBinderTest {
+
+    private record Feedback(String subject, @OptionName("feedback-body") Optional<String> body, String contact) {
+    }
+
+    private record InvalidInputs(String subject, int rating) {
+    }
+
+    @Test
+    void bindsTextInputsByCustomId() {
+        final Feedback feedback = ModalInputBinder.of(Feedback.class)
+                .bind(modal(Map.of("subject", "Bug", "feedback-body", "It crashes")));
+
+        assertEquals("Bug", feedback.subject());
+        assertEquals(Optional.of("It crashes"), feedback.body());
+        assertNull(feedback.contact());
+    }
+
+    @Test
+    void bindsMissingOptionalInputsAsEmpty() {
+        assertEquals(Optional.empty(), ModalInputBinder.of(Feedback.class).bind(modal(Map.of("subject", "Bug"))).body());
+    }
+
+    @Test
+    void rejectsComponentsWhichAreNoStrings() {
+        assertThrows(IllegalArgumentException.class, () -> ModalInputBinder.of(InvalidInputs.class));
+    }
+
+    private static ModalInteraction modal(final Map<String, String> inputs) {
+        return stub(ModalInteraction.class, (method, args) -> method.equals("getTextInputValueByCustomId")
+                ? Optional.ofNullable(inputs.get((String) args[0]))
+                : null);
+    }
+}
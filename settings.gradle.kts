@@ -8,4 +8,4 @@
  */
 
 rootProject.name = "discord-interaction-handler"
-include("lib")
+include("lib", "dih-processor")